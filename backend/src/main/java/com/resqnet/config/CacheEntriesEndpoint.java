@@ -0,0 +1,170 @@
+package com.resqnet.config;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /actuator/cacheentries}) listing the live entries of
+ * every cache with their remaining TTL (and serialized size for Redis), so TTLs can be tuned
+ * from real payloads rather than guesses.
+ */
+@Component
+@Endpoint(id = "cacheentries")
+public class CacheEntriesEndpoint {
+
+    private static final int MAX_ENTRIES_PER_CACHE = 500;
+
+    private final ObjectProvider<CacheManager> cacheManagers;
+    private final ObjectProvider<RedisConnectionFactory> redisConnectionFactory;
+
+    public CacheEntriesEndpoint(ObjectProvider<CacheManager> cacheManagers,
+                                ObjectProvider<RedisConnectionFactory> redisConnectionFactory) {
+        this.cacheManagers = cacheManagers;
+        this.redisConnectionFactory = redisConnectionFactory;
+    }
+
+    @ReadOperation
+    public Map<String, Object> caches() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        cacheManagers.orderedStream().forEach(manager ->
+                manager.getCacheNames().forEach(name -> result.put(name, describe(manager.getCache(name)))));
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Object> cache(@Selector String name) {
+        return cacheManagers.orderedStream()
+                .map(manager -> manager.getCache(name))
+                .filter(cache -> cache != null)
+                .findFirst()
+                .map(this::describe)
+                .orElse(null);
+    }
+
+    private Map<String, Object> describe(Cache cache) {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("type", cache.getClass().getSimpleName());
+
+        if (cache instanceof RedisCache redisCache) {
+            info.put("ttlSeconds", redisCache.getCacheConfiguration()
+                    .getTtlFunction().getTimeToLive(null, null).toSeconds());
+            info.put("statistics", statistics(redisCache.getStatistics()));
+            info.putAll(redisEntries(redisCache));
+        } else if (cache instanceof CaffeineCache caffeineCache) {
+            info.putAll(caffeineEntries(caffeineCache.getNativeCache()));
+        }
+        return info;
+    }
+
+    private Map<String, Object> statistics(CacheStatistics stats) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hits", stats.getHits());
+        result.put("misses", stats.getMisses());
+        result.put("puts", stats.getPuts());
+        result.put("deletes", stats.getDeletes());
+        long lookups = stats.getHits() + stats.getMisses();
+        result.put("hitRatio", lookups == 0 ? 0.0 : (double) stats.getHits() / lookups);
+        return result;
+    }
+
+    private Map<String, Object> caffeineEntries(com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        Policy<Object, Object> policy = cache.policy();
+        Policy.FixedExpiration<Object, Object> expiry = policy.expireAfterWrite().orElse(null);
+
+        if (expiry != null) {
+            result.put("ttlSeconds", expiry.getExpiresAfter().toSeconds());
+        }
+        policy.eviction().ifPresent(eviction -> result.put("maximumSize", eviction.getMaximum()));
+
+        CacheStats stats = cache.stats();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("hits", stats.hitCount());
+        statistics.put("misses", stats.missCount());
+        statistics.put("evictions", stats.evictionCount());
+        statistics.put("hitRatio", stats.hitRate());
+        result.put("statistics", statistics);
+
+        // In-process values are live objects, so only keys and remaining TTL are reported
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (Object key : cache.asMap().keySet()) {
+            if (entries.size() >= MAX_ENTRIES_PER_CACHE) {
+                break;
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("key", String.valueOf(key));
+            if (expiry != null) {
+                entry.put("ttlSeconds", expiry.ageOf(key)
+                        .map(age -> expiry.getExpiresAfter().minus(age).toSeconds())
+                        .orElse(null));
+            }
+            entries.add(entry);
+        }
+
+        result.put("entryCount", cache.estimatedSize());
+        result.put("truncated", cache.estimatedSize() > entries.size());
+        result.put("entries", entries);
+        return result;
+    }
+
+    private Map<String, Object> redisEntries(RedisCache cache) {
+        RedisConnectionFactory factory = redisConnectionFactory.getIfAvailable();
+        if (factory == null) {
+            return Map.of();
+        }
+
+        String prefix = cache.getCacheConfiguration().getKeyPrefixFor(cache.getName());
+        ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(100).build();
+
+        List<Map<String, Object>> entries = new ArrayList<>();
+        long totalBytes = 0;
+        boolean truncated = false;
+
+        try (RedisConnection connection = factory.getConnection();
+             Cursor<byte[]> keys = connection.keyCommands().scan(options)) {
+            while (keys.hasNext()) {
+                byte[] key = keys.next();
+                if (entries.size() >= MAX_ENTRIES_PER_CACHE) {
+                    truncated = true;
+                    break;
+                }
+                Long size = connection.stringCommands().strLen(key);
+                Long ttl = connection.keyCommands().ttl(key);
+
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("key", new String(key, StandardCharsets.UTF_8).substring(prefix.length()));
+                entry.put("sizeBytes", size);
+                entry.put("ttlSeconds", ttl);
+                entries.add(entry);
+                totalBytes += size != null ? size : 0;
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("entryCount", entries.size());
+        result.put("totalBytes", totalBytes);
+        result.put("truncated", truncated);
+        result.put("entries", entries);
+        return result;
+    }
+}
@@ -0,0 +1,52 @@
+package com.resqnet.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-cache tuning shared by the cache managers ({@code resqnet.cache.*}).
+ * Caches without an explicit entry fall back to {@link #getDefaultTtl()} and
+ * {@link #getDefaultMaximumSize()}; the size bound only applies to the local cache.
+ */
+@ConfigurationProperties(prefix = "resqnet.cache")
+public class CacheSettings {
+
+    private Duration defaultTtl = Duration.ofSeconds(600);
+
+    private long defaultMaximumSize = 1000;
+
+    private Map<String, Spec> caches = new LinkedHashMap<>();
+
+    public Duration getDefaultTtl() { return defaultTtl; }
+    public void setDefaultTtl(Duration defaultTtl) { this.defaultTtl = defaultTtl; }
+
+    public long getDefaultMaximumSize() { return defaultMaximumSize; }
+    public void setDefaultMaximumSize(long defaultMaximumSize) { this.defaultMaximumSize = defaultMaximumSize; }
+
+    public Map<String, Spec> getCaches() { return caches; }
+    public void setCaches(Map<String, Spec> caches) { this.caches = caches; }
+
+    public Duration ttlFor(String cacheName) {
+        Spec spec = caches.get(cacheName);
+        return spec != null && spec.getTtl() != null ? spec.getTtl() : defaultTtl;
+    }
+
+    public long maximumSizeFor(String cacheName) {
+        Spec spec = caches.get(cacheName);
+        return spec != null && spec.getMaximumSize() != null ? spec.getMaximumSize() : defaultMaximumSize;
+    }
+
+    public static class Spec {
+        private Duration ttl;
+        private Long maximumSize;
+
+        public Duration getTtl() { return ttl; }
+        public void setTtl(Duration ttl) { this.ttl = ttl; }
+
+        public Long getMaximumSize() { return maximumSize; }
+        public void setMaximumSize(Long maximumSize) { this.maximumSize = maximumSize; }
+    }
+}
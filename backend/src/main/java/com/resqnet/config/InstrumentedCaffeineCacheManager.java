@@ -0,0 +1,94 @@
+package com.resqnet.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CaffeineCacheManager whose caches report the same load-latency and
+ * clear/evict meters as {@link InstrumentedRedisCacheManager}. Hit/miss/eviction
+ * counts come from Caffeine's own stats and are bound by the actuator.
+ */
+public class InstrumentedCaffeineCacheManager extends CaffeineCacheManager {
+
+    private final MeterRegistry meterRegistry;
+
+    public InstrumentedCaffeineCacheManager(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        // Same null handling as the Redis mode, where null values are cached too
+        setAllowNullValues(true);
+    }
+
+    @Override
+    protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        return new InstrumentedCaffeineCache(name, cache, isAllowNullValues(), meterRegistry);
+    }
+
+    static Caffeine<Object, Object> builder(CacheSettings settings, String name) {
+        return Caffeine.newBuilder()
+                .maximumSize(settings.maximumSizeFor(name))
+                .expireAfterWrite(settings.ttlFor(name))
+                .recordStats();
+    }
+
+    static class InstrumentedCaffeineCache extends CaffeineCache {
+
+        private final Timer loadTimer;
+        private final Timer loadFailureTimer;
+        private final Counter clears;
+        private final Counter evictions;
+
+        InstrumentedCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                                  boolean allowNullValues, MeterRegistry registry) {
+            super(name, cache, allowNullValues);
+            this.loadTimer = Timer.builder("resqnet.cache.load")
+                    .description("Time spent rebuilding a missing cache entry")
+                    .tags("cache", name, "result", "success")
+                    .register(registry);
+            this.loadFailureTimer = Timer.builder("resqnet.cache.load")
+                    .description("Time spent rebuilding a missing cache entry")
+                    .tags("cache", name, "result", "failure")
+                    .register(registry);
+            this.clears = Counter.builder("resqnet.cache.invalidations")
+                    .tags("cache", name, "kind", "clear")
+                    .register(registry);
+            this.evictions = Counter.builder("resqnet.cache.invalidations")
+                    .tags("cache", name, "kind", "evict")
+                    .register(registry);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return super.get(key, () -> {
+                long start = System.nanoTime();
+                try {
+                    T value = valueLoader.call();
+                    loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return value;
+                } catch (Exception e) {
+                    loadFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    throw e;
+                }
+            });
+        }
+
+        @Override
+        public void clear() {
+            clears.increment();
+            super.clear();
+        }
+
+        @Override
+        public void evict(Object key) {
+            evictions.increment();
+            super.evict(key);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.resqnet.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RedisCacheManager whose caches also report load latency, payload size and
+ * clear/evict counts. Hit/miss/put counts come from the writer's statistics
+ * and are bound by the actuator's RedisCacheMetrics.
+ */
+public class InstrumentedRedisCacheManager extends RedisCacheManager {
+
+    private final MeterRegistry meterRegistry;
+
+    public InstrumentedRedisCacheManager(RedisCacheWriter cacheWriter,
+                                         RedisCacheConfiguration defaultConfig,
+                                         Map<String, RedisCacheConfiguration> initialConfigs,
+                                         MeterRegistry meterRegistry) {
+        super(cacheWriter, defaultConfig, true, initialConfigs);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfig) {
+        return new InstrumentedRedisCache(name, getCacheWriter(), cacheConfig, meterRegistry);
+    }
+
+    static class InstrumentedRedisCache extends RedisCache {
+
+        private final Timer loadTimer;
+        private final Timer loadFailureTimer;
+        private final DistributionSummary payloadSize;
+        private final Counter clears;
+        private final Counter evictions;
+
+        InstrumentedRedisCache(String name, RedisCacheWriter cacheWriter,
+                               RedisCacheConfiguration cacheConfig, MeterRegistry registry) {
+            super(name, cacheWriter, cacheConfig);
+            this.loadTimer = Timer.builder("resqnet.cache.load")
+                    .description("Time spent rebuilding a missing cache entry")
+                    .tags("cache", name, "result", "success")
+                    .register(registry);
+            this.loadFailureTimer = Timer.builder("resqnet.cache.load")
+                    .description("Time spent rebuilding a missing cache entry")
+                    .tags("cache", name, "result", "failure")
+                    .register(registry);
+            this.payloadSize = DistributionSummary.builder("resqnet.cache.payload.size")
+                    .description("Serialized size of values written to the cache")
+                    .baseUnit("bytes")
+                    .tags("cache", name)
+                    .register(registry);
+            this.clears = Counter.builder("resqnet.cache.invalidations")
+                    .tags("cache", name, "kind", "clear")
+                    .register(registry);
+            this.evictions = Counter.builder("resqnet.cache.invalidations")
+                    .tags("cache", name, "kind", "evict")
+                    .register(registry);
+        }
+
+        @Override
+        protected <T> T loadCacheValue(Object key, Callable<T> valueLoader) {
+            long start = System.nanoTime();
+            try {
+                T value = super.loadCacheValue(key, valueLoader);
+                loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return value;
+            } catch (RuntimeException e) {
+                loadFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+        }
+
+        @Override
+        protected byte[] serializeCacheValue(Object value) {
+            byte[] bytes = super.serializeCacheValue(value);
+            payloadSize.record(bytes.length);
+            return bytes;
+        }
+
+        @Override
+        public void clear() {
+            clears.increment();
+            super.clear();
+        }
+
+        @Override
+        public void evict(Object key) {
+            evictions.increment();
+            super.evict(key);
+        }
+    }
+}
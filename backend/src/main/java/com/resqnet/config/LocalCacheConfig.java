@@ -0,0 +1,38 @@
+package com.resqnet.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Bounded in-process cache for deployments without Redis
+ * ({@code spring.cache.type=caffeine}). Uses the same cache names, TTLs and
+ * {@code @CacheEvict} semantics as {@link RedisConfig}, plus a per-cache size limit.
+ */
+@Configuration
+// Caching wraps the transaction advice: hits never open a transaction, evictions run after commit
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "caffeine")
+@EnableConfigurationProperties(CacheSettings.class)
+public class LocalCacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(CacheSettings cacheSettings, MeterRegistry meterRegistry) {
+        InstrumentedCaffeineCacheManager cacheManager = new InstrumentedCaffeineCacheManager(meterRegistry);
+
+        // Caches created on demand get the defaults
+        cacheManager.setCaffeine(InstrumentedCaffeineCacheManager.builder(cacheSettings, ""));
+
+        // Declared caches are created eagerly so the actuator binds their metrics at startup
+        cacheSettings.getCaches().keySet().forEach(name ->
+                cacheManager.registerCustomCache(name,
+                        InstrumentedCaffeineCacheManager.builder(cacheSettings, name).build()));
+
+        return cacheManager;
+    }
+}
@@ -0,0 +1,74 @@
+package com.resqnet.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections for {@code @Transactional(readOnly = true)} work to the
+ * replica and everything else to the primary. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the read-only flag is only set after the transaction manager has asked for
+ * its connection, so the real lookup has to wait for the first statement.
+ * Reads wrapped in {@link #onPrimary} stay on the primary: whatever fills a
+ * shared cache right after a write must not store a lagging replica's view.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = ThreadLocal.withInitial(() -> false);
+
+    private final ReplicaLagGuard lagGuard;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagGuard lagGuard) {
+        this.lagGuard = lagGuard;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Runs {@code reads} against the primary even inside a read-only transaction.
+     * Only takes effect if the transaction has not opened its connection yet.
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        boolean outer = PRIMARY_PINNED.get();
+        PRIMARY_PINNED.set(true);
+        try {
+            return reads.get();
+        } finally {
+            PRIMARY_PINNED.set(outer);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive() || PRIMARY_PINNED.get()) {
+            return Target.PRIMARY;
+        }
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // A read-write transaction counts as a write; cheaper than tracking actual DML
+            if (user != null) {
+                lagGuard.recordWrite(user);
+            }
+            return Target.PRIMARY;
+        }
+        return user != null && lagGuard.wroteRecently(user) ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return auth.getName();
+    }
+}
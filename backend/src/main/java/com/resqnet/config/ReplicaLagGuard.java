@@ -0,0 +1,31 @@
+package com.resqnet.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Remembers which users wrote in the last {@code window}. Their read-only
+ * transactions stay on the primary until the window passes, so a user never
+ * reads a replica that has not caught up with their own change yet.
+ */
+public class ReplicaLagGuard {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReplicaLagGuard(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public void recordWrite(String user) {
+        recentWriters.put(user, Boolean.TRUE);
+    }
+
+    public boolean wroteRecently(String user) {
+        return recentWriters.getIfPresent(user) != null;
+    }
+}
@@ -1,15 +1,17 @@
 package com.resqnet.consumer;
 
 import com.resqnet.dto.NotificationDTO;
+import com.resqnet.producer.NotificationPusher;
 import com.resqnet.service.NotificationService;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 @ConditionalOnProperty(name = "resqnet.kafka.enabled", havingValue = "true", matchIfMissing = true)
 public class NotificationConsumer {
@@ -17,12 +19,12 @@ public class NotificationConsumer {
     private static final Logger log = LoggerFactory.getLogger(NotificationConsumer.class);
 
     private final NotificationService notificationService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationPusher pusher;
 
     public NotificationConsumer(NotificationService notificationService,
-                                SimpMessagingTemplate messagingTemplate) {
+                                NotificationPusher pusher) {
         this.notificationService = notificationService;
-        this.messagingTemplate = messagingTemplate;
+        this.pusher = pusher;
     }
 
     @KafkaListener(
@@ -38,27 +40,10 @@ public class NotificationConsumer {
             NotificationDTO saved = notificationService.saveNotification(dto);
             log.info("Notification persisted successfully [id={}, type={}]", saved.getId(), saved.getType());
 
-            pushViaWebSocket(saved);
+            pusher.deliver(List.of(saved));
         } catch (Exception e) {
             log.error("Failed to process notification from Kafka. Message: {}, Partition: {}, Offset: {}",
                     dto, record.partition(), record.offset(), e);
         }
     }
-
-    private void pushViaWebSocket(NotificationDTO saved) {
-        try {
-            if (saved.isAdminBroadcast()) {
-                messagingTemplate.convertAndSend("/topic/notifications/admin", saved);
-                log.debug("WebSocket push to /topic/notifications/admin");
-            }
-
-            String email = saved.getRecipientEmail();
-            if (email != null && !"ADMIN-BROADCAST".equals(email)) {
-                messagingTemplate.convertAndSend("/queue/notifications/" + email, saved);
-                log.debug("WebSocket push to /queue/notifications/{}", email);
-            }
-        } catch (Exception e) {
-            log.warn("WebSocket push failed (non-fatal): {}", e.getMessage());
-        }
-    }
 }
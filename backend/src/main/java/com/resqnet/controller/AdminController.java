@@ -1,20 +1,36 @@
 package com.resqnet.controller;
 
 import com.resqnet.dto.ContributionDTO;
+import com.resqnet.dto.ContributionFilter;
 import com.resqnet.dto.DisasterDTO;
+import com.resqnet.dto.DisasterFilter;
+import com.resqnet.dto.ImportReport;
+import com.resqnet.dto.PageQuery;
+import com.resqnet.dto.PageResponse;
+import com.resqnet.dto.RequestFilter;
 import com.resqnet.dto.ResourceRequestDTO;
 import com.resqnet.dto.UserDTO;
+import com.resqnet.dto.UserFilter;
+import com.resqnet.service.BulkImportService;
 import com.resqnet.service.ContributionService;
 import com.resqnet.service.DisasterService;
+import com.resqnet.service.ExportService;
 import com.resqnet.service.ResourceRequestService;
 import com.resqnet.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,17 +45,23 @@ public class AdminController {
     private final ResourceRequestService requestService;
     private final UserService userService;
     private final ContributionService contributionService;
+    private final BulkImportService importService;
+    private final ExportService exportService;
 
     public AdminController(
             DisasterService disasterService,
             ResourceRequestService requestService,
             UserService userService,
-            ContributionService contributionService
+            ContributionService contributionService,
+            BulkImportService importService,
+            ExportService exportService
     ) {
         this.disasterService = disasterService;
         this.requestService = requestService;
         this.userService = userService;
         this.contributionService = contributionService;
+        this.importService = importService;
+        this.exportService = exportService;
     }
 
     @Operation(summary = "Get all disasters (Admin)")
@@ -49,6 +71,14 @@ public class AdminController {
         return disasterService.getAllDisasters();
     }
 
+    @Operation(summary = "Get one page of disasters (Admin)")
+    @GetMapping("/disasters/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public PageResponse<DisasterDTO> getDisasterPage(@ParameterObject DisasterFilter filter,
+                                                     @ParameterObject PageQuery page) {
+        return disasterService.getDisasterPage(filter, page);
+    }
+
     @Operation(summary = "Update a disaster (Admin)")
     @PutMapping("/disasters/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -64,6 +94,16 @@ public class AdminController {
         disasterService.deleteDisaster(id);
     }
 
+    @Operation(summary = "Bulk import disasters from NDJSON or CSV, filed under a reporter (Admin)")
+    @PostMapping(value = "/import/disasters",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, BulkImportService.TEXT_CSV_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ImportReport importDisasters(@RequestParam String reporterEmail,
+                                        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                        InputStream body) throws IOException {
+        return importService.importDisasters(body, contentType, reporterEmail);
+    }
+
     @Operation(summary = "Get all resource requests (Admin)")
     @GetMapping("/requests")
     @PreAuthorize("hasRole('ADMIN')")
@@ -71,6 +111,14 @@ public class AdminController {
         return requestService.getAllRequests();
     }
 
+    @Operation(summary = "Get one page of resource requests (Admin)")
+    @GetMapping("/requests/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public PageResponse<ResourceRequestDTO> getRequestPage(@ParameterObject RequestFilter filter,
+                                                           @ParameterObject PageQuery page) {
+        return requestService.getRequestPage(filter, page);
+    }
+
     @Operation(summary = "Update a resource request (Admin)")
     @PutMapping("/requests/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -86,6 +134,26 @@ public class AdminController {
         requestService.deleteRequest(id);
     }
 
+    @Operation(summary = "Bulk import resource requests from NDJSON or CSV, filed under a reporter (Admin)")
+    @PostMapping(value = "/import/requests",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, BulkImportService.TEXT_CSV_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ImportReport importRequests(@RequestParam String reporterEmail,
+                                       @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                       InputStream body) throws IOException {
+        return importService.importRequests(body, contentType, reporterEmail);
+    }
+
+    @Operation(summary = "Export all resource requests as a CSV or NDJSON download (Admin)")
+    @GetMapping("/export/requests")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportRequests(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return ExportResponses.stream("requests", ExportService.Format.of(format), acceptEncoding,
+                exportService::exportRequests);
+    }
+
     @Operation(summary = "Get all users (Admin)")
     @GetMapping("/users")
     @PreAuthorize("hasRole('ADMIN')")
@@ -93,6 +161,14 @@ public class AdminController {
         return userService.getAllUsers();
     }
 
+    @Operation(summary = "Get one page of users (Admin)")
+    @GetMapping("/users/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public PageResponse<UserDTO> getUserPage(@ParameterObject UserFilter filter,
+                                             @ParameterObject PageQuery page) {
+        return userService.getUserPage(filter, page);
+    }
+
     @Operation(summary = "Delete a user (Admin)")
     @DeleteMapping("/users/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -107,6 +183,14 @@ public class AdminController {
         return contributionService.getAllContributions(); // direct admin access
     }
 
+    @Operation(summary = "Get one page of contributions (Admin)")
+    @GetMapping("/contributions/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public PageResponse<ContributionDTO> getContributionPage(@ParameterObject ContributionFilter filter,
+                                                             @ParameterObject PageQuery page) {
+        return contributionService.getContributionPage(filter, page); // direct admin access
+    }
+
     @Operation(summary = "Get contributions by resource request ID (Admin)")
     @GetMapping("/contributions/request/{requestId}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -128,10 +212,30 @@ public class AdminController {
         contributionService.deleteContribution(id);
     }
 
+    @Operation(summary = "Export all contributions as a CSV or NDJSON download (Admin)")
+    @GetMapping("/export/contributions")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportContributions(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return ExportResponses.stream("contributions", ExportService.Format.of(format), acceptEncoding,
+                exportService::exportContributions);
+    }
+
+    @Operation(summary = "Export all notifications as a CSV or NDJSON download (Admin)")
+    @GetMapping("/export/notifications")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportNotifications(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return ExportResponses.stream("notifications", ExportService.Format.of(format), acceptEncoding,
+                exportService::exportNotifications);
+    }
+
     @Operation(summary = "Get admin dashboard summary with aggregated stats")
     @GetMapping("/summary")
     @PreAuthorize("hasRole('ADMIN')")
-    @Cacheable("adminSummary")
+    @Cacheable(value = "adminSummary", sync = true)
     public Map<String, Object> getSummary() {
         Map<String, Object> summary = new HashMap<>();
 
@@ -30,6 +30,6 @@ public class AdminNotificationController {
     @Operation(summary = "Delete an admin broadcast notification")
     @DeleteMapping("/{id}")
     public void deleteNotification(@PathVariable Long id) {
-        service.deleteNotification(id, null, true); // pass null email, override as admin
+        service.deleteNotification(id, null, true); // no caller needed, override as admin
     }
 }
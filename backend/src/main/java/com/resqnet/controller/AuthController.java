@@ -59,7 +59,7 @@ public class AuthController {
         }
 
         // ⚡ IMPORTANT: Pass plain role name (REPORTER / RESPONDER / ADMIN)
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole().name());
 
         return ResponseEntity.ok(Map.of(
                 "message", "Login successful",
@@ -1,14 +1,19 @@
 package com.resqnet.controller;
 
 import com.resqnet.dto.ContributionDTO;
+import com.resqnet.dto.ContributionFilter;
+import com.resqnet.dto.PageQuery;
+import com.resqnet.dto.PageResponse;
+import com.resqnet.security.AuthenticatedUser;
 import com.resqnet.service.ContributionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -28,40 +33,49 @@ public class ContributionController {
     @PostMapping
     @PreAuthorize("hasRole('RESPONDER')")
     public ResponseEntity<ContributionDTO> createContribution(@Valid @RequestBody ContributionDTO dto,
-                                                              Authentication auth) {
-        ContributionDTO created = service.createContribution(dto, auth.getName());
+                                                              @AuthenticationPrincipal AuthenticatedUser user) {
+        ContributionDTO created = service.createContribution(dto, user);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
     @Operation(summary = "Get contributions filtered by the current user's role")
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public List<ContributionDTO> getAllContributions(Authentication auth) {
-        return service.getAllContributionsForUser(auth.getName());
+    public List<ContributionDTO> getAllContributions(@AuthenticationPrincipal AuthenticatedUser user) {
+        return service.getAllContributionsForUser(user);
+    }
+
+    @Operation(summary = "Get one page of the current user's visible contributions, with optional filters")
+    @GetMapping("/page")
+    @PreAuthorize("isAuthenticated()")
+    public PageResponse<ContributionDTO> getContributionPage(@ParameterObject ContributionFilter filter,
+                                                             @ParameterObject PageQuery page,
+                                                             @AuthenticationPrincipal AuthenticatedUser user) {
+        return service.getContributionPageForUser(filter, page, user);
     }
 
     @Operation(summary = "Get contributions for a specific resource request")
     @GetMapping("/request/{requestId}")
     @PreAuthorize("isAuthenticated()")
     public List<ContributionDTO> getByRequest(@PathVariable Long requestId,
-                                              Authentication auth) {
-        return service.getByRequestWithSecurity(requestId, auth.getName());
+                                              @AuthenticationPrincipal AuthenticatedUser user) {
+        return service.getByRequestWithSecurity(requestId, user);
     }
 
     @Operation(summary = "Get contributions by a specific responder's email")
     @GetMapping("/responder/{responderEmail}")
     @PreAuthorize("isAuthenticated()")
     public List<ContributionDTO> getByResponder(@PathVariable String responderEmail,
-                                                Authentication auth) {
-        return service.getByResponderWithSecurity(responderEmail, auth.getName());
+                                                @AuthenticationPrincipal AuthenticatedUser user) {
+        return service.getByResponderWithSecurity(responderEmail, user);
     }
 
     @Operation(summary = "Delete a contribution (Admin or owning Responder)")
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN','RESPONDER')")
     public ResponseEntity<Void> deleteContribution(@PathVariable Long id,
-                                                   Authentication auth) {
-        service.deleteContributionWithSecurity(id, auth.getName());
+                                                   @AuthenticationPrincipal AuthenticatedUser user) {
+        service.deleteContributionWithSecurity(id, user);
         return ResponseEntity.noContent().build();
     }
 }
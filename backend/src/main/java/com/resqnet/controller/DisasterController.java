@@ -1,17 +1,30 @@
 package com.resqnet.controller;
 
 import com.resqnet.dto.DisasterDTO;
+import com.resqnet.dto.DisasterFilter;
+import com.resqnet.dto.PageQuery;
+import com.resqnet.dto.PageResponse;
+import com.resqnet.event.CollectionChangedEvent;
+import com.resqnet.security.AuthenticatedUser;
+import com.resqnet.service.CollectionVersions;
 import com.resqnet.service.DisasterService;
+import com.resqnet.service.EncodedResponseCache;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/disasters")
@@ -19,27 +32,48 @@ import java.util.List;
 public class DisasterController {
 
     private final DisasterService disasterService;
+    private final CollectionVersions collectionVersions;
+    private final EncodedResponseCache encodedResponses;
 
-    public DisasterController(DisasterService disasterService) {
+    public DisasterController(DisasterService disasterService,
+                              CollectionVersions collectionVersions,
+                              EncodedResponseCache encodedResponses) {
         this.disasterService = disasterService;
+        this.collectionVersions = collectionVersions;
+        this.encodedResponses = encodedResponses;
     }
 
     @Operation(summary = "Report a new disaster (Reporter only)")
     @PostMapping
     @PreAuthorize("hasRole('REPORTER')")
     public ResponseEntity<DisasterDTO> createDisaster(@Valid @RequestBody DisasterDTO dto,
-                                                      Authentication auth) {
-        DisasterDTO created = disasterService.createDisaster(dto, auth.getName());
+                                                      @AuthenticationPrincipal AuthenticatedUser user) {
+        DisasterDTO created = disasterService.createDisaster(dto, user);
         return ResponseEntity.created(URI.create("/api/disasters/" + created.getId()))
                              .body(created);
     }
 
     @Operation(summary = "Get all disasters")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json",
+            array = @ArraySchema(schema = @Schema(implementation = DisasterDTO.class))))
     @GetMapping
     @PreAuthorize("hasAnyRole('REPORTER','RESPONDER','ADMIN')")
-    public List<DisasterDTO> getAllDisasters(Authentication auth) {
+    public ResponseEntity<byte[]> getAllDisasters(WebRequest request, Authentication auth) {
         // later: can add role-based filtering if needed
-        return disasterService.getAllDisasters();
+        String etag = collectionVersions.etag(CollectionChangedEvent.DISASTERS);
+        if (request.checkNotModified(etag)) {
+            return null; // 304 already written, no cache or DB access
+        }
+        return EncodedListResponses.ok(
+                encodedResponses.get(CollectionChangedEvent.DISASTERS, disasterService::getAllDisasters), request);
+    }
+
+    @Operation(summary = "Get one page of disasters, optionally filtered by type, severity, date and area")
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('REPORTER','RESPONDER','ADMIN')")
+    public PageResponse<DisasterDTO> getDisasterPage(@ParameterObject DisasterFilter filter,
+                                                     @ParameterObject PageQuery page) {
+        return disasterService.getDisasterPage(filter, page);
     }
 
     @Operation(summary = "Get a disaster by ID")
@@ -0,0 +1,48 @@
+package com.resqnet.controller;
+
+import com.resqnet.service.EncodedResponseCache.EncodedBody;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Turns a pre-encoded list body into the HTTP response, picking the gzip
+ * variant when the client accepts it.
+ */
+final class EncodedListResponses {
+
+    private EncodedListResponses() {
+    }
+
+    static ResponseEntity<byte[]> ok(EncodedBody body, WebRequest request) {
+        boolean gzip = body.hasGzip() && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(body.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        byte[] bytes = gzip ? body.gzip() : body.json();
+        return response.contentLength(bytes.length).body(bytes);
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                String q = parts.length > 1 ? parts[1].trim() : "";
+                // "gzip;q=0" explicitly refuses the coding
+                return !q.matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,53 @@
+package com.resqnet.controller;
+
+import com.resqnet.service.ExportService.Format;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams an export straight into the response as a file download, gzipped
+ * on the fly when the client accepts it. Nothing is buffered beyond the
+ * output stream's own buffers, so there is no Content-Length.
+ */
+final class ExportResponses {
+
+    private ExportResponses() {
+    }
+
+    @FunctionalInterface
+    interface Exporter {
+        void export(Format format, OutputStream out) throws IOException;
+    }
+
+    static ResponseEntity<StreamingResponseBody> stream(String name, Format format, String acceptEncoding,
+                                                        Exporter exporter) {
+        boolean gzip = EncodedListResponses.acceptsGzip(acceptEncoding);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.extension())
+                        .build()
+                        .toString())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+                exporter.export(format, compressed);
+                compressed.finish();
+            } else {
+                exporter.export(format, out);
+            }
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package com.resqnet.controller;
+
+import com.resqnet.geo.Cluster;
+import com.resqnet.geo.GeoLayer;
+import com.resqnet.geo.GeoPoint;
+import com.resqnet.geo.Nearby;
+import com.resqnet.security.AuthenticatedUser;
+import com.resqnet.service.SpatialIndexService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/geo")
+@Tag(name = "Map")
+public class GeoController {
+
+    private final SpatialIndexService spatialIndex;
+
+    public GeoController(SpatialIndexService spatialIndex) {
+        this.spatialIndex = spatialIndex;
+    }
+
+    @Operation(summary = "Get the disasters, contributions or responder locations (Admin only) inside a bounding box")
+    @GetMapping("/{layer}")
+    @PreAuthorize("hasAnyRole('REPORTER','RESPONDER','ADMIN')")
+    public List<? extends GeoPoint> within(@PathVariable String layer,
+                                           @RequestParam double minLat, @RequestParam double maxLat,
+                                           @RequestParam double minLon, @RequestParam double maxLon,
+                                           @AuthenticationPrincipal AuthenticatedUser user) {
+        return spatialIndex.within(GeoLayer.of(layer), user, minLat, maxLat, minLon, maxLon);
+    }
+
+    @Operation(summary = "Get a layer's points inside a viewport, clustered per map cell at the given zoom level")
+    @GetMapping("/{layer}/clusters")
+    @PreAuthorize("hasAnyRole('REPORTER','RESPONDER','ADMIN')")
+    public List<Cluster> clusters(@PathVariable String layer,
+                                  @RequestParam double minLat, @RequestParam double maxLat,
+                                  @RequestParam double minLon, @RequestParam double maxLon,
+                                  @RequestParam int zoom,
+                                  @AuthenticationPrincipal AuthenticatedUser user) {
+        return spatialIndex.clusters(GeoLayer.of(layer), user, minLat, maxLat, minLon, maxLon, zoom);
+    }
+
+    @Operation(summary = "Get the points of a layer within radiusKm of a position, nearest first")
+    @GetMapping("/{layer}/radius")
+    @PreAuthorize("hasAnyRole('REPORTER','RESPONDER','ADMIN')")
+    public List<? extends Nearby<?>> withinRadius(@PathVariable String layer,
+                                                  @RequestParam double lat, @RequestParam double lon,
+                                                  @RequestParam double radiusKm,
+                                                  @AuthenticationPrincipal AuthenticatedUser user) {
+        return spatialIndex.withinRadius(GeoLayer.of(layer), user, lat, lon, radiusKm);
+    }
+
+    @Operation(summary = "Get the k points of a layer nearest to a position")
+    @GetMapping("/{layer}/nearest")
+    @PreAuthorize("hasAnyRole('REPORTER','RESPONDER','ADMIN')")
+    public List<? extends Nearby<?>> nearest(@PathVariable String layer,
+                                             @RequestParam double lat, @RequestParam double lon,
+                                             @RequestParam(defaultValue = "10") int k,
+                                             @AuthenticationPrincipal AuthenticatedUser user) {
+        return spatialIndex.nearest(GeoLayer.of(layer), user, lat, lon, k);
+    }
+}
@@ -1,11 +1,12 @@
 package com.resqnet.controller;
 
 import com.resqnet.dto.NotificationDTO;
+import com.resqnet.security.AuthenticatedUser;
 import com.resqnet.service.NotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -24,28 +25,28 @@ public class NotificationController {
     @Operation(summary = "Get all notifications for the current user")
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public List<NotificationDTO> getNotifications(Authentication auth) {
-        return service.getNotifications(auth.getName());
+    public List<NotificationDTO> getNotifications(@AuthenticationPrincipal AuthenticatedUser user) {
+        return service.getNotifications(user);
     }
 
     @Operation(summary = "Get only unread notifications")
     @GetMapping("/unread")
     @PreAuthorize("isAuthenticated()")
-    public List<NotificationDTO> getUnreadNotifications(Authentication auth) {
-        return service.getUnreadNotifications(auth.getName());
+    public List<NotificationDTO> getUnreadNotifications(@AuthenticationPrincipal AuthenticatedUser user) {
+        return service.getUnreadNotifications(user);
     }
 
     @Operation(summary = "Mark a notification as read")
     @PutMapping("/{id}/read")
     @PreAuthorize("isAuthenticated()")
-    public void markAsRead(@PathVariable Long id, Authentication auth) {
-        service.markAsRead(id, auth.getName());
+    public void markAsRead(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user) {
+        service.markAsRead(id, user);
     }
 
     @Operation(summary = "Delete a notification")
     @DeleteMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
-    public void deleteNotification(@PathVariable Long id, Authentication auth) {
-        service.deleteNotification(id, auth.getName(), false); // normal user delete, no override
+    public void deleteNotification(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user) {
+        service.deleteNotification(id, user, false); // normal user delete, no override
     }
 }
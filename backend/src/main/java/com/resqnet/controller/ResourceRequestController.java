@@ -1,14 +1,29 @@
 package com.resqnet.controller;
 
+import com.resqnet.dto.PageQuery;
+import com.resqnet.dto.PageResponse;
+import com.resqnet.dto.RequestFilter;
 import com.resqnet.dto.ResourceRequestDTO;
+import com.resqnet.dto.ResponderCandidateDTO;
+import com.resqnet.event.CollectionChangedEvent;
+import com.resqnet.security.AuthenticatedUser;
+import com.resqnet.service.CollectionVersions;
+import com.resqnet.service.EncodedResponseCache;
 import com.resqnet.service.ResourceRequestService;
+import com.resqnet.service.ResponderMatchingService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
 import java.util.List;
@@ -19,9 +34,18 @@ import java.util.List;
 public class ResourceRequestController {
 
     private final ResourceRequestService service;
+    private final ResponderMatchingService matchingService;
+    private final CollectionVersions collectionVersions;
+    private final EncodedResponseCache encodedResponses;
 
-    public ResourceRequestController(ResourceRequestService service) {
+    public ResourceRequestController(ResourceRequestService service,
+                                     ResponderMatchingService matchingService,
+                                     CollectionVersions collectionVersions,
+                                     EncodedResponseCache encodedResponses) {
         this.service = service;
+        this.matchingService = matchingService;
+        this.collectionVersions = collectionVersions;
+        this.encodedResponses = encodedResponses;
     }
 
     @Operation(summary = "Create a resource request (Reporter only)")
@@ -29,8 +53,8 @@ public class ResourceRequestController {
     @PreAuthorize("hasRole('REPORTER')")
     public ResponseEntity<ResourceRequestDTO> createRequest(
             @Valid @RequestBody ResourceRequestDTO dto,
-            Authentication auth) {
-        ResourceRequestDTO created = service.createRequest(dto, auth.getName());
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        ResourceRequestDTO created = service.createRequest(dto, user);
         return ResponseEntity.created(URI.create("/api/requests/" + created.getId()))
                              .body(created);
     }
@@ -38,22 +62,37 @@ public class ResourceRequestController {
     @Operation(summary = "Get current reporter's own requests")
     @GetMapping("/my")
     @PreAuthorize("hasRole('REPORTER')")
-    public List<ResourceRequestDTO> getMyRequests(Authentication auth) {
-        return service.getRequestsForReporter(auth.getName());
+    public List<ResourceRequestDTO> getMyRequests(@AuthenticationPrincipal AuthenticatedUser user) {
+        return service.getRequestsForReporter(user);
     }
 
     @Operation(summary = "Get a specific request owned by the current reporter")
     @GetMapping("/my/{id:[0-9]+}")
     @PreAuthorize("hasRole('REPORTER')")
-    public ResourceRequestDTO getMyRequestById(@PathVariable Long id, Authentication auth) {
-        return service.getRequestByIdForReporter(id, auth.getName());
+    public ResourceRequestDTO getMyRequestById(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user) {
+        return service.getRequestByIdForReporter(id, user);
     }
 
     @Operation(summary = "Get all resource requests")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json",
+            array = @ArraySchema(schema = @Schema(implementation = ResourceRequestDTO.class))))
     @GetMapping
     @PreAuthorize("hasAnyRole('REPORTER','RESPONDER','ADMIN')")
-    public List<ResourceRequestDTO> getAllRequests() {
-        return service.getAllRequests();
+    public ResponseEntity<byte[]> getAllRequests(WebRequest request) {
+        String etag = collectionVersions.etag(CollectionChangedEvent.REQUESTS);
+        if (request.checkNotModified(etag)) {
+            return null; // 304 already written, no cache or DB access
+        }
+        return EncodedListResponses.ok(
+                encodedResponses.get(CollectionChangedEvent.REQUESTS, service::getAllRequests), request);
+    }
+
+    @Operation(summary = "Get one page of resource requests, optionally filtered by status, category, disaster and date")
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('REPORTER','RESPONDER','ADMIN')")
+    public PageResponse<ResourceRequestDTO> getRequestPage(@ParameterObject RequestFilter filter,
+                                                           @ParameterObject PageQuery page) {
+        return service.getRequestPage(filter, page);
     }
 
     @Operation(summary = "Get a resource request by ID")
@@ -63,6 +102,16 @@ public class ResourceRequestController {
         return service.getRequestById(id);
     }
 
+    @Operation(summary = "Suggest the nearest recently active responders for a request (its Reporter or Admin)")
+    @GetMapping("/{id:[0-9]+}/candidates")
+    @PreAuthorize("hasAnyRole('REPORTER','ADMIN')")
+    public List<ResponderCandidateDTO> getCandidates(@PathVariable Long id,
+                                                     @RequestParam(defaultValue = "10") int k,
+                                                     @RequestParam(defaultValue = "50") double maxKm,
+                                                     @AuthenticationPrincipal AuthenticatedUser user) {
+        return matchingService.candidatesForRequest(id, user, k, maxKm);
+    }
+
     @Operation(summary = "Update a resource request (Admin only)")
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -0,0 +1,69 @@
+package com.resqnet.controller;
+
+import com.resqnet.geo.GeoLayer;
+import com.resqnet.geo.VectorTile;
+import com.resqnet.security.AuthenticatedUser;
+import com.resqnet.service.VectorTileService;
+import com.resqnet.service.VectorTileService.EncodedTile;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+@RestController
+@RequestMapping("/api/tiles")
+@Tag(name = "Map")
+public class TileController {
+
+    private final VectorTileService vectorTiles;
+
+    public TileController(VectorTileService vectorTiles) {
+        this.vectorTiles = vectorTiles;
+    }
+
+    @Operation(summary = "Get a map layer's clusters as a Mapbox vector tile (zoom 0-16; responders: Admin only)")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = VectorTile.MEDIA_TYPE))
+    @GetMapping("/{layer}/{z}/{x}/{y}")
+    @PreAuthorize("hasAnyRole('REPORTER','RESPONDER','ADMIN')")
+    public ResponseEntity<byte[]> tile(@PathVariable String layer,
+                                       @PathVariable int z, @PathVariable int x, @PathVariable int y,
+                                       WebRequest request,
+                                       @AuthenticationPrincipal AuthenticatedUser user) {
+        GeoLayer geoLayer = GeoLayer.of(layer);
+        if (request.checkNotModified(vectorTiles.etag(geoLayer, user, z, x, y))) {
+            return null; // 304 already written, nothing rendered
+        }
+        EncodedTile tile = vectorTiles.get(geoLayer, user, z, x, y);
+        return ResponseEntity.ok()
+                .eTag(tile.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.parseMediaType(VectorTile.MEDIA_TYPE))
+                .contentLength(tile.bytes().length)
+                .body(tile.bytes());
+    }
+
+    // Tile clients accept only the tile type, so errors go out as a bare status; a JSON body would turn into a 406
+    @ExceptionHandler({IllegalArgumentException.class, MethodArgumentTypeMismatchException.class})
+    public ResponseEntity<Void> invalidTile() {
+        return ResponseEntity.badRequest().build();
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<Void> deniedTile() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+}
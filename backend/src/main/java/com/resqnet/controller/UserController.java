@@ -1,11 +1,15 @@
 package com.resqnet.controller;
 
+import com.resqnet.dto.PageQuery;
+import com.resqnet.dto.PageResponse;
 import com.resqnet.dto.UserCreateRequest;
 import com.resqnet.dto.UserDTO;
+import com.resqnet.dto.UserFilter;
 import com.resqnet.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -29,6 +33,14 @@ public class UserController {
         return userService.getAllUsers();
     }
 
+    @Operation(summary = "Get one page of users, optionally filtered by role, date and area (Admin only)")
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public PageResponse<UserDTO> getUserPage(@ParameterObject UserFilter filter,
+                                             @ParameterObject PageQuery page) {
+        return userService.getUserPage(filter, page);
+    }
+
     @Operation(summary = "Create a new user (Admin only)")
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -0,0 +1,49 @@
+package com.resqnet.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters shared by the located listings: {@code createdAfter} and an optional
+ * bounding box ({@code minLat,maxLat,minLon,maxLon}, all four or none).
+ */
+public class AreaFilter {
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdAfter;
+
+    private Double minLat;
+    private Double maxLat;
+    private Double minLon;
+    private Double maxLon;
+
+    public boolean hasBoundingBox() {
+        int set = (minLat != null ? 1 : 0) + (maxLat != null ? 1 : 0)
+                + (minLon != null ? 1 : 0) + (maxLon != null ? 1 : 0);
+        if (set == 0) return false;
+        if (set < 4) {
+            throw new IllegalArgumentException("Bounding box needs minLat, maxLat, minLon and maxLon");
+        }
+        if (minLat > maxLat || minLon > maxLon) {
+            throw new IllegalArgumentException("Bounding box minimums must not exceed maximums");
+        }
+        return true;
+    }
+
+    // --- Getters & Setters ---
+    public LocalDateTime getCreatedAfter() { return createdAfter; }
+    public void setCreatedAfter(LocalDateTime createdAfter) { this.createdAfter = createdAfter; }
+
+    public Double getMinLat() { return minLat; }
+    public void setMinLat(Double minLat) { this.minLat = minLat; }
+
+    public Double getMaxLat() { return maxLat; }
+    public void setMaxLat(Double maxLat) { this.maxLat = maxLat; }
+
+    public Double getMinLon() { return minLon; }
+    public void setMinLon(Double minLon) { this.minLon = minLon; }
+
+    public Double getMaxLon() { return maxLon; }
+    public void setMaxLon(Double maxLon) { this.maxLon = maxLon; }
+}
@@ -54,6 +54,23 @@ public class ContributionDTO implements Serializable {
     @JsonProperty(access = Access.READ_ONLY)
     private LocalDateTime updatedAt;
 
+    // --- Constructors ---
+    public ContributionDTO() {}
+
+    // Used by JPQL constructor expressions
+    public ContributionDTO(Long id, int contributedQuantity, Long requestId, String category,
+                           String responderEmail, LocalDateTime updatedAt,
+                           Double latitude, Double longitude) {
+        this.id = id;
+        this.contributedQuantity = contributedQuantity;
+        this.requestId = requestId;
+        this.category = category;
+        this.responderEmail = responderEmail;
+        this.updatedAt = updatedAt;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
     // --- Getters & Setters ---
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,14 @@
+package com.resqnet.dto;
+
+public class ContributionFilter extends AreaFilter {
+
+    private String category;
+    private Long requestId;
+
+    // --- Getters & Setters ---
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public Long getRequestId() { return requestId; }
+    public void setRequestId(Long requestId) { this.requestId = requestId; }
+}
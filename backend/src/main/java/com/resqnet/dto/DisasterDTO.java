@@ -44,14 +44,40 @@ public class DisasterDTO implements Serializable {
     @JsonProperty(access = Access.READ_ONLY)
     private LocalDateTime createdAt;
 
+    // Last request or rollup write against the disaster
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = Access.READ_ONLY)
+    private LocalDateTime lastActivityAt;
+
     // Status flow (computed in service)
     @JsonProperty(access = Access.READ_ONLY)
     private String status; // "reported", "partial", "fulfilled"
 
-    //  Contribution summary for UI
+    //  Contribution summary for UI: one category per request with contributions, grouped by
+    //  category in the order each category was first requested (not interleaved by request id)
     @JsonProperty(access = Access.READ_ONLY)
     private List<String> contributions; // e.g. ["food", "water"]
 
+    // --- Constructors ---
+    public DisasterDTO() {}
+
+    // Used by JPQL constructor expressions; status and contributions are filled in by the service
+    public DisasterDTO(Long id, String type, String severity, String description,
+                       double latitude, double longitude,
+                       String reporterEmail, String reporterName, LocalDateTime createdAt,
+                       LocalDateTime lastActivityAt) {
+        this.id = id;
+        this.type = type;
+        this.severity = severity;
+        this.description = description;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.reporterEmail = reporterEmail;
+        this.reporterName = reporterName;
+        this.createdAt = createdAt;
+        this.lastActivityAt = lastActivityAt;
+    }
+
     // --- Getters & Setters ---
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -80,6 +106,9 @@ public class DisasterDTO implements Serializable {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public LocalDateTime getLastActivityAt() { return lastActivityAt; }
+    public void setLastActivityAt(LocalDateTime lastActivityAt) { this.lastActivityAt = lastActivityAt; }
+
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
 
@@ -0,0 +1,14 @@
+package com.resqnet.dto;
+
+public class DisasterFilter extends AreaFilter {
+
+    private String type;
+    private String severity;
+
+    // --- Getters & Setters ---
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getSeverity() { return severity; }
+    public void setSeverity(String severity) { this.severity = severity; }
+}
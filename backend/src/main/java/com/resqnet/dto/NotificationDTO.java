@@ -13,6 +13,22 @@ public class NotificationDTO {
     private String recipientEmail;   // For user-specific notifications
     private boolean adminBroadcast;  // For admin-wide notifications
 
+    // --- Constructors ---
+    public NotificationDTO() {}
+
+    // Used by JPQL constructor expressions
+    public NotificationDTO(Long id, String message, String type, boolean read, boolean deletable,
+                           LocalDateTime createdAt, String recipientEmail, boolean adminBroadcast) {
+        this.id = id;
+        this.message = message;
+        this.type = type;
+        this.read = read;
+        this.deletable = deletable;
+        this.createdAt = createdAt;
+        this.recipientEmail = recipientEmail;
+        this.adminBroadcast = adminBroadcast;
+    }
+
     // --- Getters & Setters ---
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,53 @@
+package com.resqnet.dto;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Keyset page request bound from {@code ?cursor=&size=&order=}. Rows are ordered by
+ * id (creation order); {@code cursor} is the last id of the previous page, so each
+ * page is an index range scan no matter how deep the client has paged.
+ */
+public class PageQuery {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 200;
+
+    private Long cursor;
+    private Integer size;
+    private String order = "desc";
+
+    public int limit() {
+        if (size == null) return DEFAULT_SIZE;
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SIZE);
+        }
+        return size;
+    }
+
+    public boolean ascending() {
+        if ("asc".equalsIgnoreCase(order)) return true;
+        if (order == null || "desc".equalsIgnoreCase(order)) return false;
+        throw new IllegalArgumentException("Order must be 'asc' or 'desc'");
+    }
+
+    // Keyset bounds: only one side is set, depending on the direction
+    public Long afterId() { return ascending() ? cursor : null; }
+    public Long beforeId() { return ascending() ? null : cursor; }
+
+    // One extra row tells whether another page follows, without a count query
+    public Pageable toPageable() {
+        return PageRequest.of(0, limit() + 1, Sort.by(ascending() ? Sort.Direction.ASC : Sort.Direction.DESC, "id"));
+    }
+
+    // --- Getters & Setters ---
+    public Long getCursor() { return cursor; }
+    public void setCursor(Long cursor) { this.cursor = cursor; }
+
+    public Integer getSize() { return size; }
+    public void setSize(Integer size) { this.size = size; }
+
+    public String getOrder() { return order; }
+    public void setOrder(String order) { this.order = order; }
+}
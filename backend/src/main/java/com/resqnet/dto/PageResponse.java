@@ -0,0 +1,39 @@
+package com.resqnet.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class PageResponse<T> {
+
+    private List<T> items;
+    private Long nextCursor;   // pass back as ?cursor= for the next page; null on the last page
+    private boolean hasMore;
+
+    public PageResponse() {}
+
+    public PageResponse(List<T> items, Long nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // rows were fetched with limit + 1 (see PageQuery#toPageable)
+    public static <T> PageResponse<T> of(List<T> rows, PageQuery query, Function<T, Long> idOf) {
+        int limit = query.limit();
+        if (rows.size() <= limit) {
+            return new PageResponse<>(rows, null, false);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new PageResponse<>(items, idOf.apply(items.get(limit - 1)), true);
+    }
+
+    // --- Getters & Setters ---
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public Long getNextCursor() { return nextCursor; }
+    public void setNextCursor(Long nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
@@ -0,0 +1,29 @@
+package com.resqnet.dto;
+
+import com.resqnet.model.ResourceRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+public class RequestFilter {
+
+    private ResourceRequest.Status status;
+    private String category;
+    private Long disasterId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdAfter;
+
+    // --- Getters & Setters ---
+    public ResourceRequest.Status getStatus() { return status; }
+    public void setStatus(ResourceRequest.Status status) { this.status = status; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public Long getDisasterId() { return disasterId; }
+    public void setDisasterId(Long disasterId) { this.disasterId = disasterId; }
+
+    public LocalDateTime getCreatedAfter() { return createdAfter; }
+    public void setCreatedAfter(LocalDateTime createdAfter) { this.createdAfter = createdAfter; }
+}
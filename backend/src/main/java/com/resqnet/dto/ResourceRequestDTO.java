@@ -41,6 +41,23 @@ public class ResourceRequestDTO implements Serializable {
     @JsonProperty(access = Access.READ_ONLY)
     private LocalDateTime createdAt;
 
+    // --- Constructors ---
+    public ResourceRequestDTO() {}
+
+    // Used by JPQL constructor expressions
+    public ResourceRequestDTO(Long id, String category, int requestedQuantity, int fulfilledQuantity,
+                              ResourceRequest.Status status, Long disasterId, String reporterEmail,
+                              LocalDateTime createdAt) {
+        this.id = id;
+        this.category = category;
+        this.requestedQuantity = requestedQuantity;
+        this.fulfilledQuantity = fulfilledQuantity;
+        this.status = status;
+        this.disasterId = disasterId;
+        this.reporterEmail = reporterEmail;
+        this.createdAt = createdAt;
+    }
+
     // --- Getters & Setters ---
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
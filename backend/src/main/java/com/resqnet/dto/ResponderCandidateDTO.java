@@ -0,0 +1,45 @@
+package com.resqnet.dto;
+
+import java.time.LocalDateTime;
+
+public class ResponderCandidateDTO {
+
+    private Long responderId;
+    private String name;
+    private String email;
+    private double distanceKm;
+    // Distance plus the inactivity penalty the candidates are ordered by
+    private double rankKm;
+    private LocalDateTime lastActiveAt;
+
+    public ResponderCandidateDTO() {}
+
+    public ResponderCandidateDTO(Long responderId, String name, String email, double distanceKm,
+                                 double rankKm, LocalDateTime lastActiveAt) {
+        this.responderId = responderId;
+        this.name = name;
+        this.email = email;
+        this.distanceKm = distanceKm;
+        this.rankKm = rankKm;
+        this.lastActiveAt = lastActiveAt;
+    }
+
+    // --- Getters & Setters ---
+    public Long getResponderId() { return responderId; }
+    public void setResponderId(Long responderId) { this.responderId = responderId; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(double distanceKm) { this.distanceKm = distanceKm; }
+
+    public double getRankKm() { return rankKm; }
+    public void setRankKm(double rankKm) { this.rankKm = rankKm; }
+
+    public LocalDateTime getLastActiveAt() { return lastActiveAt; }
+    public void setLastActiveAt(LocalDateTime lastActiveAt) { this.lastActiveAt = lastActiveAt; }
+}
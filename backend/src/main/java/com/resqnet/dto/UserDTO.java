@@ -31,6 +31,21 @@ public class UserDTO implements Serializable {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private Double longitude;
 
+    // --- Constructors ---
+    public UserDTO() {}
+
+    // Used by JPQL constructor expressions
+    public UserDTO(Long id, String name, String email, User.Role role, LocalDateTime createdAt,
+                   Double latitude, Double longitude) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.role = role;
+        this.createdAt = createdAt;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
     // --- Getters & Setters ---
     public Long getId() {
         return id;
@@ -0,0 +1,12 @@
+package com.resqnet.dto;
+
+import com.resqnet.model.User;
+
+public class UserFilter extends AreaFilter {
+
+    private User.Role role;
+
+    // --- Getters & Setters ---
+    public User.Role getRole() { return role; }
+    public void setRole(User.Role role) { this.role = role; }
+}
@@ -0,0 +1,35 @@
+package com.resqnet.event;
+
+import java.util.Set;
+
+/**
+ * Published by the service write methods when one or more collections change.
+ * Listeners that depend on committed data should use a transactional event
+ * listener so they observe the change only once it is visible to readers.
+ */
+public class CollectionChangedEvent {
+
+    public static final String DISASTERS = "disasters";
+    public static final String REQUESTS = "requests";
+    public static final String CONTRIBUTIONS = "contributions";
+    public static final String USERS = "users";
+
+    public static final Set<String> ALL = Set.of(DISASTERS, REQUESTS, CONTRIBUTIONS, USERS);
+
+    private final Set<String> collections;
+
+    public CollectionChangedEvent(String... collections) {
+        this.collections = Set.of(collections);
+    }
+
+    public Set<String> getCollections() { return collections; }
+
+    public boolean affects(String collection) {
+        return collections.contains(collection);
+    }
+
+    @Override
+    public String toString() {
+        return "CollectionChangedEvent" + collections;
+    }
+}
@@ -0,0 +1,59 @@
+package com.resqnet.event;
+
+/**
+ * Published when a contribution is added or deleted, carrying everything the
+ * notifications need, so they can be sent after the write has committed
+ * without reloading the contribution or its request.
+ */
+public class ContributionChangedEvent {
+
+    private final boolean removed;
+    private final Long requestId;
+    private final String category;
+    private final int quantity;
+    private final double latitude;
+    private final double longitude;
+    private final String reporterEmail;
+    private final String responderEmail;
+
+    private ContributionChangedEvent(boolean removed, Long requestId, String category, int quantity,
+                                     double latitude, double longitude, String reporterEmail, String responderEmail) {
+        this.removed = removed;
+        this.requestId = requestId;
+        this.category = category;
+        this.quantity = quantity;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.reporterEmail = reporterEmail;
+        this.responderEmail = responderEmail;
+    }
+
+    public static ContributionChangedEvent added(Long requestId, String category, int quantity,
+                                                 double latitude, double longitude,
+                                                 String reporterEmail, String responderEmail) {
+        return new ContributionChangedEvent(false, requestId, category, quantity, latitude, longitude,
+                reporterEmail, responderEmail);
+    }
+
+    public static ContributionChangedEvent removed(Long requestId, String category, int quantity,
+                                                   double latitude, double longitude,
+                                                   String reporterEmail, String responderEmail) {
+        return new ContributionChangedEvent(true, requestId, category, quantity, latitude, longitude,
+                reporterEmail, responderEmail);
+    }
+
+    public boolean isRemoved() { return removed; }
+    public Long getRequestId() { return requestId; }
+    public String getCategory() { return category; }
+    public int getQuantity() { return quantity; }
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+    public String getReporterEmail() { return reporterEmail; }
+    public String getResponderEmail() { return responderEmail; }
+
+    @Override
+    public String toString() {
+        return "ContributionChangedEvent[" + (removed ? "removed " : "added ") + quantity + " " + category
+                + " to request #" + requestId + "]";
+    }
+}
@@ -0,0 +1,125 @@
+package com.resqnet.event;
+
+import com.resqnet.geo.ContributionPin;
+import com.resqnet.geo.GeoLayer;
+import com.resqnet.geo.GeoPoint;
+import com.resqnet.geo.ResponderPin;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Published by service writes that add, move or remove a located row, for the
+ * spatial index to apply once the write commits. Bulk deletes that cascade to
+ * rows the service never loads describe them by the disasters or requests they
+ * belonged to instead, or ask for the layer to be reloaded. Only plain data is
+ * kept, so the same change can be announced to the other nodes
+ * ({@link com.resqnet.producer.PgNotifyPublisher}) and rebuilt there with {@link #of}.
+ */
+public class GeoChangedEvent {
+
+    private final GeoLayer layer;
+    private final List<? extends GeoPoint> upserts;
+    private final List<Long> removals;
+    private final Set<Long> removedDisasterIds;
+    private final Set<Long> removedRequestIds;
+    private final Map<Long, LocalDateTime> activeAt;
+    private final List<GeoLayer> reloads;
+
+    private GeoChangedEvent(GeoLayer layer, List<? extends GeoPoint> upserts, List<Long> removals,
+                            Set<Long> removedDisasterIds, Set<Long> removedRequestIds,
+                            Map<Long, LocalDateTime> activeAt, List<GeoLayer> reloads) {
+        this.layer = layer;
+        this.upserts = upserts;
+        this.removals = removals;
+        this.removedDisasterIds = removedDisasterIds;
+        this.removedRequestIds = removedRequestIds;
+        this.activeAt = activeAt;
+        this.reloads = reloads;
+    }
+
+    public static GeoChangedEvent of(GeoLayer layer, List<? extends GeoPoint> upserts, List<Long> removals,
+                                     Set<Long> removedDisasterIds, Set<Long> removedRequestIds,
+                                     Map<Long, LocalDateTime> activeAt, List<GeoLayer> reloads) {
+        return new GeoChangedEvent(layer, upserts, removals, removedDisasterIds, removedRequestIds, activeAt, reloads);
+    }
+
+    public static GeoChangedEvent upserted(GeoLayer layer, List<? extends GeoPoint> points) {
+        return of(layer, points, List.of(), Set.of(), Set.of(), Map.of(), List.of());
+    }
+
+    public static GeoChangedEvent upserted(GeoLayer layer, GeoPoint point) {
+        return upserted(layer, List.of(point));
+    }
+
+    public static GeoChangedEvent removed(GeoLayer layer, Long id) {
+        return removed(layer, List.of(id));
+    }
+
+    public static GeoChangedEvent removed(GeoLayer layer, List<Long> ids) {
+        return of(layer, List.of(), ids, Set.of(), Set.of(), Map.of(), List.of());
+    }
+
+    public static GeoChangedEvent contributionsOfRequestRemoved(Long requestId) {
+        return contributionsRemoved(List.of(), Set.of(), Set.of(requestId));
+    }
+
+    public static GeoChangedEvent contributionsOfDisasterRemoved(Long disasterId) {
+        return contributionsRemoved(List.of(), Set.of(disasterId), Set.of());
+    }
+
+    // The given contributions and every contribution to one of the disasters or requests
+    public static GeoChangedEvent contributionsRemoved(List<Long> ids, Set<Long> disasterIds, Set<Long> requestIds) {
+        return of(GeoLayer.CONTRIBUTIONS, List.of(), ids, disasterIds, requestIds, Map.of(), List.of());
+    }
+
+    // A contribution by a responder whose pin is already indexed
+    public static GeoChangedEvent responderActive(Long responderId, LocalDateTime at) {
+        return of(GeoLayer.RESPONDERS, List.of(), List.of(), Set.of(), Set.of(), Map.of(responderId, at), List.of());
+    }
+
+    public static GeoChangedEvent reload(GeoLayer... layers) {
+        return of(null, List.of(), List.of(), Set.of(), Set.of(), Map.of(), List.of(layers));
+    }
+
+    public GeoLayer getLayer() { return layer; }
+
+    public List<? extends GeoPoint> getUpserts() { return upserts; }
+
+    public List<Long> getRemovals() { return removals; }
+
+    public Set<Long> getRemovedDisasterIds() { return removedDisasterIds; }
+
+    public Set<Long> getRemovedRequestIds() { return removedRequestIds; }
+
+    public Map<Long, LocalDateTime> getActiveAt() { return activeAt; }
+
+    public List<GeoLayer> getReloads() { return reloads; }
+
+    // Null when nothing is removed by disaster or request
+    public Predicate<GeoPoint> getRemoveIf() {
+        if (removedDisasterIds.isEmpty() && removedRequestIds.isEmpty()) {
+            return null;
+        }
+        return point -> point instanceof ContributionPin pin
+                && (removedDisasterIds.contains(pin.disasterId()) || removedRequestIds.contains(pin.requestId()));
+    }
+
+    public Map<Long, UnaryOperator<GeoPoint>> getUpdates() {
+        Map<Long, UnaryOperator<GeoPoint>> updates = new HashMap<>();
+        activeAt.forEach((responderId, at) -> updates.put(responderId, pin -> ((ResponderPin) pin).activeAt(at)));
+        return updates;
+    }
+
+    @Override
+    public String toString() {
+        return layer != null
+                ? "GeoChangedEvent[" + layer + " +" + upserts.size() + " ~" + activeAt.size() + " -" + removals.size() + "]"
+                : "GeoChangedEvent[reload " + reloads + "]";
+    }
+}
@@ -0,0 +1,41 @@
+package com.resqnet.geo;
+
+import java.util.List;
+
+/**
+ * A latitude/longitude rectangle, clipped to the valid coordinate range.
+ */
+public record BoundingBox(double minLat, double maxLat, double minLon, double maxLon) {
+
+    /**
+     * Smallest boxes holding every point within radiusKm: one box, or two when the
+     * circle wraps around the antimeridian, one on each side of it.
+     */
+    public static List<BoundingBox> around(double latitude, double longitude, double radiusKm) {
+        GeoMath.requireValid(latitude, longitude);
+        if (!(radiusKm >= 0)) {
+            throw new IllegalArgumentException("Radius must not be negative");
+        }
+        double latSpan = radiusKm / GeoMath.KM_PER_DEGREE;
+        double edgeLat = Math.abs(latitude) + latSpan;
+        double lonSpan = edgeLat >= 90 ? 180 : latSpan / Math.cos(Math.toRadians(edgeLat));
+        double minLat = Math.max(-90, latitude - latSpan), maxLat = Math.min(90, latitude + latSpan);
+        double minLon = longitude - lonSpan, maxLon = longitude + lonSpan;
+        if (lonSpan >= 180) {
+            return List.of(new BoundingBox(minLat, maxLat, -180, 180));
+        }
+        if (minLon < -180) {
+            return List.of(new BoundingBox(minLat, maxLat, minLon + 360, 180),
+                    new BoundingBox(minLat, maxLat, -180, maxLon));
+        }
+        if (maxLon > 180) {
+            return List.of(new BoundingBox(minLat, maxLat, minLon, 180),
+                    new BoundingBox(minLat, maxLat, -180, maxLon - 360));
+        }
+        return List.of(new BoundingBox(minLat, maxLat, minLon, maxLon));
+    }
+
+    public SpatialKey.Cover keys() {
+        return SpatialKey.cover(minLat, maxLat, minLon, maxLon);
+    }
+}
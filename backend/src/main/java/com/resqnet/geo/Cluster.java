@@ -0,0 +1,14 @@
+package com.resqnet.geo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * One occupied map cell at the requested zoom: how many points it holds, their
+ * centroid and how many fall in each class. {@code id} is set only when the
+ * cell holds a single point, so the client can draw it as a marker.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record Cluster(double latitude, double longitude, long count, Map<String, Long> mix, Long id) {
+}
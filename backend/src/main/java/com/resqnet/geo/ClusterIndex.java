@@ -0,0 +1,201 @@
+package com.resqnet.geo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Pre-aggregated map clusters for every zoom level from 0 to {@link #MAX_ZOOM}:
+ * at zoom {@code z} each tile is split into 8 x 8 cells (about 32 pixels on a
+ * 256-pixel tile), and each occupied cell keeps its point count, centroid and
+ * a count per class (a disaster's severity, a contribution's category).
+ * <p>
+ * Kept up to date as a {@link GeoGrid.ChangeListener}, one cell per level per
+ * change, so a viewport query reads only the cells on screen and never the points.
+ * Cells are replaced rather than modified, so lock-free reads see whole cells.
+ * <p>
+ * Each change also stamps the one tile per zoom level it falls in, so a cached
+ * rendering of a tile stays valid for as long as its {@link #tileVersion} holds.
+ * A tile is only tracked while it has points; an emptied tile is dropped and
+ * reads as the newest stamp of any emptied tile, so its version never goes back.
+ */
+public class ClusterIndex<T extends GeoPoint> implements GeoGrid.ChangeListener<T> {
+
+    public static final int MAX_ZOOM = 16;
+    // Tiles across a viewport, a 4096-pixel screen at 256 pixels per tile
+    public static final int MAX_VIEWPORT_TILES = 16;
+    static final int CELL_BITS = 3;
+
+    private final Function<? super T, String> classifier;
+    private final List<Map<Long, Cell>> levels = new ArrayList<>();
+    private final List<Map<Long, TileStamp>> tileVersions = new ArrayList<>();
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicLong emptiedUpTo = new AtomicLong();
+
+    private record TileStamp(long version, long points) {
+    }
+
+    // Sums rather than averages so removing a point is exact; while count is 1, idSum is that point's id
+    private record Cell(long count, double latitudeSum, double longitudeSum, long idSum, Map<String, Long> mix) {
+
+        Cell plus(GeoPoint point, String type, int sign) {
+            Map<String, Long> counts = new HashMap<>(mix);
+            if (type != null) {
+                counts.merge(type, (long) sign, Long::sum);
+                counts.values().removeIf(n -> n == 0);
+            }
+            return new Cell(count + sign, latitudeSum + sign * point.latitude(),
+                    longitudeSum + sign * point.longitude(), idSum + sign * point.id(), Map.copyOf(counts));
+        }
+    }
+
+    /**
+     * @param classifier the class a point is counted under in a cell's mix; may return null
+     */
+    public ClusterIndex(Function<? super T, String> classifier) {
+        this.classifier = classifier;
+        for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+            levels.add(new ConcurrentHashMap<>());
+            tileVersions.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    @Override
+    public void changed(T previous, T current) {
+        if (previous != null) apply(previous, -1);
+        if (current != null) apply(current, 1);
+    }
+
+    private void apply(T point, int sign) {
+        String type = classifier.apply(point);
+        Cell empty = new Cell(0, 0, 0, 0, Map.of());
+        long stamp = changes.incrementAndGet();
+        for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+            int level = zoom + CELL_BITS;
+            int x = WebMercator.tileX(point.longitude(), level), y = WebMercator.tileY(point.latitude(), level);
+            levels.get(zoom).compute(key(x, y, level), (k, cell) -> {
+                Cell updated = (cell == null ? empty : cell).plus(point, type, sign);
+                return updated.count() == 0 ? null : updated;
+            });
+            // Stamped after the cell changed: a tile rendered under the previous stamp may
+            // already include this change, never one rendered under this stamp miss it
+            tileVersions.get(zoom).compute(key(x >> CELL_BITS, y >> CELL_BITS, zoom), (k, tile) -> {
+                long points = (tile == null ? 0 : tile.points()) + sign;
+                if (points == 0) {
+                    // Raised before the entry goes, so a reader never sees an older version
+                    emptiedUpTo.accumulateAndGet(stamp, Math::max);
+                    return null;
+                }
+                return new TileStamp(Math.max(stamp, tile == null ? 0 : tile.version()), points);
+            });
+        }
+    }
+
+    /**
+     * Clusters for the cells of zoom level {@code zoom} (capped at {@link #MAX_ZOOM})
+     * that overlap the bounding box. A cluster of one point carries that point's id.
+     * A box with {@code minLon > maxLon} crosses the antimeridian. A box wider or
+     * taller than {@link #MAX_VIEWPORT_TILES} tiles is answered at the highest
+     * zoom level where it is not, so no viewport reads more cells than a screen holds.
+     */
+    public List<Cluster> clusters(double minLat, double maxLat, double minLon, double maxLon, int zoom) {
+        if (minLat > maxLat) {
+            throw new IllegalArgumentException("Bounding box minLat must not exceed maxLat");
+        }
+        if (zoom < 0) {
+            throw new IllegalArgumentException("Zoom must not be negative");
+        }
+        int z = Math.min(zoom, MAX_ZOOM);
+        while (z > 0 && (columns(minLon, maxLon, z) > MAX_VIEWPORT_TILES
+                || WebMercator.tileY(minLat, z) - WebMercator.tileY(maxLat, z) + 1 > MAX_VIEWPORT_TILES)) {
+            z--;
+        }
+        int level = z + CELL_BITS;
+        int width = 1 << level;
+        int firstX = WebMercator.tileX(minLon, level);
+        int columns = columns(minLon, maxLon, level);
+        // y grows southwards
+        int firstY = WebMercator.tileY(maxLat, level), lastY = WebMercator.tileY(minLat, level);
+        Map<Long, Cell> cells = levels.get(z);
+
+        List<Cluster> found = new ArrayList<>();
+        long cellCount = (long) columns * (lastY - firstY + 1);
+        if (cellCount > cells.size()) {
+            cells.forEach((key, cell) -> {
+                long x = key >>> level, y = key & ((1L << level) - 1);
+                if (Math.floorMod(x - firstX, width) < columns && y >= firstY && y <= lastY) found.add(toCluster(cell));
+            });
+            return found;
+        }
+        for (int i = 0; i < columns; i++) {
+            int x = (firstX + i) % width;
+            for (int y = firstY; y <= lastY; y++) {
+                Cell cell = cells.get(key(x, y, level));
+                if (cell != null) found.add(toCluster(cell));
+            }
+        }
+        return found;
+    }
+
+    // Tile columns from minLon eastwards to maxLon, wrapping at the antimeridian; never more than the world
+    private static int columns(double minLon, double maxLon, int level) {
+        int width = 1 << level;
+        int firstX = WebMercator.tileX(minLon, level), lastX = WebMercator.tileX(maxLon, level);
+        if (minLon <= maxLon) {
+            return lastX - firstX + 1;
+        }
+        return lastX >= firstX ? width : width - firstX + lastX + 1;
+    }
+
+    /**
+     * Clusters for the 8 x 8 cells of map tile {@code (zoom, x, y)}, each cell's
+     * centroid lying inside the tile.
+     */
+    public List<Cluster> tile(int zoom, int x, int y) {
+        requireTile(zoom, x, y);
+        int level = zoom + CELL_BITS;
+        Map<Long, Cell> cells = levels.get(zoom);
+        List<Cluster> found = new ArrayList<>();
+        for (long cellX = (long) x << CELL_BITS; cellX < (long) (x + 1) << CELL_BITS; cellX++) {
+            for (long cellY = (long) y << CELL_BITS; cellY < (long) (y + 1) << CELL_BITS; cellY++) {
+                Cell cell = cells.get(key(cellX, cellY, level));
+                if (cell != null) found.add(toCluster(cell));
+            }
+        }
+        return found;
+    }
+
+    // Grows whenever a point in the tile is added, moved or removed; an empty tile's may grow meanwhile too
+    public long tileVersion(int zoom, int x, int y) {
+        requireTile(zoom, x, y);
+        TileStamp tile = tileVersions.get(zoom).get(key(x, y, zoom));
+        return tile != null ? tile.version() : emptiedUpTo.get();
+    }
+
+    // Tiles with a version of their own, across all zoom levels
+    int trackedTiles() {
+        return tileVersions.stream().mapToInt(Map::size).sum();
+    }
+
+    private static void requireTile(int zoom, int x, int y) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("Tile zoom must be between 0 and " + MAX_ZOOM);
+        }
+        if (x < 0 || y < 0 || x >= 1 << zoom || y >= 1 << zoom) {
+            throw new IllegalArgumentException("Tile " + x + "/" + y + " does not exist at zoom " + zoom);
+        }
+    }
+
+    private static Cluster toCluster(Cell cell) {
+        return new Cluster(cell.latitudeSum() / cell.count(), cell.longitudeSum() / cell.count(), cell.count(),
+                cell.mix(), cell.count() == 1 ? cell.idSum() : null);
+    }
+
+    private static long key(long x, long y, int level) {
+        return (x << level) | y;
+    }
+}
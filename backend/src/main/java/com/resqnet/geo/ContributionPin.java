@@ -0,0 +1,5 @@
+package com.resqnet.geo;
+
+public record ContributionPin(Long id, double latitude, double longitude, Long requestId, Long disasterId,
+                              String category, int contributedQuantity) implements GeoPoint {
+}
@@ -0,0 +1,12 @@
+package com.resqnet.geo;
+
+import com.resqnet.model.Disaster;
+
+public record DisasterPin(Long id, double latitude, double longitude, String type, String severity)
+        implements GeoPoint {
+
+    public static DisasterPin of(Disaster disaster) {
+        return new DisasterPin(disaster.getId(), disaster.getLatitude(), disaster.getLongitude(),
+                disaster.getType(), disaster.getSeverity());
+    }
+}
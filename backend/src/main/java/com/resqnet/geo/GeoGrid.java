@@ -0,0 +1,339 @@
+package com.resqnet.geo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BinaryOperator;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory spatial index: points bucketed into fixed-size latitude/longitude
+ * cells. Bounding-box and radius queries visit only the cells they overlap;
+ * nearest-neighbour queries search outward ring by ring until no unvisited
+ * cell can hold anything closer.
+ * <p>
+ * Reads are lock-free and may observe a write in progress; writes and reloads
+ * are serialized. A reload keeps any point written while it was loading, so a
+ * snapshot read from the database cannot undo a newer write.
+ */
+public class GeoGrid<T extends GeoPoint> {
+
+    private static final Comparator<Nearby<?>> BY_DISTANCE = Comparator.comparingDouble(Nearby::distanceKm);
+
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+
+    private final ChangeListener<? super T> listener;
+    private final Map<Long, T> byId = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Long, T>> cells = new ConcurrentHashMap<>();
+    private final Object reloadLock = new Object();
+
+    // Ids written since the running reload started; null when none is running
+    private Set<Long> writtenDuringReload;
+
+    /**
+     * Told about every point stored or dropped, while the grid's write lock is held,
+     * so listeners see changes one at a time and in order.
+     */
+    public interface ChangeListener<T> {
+        // previous is null for a new point, current is null for a removed one
+        void changed(T previous, T current);
+    }
+
+    public GeoGrid(double cellDegrees) {
+        this(cellDegrees, (previous, current) -> { });
+    }
+
+    public GeoGrid(double cellDegrees, ChangeListener<? super T> listener) {
+        if (!(cellDegrees > 0 && cellDegrees <= 10)) {
+            throw new IllegalArgumentException("Cell size must be between 0 and 10 degrees");
+        }
+        this.cellDegrees = cellDegrees;
+        this.listener = listener;
+        this.rows = (int) Math.ceil(180 / cellDegrees);
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public Optional<T> get(Long id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    public synchronized void put(T point) {
+        GeoMath.requireValid(point.latitude(), point.longitude());
+        store(point);
+        if (writtenDuringReload != null) writtenDuringReload.add(point.id());
+    }
+
+    // Combines the stored point, if any, with its replacement as merge(previous, point)
+    public synchronized void merge(T point, BinaryOperator<T> merge) {
+        T previous = byId.get(point.id());
+        put(previous == null ? point : merge.apply(previous, point));
+    }
+
+    // No-op when the point is not in the grid
+    public synchronized void update(Long id, UnaryOperator<T> change) {
+        T previous = byId.get(id);
+        if (previous != null) put(change.apply(previous));
+    }
+
+    public synchronized void remove(Long id) {
+        delete(id);
+        if (writtenDuringReload != null) writtenDuringReload.add(id);
+    }
+
+    public synchronized void removeIf(Predicate<? super T> condition) {
+        for (T point : List.copyOf(byId.values())) {
+            if (condition.test(point)) remove(point.id());
+        }
+    }
+
+    /**
+     * Makes the grid hold exactly what {@code loader} returns, apart from
+     * points written while it ran. One reload runs at a time.
+     */
+    public void reload(Supplier<? extends Collection<T>> loader) {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                writtenDuringReload = new HashSet<>();
+            }
+            Collection<T> loaded;
+            try {
+                loaded = loader.get();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    writtenDuringReload = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                Set<Long> keep = writtenDuringReload;
+                writtenDuringReload = null;
+                Set<Long> loadedIds = new HashSet<>();
+                for (T point : loaded) {
+                    loadedIds.add(point.id());
+                    if (!keep.contains(point.id())) store(point);
+                }
+                for (Long id : List.copyOf(byId.keySet())) {
+                    if (!loadedIds.contains(id) && !keep.contains(id)) delete(id);
+                }
+            }
+        }
+    }
+
+    // --- Queries ---
+
+    public List<T> within(double minLat, double maxLat, double minLon, double maxLon) {
+        if (minLat > maxLat || minLon > maxLon) {
+            throw new IllegalArgumentException("Bounding box minimums must not exceed maximums");
+        }
+        int firstRow = row(minLat), lastRow = row(maxLat);
+        int firstColumn = column(minLon), lastColumn = column(maxLon);
+        List<T> found = new ArrayList<>();
+        long cellCount = (long) (lastRow - firstRow + 1) * (lastColumn - firstColumn + 1);
+        if (cellCount > byId.size()) {
+            for (T point : byId.values()) {
+                if (inBox(point, minLat, maxLat, minLon, maxLon)) found.add(point);
+            }
+            return found;
+        }
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                Map<Long, T> cell = cells.get(key(row, column));
+                if (cell == null) continue;
+                for (T point : cell.values()) {
+                    if (inBox(point, minLat, maxLat, minLon, maxLon)) found.add(point);
+                }
+            }
+        }
+        return found;
+    }
+
+    // Nearest first
+    public List<Nearby<T>> withinRadius(double latitude, double longitude, double radiusKm) {
+        GeoMath.requireValid(latitude, longitude);
+        if (!(radiusKm >= 0)) {
+            throw new IllegalArgumentException("Radius must not be negative");
+        }
+        double latSpan = radiusKm / GeoMath.KM_PER_DEGREE;
+        int firstRow = row(Math.max(-90, latitude - latSpan));
+        int lastRow = row(Math.min(90, latitude + latSpan));
+        // Widest longitude span is at the band edge nearest a pole
+        double edgeLat = Math.min(90, Math.abs(latitude) + latSpan);
+        double lonSpan = edgeLat >= 90 ? 180 : latSpan / Math.cos(Math.toRadians(edgeLat));
+        int columnReach = lonSpan >= 180 ? columns : (int) Math.ceil(lonSpan / cellDegrees) + 1;
+        // All the way round: visit each column once
+        int firstColumn = 2 * columnReach + 1 >= columns ? 0 : column(longitude) - columnReach;
+        int lastColumn = 2 * columnReach + 1 >= columns ? columns - 1 : column(longitude) + columnReach;
+
+        List<Nearby<T>> found = new ArrayList<>();
+        long cellCount = (long) (lastRow - firstRow + 1) * (lastColumn - firstColumn + 1);
+        if (cellCount > byId.size()) {
+            for (T point : byId.values()) {
+                addIfWithin(found, point, latitude, longitude, radiusKm);
+            }
+        } else {
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    Map<Long, T> cell = cells.get(key(row, wrap(column)));
+                    if (cell == null) continue;
+                    for (T point : cell.values()) {
+                        addIfWithin(found, point, latitude, longitude, radiusKm);
+                    }
+                }
+            }
+        }
+        found.sort(BY_DISTANCE);
+        return found;
+    }
+
+    public List<Nearby<T>> nearest(double latitude, double longitude, int k) {
+        return nearest(latitude, longitude, k, Double.POSITIVE_INFINITY, point -> true);
+    }
+
+    /**
+     * Up to {@code k} points matching {@code filter} within {@code maxKm}, nearest first.
+     */
+    public List<Nearby<T>> nearest(double latitude, double longitude, int k, double maxKm, Predicate<? super T> filter) {
+        GeoMath.requireValid(latitude, longitude);
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1");
+        }
+        // Farthest of the best k so far on top
+        PriorityQueue<Nearby<T>> best = new PriorityQueue<>(BY_DISTANCE.reversed());
+        int centerRow = row(latitude), centerColumn = column(longitude);
+        long visitedCells = 0;
+        boolean exhausted = false;
+
+        for (int ring = 0; !exhausted; ring++) {
+            if (2 * ring + 1 >= columns || visitedCells > byId.size()) {
+                // Sparse data or a huge search area: one pass over everything is cheaper
+                best.clear();
+                for (T point : byId.values()) {
+                    offer(best, k, point, latitude, longitude, maxKm, filter);
+                }
+                break;
+            }
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                if (row < 0 || row >= rows) continue;
+                boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                int step = edgeRow || ring == 0 ? 1 : 2 * ring;
+                for (int column = centerColumn - ring; column <= centerColumn + ring; column += step) {
+                    visitedCells++;
+                    Map<Long, T> cell = cells.get(key(row, wrap(column)));
+                    if (cell == null) continue;
+                    for (T point : cell.values()) {
+                        offer(best, k, point, latitude, longitude, maxKm, filter);
+                    }
+                }
+            }
+            double unvisitedKm = unvisitedDistanceKm(latitude, longitude, centerRow, centerColumn, ring);
+            exhausted = unvisitedKm > maxKm || (best.size() == k && best.peek().distanceKm() <= unvisitedKm);
+        }
+
+        List<Nearby<T>> found = new ArrayList<>(best);
+        found.sort(BY_DISTANCE);
+        return found;
+    }
+
+    // Lower bound on the distance to any point outside the rings searched so far
+    private double unvisitedDistanceKm(double latitude, double longitude, int centerRow, int centerColumn, int ring) {
+        double bound = Double.POSITIVE_INFINITY;
+        if (centerRow - ring > 0) {
+            double southEdge = (centerRow - ring) * cellDegrees - 90;
+            bound = Math.min(bound, (latitude - southEdge) * GeoMath.KM_PER_DEGREE);
+        }
+        if (centerRow + ring < rows - 1) {
+            double northEdge = (centerRow + ring + 1) * cellDegrees - 90;
+            bound = Math.min(bound, (northEdge - latitude) * GeoMath.KM_PER_DEGREE);
+        }
+        double westEdge = (centerColumn - ring) * cellDegrees - 180;
+        double eastEdge = (centerColumn + ring + 1) * cellDegrees - 180;
+        double lonGap = Math.toRadians(Math.min(longitude - westEdge, eastEdge - longitude));
+        // Great-circle distance to the nearest edge meridian
+        double toMeridian = Math.asin(Math.min(1, Math.cos(Math.toRadians(latitude)) * Math.sin(Math.min(lonGap, Math.PI / 2))));
+        return Math.min(bound, toMeridian * GeoMath.EARTH_RADIUS_KM);
+    }
+
+    private void offer(PriorityQueue<Nearby<T>> best, int k, T point, double latitude, double longitude,
+                       double maxKm, Predicate<? super T> filter) {
+        double distance = GeoMath.distanceKm(latitude, longitude, point.latitude(), point.longitude());
+        if (distance > maxKm || !filter.test(point)) return;
+        if (best.size() < k) {
+            best.add(new Nearby<>(point, distance));
+        } else if (distance < best.peek().distanceKm()) {
+            best.poll();
+            best.add(new Nearby<>(point, distance));
+        }
+    }
+
+    private void addIfWithin(List<Nearby<T>> found, T point, double latitude, double longitude, double radiusKm) {
+        double distance = GeoMath.distanceKm(latitude, longitude, point.latitude(), point.longitude());
+        if (distance <= radiusKm) found.add(new Nearby<>(point, distance));
+    }
+
+    private static boolean inBox(GeoPoint point, double minLat, double maxLat, double minLon, double maxLon) {
+        return point.latitude() >= minLat && point.latitude() <= maxLat
+                && point.longitude() >= minLon && point.longitude() <= maxLon;
+    }
+
+    // --- Cells ---
+
+    private void store(T point) {
+        // Reloads store every point again; most are unchanged
+        if (point.equals(byId.get(point.id()))) return;
+        T previous = byId.put(point.id(), point);
+        if (previous != null) unlink(previous);
+        cells.computeIfAbsent(cellOf(point), key -> new ConcurrentHashMap<>()).put(point.id(), point);
+        listener.changed(previous, point);
+    }
+
+    private void delete(Long id) {
+        T previous = byId.remove(id);
+        if (previous != null) {
+            unlink(previous);
+            listener.changed(previous, null);
+        }
+    }
+
+    private void unlink(T point) {
+        long key = cellOf(point);
+        Map<Long, T> cell = cells.get(key);
+        if (cell == null) return;
+        cell.remove(point.id());
+        if (cell.isEmpty()) cells.remove(key);
+    }
+
+    private long cellOf(GeoPoint point) {
+        return key(row(point.latitude()), column(point.longitude()));
+    }
+
+    private long key(int row, int column) {
+        return (long) row * columns + column;
+    }
+
+    private int row(double latitude) {
+        return Math.min(rows - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellDegrees)));
+    }
+
+    private int column(double longitude) {
+        return Math.min(columns - 1, Math.max(0, (int) Math.floor((longitude + 180) / cellDegrees)));
+    }
+
+    private int wrap(int column) {
+        return Math.floorMod(column, columns);
+    }
+}
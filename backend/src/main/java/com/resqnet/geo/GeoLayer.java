@@ -0,0 +1,31 @@
+package com.resqnet.geo;
+
+import java.util.Locale;
+
+/**
+ * The located collections kept in the spatial index.
+ */
+public enum GeoLayer {
+    DISASTERS(DisasterPin.class),
+    RESPONDERS(ResponderPin.class),
+    CONTRIBUTIONS(ContributionPin.class);
+
+    private final Class<? extends GeoPoint> pinType;
+
+    GeoLayer(Class<? extends GeoPoint> pinType) {
+        this.pinType = pinType;
+    }
+
+    // What the layer's grid holds, e.g. to read pins announced by another node
+    public Class<? extends GeoPoint> pinType() {
+        return pinType;
+    }
+
+    public static GeoLayer of(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown map layer: " + name + " (use disasters, responders or contributions)");
+        }
+    }
+}
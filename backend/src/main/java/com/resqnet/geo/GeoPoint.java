@@ -0,0 +1,13 @@
+package com.resqnet.geo;
+
+/**
+ * Something with an id and a position, as kept in a {@link GeoGrid}.
+ */
+public interface GeoPoint {
+
+    Long id();
+
+    double latitude();
+
+    double longitude();
+}
@@ -0,0 +1,24 @@
+package com.resqnet.geo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A point found by a radius or nearest-neighbour query, with its distance from the query position.
+ */
+public record Nearby<T extends GeoPoint>(T point, double distanceKm) {
+
+    // The candidates within radiusKm, nearest first (for candidates read by bounding box)
+    public static <T extends GeoPoint> List<Nearby<T>> within(Collection<T> candidates,
+                                                              double latitude, double longitude, double radiusKm) {
+        List<Nearby<T>> found = new ArrayList<>();
+        for (T point : candidates) {
+            double distance = GeoMath.distanceKm(latitude, longitude, point.latitude(), point.longitude());
+            if (distance <= radiusKm) found.add(new Nearby<>(point, distance));
+        }
+        found.sort(Comparator.comparingDouble(Nearby::distanceKm));
+        return found;
+    }
+}
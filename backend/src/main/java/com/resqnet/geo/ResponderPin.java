@@ -0,0 +1,19 @@
+package com.resqnet.geo;
+
+import java.time.LocalDateTime;
+
+// A responder's saved location; users without one, or with another role, are not indexed.
+// lastActiveAt is their latest contribution, null if they have never contributed.
+public record ResponderPin(Long id, double latitude, double longitude, LocalDateTime lastActiveAt)
+        implements GeoPoint {
+
+    public ResponderPin activeAt(LocalDateTime time) {
+        return lastActiveAt != null && lastActiveAt.isAfter(time) ? this
+                : new ResponderPin(id, latitude, longitude, time);
+    }
+
+    // Profile edits don't know the responder's activity, so a pin without one keeps the previous one
+    public ResponderPin replacing(ResponderPin previous) {
+        return lastActiveAt == null && previous.lastActiveAt() != null ? activeAt(previous.lastActiveAt()) : this;
+    }
+}
@@ -0,0 +1,139 @@
+package com.resqnet.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The {@code geo_key} column: latitude and longitude quantized to 30 bits each
+ * and interleaved longitude-first, i.e. a 60-bit geohash held as a number.
+ * Every geohash cell is one contiguous key range, so a bounding box is answered
+ * by a few {@code BETWEEN} range scans on the key index followed by the exact
+ * latitude/longitude check.
+ */
+public final class SpatialKey {
+
+    static final int BITS_PER_AXIS = 30;
+    private static final long AXIS_CELLS = 1L << BITS_PER_AXIS;
+
+    // Range count the repository queries take; unused slots hold an empty range
+    public static final int RANGES = 4;
+    private static final long EMPTY_FROM = 1, EMPTY_TO = 0;
+
+    private SpatialKey() {
+    }
+
+    public static long of(double latitude, double longitude) {
+        GeoMath.requireValid(latitude, longitude);
+        return interleave(quantize((longitude + 180) / 360), quantize((latitude + 90) / 180));
+    }
+
+    // Column value for an entity: null while either coordinate is missing or out of range
+    public static Long ofNullable(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null || !(Math.abs(latitude) <= 90 && Math.abs(longitude) <= 180)) {
+            return null;
+        }
+        return of(latitude, longitude);
+    }
+
+    /**
+     * Key ranges covering the bounding box: the finest geohash level at which the
+     * box spans at most two cells each way, so at most {@link #RANGES} ranges
+     * reading at most a few times the box's own area. A box reaching past the
+     * poles or the antimeridian is clipped to the valid range; split a box that
+     * wraps around the antimeridian first (see {@link BoundingBox#around}).
+     */
+    public static Cover cover(double minLat, double maxLat, double minLon, double maxLon) {
+        if (minLat > maxLat || minLon > maxLon) {
+            throw new IllegalArgumentException("Bounding box minimums must not exceed maximums");
+        }
+        minLat = Math.max(-90, minLat);
+        maxLat = Math.min(90, maxLat);
+        minLon = Math.max(-180, minLon);
+        maxLon = Math.min(180, maxLon);
+        if (minLat > maxLat || minLon > maxLon) return Cover.NONE;
+        long minX = quantize((minLon + 180) / 360), maxX = quantize((maxLon + 180) / 360);
+        long minY = quantize((minLat + 90) / 180), maxY = quantize((maxLat + 90) / 180);
+        int shift = 0;
+        while ((maxX >> shift) - (minX >> shift) > 1 || (maxY >> shift) - (minY >> shift) > 1) {
+            shift++;
+        }
+
+        List<long[]> ranges = new ArrayList<>();
+        for (long x = minX >> shift; x <= maxX >> shift; x++) {
+            for (long y = minY >> shift; y <= maxY >> shift; y++) {
+                long from = interleave(x, y) << (2 * shift);
+                ranges.add(new long[] {from, from + (1L << (2 * shift)) - 1});
+            }
+        }
+        ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+        List<long[]> merged = new ArrayList<>();
+        for (long[] range : ranges) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && last[1] + 1 == range[0]) {
+                last[1] = range[1];
+            } else {
+                merged.add(range);
+            }
+        }
+        Cover cover = Cover.uniform(EMPTY_FROM, EMPTY_TO);
+        for (int i = 0; i < merged.size(); i++) {
+            cover.from[i] = merged.get(i)[0];
+            cover.to[i] = merged.get(i)[1];
+        }
+        return cover;
+    }
+
+    public static final class Cover {
+
+        public static final Cover NONE = uniform(EMPTY_FROM, EMPTY_TO);
+
+        private final long[] from;
+        private final long[] to;
+
+        private Cover(long[] from, long[] to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        private static Cover uniform(long from, long to) {
+            long[] froms = new long[RANGES], tos = new long[RANGES];
+            Arrays.fill(froms, from);
+            Arrays.fill(tos, to);
+            return new Cover(froms, tos);
+        }
+
+        public long from(int range) { return from[range]; }
+
+        public long to(int range) { return to[range]; }
+
+        // An unused slot: BETWEEN from AND to matches no key
+        public boolean isEmpty(int range) { return from[range] > to[range]; }
+
+        public boolean contains(long key) {
+            for (int i = 0; i < RANGES; i++) {
+                if (key >= from[i] && key <= to[i]) return true;
+            }
+            return false;
+        }
+    }
+
+    private static long quantize(double fraction) {
+        return Math.min(AXIS_CELLS - 1, (long) Math.floor(fraction * AXIS_CELLS));
+    }
+
+    // x bits to the odd positions, y bits to the even ones
+    private static long interleave(long x, long y) {
+        return (spread(x) << 1) | spread(y);
+    }
+
+    private static long spread(long v) {
+        v &= AXIS_CELLS - 1;
+        v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        v = (v | (v << 1)) & 0x5555555555555555L;
+        return v;
+    }
+}
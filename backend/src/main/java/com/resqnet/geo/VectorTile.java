@@ -0,0 +1,123 @@
+package com.resqnet.geo;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes the clusters of one map tile as a Mapbox Vector Tile (version 2, the
+ * protobuf format read by MapLibre, OpenLayers and Leaflet plugins). Each cluster
+ * is a point feature at its centroid with a {@code count} property and one
+ * count property per class in its mix; a single-point cluster carries the
+ * point's id as the feature id. The protobuf is written by hand, as only the
+ * handful of fields a point layer needs are used.
+ */
+public final class VectorTile {
+
+    public static final String MEDIA_TYPE = "application/vnd.mapbox-vector-tile";
+    static final int EXTENT = 4096;
+
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_LENGTH = 2;
+    private static final int POINT = 1;
+    private static final int MOVE_TO_ONE = (1 << 3) | 1;
+
+    private VectorTile() {
+    }
+
+    /**
+     * @return the tile bytes; empty (a tile without layers) when there are no clusters
+     */
+    public static byte[] encode(String layerName, int zoom, int x, int y, List<Cluster> clusters) {
+        if (clusters.isEmpty()) {
+            return new byte[0];
+        }
+        Map<String, Integer> keys = new LinkedHashMap<>();
+        Map<Long, Integer> values = new LinkedHashMap<>();
+        List<byte[]> features = new ArrayList<>(clusters.size());
+        double tiles = 1 << zoom;
+        for (Cluster cluster : clusters) {
+            long px = Math.round(((cluster.longitude() + 180) / 360 * tiles - x) * EXTENT);
+            long py = Math.round((WebMercator.y(cluster.latitude()) * tiles - y) * EXTENT);
+
+            ProtoWriter tags = new ProtoWriter();
+            tag(tags, keys, values, "count", cluster.count());
+            cluster.mix().forEach((type, count) -> tag(tags, keys, values, type, count));
+
+            ProtoWriter feature = new ProtoWriter();
+            if (cluster.id() != null) {
+                feature.varintField(1, cluster.id());
+            }
+            feature.bytesField(2, tags.toByteArray());
+            feature.varintField(3, POINT);
+            ProtoWriter geometry = new ProtoWriter();
+            geometry.varint(MOVE_TO_ONE);
+            geometry.varint(zigZag(px));
+            geometry.varint(zigZag(py));
+            feature.bytesField(4, geometry.toByteArray());
+            features.add(feature.toByteArray());
+        }
+
+        ProtoWriter layer = new ProtoWriter();
+        layer.varintField(15, 2);
+        layer.stringField(1, layerName);
+        features.forEach(feature -> layer.bytesField(2, feature));
+        keys.keySet().forEach(key -> layer.stringField(3, key));
+        for (Long value : values.keySet()) {
+            ProtoWriter uint = new ProtoWriter();
+            uint.varintField(5, value);
+            layer.bytesField(4, uint.toByteArray());
+        }
+        layer.varintField(5, EXTENT);
+
+        ProtoWriter tile = new ProtoWriter();
+        tile.bytesField(3, layer.toByteArray());
+        return tile.toByteArray();
+    }
+
+    // Key and value indexes into the layer's shared tables
+    private static void tag(ProtoWriter tags, Map<String, Integer> keys, Map<Long, Integer> values,
+                            String key, long value) {
+        tags.varint(keys.computeIfAbsent(key, k -> keys.size()));
+        tags.varint(values.computeIfAbsent(value, v -> values.size()));
+    }
+
+    private static long zigZag(long n) {
+        return (n << 1) ^ (n >> 63);
+    }
+
+    private static final class ProtoWriter {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        void varint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        void varintField(int field, long value) {
+            varint((long) field << 3 | WIRE_VARINT);
+            varint(value);
+        }
+
+        void bytesField(int field, byte[] bytes) {
+            varint((long) field << 3 | WIRE_LENGTH);
+            varint(bytes.length);
+            out.writeBytes(bytes);
+        }
+
+        void stringField(int field, String value) {
+            bytesField(field, value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.resqnet.geo;
+
+/**
+ * Slippy-map tile arithmetic (EPSG:3857, as used by OpenStreetMap and Leaflet):
+ * at level {@code z} the world is a {@code 2^z} by {@code 2^z} grid of tiles,
+ * x growing east from the antimeridian and y growing south from the top edge.
+ */
+public final class WebMercator {
+
+    // Latitude at which the projection becomes a square
+    public static final double MAX_LATITUDE = 85.0511287798066;
+
+    private WebMercator() {
+    }
+
+    public static int tileX(double longitude, int level) {
+        int tiles = 1 << level;
+        return Math.min(tiles - 1, Math.max(0, (int) Math.floor((longitude + 180) / 360 * tiles)));
+    }
+
+    public static int tileY(double latitude, int level) {
+        int tiles = 1 << level;
+        return Math.min(tiles - 1, Math.max(0, (int) Math.floor(y(latitude) * tiles)));
+    }
+
+    // 0 at the top edge, 1 at the bottom
+    public static double y(double latitude) {
+        double phi = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude)));
+        return (1 - Math.log(Math.tan(phi) + 1 / Math.cos(phi)) / Math.PI) / 2;
+    }
+
+    // West edge of tile column x
+    public static double longitude(double x, int level) {
+        return x / (1 << level) * 360 - 180;
+    }
+
+    // North edge of tile row y
+    public static double latitude(double y, int level) {
+        double n = Math.PI * (1 - 2 * y / (1 << level));
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+}
@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 public class AdminNotificationRead {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "admin_notification_reads_seq")
+    @SequenceGenerator(name = "admin_notification_reads_seq", sequenceName = "admin_notification_reads_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -0,0 +1,88 @@
+package com.resqnet.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One slice of a resource request's remaining capacity. Contributors each
+ * decrement a single stripe, so a popular request is not one contended row.
+ */
+@Entity
+@Table(name = "request_capacity_stripes")
+@IdClass(CapacityStripe.Key.class)
+public class CapacityStripe implements Persistable<CapacityStripe.Key> {
+
+    @Id
+    @Column(name = "request_id")
+    private Long requestId;
+
+    @Id
+    private int stripe;
+
+    @Column(nullable = false)
+    private int remaining;
+
+    // The id is assigned, not generated: without this save() would merge, i.e. SELECT before INSERT
+    @Transient
+    private boolean isNew = true;
+
+    public CapacityStripe() {
+    }
+
+    public CapacityStripe(Long requestId, int stripe, int remaining) {
+        this.requestId = requestId;
+        this.stripe = stripe;
+        this.remaining = remaining;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public Key getId() { return new Key(requestId, stripe); }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    // --- Getters & Setters ---
+    public Long getRequestId() { return requestId; }
+    public void setRequestId(Long requestId) { this.requestId = requestId; }
+
+    public int getStripe() { return stripe; }
+    public void setStripe(int stripe) { this.stripe = stripe; }
+
+    public int getRemaining() { return remaining; }
+    public void setRemaining(int remaining) { this.remaining = remaining; }
+
+    public static class Key implements Serializable {
+
+        private Long requestId;
+        private int stripe;
+
+        public Key() {
+        }
+
+        public Key(Long requestId, int stripe) {
+            this.requestId = requestId;
+            this.stripe = stripe;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return stripe == other.stripe && Objects.equals(requestId, other.requestId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(requestId, stripe);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.resqnet.model;
 
+import com.resqnet.geo.SpatialKey;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import org.hibernate.annotations.CreationTimestamp;
@@ -15,7 +16,8 @@ import jakarta.validation.constraints.NotNull;
 public class Contribution {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contributions_seq")
+    @SequenceGenerator(name = "contributions_seq", sequenceName = "contributions_seq", allocationSize = 50)
     private Long id;
 
     @Min(value = 1, message = "Contribution must be at least 1")
@@ -44,6 +46,9 @@ public class Contribution {
     @Column(nullable = false)
     private Double longitude;
 
+    // Follows latitude/longitude (SpatialKey); indexed for area queries
+    private Long geoKey;
+
     @CreationTimestamp
     @Column(updatable = false, nullable = false)
     private LocalDateTime createdAt;
@@ -51,6 +56,10 @@ public class Contribution {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    // Set by the compactor once the quantity is counted in request.fulfilledQuantity
+    @Column(nullable = false)
+    private boolean rolledUp;
+
     // --- Getters & Setters ---
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -68,14 +77,25 @@ public class Contribution {
     public void setCategory(String category) { this.category = category; }
 
     public Double getLatitude() { return latitude; }
-    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+        this.geoKey = SpatialKey.ofNullable(latitude, longitude);
+    }
 
     public Double getLongitude() { return longitude; }
-    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+        this.geoKey = SpatialKey.ofNullable(latitude, longitude);
+    }
+
+    public Long getGeoKey() { return geoKey; }
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public boolean isRolledUp() { return rolledUp; }
+    public void setRolledUp(boolean rolledUp) { this.rolledUp = rolledUp; }
 }
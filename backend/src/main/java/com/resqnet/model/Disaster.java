@@ -1,5 +1,6 @@
 package com.resqnet.model;
 
+import com.resqnet.geo.SpatialKey;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -12,7 +13,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 public class Disaster {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "disasters_seq")
+    @SequenceGenerator(name = "disasters_seq", sequenceName = "disasters_seq", allocationSize = 50)
     private Long id;
 
     private String type;       // e.g. Flood, Earthquake, Fire
@@ -22,7 +24,10 @@ public class Disaster {
     private double latitude;
     private double longitude;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Follows latitude/longitude (SpatialKey); indexed for area queries
+    private Long geoKey = SpatialKey.of(0, 0);
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "reporter_id")
     private User reporter;     // Who reported this disaster
 
@@ -54,10 +59,18 @@ public class Disaster {
     public void setDescription(String description) { this.description = description; }
 
     public double getLatitude() { return latitude; }
-    public void setLatitude(double latitude) { this.latitude = latitude; }
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+        this.geoKey = SpatialKey.ofNullable(latitude, longitude);
+    }
 
     public double getLongitude() { return longitude; }
-    public void setLongitude(double longitude) { this.longitude = longitude; }
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+        this.geoKey = SpatialKey.ofNullable(latitude, longitude);
+    }
+
+    public Long getGeoKey() { return geoKey; }
 
     public User getReporter() { return reporter; }
     public void setReporter(User reporter) { this.reporter = reporter; }
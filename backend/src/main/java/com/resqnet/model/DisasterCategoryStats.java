@@ -0,0 +1,92 @@
+package com.resqnet.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Requests of one category within one disaster, counted by status, with their
+ * requested and (rolled up) fulfilled quantities.
+ */
+@Entity
+@Table(name = "disaster_category_stats")
+@IdClass(DisasterCategoryStats.Key.class)
+public class DisasterCategoryStats {
+
+    @Id
+    @Column(name = "disaster_id")
+    private Long disasterId;
+
+    @Id
+    private String category;
+
+    @Column(nullable = false)
+    private int pendingCount;
+
+    @Column(nullable = false)
+    private int partialCount;
+
+    @Column(nullable = false)
+    private int fulfilledCount;
+
+    @Column(nullable = false)
+    private long requestedQuantity;
+
+    @Column(nullable = false)
+    private long fulfilledQuantity;
+
+    @Column(nullable = false)
+    private Long firstRequestId;
+
+    // --- Getters & Setters ---
+    public Long getDisasterId() { return disasterId; }
+    public void setDisasterId(Long disasterId) { this.disasterId = disasterId; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public int getPendingCount() { return pendingCount; }
+    public void setPendingCount(int pendingCount) { this.pendingCount = pendingCount; }
+
+    public int getPartialCount() { return partialCount; }
+    public void setPartialCount(int partialCount) { this.partialCount = partialCount; }
+
+    public int getFulfilledCount() { return fulfilledCount; }
+    public void setFulfilledCount(int fulfilledCount) { this.fulfilledCount = fulfilledCount; }
+
+    public long getRequestedQuantity() { return requestedQuantity; }
+    public void setRequestedQuantity(long requestedQuantity) { this.requestedQuantity = requestedQuantity; }
+
+    public long getFulfilledQuantity() { return fulfilledQuantity; }
+    public void setFulfilledQuantity(long fulfilledQuantity) { this.fulfilledQuantity = fulfilledQuantity; }
+
+    public Long getFirstRequestId() { return firstRequestId; }
+    public void setFirstRequestId(Long firstRequestId) { this.firstRequestId = firstRequestId; }
+
+    public static class Key implements Serializable {
+
+        private Long disasterId;
+        private String category;
+
+        public Key() {
+        }
+
+        public Key(Long disasterId, String category) {
+            this.disasterId = disasterId;
+            this.category = category;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return Objects.equals(disasterId, other.disasterId) && Objects.equals(category, other.category);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(disasterId, category);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.resqnet.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-disaster aggregate row, maintained by {@code DisasterStatsService}.
+ * The per-category counts live in {@link DisasterCategoryStats}.
+ */
+@Entity
+@Table(name = "disaster_stats")
+public class DisasterStats {
+
+    @Id
+    @Column(name = "disaster_id")
+    private Long disasterId;
+
+    @Column(nullable = false)
+    private LocalDateTime lastActivityAt;
+
+    // --- Getters & Setters ---
+    public Long getDisasterId() { return disasterId; }
+    public void setDisasterId(Long disasterId) { this.disasterId = disasterId; }
+
+    public LocalDateTime getLastActivityAt() { return lastActivityAt; }
+    public void setLastActivityAt(LocalDateTime lastActivityAt) { this.lastActivityAt = lastActivityAt; }
+}
@@ -19,7 +19,8 @@ public class ResourceRequest {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "resource_requests_seq")
+    @SequenceGenerator(name = "resource_requests_seq", sequenceName = "resource_requests_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -58,12 +59,17 @@ public class ResourceRequest {
     }
 
     public void updateStatus() {
-        if (this.fulfilledQuantity >= this.requestedQuantity) {
-            this.status = Status.FULFILLED;
-        } else if (this.fulfilledQuantity > 0) {
-            this.status = Status.PARTIAL;
+        this.status = statusFor(this.fulfilledQuantity, this.requestedQuantity);
+    }
+
+    // Same rule as the CASE in ResourceRequestRepository's quantity updates
+    public static Status statusFor(int fulfilledQuantity, int requestedQuantity) {
+        if (fulfilledQuantity >= requestedQuantity) {
+            return Status.FULFILLED;
+        } else if (fulfilledQuantity > 0) {
+            return Status.PARTIAL;
         } else {
-            this.status = Status.PENDING;
+            return Status.PENDING;
         }
     }
 
@@ -1,6 +1,7 @@
 package com.resqnet.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.resqnet.geo.SpatialKey;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 
@@ -51,6 +52,9 @@ public class User {
     @Column
     private Double longitude;
 
+    // Follows latitude/longitude (SpatialKey); indexed for area queries
+    private Long geoKey;
+
     // --- Relationships ---
     // Reporter → Disasters
     @OneToMany(mappedBy = "reporter", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -87,10 +91,18 @@ public class User {
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
     public Double getLatitude() { return latitude; }
-    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+        this.geoKey = SpatialKey.ofNullable(latitude, longitude);
+    }
 
     public Double getLongitude() { return longitude; }
-    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+        this.geoKey = SpatialKey.ofNullable(latitude, longitude);
+    }
+
+    public Long getGeoKey() { return geoKey; }
 
     public List<Disaster> getDisasters() { return disasters; }
     public void setDisasters(List<Disaster> disasters) { this.disasters = disasters; }
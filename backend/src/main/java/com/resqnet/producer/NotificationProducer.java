@@ -6,9 +6,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class NotificationProducer {
 
@@ -17,15 +18,15 @@ public class NotificationProducer {
 
     private final KafkaTemplate<String, NotificationDTO> kafkaTemplate;
     private final NotificationService notificationService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationPusher pusher;
 
     public NotificationProducer(
             @Autowired(required = false) KafkaTemplate<String, NotificationDTO> kafkaTemplate,
             NotificationService notificationService,
-            @Autowired(required = false) SimpMessagingTemplate messagingTemplate) {
+            NotificationPusher pusher) {
         this.kafkaTemplate = kafkaTemplate;
         this.notificationService = notificationService;
-        this.messagingTemplate = messagingTemplate;
+        this.pusher = pusher;
 
         if (kafkaTemplate != null) {
             log.info("Kafka available — notifications will be dispatched via Kafka");
@@ -42,27 +43,25 @@ public class NotificationProducer {
         }
     }
 
-    private void dispatchDirectly(NotificationDTO notification) {
+    // Fan-out to many recipients: one Kafka record each, or a single batched save without Kafka
+    public void sendNotifications(List<NotificationDTO> notifications) {
+        if (notifications.isEmpty()) return;
+        if (kafkaTemplate != null) {
+            notifications.forEach(notification -> kafkaTemplate.send(TOPIC, notification));
+            return;
+        }
         try {
-            NotificationDTO saved = notificationService.saveNotification(notification);
-            pushViaWebSocket(saved);
+            pusher.deliver(notificationService.saveNotifications(notifications));
         } catch (Exception e) {
-            log.error("Failed to dispatch notification directly: {}", e.getMessage(), e);
+            log.error("Failed to dispatch {} notifications directly: {}", notifications.size(), e.getMessage(), e);
         }
     }
 
-    private void pushViaWebSocket(NotificationDTO saved) {
-        if (messagingTemplate == null) return;
+    private void dispatchDirectly(NotificationDTO notification) {
         try {
-            if (saved.isAdminBroadcast()) {
-                messagingTemplate.convertAndSend("/topic/notifications/admin", saved);
-            }
-            String email = saved.getRecipientEmail();
-            if (email != null && !"ADMIN-BROADCAST".equals(email)) {
-                messagingTemplate.convertAndSend("/queue/notifications/" + email, saved);
-            }
+            pusher.deliver(List.of(notificationService.saveNotification(notification)));
         } catch (Exception e) {
-            log.warn("WebSocket push failed (non-fatal): {}", e.getMessage());
+            log.error("Failed to dispatch notification directly: {}", e.getMessage(), e);
         }
     }
 }
@@ -0,0 +1,61 @@
+package com.resqnet.producer;
+
+import com.resqnet.dto.NotificationDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * WebSocket delivery of saved notifications. With the Postgres event bus
+ * enabled, {@link #deliver} hands them to {@link PgNotifyPublisher} and every
+ * node, this one included, pushes them from its {@link PgNotifyListener};
+ * otherwise they go straight to this node's subscribers.
+ */
+@Component
+public class NotificationPusher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPusher.class);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final PgNotifyPublisher eventBus;
+
+    public NotificationPusher(@Autowired(required = false) SimpMessagingTemplate messagingTemplate,
+                              @Autowired(required = false) PgNotifyPublisher eventBus) {
+        this.messagingTemplate = messagingTemplate;
+        this.eventBus = eventBus;
+    }
+
+    public void deliver(List<NotificationDTO> saved) {
+        if (eventBus != null) {
+            eventBus.publish(saved);
+        } else {
+            pushLocally(saved);
+        }
+    }
+
+    public void pushLocally(List<NotificationDTO> saved) {
+        if (messagingTemplate == null) return;
+        saved.forEach(this::push);
+    }
+
+    private void push(NotificationDTO saved) {
+        try {
+            if (saved.isAdminBroadcast()) {
+                messagingTemplate.convertAndSend("/topic/notifications/admin", saved);
+                log.debug("WebSocket push to /topic/notifications/admin");
+            }
+
+            String email = saved.getRecipientEmail();
+            if (email != null && !"ADMIN-BROADCAST".equals(email)) {
+                messagingTemplate.convertAndSend("/queue/notifications/" + email, saved);
+                log.debug("WebSocket push to /queue/notifications/{}", email);
+            }
+        } catch (Exception e) {
+            log.warn("WebSocket push failed (non-fatal): {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.resqnet.producer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.resqnet.event.CollectionChangedEvent;
+import com.resqnet.service.CollectionVersions;
+import com.resqnet.service.NotificationService;
+import com.resqnet.service.SpatialIndexService;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Receiving side of the event bus: one thread per node holds its own
+ * connection to the primary (outside the pool, since it never goes back),
+ * LISTENs on the channel and pushes what arrives to this node's WebSocket
+ * subscribers. Payloads that carry only ids are reloaded from the primary.
+ * Collection changes announced by other nodes move this node's
+ * {@link CollectionVersions} on, and their map changes patch this node's
+ * {@link SpatialIndexService}.
+ * Announcements made while the connection is down are not replayed; clients
+ * still get those notifications on their next fetch, every collection is
+ * treated as changed and the spatial index is reloaded once the connection is back.
+ */
+@Component
+@ConditionalOnProperty(name = "resqnet.events.pg-notify.enabled", havingValue = "true")
+public class PgNotifyListener implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PgNotifyListener.class);
+    private static final int POLL_TIMEOUT_MS = 1000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final NotificationService notificationService;
+    private final NotificationPusher pusher;
+    private final CollectionVersions collectionVersions;
+    private final SpatialIndexService spatialIndex;
+    private final PgNotifyPublisher publisher;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final Duration reconnectDelay;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public PgNotifyListener(DataSourceProperties dataSourceProperties,
+                            NotificationService notificationService,
+                            NotificationPusher pusher,
+                            CollectionVersions collectionVersions,
+                            SpatialIndexService spatialIndex,
+                            PgNotifyPublisher publisher,
+                            ObjectMapper objectMapper,
+                            @Value("${resqnet.events.pg-notify.channel:resqnet_notifications}") String channel,
+                            @Value("${resqnet.events.pg-notify.reconnect-delay:5s}") Duration reconnectDelay) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.notificationService = notificationService;
+        this.pusher = pusher;
+        this.collectionVersions = collectionVersions;
+        this.spatialIndex = spatialIndex;
+        this.publisher = publisher;
+        this.objectMapper = objectMapper;
+        this.channel = PgNotifyPublisher.requireChannel(channel);
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        thread = new Thread(this::listen, "pg-notify-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Listening for notifications on {}", channel);
+                // Whatever was announced while not listening is lost
+                collectionVersions.onRemoteChange(CollectionChangedEvent.ALL);
+                spatialIndex.reloadAll();
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] received = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (received != null) {
+                        for (PGNotification notification : received) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) return;
+                log.warn("Lost {} listener connection, reconnecting in {}: {}", channel, reconnectDelay, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        try {
+            PgNotifyPayloads.Batch batch = PgNotifyPayloads.decode(objectMapper, payload);
+            boolean remote = !publisher.nodeId().equals(batch.origin());
+            if (!batch.collections().isEmpty() && remote) {
+                collectionVersions.onRemoteChange(batch.collections());
+            }
+            if (batch.geo() != null && remote) {
+                applyGeoChange(batch.geo());
+            }
+            pusher.pushLocally(batch.notifications());
+            if (!batch.ids().isEmpty()) {
+                pusher.pushLocally(notificationService.getNotificationsForDelivery(batch.ids()));
+            }
+        } catch (Exception e) {
+            log.warn("Dropping undeliverable {} payload: {}", channel, e.getMessage());
+        }
+    }
+
+    private void applyGeoChange(PgNotifyPayloads.GeoChange change) throws Exception {
+        spatialIndex.onGeoChanged(change.toEvent(objectMapper));
+        if (!change.refresh().isEmpty()) {
+            spatialIndex.refresh(change.layer(), change.refresh());
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.resqnet.producer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.resqnet.dto.NotificationDTO;
+import com.resqnet.event.GeoChangedEvent;
+import com.resqnet.geo.GeoLayer;
+import com.resqnet.geo.GeoPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Wire format of the Postgres event bus. Notifications are packed into as few
+ * {@code {"notifications":[...]}} payloads as fit under the NOTIFY size limit;
+ * one that does not fit on its own is sent by id in an {@code {"ids":[...]}}
+ * payload and reloaded by the listener; one without an id cannot be reloaded
+ * and is dropped with a warning. Collection changes travel as
+ * {@code {"origin":"<node>","collections":[...]}} so that every other node
+ * can move its list versions on, and map changes as
+ * {@code {"origin":"<node>","geo":{...}}} so that it can patch its spatial index.
+ */
+public final class PgNotifyPayloads {
+
+    private static final Logger log = LoggerFactory.getLogger(PgNotifyPayloads.class);
+
+    // NOTIFY rejects payloads of 8000 bytes or more
+    public static final int MAX_BYTES = 7999;
+
+    private static final String NOTIFICATIONS_PREFIX = "{\"notifications\":[";
+    private static final String IDS_PREFIX = "{\"ids\":[";
+    private static final String SUFFIX = "]}";
+
+    public record Batch(List<NotificationDTO> notifications, List<Long> ids, String origin, Set<String> collections,
+                        GeoChange geo) {
+
+        public Batch {
+            notifications = notifications != null ? notifications : List.of();
+            ids = ids != null ? ids : List.of();
+            collections = collections != null ? collections : Set.of();
+        }
+    }
+
+    /**
+     * A {@link GeoChangedEvent} on the wire. Upserted pins travel as JSON of the
+     * layer's pin type, or only as ids in {@code refresh} for the receiver to
+     * read back when they do not fit.
+     */
+    public record GeoChange(GeoLayer layer, List<JsonNode> upserts, List<Long> refresh, List<Long> removals,
+                            Set<Long> disasterIds, Set<Long> requestIds, Map<Long, LocalDateTime> activeAt,
+                            List<GeoLayer> reloads) {
+
+        public GeoChange {
+            upserts = upserts != null ? upserts : List.of();
+            refresh = refresh != null ? refresh : List.of();
+            removals = removals != null ? removals : List.of();
+            disasterIds = disasterIds != null ? disasterIds : Set.of();
+            requestIds = requestIds != null ? requestIds : Set.of();
+            activeAt = activeAt != null ? activeAt : Map.of();
+            reloads = reloads != null ? reloads : List.of();
+        }
+
+        static GeoChange of(ObjectMapper objectMapper, GeoChangedEvent event) {
+            List<JsonNode> upserts = event.getUpserts().stream().<JsonNode>map(objectMapper::valueToTree).toList();
+            return new GeoChange(event.getLayer(), upserts, List.of(), event.getRemovals(),
+                    event.getRemovedDisasterIds(), event.getRemovedRequestIds(), event.getActiveAt(),
+                    event.getReloads());
+        }
+
+        GeoChange byId() {
+            List<Long> ids = upserts.stream().map(pin -> pin.get("id").asLong()).toList();
+            return new GeoChange(layer, List.of(), ids, removals, disasterIds, requestIds, activeAt, reloads);
+        }
+
+        GeoChange asReload() {
+            List<GeoLayer> layers = new ArrayList<>(reloads);
+            if (layer != null && !layers.contains(layer)) layers.add(layer);
+            return new GeoChange(null, List.of(), List.of(), List.of(), Set.of(), Set.of(), Map.of(), layers);
+        }
+
+        public GeoChangedEvent toEvent(ObjectMapper objectMapper) throws JsonProcessingException {
+            List<GeoPoint> pins = new ArrayList<>();
+            for (JsonNode upsert : upserts) {
+                pins.add(objectMapper.treeToValue(upsert, layer.pinType()));
+            }
+            return GeoChangedEvent.of(layer, pins, removals, disasterIds, requestIds, activeAt, reloads);
+        }
+    }
+
+    private PgNotifyPayloads() {
+    }
+
+    public static List<String> encode(ObjectMapper objectMapper, List<NotificationDTO> notifications, int maxBytes)
+            throws JsonProcessingException {
+        Packer inline = new Packer(NOTIFICATIONS_PREFIX, maxBytes);
+        Packer byId = new Packer(IDS_PREFIX, maxBytes);
+        for (NotificationDTO notification : notifications) {
+            String json = objectMapper.writeValueAsString(notification);
+            if (inline.add(json)) {
+                continue;
+            }
+            if (notification.getId() != null) {
+                byId.add(notification.getId().toString());
+            } else {
+                // Only saved notifications can be reloaded; this one reaches no other node
+                log.warn("Dropped unsaved {} notification for {}: {} bytes is over the {} byte NOTIFY limit",
+                        notification.getType(), notification.getRecipientEmail(),
+                        json.getBytes(StandardCharsets.UTF_8).length, maxBytes);
+            }
+        }
+        List<String> payloads = inline.finish();
+        payloads.addAll(byId.finish());
+        return payloads;
+    }
+
+    // Collection names are short and few, so this always fits one payload
+    public static String encodeCollections(ObjectMapper objectMapper, String origin, Set<String> collections)
+            throws JsonProcessingException {
+        return objectMapper.writeValueAsString(Map.of("origin", origin, "collections", collections));
+    }
+
+    // Falls back to pin ids, then to a reload of the layer, until the change fits one payload
+    public static String encodeGeoChange(ObjectMapper objectMapper, String origin, GeoChangedEvent event, int maxBytes)
+            throws JsonProcessingException {
+        GeoChange change = GeoChange.of(objectMapper, event);
+        String payload = encodeGeo(objectMapper, origin, change);
+        if (fits(payload, maxBytes)) {
+            return payload;
+        }
+        payload = encodeGeo(objectMapper, origin, change.byId());
+        if (fits(payload, maxBytes)) {
+            return payload;
+        }
+        // Too many rows to name; the other nodes read the whole layer back
+        return encodeGeo(objectMapper, origin, change.asReload());
+    }
+
+    private static String encodeGeo(ObjectMapper objectMapper, String origin, GeoChange change)
+            throws JsonProcessingException {
+        return objectMapper.writeValueAsString(Map.of("origin", origin, "geo", change));
+    }
+
+    private static boolean fits(String payload, int maxBytes) {
+        return payload.getBytes(StandardCharsets.UTF_8).length <= maxBytes;
+    }
+
+    public static Batch decode(ObjectMapper objectMapper, String payload) throws JsonProcessingException {
+        return objectMapper.readValue(payload, Batch.class);
+    }
+
+    // Greedy packing of JSON values into "prefix v1,v2,... suffix" payloads of at most maxBytes
+    private static final class Packer {
+
+        private final String prefix;
+        private final int maxBytes;
+        private final List<String> payloads = new ArrayList<>();
+        private final StringBuilder current = new StringBuilder();
+        private int currentBytes;
+
+        Packer(String prefix, int maxBytes) {
+            this.prefix = prefix;
+            this.maxBytes = maxBytes;
+        }
+
+        // false when the value does not fit in a payload of its own
+        boolean add(String json) {
+            int bytes = json.getBytes(StandardCharsets.UTF_8).length;
+            int overhead = prefix.length() + SUFFIX.length();
+            if (overhead + bytes > maxBytes) {
+                return false;
+            }
+            if (currentBytes > 0 && overhead + currentBytes + 1 + bytes > maxBytes) {
+                flush();
+            }
+            if (currentBytes > 0) {
+                current.append(',');
+                currentBytes++;
+            }
+            current.append(json);
+            currentBytes += bytes;
+            return true;
+        }
+
+        List<String> finish() {
+            flush();
+            return payloads;
+        }
+
+        private void flush() {
+            if (currentBytes == 0) return;
+            payloads.add(prefix + current + SUFFIX);
+            current.setLength(0);
+            currentBytes = 0;
+        }
+    }
+}
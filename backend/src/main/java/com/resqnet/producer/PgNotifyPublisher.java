@@ -0,0 +1,139 @@
+package com.resqnet.producer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.resqnet.dto.NotificationDTO;
+import com.resqnet.event.CollectionChangedEvent;
+import com.resqnet.event.GeoChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Sending side of the cross-node event bus for deployments without Kafka.
+ * Notifications saved in a transaction are collected and announced with
+ * {@code pg_notify} once it commits, all of them in as few payloads as fit,
+ * so a rolled-back write never reaches a browser. Committed collection changes
+ * are announced the same way, so that the other nodes' list versions, ETags and
+ * encoded bodies do not outlive the write, and so are committed map changes,
+ * which the other nodes apply to their spatial index.
+ */
+@Component
+@ConditionalOnProperty(name = "resqnet.events.pg-notify.enabled", havingValue = "true")
+public class PgNotifyPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(PgNotifyPublisher.class);
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+
+    // Lets a node skip the collection changes it announced itself
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public PgNotifyPublisher(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${resqnet.events.pg-notify.channel:resqnet_notifications}") String channel) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // afterCommit must not reuse the finished transaction's connection
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.channel = requireChannel(channel);
+    }
+
+    static String requireChannel(String channel) {
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid pg-notify channel name: " + channel);
+        }
+        return channel;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCollectionChanged(CollectionChangedEvent event) {
+        try {
+            String payload = PgNotifyPayloads.encodeCollections(objectMapper, nodeId, event.getCollections());
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, payload));
+        } catch (Exception e) {
+            // Other nodes catch up when their listener reconnects or on their next local write
+            log.warn("Failed to announce change of {} on {}: {}", event.getCollections(), channel, e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGeoChanged(GeoChangedEvent event) {
+        try {
+            String payload = PgNotifyPayloads.encodeGeoChange(objectMapper, nodeId, event, PgNotifyPayloads.MAX_BYTES);
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, payload));
+        } catch (Exception e) {
+            // Other nodes catch up when their listener reconnects or with their periodic index reload
+            log.warn("Failed to announce {} on {}: {}", event, channel, e.getMessage());
+        }
+    }
+
+    public void publish(List<NotificationDTO> saved) {
+        if (saved.isEmpty()) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            pendingInCurrentTransaction().addAll(saved);
+        } else {
+            send(saved);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<NotificationDTO> pendingInCurrentTransaction() {
+        List<NotificationDTO> pending = (List<NotificationDTO>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        List<NotificationDTO> batch = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, batch);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                send(batch);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PgNotifyPublisher.this);
+            }
+        });
+        return batch;
+    }
+
+    private void send(List<NotificationDTO> saved) {
+        try {
+            List<String> payloads = PgNotifyPayloads.encode(objectMapper, saved, PgNotifyPayloads.MAX_BYTES);
+            transactionTemplate.executeWithoutResult(status -> payloads.forEach(payload ->
+                    jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, payload)));
+            log.debug("Announced {} notifications in {} payloads on {}", saved.size(), payloads.size(), channel);
+        } catch (Exception e) {
+            // The rows are saved; clients still see them on their next fetch
+            log.warn("Failed to announce {} notifications on {}: {}", saved.size(), channel, e.getMessage());
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.resqnet.model.AdminNotificationRead;
 import com.resqnet.model.Notification;
 import com.resqnet.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -20,4 +21,10 @@ public interface AdminNotificationReadRepository extends JpaRepository<AdminNoti
     List<Long> findReadNotificationIdsByAdminId(@Param("adminId") Long adminId);
 
     void deleteByNotification(Notification notification);
+
+    // Reads made by, or of notifications addressed to, a user being deleted
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM AdminNotificationRead anr WHERE anr.admin.id = :userId " +
+           "OR anr.notification.id IN (SELECT n.id FROM Notification n WHERE n.recipient.id = :userId)")
+    int deleteByAdminOrRecipientId(@Param("userId") Long userId);
 }
@@ -0,0 +1,35 @@
+package com.resqnet.repository;
+
+import com.resqnet.model.CapacityStripe;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CapacityStripeRepository extends JpaRepository<CapacityStripe, CapacityStripe.Key> {
+
+    // 0 rows updated: the stripe does not exist or holds less than the quantity
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE CapacityStripe s SET s.remaining = s.remaining - :quantity " +
+           "WHERE s.requestId = :requestId AND s.stripe = :stripe AND s.remaining >= :quantity")
+    int take(@Param("requestId") Long requestId, @Param("stripe") int stripe, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE CapacityStripe s SET s.remaining = s.remaining + :quantity " +
+           "WHERE s.requestId = :requestId AND s.stripe = :stripe")
+    int give(@Param("requestId") Long requestId, @Param("stripe") int stripe, @Param("quantity") int quantity);
+
+    // Always in stripe order, so two rebalancing transactions cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CapacityStripe s WHERE s.requestId = :requestId ORDER BY s.stripe")
+    List<CapacityStripe> lockAll(@Param("requestId") Long requestId);
+
+    @Query("SELECT COALESCE(SUM(s.remaining), 0) FROM CapacityStripe s WHERE s.requestId = :requestId")
+    int sumRemaining(@Param("requestId") Long requestId);
+}
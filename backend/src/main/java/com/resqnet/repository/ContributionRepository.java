@@ -1,15 +1,29 @@
 package com.resqnet.repository;
 
+import com.resqnet.dto.ContributionDTO;
+import com.resqnet.geo.BoundingBox;
+import com.resqnet.geo.ContributionPin;
+import com.resqnet.geo.Nearby;
+import com.resqnet.geo.SpatialKey;
 import com.resqnet.model.Contribution;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ContributionRepository extends JpaRepository<Contribution, Long> {
+public interface ContributionRepository extends JpaRepository<Contribution, Long>, ContributionRepositoryCustom {
 
     // Fetch all contributions for a specific request
     List<Contribution> findByRequestId(Long requestId);
@@ -18,18 +32,127 @@ public interface ContributionRepository extends JpaRepository<Contribution, Long
     List<Contribution> findByResponderId(Long responderId);
     List<Contribution> findByResponder_Email(String email);
 
+    // === Ledger: contributions not yet counted in their request's fulfilledQuantity ===
+    @Query("SELECT DISTINCT c.request.id FROM Contribution c WHERE c.rolledUp = false")
+    List<Long> findRequestIdsWithUnrolledContributions();
+
+    // Locks the ledger rows, not the request row, so contributors keep inserting meanwhile
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Contribution c WHERE c.request.id = :requestId AND c.rolledUp = false")
+    List<Contribution> lockUnrolledByRequestId(@Param("requestId") Long requestId);
+
+    // Requests a responder still has uncounted contributions on, in id order (UserService#deleteUser)
+    @Query("SELECT DISTINCT c.request.id FROM Contribution c "
+            + "WHERE c.responder.id = :responderId AND c.rolledUp = false ORDER BY c.request.id")
+    List<Long> findRequestIdsWithUnrolledContributionsByResponderId(@Param("responderId") Long responderId);
+
+    // Map pins to drop when a user goes (UserService#deleteUser)
+    @Query("SELECT c.id FROM Contribution c WHERE c.responder.id = :responderId")
+    List<Long> findIdsByResponderId(@Param("responderId") Long responderId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Contribution c SET c.rolledUp = true WHERE c.id IN :ids")
+    int markRolledUp(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Contribution c WHERE c.id = :id")
+    Optional<Contribution> findByIdForUpdate(@Param("id") Long id);
+
+    // Read fresh from the database, whatever copy the persistence context holds
+    @Query("SELECT c.rolledUp FROM Contribution c WHERE c.id = :id")
+    boolean isRolledUp(@Param("id") Long id);
+
+    // === Read-only DTO projections (no entity hydration) ===
+    String DTO_SELECT =
+            "SELECT new com.resqnet.dto.ContributionDTO(c.id, c.contributedQuantity, c.request.id, " +
+            "c.category, resp.email, c.updatedAt, c.latitude, c.longitude) " +
+            "FROM Contribution c JOIN c.responder resp ";
+
+    @Query(DTO_SELECT)
+    List<ContributionDTO> findAllDtos();
+
+    // Whole table for export, read row by row; close the stream (inside a transaction)
+    @Query(DTO_SELECT + "ORDER BY c.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportQueries.FETCH_SIZE))
+    Stream<ContributionDTO> streamAllDtos();
+
+    @Query(DTO_SELECT + "WHERE c.request.id = :requestId")
+    List<ContributionDTO> findDtosByRequestId(@Param("requestId") Long requestId);
+
+    @Query(DTO_SELECT + "WHERE resp.email = :email")
+    List<ContributionDTO> findDtosByResponderEmail(@Param("email") String responderEmail);
+
+    // Contributions made to requests owned by the given reporter. Filters on the
+    // resource_requests.reporter_id column, so the users table is never joined for
+    // the predicate: reporter's requests via idx_requests_reporter, then their
+    // contributions via idx_contributions_request.
+    @Query(DTO_SELECT + "JOIN c.request req WHERE req.reporter.id = :reporterId")
+    List<ContributionDTO> findDtosByRequestReporterId(@Param("reporterId") Long reporterId);
+
     // Fetch all contributions with recorded locations
     @Query("SELECT c FROM Contribution c WHERE c.latitude IS NOT NULL AND c.longitude IS NOT NULL")
     List<Contribution> findAllWithLocation();
 
-    // Fetch contributions near a specific area (basic bounding box query)
-    @Query("SELECT c FROM Contribution c " +
-           "WHERE c.latitude BETWEEN :minLat AND :maxLat " +
-           "AND c.longitude BETWEEN :minLon AND :maxLon")
-    List<Contribution> findContributionsNear(
-            @Param("minLat") double minLat,
-            @Param("maxLat") double maxLat,
-            @Param("minLon") double minLon,
-            @Param("maxLon") double maxLon
-    );
+    // Fetch contributions near a specific area (bounding box through the geo_key index)
+    default List<Contribution> findContributionsNear(double minLat, double maxLat, double minLon, double maxLon) {
+        SpatialKey.Cover keys = SpatialKey.cover(minLat, maxLat, minLon, maxLon);
+        return findContributionsInKeyRanges(keys.from(0), keys.to(0), keys.from(1), keys.to(1),
+                keys.from(2), keys.to(2), keys.from(3), keys.to(3),
+                minLat, maxLat, minLon, maxLon);
+    }
+
+    String IN_BOX = "WHERE c.latitude BETWEEN :minLat AND :maxLat AND c.longitude BETWEEN :minLon AND :maxLon ";
+
+    // One geo_key index range scan per UNION ALL branch; the ranges are disjoint, so no row is read twice
+    @Query("SELECT c FROM Contribution c " + IN_BOX + "AND c.geoKey BETWEEN :from0 AND :to0 " +
+           "UNION ALL SELECT c FROM Contribution c " + IN_BOX + "AND c.geoKey BETWEEN :from1 AND :to1 " +
+           "UNION ALL SELECT c FROM Contribution c " + IN_BOX + "AND c.geoKey BETWEEN :from2 AND :to2 " +
+           "UNION ALL SELECT c FROM Contribution c " + IN_BOX + "AND c.geoKey BETWEEN :from3 AND :to3")
+    List<Contribution> findContributionsInKeyRanges(@Param("from0") long from0, @Param("to0") long to0,
+                                                    @Param("from1") long from1, @Param("to1") long to1,
+                                                    @Param("from2") long from2, @Param("to2") long to2,
+                                                    @Param("from3") long from3, @Param("to3") long to3,
+                                                    @Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                                    @Param("minLon") double minLon, @Param("maxLon") double maxLon);
+
+    // Spatial index load (SpatialIndexService)
+    @Query("SELECT new com.resqnet.geo.ContributionPin(c.id, c.latitude, c.longitude, c.request.id, " +
+           "c.request.disaster.id, c.category, c.contributedQuantity) FROM Contribution c " +
+           "WHERE c.latitude IS NOT NULL AND c.longitude IS NOT NULL")
+    List<ContributionPin> findAllPins();
+
+    // Pins another node announced by id only (SpatialIndexService#refresh)
+    @Query("SELECT new com.resqnet.geo.ContributionPin(c.id, c.latitude, c.longitude, c.request.id, " +
+           "c.request.disaster.id, c.category, c.contributedQuantity) FROM Contribution c " +
+           "WHERE c.id IN :ids AND c.latitude IS NOT NULL AND c.longitude IS NOT NULL")
+    List<ContributionPin> findPinsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Area and radius queries on the pins, read like findContributionsNear
+    default List<ContributionPin> findPinsIn(BoundingBox box) {
+        SpatialKey.Cover keys = box.keys();
+        return findPinsInKeyRanges(keys.from(0), keys.to(0), keys.from(1), keys.to(1),
+                keys.from(2), keys.to(2), keys.from(3), keys.to(3),
+                box.minLat(), box.maxLat(), box.minLon(), box.maxLon());
+    }
+
+    default List<Nearby<ContributionPin>> findPinsWithinRadius(double latitude, double longitude, double radiusKm) {
+        List<ContributionPin> candidates = BoundingBox.around(latitude, longitude, radiusKm).stream()
+                .flatMap(box -> findPinsIn(box).stream()).toList();
+        return Nearby.within(candidates, latitude, longitude, radiusKm);
+    }
+
+    // Every contribution has a request; the outer join keeps the geo_key read first in the join order
+    String PIN_SELECT = "SELECT new com.resqnet.geo.ContributionPin(c.id, c.latitude, c.longitude, req.id, " +
+            "req.disaster.id, c.category, c.contributedQuantity) FROM Contribution c LEFT JOIN c.request req " + IN_BOX;
+
+    @Query(PIN_SELECT + "AND c.geoKey BETWEEN :from0 AND :to0 " +
+           "UNION ALL " + PIN_SELECT + "AND c.geoKey BETWEEN :from1 AND :to1 " +
+           "UNION ALL " + PIN_SELECT + "AND c.geoKey BETWEEN :from2 AND :to2 " +
+           "UNION ALL " + PIN_SELECT + "AND c.geoKey BETWEEN :from3 AND :to3")
+    List<ContributionPin> findPinsInKeyRanges(@Param("from0") long from0, @Param("to0") long to0,
+                                              @Param("from1") long from1, @Param("to1") long to1,
+                                              @Param("from2") long from2, @Param("to2") long to2,
+                                              @Param("from3") long from3, @Param("to3") long to3,
+                                              @Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                              @Param("minLon") double minLon, @Param("maxLon") double maxLon);
 }
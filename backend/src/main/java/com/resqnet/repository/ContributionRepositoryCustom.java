@@ -0,0 +1,17 @@
+package com.resqnet.repository;
+
+import com.resqnet.dto.ContributionDTO;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ContributionRepositoryCustom {
+
+    // Keyset page; responderEmail / reporterId scope the rows to the caller's role.
+    // The bounding box goes through the geo_key index (SpatialKey) before the exact check.
+    List<ContributionDTO> findDtoPage(String category, Long requestId, String responderEmail, Long reporterId,
+                                      LocalDateTime createdAfter,
+                                      Double minLat, Double maxLat, Double minLon, Double maxLon,
+                                      Long afterId, Long beforeId, Pageable page);
+}
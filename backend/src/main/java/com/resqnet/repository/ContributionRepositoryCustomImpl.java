@@ -0,0 +1,49 @@
+package com.resqnet.repository;
+
+import com.resqnet.dto.ContributionDTO;
+import com.resqnet.model.Contribution;
+import com.resqnet.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+class ContributionRepositoryCustomImpl implements ContributionRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<ContributionDTO> findDtoPage(String category, Long requestId, String responderEmail, Long reporterId,
+                                             LocalDateTime createdAfter,
+                                             Double minLat, Double maxLat, Double minLon, Double maxLon,
+                                             Long afterId, Long beforeId, Pageable page) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<ContributionDTO> query = cb.createQuery(ContributionDTO.class);
+        Root<Contribution> c = query.from(Contribution.class);
+        Join<Contribution, User> resp = c.join("responder");
+        query.select(cb.construct(ContributionDTO.class, c.get("id"), c.get("contributedQuantity"),
+                c.get("request").get("id"), c.get("category"), resp.get("email"), c.get("updatedAt"),
+                c.get("latitude"), c.get("longitude")));
+
+        KeysetCriteria where = new KeysetCriteria(cb, c)
+                .equal(c.get("category"), category)
+                .equal(c.get("request").get("id"), requestId)
+                .equal(resp.get("email"), responderEmail);
+        // The request join is only added when scoping to a reporter
+        if (reporterId != null) {
+            where.equal(c.join("request").get("reporter").get("id"), reporterId);
+        }
+        return where
+                .after("createdAt", createdAfter)
+                .within(query, minLat, maxLat, minLon, maxLon)
+                .idBetween(afterId, beforeId)
+                .page(em, query, page);
+    }
+}
@@ -0,0 +1,62 @@
+package com.resqnet.repository;
+
+import com.resqnet.model.DisasterCategoryStats;
+import com.resqnet.repository.projection.DisasterRequestSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DisasterCategoryStatsRepository
+        extends JpaRepository<DisasterCategoryStats, DisasterCategoryStats.Key> {
+
+    // 0 rows updated: the disaster has no row for this category yet
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE DisasterCategoryStats c SET " +
+           "c.pendingCount = c.pendingCount + :pending, " +
+           "c.partialCount = c.partialCount + :partial, " +
+           "c.fulfilledCount = c.fulfilledCount + :fulfilled, " +
+           "c.requestedQuantity = c.requestedQuantity + :requestedQuantity, " +
+           "c.fulfilledQuantity = c.fulfilledQuantity + :fulfilledQuantity " +
+           "WHERE c.disasterId = :disasterId AND c.category = :category")
+    int add(@Param("disasterId") Long disasterId, @Param("category") String category,
+            @Param("pending") int pending, @Param("partial") int partial, @Param("fulfilled") int fulfilled,
+            @Param("requestedQuantity") long requestedQuantity, @Param("fulfilledQuantity") long fulfilledQuantity);
+
+    // Builds the row from the category's requests (including this transaction's writes)
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO DisasterCategoryStats (disasterId, category, pendingCount, partialCount, fulfilledCount, " +
+           "requestedQuantity, fulfilledQuantity, firstRequestId) " +
+           "SELECT r.disaster.id, r.category, " +
+           "CAST(SUM(CASE WHEN r.status = com.resqnet.model.ResourceRequest.Status.PENDING THEN 1 ELSE 0 END) AS Integer), " +
+           "CAST(SUM(CASE WHEN r.status = com.resqnet.model.ResourceRequest.Status.PARTIAL THEN 1 ELSE 0 END) AS Integer), " +
+           "CAST(SUM(CASE WHEN r.status = com.resqnet.model.ResourceRequest.Status.FULFILLED THEN 1 ELSE 0 END) AS Integer), " +
+           "SUM(r.requestedQuantity), SUM(r.fulfilledQuantity), MIN(r.id) " +
+           "FROM ResourceRequest r WHERE r.disaster.id = :disasterId AND r.category = :category " +
+           "GROUP BY r.disaster.id, r.category")
+    int rebuild(@Param("disasterId") Long disasterId, @Param("category") String category);
+
+    // Read side of the disaster status: categories in the order they were first requested
+    String SUMMARY_SELECT =
+            "SELECT c.disasterId AS disasterId, c.category AS category, " +
+            "c.pendingCount + c.partialCount + c.fulfilledCount AS requestCount, " +
+            "c.fulfilledCount AS fulfilledCount, " +
+            "c.partialCount + c.fulfilledCount AS contributedCount " +
+            "FROM DisasterCategoryStats c " +
+            "WHERE c.pendingCount + c.partialCount + c.fulfilledCount > 0 ";
+    String SUMMARY_ORDER = "ORDER BY c.disasterId, c.firstRequestId";
+
+    @Query(SUMMARY_SELECT + SUMMARY_ORDER)
+    List<DisasterRequestSummary> summarizeAll();
+
+    @Query(SUMMARY_SELECT + "AND c.disasterId IN :disasterIds " + SUMMARY_ORDER)
+    List<DisasterRequestSummary> summarizeForDisasters(@Param("disasterIds") Collection<Long> disasterIds);
+
+    @Query(SUMMARY_SELECT + "AND c.disasterId = :disasterId " + SUMMARY_ORDER)
+    List<DisasterRequestSummary> summarizeForDisaster(@Param("disasterId") Long disasterId);
+}
@@ -1,7 +1,78 @@
 package com.resqnet.repository;
 
+import com.resqnet.dto.DisasterDTO;
+import com.resqnet.geo.BoundingBox;
+import com.resqnet.geo.DisasterPin;
+import com.resqnet.geo.Nearby;
+import com.resqnet.geo.SpatialKey;
 import com.resqnet.model.Disaster;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface DisasterRepository extends JpaRepository<Disaster, Long> {
-}
\ No newline at end of file
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface DisasterRepository extends JpaRepository<Disaster, Long>, DisasterRepositoryCustom {
+
+    // Read-only list rows straight into DTOs (status/contributions are added by the service)
+    @Query("SELECT new com.resqnet.dto.DisasterDTO(d.id, d.type, d.severity, d.description, " +
+           "d.latitude, d.longitude, rep.email, rep.name, d.createdAt, st.lastActivityAt) " +
+           "FROM Disaster d LEFT JOIN d.reporter rep LEFT JOIN DisasterStats st ON st.disasterId = d.id")
+    List<DisasterDTO> findAllDtos();
+
+    @Query("SELECT d.id FROM Disaster d WHERE d.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Bulk deletes: the disasters' requests must be gone already; disaster stats rows cascade
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Disaster d WHERE d.id = :id")
+    int deleteRowById(@Param("id") Long id);
+
+    @Query("SELECT d.id FROM Disaster d WHERE d.reporter.id = :reporterId")
+    List<Long> findIdsByReporterId(@Param("reporterId") Long reporterId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Disaster d WHERE d.reporter.id = :reporterId")
+    int deleteByReporterId(@Param("reporterId") Long reporterId);
+
+    // Spatial index load (SpatialIndexService)
+    @Query("SELECT new com.resqnet.geo.DisasterPin(d.id, d.latitude, d.longitude, d.type, d.severity) FROM Disaster d")
+    List<DisasterPin> findAllPins();
+
+    // Pins another node announced by id only (SpatialIndexService#refresh)
+    @Query("SELECT new com.resqnet.geo.DisasterPin(d.id, d.latitude, d.longitude, d.type, d.severity) " +
+           "FROM Disaster d WHERE d.id IN :ids")
+    List<DisasterPin> findPinsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Area and radius queries on the pins: one geo_key index range scan per UNION ALL branch, each with the exact box
+    default List<DisasterPin> findPinsIn(BoundingBox box) {
+        SpatialKey.Cover keys = box.keys();
+        return findPinsInKeyRanges(keys.from(0), keys.to(0), keys.from(1), keys.to(1),
+                keys.from(2), keys.to(2), keys.from(3), keys.to(3),
+                box.minLat(), box.maxLat(), box.minLon(), box.maxLon());
+    }
+
+    default List<Nearby<DisasterPin>> findPinsWithinRadius(double latitude, double longitude, double radiusKm) {
+        List<DisasterPin> candidates = BoundingBox.around(latitude, longitude, radiusKm).stream()
+                .flatMap(box -> findPinsIn(box).stream()).toList();
+        return Nearby.within(candidates, latitude, longitude, radiusKm);
+    }
+
+    String PIN_SELECT = "SELECT new com.resqnet.geo.DisasterPin(d.id, d.latitude, d.longitude, d.type, d.severity) " +
+            "FROM Disaster d WHERE d.latitude BETWEEN :minLat AND :maxLat AND d.longitude BETWEEN :minLon AND :maxLon ";
+
+    // The key ranges are disjoint, so no pin is read twice
+    @Query(PIN_SELECT + "AND d.geoKey BETWEEN :from0 AND :to0 " +
+           "UNION ALL " + PIN_SELECT + "AND d.geoKey BETWEEN :from1 AND :to1 " +
+           "UNION ALL " + PIN_SELECT + "AND d.geoKey BETWEEN :from2 AND :to2 " +
+           "UNION ALL " + PIN_SELECT + "AND d.geoKey BETWEEN :from3 AND :to3")
+    List<DisasterPin> findPinsInKeyRanges(@Param("from0") long from0, @Param("to0") long to0,
+                                          @Param("from1") long from1, @Param("to1") long to1,
+                                          @Param("from2") long from2, @Param("to2") long to2,
+                                          @Param("from3") long from3, @Param("to3") long to3,
+                                          @Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                          @Param("minLon") double minLon, @Param("maxLon") double maxLon);
+}
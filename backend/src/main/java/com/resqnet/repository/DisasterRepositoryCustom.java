@@ -0,0 +1,16 @@
+package com.resqnet.repository;
+
+import com.resqnet.dto.DisasterDTO;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DisasterRepositoryCustom {
+
+    // Keyset page; Pageable carries only the limit and the id direction.
+    // The bounding box goes through the geo_key index (SpatialKey) before the exact check.
+    List<DisasterDTO> findDtoPage(String type, String severity, LocalDateTime createdAfter,
+                                  Double minLat, Double maxLat, Double minLon, Double maxLon,
+                                  Long afterId, Long beforeId, Pageable page);
+}
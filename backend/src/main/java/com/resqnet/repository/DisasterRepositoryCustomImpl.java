@@ -0,0 +1,49 @@
+package com.resqnet.repository;
+
+import com.resqnet.dto.DisasterDTO;
+import com.resqnet.model.Disaster;
+import com.resqnet.model.DisasterStats;
+import com.resqnet.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import org.hibernate.query.criteria.JpaEntityJoin;
+import org.hibernate.query.criteria.JpaRoot;
+import org.hibernate.query.sqm.tree.SqmJoinType;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+class DisasterRepositoryCustomImpl implements DisasterRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<DisasterDTO> findDtoPage(String type, String severity, LocalDateTime createdAfter,
+                                         Double minLat, Double maxLat, Double minLon, Double maxLon,
+                                         Long afterId, Long beforeId, Pageable page) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<DisasterDTO> query = cb.createQuery(DisasterDTO.class);
+        JpaRoot<Disaster> d = (JpaRoot<Disaster>) query.from(Disaster.class);
+        Join<Disaster, User> rep = d.join("reporter", JoinType.LEFT);
+        // Same columns as findAllDtos; the stats row is an entity join, not an association
+        JpaEntityJoin<DisasterStats> st = d.join(DisasterStats.class, SqmJoinType.LEFT);
+        st.on(cb.equal(st.get("disasterId"), d.get("id")));
+        query.select(cb.construct(DisasterDTO.class, d.get("id"), d.get("type"), d.get("severity"),
+                d.get("description"), d.get("latitude"), d.get("longitude"),
+                rep.get("email"), rep.get("name"), d.get("createdAt"), st.get("lastActivityAt")));
+
+        return new KeysetCriteria(cb, d)
+                .equal(d.get("type"), type)
+                .equal(d.get("severity"), severity)
+                .after("createdAt", createdAfter)
+                .within(query, minLat, maxLat, minLon, maxLon)
+                .idBetween(afterId, beforeId)
+                .page(em, query, page);
+    }
+}
@@ -0,0 +1,27 @@
+package com.resqnet.repository;
+
+import com.resqnet.model.DisasterStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface DisasterStatsRepository extends JpaRepository<DisasterStats, Long> {
+
+    // Also takes the row lock that serializes stats writers of one disaster; 0 when there is no row
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE DisasterStats s SET s.lastActivityAt = :at WHERE s.disasterId = :disasterId")
+    int touch(@Param("disasterId") Long disasterId, @Param("at") LocalDateTime at);
+
+    // Disasters that already have a row are skipped
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO DisasterStats (disasterId, lastActivityAt) " +
+           "SELECT d.id, :at FROM Disaster d WHERE d.id IN :disasterIds " +
+           "AND NOT EXISTS (SELECT 1 FROM DisasterStats s WHERE s.disasterId = d.id)")
+    int create(@Param("disasterIds") Collection<Long> disasterIds, @Param("at") LocalDateTime at);
+}
@@ -0,0 +1,14 @@
+package com.resqnet.repository;
+
+/**
+ * Shared settings of the {@code stream...} export queries. The PostgreSQL
+ * driver only fetches rows in chunks (instead of the whole result at once)
+ * when a fetch size is set and the query runs inside a transaction.
+ */
+public final class ExportQueries {
+
+    public static final String FETCH_SIZE = "500";
+
+    private ExportQueries() {
+    }
+}
@@ -0,0 +1,91 @@
+package com.resqnet.repository;
+
+import com.resqnet.geo.SpatialKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * WHERE clause of a filtered keyset page, holding only the filters that are set.
+ * A catch-all {@code (:x IS NULL OR col = :x)} query is one statement for every
+ * filter combination, so a generic plan cannot pick the index of the filter that
+ * is actually present; here each combination is its own statement.
+ */
+final class KeysetCriteria {
+
+    private final CriteriaBuilder cb;
+    private final Root<?> root;
+    private final List<Predicate> predicates = new ArrayList<>();
+
+    KeysetCriteria(CriteriaBuilder cb, Root<?> root) {
+        this.cb = cb;
+        this.root = root;
+    }
+
+    <V> KeysetCriteria equal(Expression<V> column, V value) {
+        if (value != null) predicates.add(cb.equal(column, value));
+        return this;
+    }
+
+    KeysetCriteria after(String attribute, LocalDateTime value) {
+        if (value != null) predicates.add(cb.greaterThan(root.get(attribute), value));
+        return this;
+    }
+
+    /**
+     * Rows in the box: one {@code geo_key} range scan per subquery, joined by UNION ALL
+     * rather than OR so that each range reads its own index range on any planner,
+     * each with the exact box; the page keeps the ids they return.
+     */
+    KeysetCriteria within(AbstractQuery<?> query, Double minLat, Double maxLat, Double minLon, Double maxLon) {
+        if (minLat == null) return this;
+        SpatialKey.Cover keys = SpatialKey.cover(minLat, maxLat, minLon, maxLon);
+        List<Subquery<Long>> ranges = new ArrayList<>(SpatialKey.RANGES);
+        for (int i = 0; i < SpatialKey.RANGES; i++) {
+            if (keys.isEmpty(i)) continue;
+            Subquery<Long> range = query.subquery(Long.class);
+            Root<?> row = range.from(root.getJavaType());
+            range.select(row.get("id")).where(
+                    cb.between(row.get("geoKey"), keys.from(i), keys.to(i)),
+                    cb.between(row.get("latitude"), minLat, maxLat),
+                    cb.between(row.get("longitude"), minLon, maxLon));
+            ranges.add(range);
+        }
+        if (ranges.isEmpty()) {
+            predicates.add(cb.disjunction());
+        } else if (ranges.size() == 1) {
+            predicates.add(root.get("id").in(ranges.get(0)));
+        } else {
+            predicates.add(root.get("id").in(((HibernateCriteriaBuilder) cb)
+                    .unionAll(ranges.get(0), ranges.subList(1, ranges.size()).toArray(Subquery[]::new))));
+        }
+        return this;
+    }
+
+    KeysetCriteria idBetween(Long afterId, Long beforeId) {
+        Path<Long> id = root.get("id");
+        if (afterId != null) predicates.add(cb.greaterThan(id, afterId));
+        if (beforeId != null) predicates.add(cb.lessThan(id, beforeId));
+        return this;
+    }
+
+    // Pageable carries only the limit and the id direction
+    <R> List<R> page(EntityManager em, CriteriaQuery<R> query, Pageable page) {
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(QueryUtils.toOrders(page.getSort(), root, cb));
+        return em.createQuery(query).setMaxResults(page.getPageSize()).getResultList();
+    }
+}
@@ -1,11 +1,20 @@
 package com.resqnet.repository;
 
+import com.resqnet.dto.NotificationDTO;
 import com.resqnet.model.Notification;
 import com.resqnet.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
@@ -25,4 +34,32 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     // Fetch unread admin broadcast notifications
     List<Notification> findByAdminBroadcastTrueAndReadFalseOrderByCreatedAtDesc();
+
+    // === Read-only DTO projections (no entity hydration) ===
+    String DTO_SELECT =
+            "SELECT new com.resqnet.dto.NotificationDTO(n.id, n.message, n.type, n.read, n.deletable, " +
+            "n.createdAt, COALESCE(u.email, 'ADMIN-BROADCAST'), n.adminBroadcast) " +
+            "FROM Notification n LEFT JOIN n.recipient u ";
+
+    @Query(DTO_SELECT + "WHERE u.id = :recipientId ORDER BY n.createdAt DESC")
+    List<NotificationDTO> findDtosByRecipientId(@Param("recipientId") Long recipientId);
+
+    @Query(DTO_SELECT + "WHERE u.id = :recipientId AND n.read = false ORDER BY n.createdAt DESC")
+    List<NotificationDTO> findUnreadDtosByRecipientId(@Param("recipientId") Long recipientId);
+
+    @Query(DTO_SELECT + "WHERE n.adminBroadcast = true ORDER BY n.createdAt DESC")
+    List<NotificationDTO> findAdminBroadcastDtos();
+
+    @Query(DTO_SELECT + "WHERE n.id IN :ids ORDER BY n.id")
+    List<NotificationDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Whole table for export, read row by row; close the stream (inside a transaction)
+    @Query(DTO_SELECT + "ORDER BY n.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportQueries.FETCH_SIZE))
+    Stream<NotificationDTO> streamAllDtos();
+
+    // Inbox of a user being deleted (admin reads of these rows are removed first)
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.recipient.id = :recipientId")
+    int deleteByRecipientId(@Param("recipientId") Long recipientId);
 }
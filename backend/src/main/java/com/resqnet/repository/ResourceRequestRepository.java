@@ -1,18 +1,26 @@
 package com.resqnet.repository;
 
+import com.resqnet.dto.ResourceRequestDTO;
 import com.resqnet.model.ResourceRequest;
+import com.resqnet.repository.projection.RequestLocation;
+import com.resqnet.repository.projection.RequestSnapshot;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import jakarta.persistence.LockModeType;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ResourceRequestRepository extends JpaRepository<ResourceRequest, Long> {
+public interface ResourceRequestRepository extends JpaRepository<ResourceRequest, Long>, ResourceRequestRepositoryCustom {
 
     // Fetch all requests created by a specific reporter (by email)
     List<ResourceRequest> findByReporter_Email(String reporterEmail);
@@ -20,8 +28,80 @@ public interface ResourceRequestRepository extends JpaRepository<ResourceRequest
     // (Optional) If you want to fetch by reporter's user ID instead
     List<ResourceRequest> findByReporter_Id(Long reporterId);
 
-    //  For concurrency safety: lock row during contribution update
+    // === Read-only DTO projections (no entity hydration) ===
+    String DTO_SELECT =
+            "SELECT new com.resqnet.dto.ResourceRequestDTO(r.id, r.category, r.requestedQuantity, " +
+            "r.fulfilledQuantity, r.status, r.disaster.id, rep.email, r.createdAt) " +
+            "FROM ResourceRequest r JOIN r.reporter rep ";
+
+    @Query(DTO_SELECT)
+    List<ResourceRequestDTO> findAllDtos();
+
+    // Whole table for export, read row by row; close the stream (inside a transaction)
+    @Query(DTO_SELECT + "ORDER BY r.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportQueries.FETCH_SIZE))
+    Stream<ResourceRequestDTO> streamAllDtos();
+
+    @Query(DTO_SELECT + "WHERE rep.email = :email")
+    List<ResourceRequestDTO> findDtosByReporterEmail(@Param("email") String reporterEmail);
+
+    // Fulfilment totals move by single UPDATEs, status derived in the same statement as
+    // ResourceRequest#updateStatus does. Capacity is enforced by RequestCapacityService, so
+    // applyContributedQuantity is unguarded; releaseQuantity returns 0 rather than go negative.
+    // Neither refreshes a ResourceRequest already loaded in the persistence context.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ResourceRequest r SET r.fulfilledQuantity = r.fulfilledQuantity + :quantity, " +
+           "r.status = CASE WHEN r.fulfilledQuantity + :quantity >= r.requestedQuantity " +
+           "THEN com.resqnet.model.ResourceRequest.Status.FULFILLED " +
+           "WHEN r.fulfilledQuantity + :quantity > 0 " +
+           "THEN com.resqnet.model.ResourceRequest.Status.PARTIAL " +
+           "ELSE com.resqnet.model.ResourceRequest.Status.PENDING END " +
+           "WHERE r.id = :id")
+    int applyContributedQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ResourceRequest r SET r.fulfilledQuantity = r.fulfilledQuantity - :quantity, " +
+           "r.status = CASE WHEN r.fulfilledQuantity - :quantity >= r.requestedQuantity " +
+           "THEN com.resqnet.model.ResourceRequest.Status.FULFILLED " +
+           "WHEN r.fulfilledQuantity - :quantity > 0 " +
+           "THEN com.resqnet.model.ResourceRequest.Status.PARTIAL " +
+           "ELSE com.resqnet.model.ResourceRequest.Status.PENDING END " +
+           "WHERE r.id = :id AND r.fulfilledQuantity >= :quantity")
+    int releaseQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // === Before / after images for the per-disaster stats ===
+    String SNAPSHOT_SELECT =
+            "SELECT new com.resqnet.repository.projection.RequestSnapshot(r.id, r.disaster.id, r.category, " +
+            "r.status, r.requestedQuantity, r.fulfilledQuantity) FROM ResourceRequest r ";
+
+    @Query(SNAPSHOT_SELECT + "WHERE r.id = :id")
+    Optional<RequestSnapshot> findSnapshotById(@Param("id") Long id);
+
+    // A user's requests on disasters they did not report; the stats of their own disasters go with
+    // the disasters. Locked so that no rollup or edit moves them between the snapshot and the delete.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ResourceRequest r WHERE r.reporter.id = :reporterId " +
+           "AND r.disaster.id NOT IN (SELECT d.id FROM Disaster d WHERE d.reporter.id = :reporterId)")
+    List<ResourceRequest> lockOnOtherDisasters(@Param("reporterId") Long reporterId);
+
+    // Responder matching (ResponderMatchingService)
+    @Query("SELECT r.id AS requestId, r.reporter.id AS reporterId, d.latitude AS latitude, d.longitude AS longitude " +
+           "FROM ResourceRequest r JOIN r.disaster d WHERE r.id = :id")
+    Optional<RequestLocation> findLocationById(@Param("id") Long id);
+
+    // Admin edits and deletes: keeps a concurrent rollup from changing the row in between
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT r FROM ResourceRequest r WHERE r.id = :id")
     Optional<ResourceRequest> findByIdForUpdate(@Param("id") Long id);
+
+    // Set-based deletes for disaster and user removal; contributions and capacity
+    // stripes go with the requests through their ON DELETE CASCADE foreign keys
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ResourceRequest r WHERE r.disaster.id = :disasterId")
+    int deleteByDisasterId(@Param("disasterId") Long disasterId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ResourceRequest r WHERE r.reporter.id = :userId " +
+           "OR r.disaster.id IN (SELECT d.id FROM Disaster d WHERE d.reporter.id = :userId)")
+    int deleteByReporterOrDisasterReporterId(@Param("userId") Long userId);
 }
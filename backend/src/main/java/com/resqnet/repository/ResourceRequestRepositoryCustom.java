@@ -0,0 +1,15 @@
+package com.resqnet.repository;
+
+import com.resqnet.dto.ResourceRequestDTO;
+import com.resqnet.model.ResourceRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ResourceRequestRepositoryCustom {
+
+    // Filtered keyset page of requests; Pageable carries only the limit and the id direction
+    List<ResourceRequestDTO> findDtoPage(ResourceRequest.Status status, String category, Long disasterId,
+                                         LocalDateTime createdAfter, Long afterId, Long beforeId, Pageable page);
+}
@@ -0,0 +1,42 @@
+package com.resqnet.repository;
+
+import com.resqnet.dto.ResourceRequestDTO;
+import com.resqnet.model.ResourceRequest;
+import com.resqnet.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+class ResourceRequestRepositoryCustomImpl implements ResourceRequestRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<ResourceRequestDTO> findDtoPage(ResourceRequest.Status status, String category, Long disasterId,
+                                                LocalDateTime createdAfter, Long afterId, Long beforeId,
+                                                Pageable page) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<ResourceRequestDTO> query = cb.createQuery(ResourceRequestDTO.class);
+        Root<ResourceRequest> r = query.from(ResourceRequest.class);
+        Join<ResourceRequest, User> rep = r.join("reporter");
+        query.select(cb.construct(ResourceRequestDTO.class, r.get("id"), r.get("category"),
+                r.get("requestedQuantity"), r.get("fulfilledQuantity"), r.get("status"),
+                r.get("disaster").get("id"), rep.get("email"), r.get("createdAt")));
+
+        return new KeysetCriteria(cb, r)
+                .equal(r.get("status"), status)
+                .equal(r.get("category"), category)
+                .equal(r.get("disaster").get("id"), disasterId)
+                .after("createdAt", createdAfter)
+                .idBetween(afterId, beforeId)
+                .page(em, query, page);
+    }
+}
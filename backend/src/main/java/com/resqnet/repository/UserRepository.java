@@ -1,19 +1,107 @@
 package com.resqnet.repository;
 
+import com.resqnet.dto.UserDTO;
+import com.resqnet.geo.BoundingBox;
+import com.resqnet.geo.Nearby;
+import com.resqnet.geo.ResponderPin;
+import com.resqnet.geo.SpatialKey;
 import com.resqnet.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
     Optional<User> findByEmail(String email);
 
+    // Notification fan-out: every user with a role (idx_users_role), recipients by email in one query
+    List<User> findByRole(User.Role role);
+    List<User> findByEmailIn(Collection<String> emails);
+
     boolean existsByEmail(String email);
 
+    // Read-only list rows straight into DTOs (no entity hydration)
+    @Query("SELECT new com.resqnet.dto.UserDTO(u.id, u.name, u.email, u.role, u.createdAt, " +
+           "u.latitude, u.longitude) FROM User u")
+    List<UserDTO> findAllDtos();
+
     //  Fetch only users who have a saved map location (pin)
     @Query("SELECT u FROM User u WHERE u.latitude IS NOT NULL AND u.longitude IS NOT NULL")
     List<User> findAllWithLocation();
+
+    // First map pin of a user who has none yet (set from their first report or contribution)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.latitude = :latitude, u.longitude = :longitude, u.geoKey = :geoKey " +
+           "WHERE u.id = :id AND (u.latitude IS NULL OR u.longitude IS NULL)")
+    int setLocationIfMissing(@Param("id") Long id, @Param("latitude") double latitude,
+                             @Param("longitude") double longitude, @Param("geoKey") Long geoKey);
+
+    default int setLocationIfMissing(Long id, double latitude, double longitude) {
+        return setLocationIfMissing(id, latitude, longitude, SpatialKey.ofNullable(latitude, longitude));
+    }
+
+    // Last step of a set-based user delete (UserService.deleteUser)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteRowById(@Param("id") Long id);
+
+    // Spatial index load: responders with a saved location, with their latest contribution
+    @Query("SELECT new com.resqnet.geo.ResponderPin(u.id, u.latitude, u.longitude, MAX(c.createdAt)) FROM User u " +
+           "LEFT JOIN Contribution c ON c.responder = u " +
+           "WHERE u.role = com.resqnet.model.User.Role.RESPONDER " +
+           "AND u.latitude IS NOT NULL AND u.longitude IS NOT NULL " +
+           "GROUP BY u.id, u.latitude, u.longitude")
+    List<ResponderPin> findResponderPins();
+
+    // Pins another node announced by id only (SpatialIndexService#refresh)
+    @Query("SELECT new com.resqnet.geo.ResponderPin(u.id, u.latitude, u.longitude, MAX(c.createdAt)) FROM User u " +
+           "LEFT JOIN Contribution c ON c.responder = u " +
+           "WHERE u.id IN :ids AND u.role = com.resqnet.model.User.Role.RESPONDER " +
+           "AND u.latitude IS NOT NULL AND u.longitude IS NOT NULL " +
+           "GROUP BY u.id, u.latitude, u.longitude")
+    List<ResponderPin> findResponderPinsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Area and radius queries on the responder pins: one geo_key index range scan per UNION ALL branch,
+    // each with the exact box
+    default List<ResponderPin> findResponderPinsIn(BoundingBox box) {
+        SpatialKey.Cover keys = box.keys();
+        return findResponderPinsInKeyRanges(keys.from(0), keys.to(0), keys.from(1), keys.to(1),
+                keys.from(2), keys.to(2), keys.from(3), keys.to(3),
+                box.minLat(), box.maxLat(), box.minLon(), box.maxLon());
+    }
+
+    default List<Nearby<ResponderPin>> findResponderPinsWithinRadius(double latitude, double longitude, double radiusKm) {
+        List<ResponderPin> candidates = BoundingBox.around(latitude, longitude, radiusKm).stream()
+                .flatMap(box -> findResponderPinsIn(box).stream()).toList();
+        return Nearby.within(candidates, latitude, longitude, radiusKm);
+    }
+
+    String IN_BOX = "WHERE k.latitude BETWEEN :minLat AND :maxLat AND k.longitude BETWEEN :minLon AND :maxLon ";
+
+    // The ranges pick the ids, so the role check and the grouping run once over what they found
+    // (an index on role would otherwise win over a range scan on some planners)
+    @Query("SELECT new com.resqnet.geo.ResponderPin(u.id, u.latitude, u.longitude, MAX(c.createdAt)) FROM User u " +
+           "LEFT JOIN Contribution c ON c.responder = u " +
+           "WHERE u.role = com.resqnet.model.User.Role.RESPONDER AND u.id IN (" +
+           "SELECT k.id FROM User k " + IN_BOX + "AND k.geoKey BETWEEN :from0 AND :to0 " +
+           "UNION ALL SELECT k.id FROM User k " + IN_BOX + "AND k.geoKey BETWEEN :from1 AND :to1 " +
+           "UNION ALL SELECT k.id FROM User k " + IN_BOX + "AND k.geoKey BETWEEN :from2 AND :to2 " +
+           "UNION ALL SELECT k.id FROM User k " + IN_BOX + "AND k.geoKey BETWEEN :from3 AND :to3) " +
+           "GROUP BY u.id, u.latitude, u.longitude")
+    List<ResponderPin> findResponderPinsInKeyRanges(@Param("from0") long from0, @Param("to0") long to0,
+                                                    @Param("from1") long from1, @Param("to1") long to1,
+                                                    @Param("from2") long from2, @Param("to2") long to2,
+                                                    @Param("from3") long from3, @Param("to3") long to3,
+                                                    @Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                                    @Param("minLon") double minLon, @Param("maxLon") double maxLon);
+
+    // Names and emails of matched responders (ResponderMatchingService)
+    @Query("SELECT new com.resqnet.dto.UserDTO(u.id, u.name, u.email, u.role, u.createdAt, " +
+           "u.latitude, u.longitude) FROM User u WHERE u.id IN :ids")
+    List<UserDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,16 @@
+package com.resqnet.repository;
+
+import com.resqnet.dto.UserDTO;
+import com.resqnet.model.User;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    // Filtered keyset page for the admin user list; the bounding box goes through the geo_key index
+    List<UserDTO> findDtoPage(User.Role role, LocalDateTime createdAfter,
+                              Double minLat, Double maxLat, Double minLon, Double maxLon,
+                              Long afterId, Long beforeId, Pageable page);
+}
@@ -0,0 +1,37 @@
+package com.resqnet.repository;
+
+import com.resqnet.dto.UserDTO;
+import com.resqnet.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<UserDTO> findDtoPage(User.Role role, LocalDateTime createdAfter,
+                                     Double minLat, Double maxLat, Double minLon, Double maxLon,
+                                     Long afterId, Long beforeId, Pageable page) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<UserDTO> query = cb.createQuery(UserDTO.class);
+        Root<User> u = query.from(User.class);
+        query.select(cb.construct(UserDTO.class, u.get("id"), u.get("name"), u.get("email"), u.get("role"),
+                u.get("createdAt"), u.get("latitude"), u.get("longitude")));
+
+        return new KeysetCriteria(cb, u)
+                .equal(u.get("role"), role)
+                .after("createdAt", createdAfter)
+                .within(query, minLat, maxLat, minLon, maxLon)
+                .idBetween(afterId, beforeId)
+                .page(em, query, page);
+    }
+}
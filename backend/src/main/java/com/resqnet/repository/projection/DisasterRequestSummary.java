@@ -0,0 +1,22 @@
+package com.resqnet.repository.projection;
+
+/**
+ * Per-disaster, per-category roll-up of resource requests, enough to derive a
+ * disaster's status and contribution categories without loading its requests.
+ * Read from the maintained {@code disaster_category_stats} rows.
+ */
+public interface DisasterRequestSummary {
+
+    Long getDisasterId();
+
+    String getCategory();
+
+    // All requests in this category
+    long getRequestCount();
+
+    // Requests whose status is FULFILLED
+    long getFulfilledCount();
+
+    // Requests with at least one unit contributed
+    long getContributedCount();
+}
@@ -0,0 +1,16 @@
+package com.resqnet.repository.projection;
+
+/**
+ * Where a resource request is needed (its disaster's position) and who raised it,
+ * for matching responders to the request.
+ */
+public interface RequestLocation {
+
+    Long getRequestId();
+
+    Long getReporterId();
+
+    double getLatitude();
+
+    double getLongitude();
+}
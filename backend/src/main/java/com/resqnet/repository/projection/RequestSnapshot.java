@@ -0,0 +1,45 @@
+package com.resqnet.repository.projection;
+
+import com.resqnet.model.ResourceRequest;
+
+/**
+ * The parts of a resource request the per-disaster stats are built from,
+ * taken before and after a write so the stats can be adjusted by the difference.
+ */
+public class RequestSnapshot {
+
+    private final Long id;
+    private final Long disasterId;
+    private final String category;
+    private final ResourceRequest.Status status;
+    private final int requestedQuantity;
+    private final int fulfilledQuantity;
+
+    public RequestSnapshot(Long id, Long disasterId, String category, ResourceRequest.Status status,
+                           int requestedQuantity, int fulfilledQuantity) {
+        this.id = id;
+        this.disasterId = disasterId;
+        this.category = category;
+        this.status = status;
+        this.requestedQuantity = requestedQuantity;
+        this.fulfilledQuantity = fulfilledQuantity;
+    }
+
+    public static RequestSnapshot of(ResourceRequest request) {
+        return new RequestSnapshot(request.getId(), request.getDisaster().getId(), request.getCategory(),
+                request.getStatus(), request.getRequestedQuantity(), request.getFulfilledQuantity());
+    }
+
+    // The same request with a different fulfilled quantity (and the status that goes with it)
+    public RequestSnapshot withFulfilledQuantity(int fulfilledQuantity) {
+        return new RequestSnapshot(id, disasterId, category,
+                ResourceRequest.statusFor(fulfilledQuantity, requestedQuantity), requestedQuantity, fulfilledQuantity);
+    }
+
+    public Long getId() { return id; }
+    public Long getDisasterId() { return disasterId; }
+    public String getCategory() { return category; }
+    public ResourceRequest.Status getStatus() { return status; }
+    public int getRequestedQuantity() { return requestedQuantity; }
+    public int getFulfilledQuantity() { return fulfilledQuantity; }
+}
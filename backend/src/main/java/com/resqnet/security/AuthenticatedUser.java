@@ -0,0 +1,48 @@
+package com.resqnet.security;
+
+import com.resqnet.model.User;
+
+import java.io.Serializable;
+import java.security.Principal;
+
+/**
+ * The caller of an API request, as resolved by {@link JwtFilter}. Controllers
+ * receive it with {@code @AuthenticationPrincipal} and hand it to the services,
+ * which use its id and role instead of looking the user up by email.
+ * {@link #getName()} is the email, so {@code Authentication.getName()} is unchanged.
+ */
+public final class AuthenticatedUser implements Principal, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final String email;
+    private final User.Role role;
+
+    public AuthenticatedUser(Long id, String email, User.Role role) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+    }
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole());
+    }
+
+    public Long getId() { return id; }
+    public String getEmail() { return email; }
+    public User.Role getRole() { return role; }
+
+    public boolean hasRole(User.Role role) {
+        return this.role == role;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return email + " (" + role + ")";
+    }
+}
@@ -0,0 +1,65 @@
+package com.resqnet.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.resqnet.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Current id, email and role per user id, so that authenticating a request
+ * costs no query once the user is cached. The token only says who the caller
+ * was at login; the role and existence checks come from here, and entries are
+ * invalidated by {@code UserService} when a user is updated or deleted. The
+ * TTL bounds how long another instance may keep a stale entry.
+ */
+@Component
+public class AuthenticatedUserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, AuthenticatedUser> users;
+
+    public AuthenticatedUserCache(UserRepository userRepository,
+                                  @Value("${resqnet.auth.user-cache.maximum-size:10000}") long maximumSize,
+                                  @Value("${resqnet.auth.user-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // Empty when the user no longer exists; misses are not cached
+    public Optional<AuthenticatedUser> get(Long userId) {
+        return Optional.ofNullable(users.get(userId, id ->
+                userRepository.findById(id).map(AuthenticatedUser::of).orElse(null)));
+    }
+
+    // Tokens issued before they carried the user id
+    public Optional<AuthenticatedUser> getByEmail(String email) {
+        Optional<AuthenticatedUser> user = userRepository.findByEmail(email).map(AuthenticatedUser::of);
+        user.ifPresent(found -> users.put(found.getId(), found));
+        return user;
+    }
+
+    /**
+     * Drops the entry now and again once the surrounding transaction commits,
+     * so a request that reloads it in between cannot keep the old values.
+     */
+    public void invalidate(Long userId) {
+        users.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    users.invalidate(userId);
+                }
+            });
+        }
+    }
+}
@@ -16,6 +16,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
@@ -23,9 +24,11 @@ public class JwtFilter extends OncePerRequestFilter {
     private static final Logger log = LoggerFactory.getLogger(JwtFilter.class);
 
     private final JwtUtil jwtUtil;
+    private final AuthenticatedUserCache userCache;
 
-    public JwtFilter(JwtUtil jwtUtil) {
+    public JwtFilter(JwtUtil jwtUtil, AuthenticatedUserCache userCache) {
         this.jwtUtil = jwtUtil;
+        this.userCache = userCache;
     }
 
     @Override
@@ -38,27 +41,29 @@ public class JwtFilter extends OncePerRequestFilter {
 
             try {
                 Claims claims = jwtUtil.extractClaims(token);
-                String email = claims.getSubject();
-                String role = claims.get("role", String.class);
+                Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
 
-                // Normalize role
-                if (role != null && role.startsWith("ROLE_")) {
-                    role = role.substring(5);
+                // Id, email and current role from the user cache; no query once the user is cached
+                Optional<AuthenticatedUser> user = userId != null
+                        ? userCache.get(userId)
+                        : userCache.getByEmail(claims.getSubject());
+                if (user.isEmpty()) {
+                    log.warn("JWT for unknown user {}", claims.getSubject());
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid Token");
+                    return;
                 }
 
-                // Grant authority
-                SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role);
-
+                AuthenticatedUser principal = user.get();
                 UsernamePasswordAuthenticationToken auth =
                         new UsernamePasswordAuthenticationToken(
-                                email,
+                                principal,
                                 null,
-                                List.of(authority)
+                                List.of(new SimpleGrantedAuthority("ROLE_" + principal.getRole().name()))
                         );
 
                 auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(auth);
-                log.debug("Authenticated user {} with role {}", email, role);
+                log.debug("Authenticated user {}", principal);
 
             } catch (Exception e) {
                 log.warn("JWT validation failed: {}", e.getMessage());
@@ -26,10 +26,13 @@ public class JwtUtil {
         this.EXPIRATION_TIME = expirationTime;
     }
 
-    //  Generate JWT token with email + role
-    public String generateToken(String email, String role) {
+    public static final String USER_ID_CLAIM = "uid";
+
+    //  Generate JWT token with email + role + user id
+    public String generateToken(Long userId, String email, String role) {
         return Jwts.builder()
                 .setSubject(email)
+                .claim(USER_ID_CLAIM, userId)
                 .claim("role", role)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
@@ -0,0 +1,336 @@
+package com.resqnet.service;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.resqnet.dto.DisasterDTO;
+import com.resqnet.dto.ImportReport;
+import com.resqnet.dto.NotificationDTO;
+import com.resqnet.dto.ResourceRequestDTO;
+import com.resqnet.model.User;
+import com.resqnet.producer.NotificationProducer;
+import com.resqnet.repository.DisasterRepository;
+import com.resqnet.repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Admin bulk import of disasters and resource requests from NDJSON or CSV
+ * (header row first), one record per line. The body is read as a stream and
+ * every line is parsed and validated on its own; valid rows are written in
+ * batches of {@code resqnet.import.batch-size}, each batch in its own
+ * transaction, so a large file never sits in memory and a rejected line or
+ * batch does not undo the rest. Notifications are summarized per batch.
+ */
+@Service
+public class BulkImportService {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    private final ImportBatchWriter batchWriter;
+    private final UserRepository userRepository;
+    private final DisasterRepository disasterRepository;
+    private final NotificationProducer notificationProducer;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    public BulkImportService(ImportBatchWriter batchWriter,
+                             UserRepository userRepository,
+                             DisasterRepository disasterRepository,
+                             NotificationProducer notificationProducer,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             @Value("${resqnet.import.batch-size:50}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("resqnet.import.batch-size must be at least 1");
+        }
+        this.batchWriter = batchWriter;
+        this.userRepository = userRepository;
+        this.disasterRepository = disasterRepository;
+        this.notificationProducer = notificationProducer;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    public ImportReport importDisasters(InputStream body, String contentType, String reporterEmail)
+            throws IOException {
+        User reporter = findReporter(reporterEmail);
+        ImportReport report = new ImportReport();
+        readRows(body, contentType, DisasterDTO.class, report, batch -> {
+            try {
+                batchWriter.writeDisasters(reporter.getId(), values(batch));
+            } catch (DataAccessException e) {
+                rejectBatch(batch, report, e);
+                return;
+            }
+            report.accept(batch.size());
+            sendDisasterSummary(reporter, batch);
+        });
+        return report;
+    }
+
+    public ImportReport importRequests(InputStream body, String contentType, String reporterEmail)
+            throws IOException {
+        User reporter = findReporter(reporterEmail);
+        ImportReport report = new ImportReport();
+        readRows(body, contentType, ResourceRequestDTO.class, report, rows -> {
+            Set<Long> disasters = disasterRepository.findExistingIds(rows.stream()
+                    .map(row -> row.value().getDisasterId())
+                    .collect(Collectors.toSet()));
+            List<Row<ResourceRequestDTO>> batch = new ArrayList<>(rows.size());
+            for (Row<ResourceRequestDTO> row : rows) {
+                if (disasters.contains(row.value().getDisasterId())) {
+                    batch.add(row);
+                } else {
+                    report.reject(row.line(), "Disaster not found: " + row.value().getDisasterId());
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                batchWriter.writeRequests(reporter.getId(), values(batch));
+            } catch (DataAccessException e) {
+                rejectBatch(batch, report, e);
+                return;
+            }
+            report.accept(batch.size());
+            sendRequestSummary(reporter, batch);
+        });
+        return report;
+    }
+
+    private User findReporter(String reporterEmail) {
+        User reporter = userRepository.findByEmail(reporterEmail)
+                .orElseThrow(() -> new EntityNotFoundException("Reporter not found"));
+        if (reporter.getRole() != User.Role.REPORTER) {
+            throw new AccessDeniedException("Imported rows can only be filed under a REPORTER user");
+        }
+        return reporter;
+    }
+
+    // --- Streaming parse: one record per line (a quoted CSV cell may span lines), handed on in batches ---
+    private <T> void readRows(InputStream body, String contentType, Class<T> type,
+                              ImportReport report, BatchHandler<T> handler) throws IOException {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        boolean csv = mediaType.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE));
+        if (!csv && !mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+            throw new IllegalArgumentException("Unsupported import format: " + contentType);
+        }
+        Charset charset = mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset))) {
+            ObjectReader csvRow = null;
+            List<Row<T>> batch = new ArrayList<>(batchSize);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                long recordLine = ++lineNumber;
+                if (csv) {
+                    // An odd number of quotes leaves a quoted cell open; the record goes on
+                    StringBuilder record = new StringBuilder(line);
+                    String next;
+                    while (openQuote(record) && (next = reader.readLine()) != null) {
+                        lineNumber++;
+                        record.append('\n').append(next);
+                    }
+                    if (openQuote(record)) {
+                        report.reject(recordLine, "Malformed row: unterminated quoted cell");
+                        continue;
+                    }
+                    line = record.toString();
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && csvRow == null) {
+                    csvRow = csvRowReader(line);
+                    continue;
+                }
+                try {
+                    T value = csv ? fromCsv(csvRow, line, type) : objectMapper.readValue(line, type);
+                    String violations = violations(value);
+                    if (violations != null) {
+                        report.reject(recordLine, violations);
+                        continue;
+                    }
+                    batch.add(new Row<>(recordLine, value));
+                } catch (JacksonException e) {
+                    report.reject(recordLine, "Malformed row: " + e.getOriginalMessage());
+                    continue;
+                }
+                if (batch.size() == batchSize) {
+                    handler.handle(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                handler.handle(batch);
+            }
+        }
+    }
+
+    private static boolean openQuote(CharSequence record) {
+        int quotes = 0;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') quotes++;
+        }
+        return quotes % 2 == 1;
+    }
+
+    private ObjectReader csvRowReader(String header) throws IOException {
+        String[] columns = csvMapper.readerFor(String[].class).readValue(header);
+        CsvSchema.Builder schema = CsvSchema.builder();
+        for (String column : columns) {
+            schema.addColumn(column.trim());
+        }
+        return csvMapper.readerFor(Map.class).with(schema.build());
+    }
+
+    // Empty cells count as absent, as a missing property would in NDJSON
+    private <T> T fromCsv(ObjectReader csvRow, String line, Class<T> type) throws IOException {
+        Map<String, String> cells = csvRow.readValue(line);
+        ObjectNode node = objectMapper.createObjectNode();
+        cells.forEach((column, cell) -> {
+            if (!cell.isEmpty()) {
+                node.put(column, cell);
+            }
+        });
+        return objectMapper.treeToValue(node, type);
+    }
+
+    private String violations(Object value) {
+        Set<? extends ConstraintViolation<?>> violations = validator.validate(value);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static void rejectBatch(List<? extends Row<?>> batch, ImportReport report, DataAccessException e) {
+        log.warn("Import batch of lines {}-{} failed: {}",
+                batch.get(0).line(), batch.get(batch.size() - 1).line(), e.getMostSpecificCause().getMessage());
+        String message = "Batch rejected by the database: " + e.getMostSpecificCause().getMessage();
+        batch.forEach(row -> report.reject(row.line(), message));
+    }
+
+    private static <T> List<T> values(List<Row<T>> batch) {
+        return batch.stream().map(Row::value).toList();
+    }
+
+    // --- Notifications: one summary per batch instead of one per row ---
+    private void sendDisasterSummary(User reporter, List<Row<DisasterDTO>> batch) {
+        String types = summarize(batch, DisasterDTO::getType, dto -> 1, "%s: %d");
+
+        NotificationDTO reporterNotif = new NotificationDTO();
+        reporterNotif.setRecipientEmail(reporter.getEmail());
+        reporterNotif.setMessage(batch.size() + " disaster reports (" + lines(batch) + ") have been imported.");
+        reporterNotif.setType("DISASTER_CONFIRMATION");
+        reporterNotif.setDeletable(true);
+        notificationProducer.sendNotification(reporterNotif);
+
+        NotificationDTO adminNotif = new NotificationDTO();
+        adminNotif.setMessage("Bulk import: " + batch.size() + " disasters reported by " +
+                reporter.getEmail() + " (" + types + ")");
+        adminNotif.setType("ADMIN_LOG");
+        adminNotif.setDeletable(false);
+        adminNotif.setAdminBroadcast(true);
+        notificationProducer.sendNotification(adminNotif);
+
+        notificationProducer.sendNotifications(userRepository.findByRole(User.Role.RESPONDER).stream()
+                .map(responder -> {
+                    NotificationDTO responderNotif = new NotificationDTO();
+                    responderNotif.setRecipientEmail(responder.getEmail());
+                    responderNotif.setMessage(batch.size() + " new disasters reported (" + types + ")");
+                    responderNotif.setType("DISASTER_ALERT");
+                    responderNotif.setDeletable(true);
+                    return responderNotif;
+                })
+                .toList());
+    }
+
+    private void sendRequestSummary(User reporter, List<Row<ResourceRequestDTO>> batch) {
+        String categories = summarize(batch, ResourceRequestDTO::getCategory,
+                ResourceRequestDTO::getRequestedQuantity, "%s (%d units)");
+
+        NotificationDTO reporterNotif = new NotificationDTO();
+        reporterNotif.setRecipientEmail(reporter.getEmail());
+        reporterNotif.setMessage(batch.size() + " requests (" + lines(batch) + ") have been imported.");
+        reporterNotif.setType("REQUEST_CREATE");
+        reporterNotif.setDeletable(true);
+        notificationProducer.sendNotification(reporterNotif);
+
+        notificationProducer.sendNotifications(userRepository.findByRole(User.Role.RESPONDER).stream()
+                .map(responder -> {
+                    NotificationDTO responderNotif = new NotificationDTO();
+                    responderNotif.setRecipientEmail(responder.getEmail());
+                    responderNotif.setMessage(batch.size() + " new requests: " + categories + ".");
+                    responderNotif.setType("REQUEST_ALERT");
+                    responderNotif.setDeletable(true);
+                    return responderNotif;
+                })
+                .toList());
+
+        NotificationDTO adminNotif = new NotificationDTO();
+        adminNotif.setMessage("Bulk import: " + batch.size() + " requests created by " +
+                reporter.getEmail() + " for " + categories);
+        adminNotif.setType("ADMIN_LOG");
+        adminNotif.setDeletable(false);
+        adminNotif.setAdminBroadcast(true);
+        notificationProducer.sendNotification(adminNotif);
+    }
+
+    // e.g. "Fire: 2, Flood: 5" -- totals per key, keys in alphabetical order
+    private static <T> String summarize(List<Row<T>> batch, Function<T, String> key,
+                                        Function<T, Integer> amount, String format) {
+        Map<String, Integer> totals = new TreeMap<>();
+        batch.forEach(row -> totals.merge(key.apply(row.value()), amount.apply(row.value()), Integer::sum));
+        return totals.entrySet().stream()
+                .map(total -> String.format(format, total.getKey(), total.getValue()))
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String lines(List<? extends Row<?>> batch) {
+        return "lines " + batch.get(0).line() + "-" + batch.get(batch.size() - 1).line();
+    }
+
+    private record Row<T>(long line, T value) {}
+
+    @FunctionalInterface
+    private interface BatchHandler<T> {
+        void handle(List<Row<T>> batch);
+    }
+}
@@ -0,0 +1,114 @@
+package com.resqnet.service;
+
+import com.resqnet.event.CollectionChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the hot list caches ({@code disasters}, {@code requests}) populated so
+ * users never pay for a cold {@code findAll} rebuild:
+ * <ul>
+ *   <li>fills them before the readiness probe reports the instance healthy,</li>
+ *   <li>re-fills them in the background shortly after a write evicts them,</li>
+ *   <li>refreshes them ahead of their TTL expiring.</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(name = "resqnet.cache.warm-up.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheWarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmer.class);
+
+    private final DisasterService disasterService;
+    private final ResourceRequestService requestService;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final TaskScheduler taskScheduler;
+    private final Duration refillDelay;
+
+    // Collections with a refill already scheduled; bursts of writes collapse into one rebuild
+    private final Set<String> pendingRefills = ConcurrentHashMap.newKeySet();
+
+    public CacheWarmer(DisasterService disasterService,
+                       ResourceRequestService requestService,
+                       ObjectProvider<CacheManager> cacheManager,
+                       TaskScheduler taskScheduler,
+                       @Value("${resqnet.cache.warm-up.refill-delay:PT1S}") Duration refillDelay) {
+        this.disasterService = disasterService;
+        this.requestService = requestService;
+        this.cacheManager = cacheManager;
+        this.taskScheduler = taskScheduler;
+        this.refillDelay = refillDelay;
+    }
+
+    // Runs synchronously before the application reports ACCEPTING_TRAFFIC
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmOnStartup() {
+        if (!cachingEnabled()) {
+            log.info("No cache manager configured — cache warm-up skipped");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        refresh(CollectionChangedEvent.DISASTERS);
+        refresh(CollectionChangedEvent.REQUESTS);
+        log.info("Hot caches warmed in {} ms", System.currentTimeMillis() - start);
+    }
+
+    // Caches are evicted after the writing transaction commits, so the refill is
+    // deferred slightly to land after the eviction rather than be wiped by it
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCollectionChanged(CollectionChangedEvent event) {
+        if (!cachingEnabled()) return;
+        if (event.affects(CollectionChangedEvent.DISASTERS)) scheduleRefill(CollectionChangedEvent.DISASTERS);
+        if (event.affects(CollectionChangedEvent.REQUESTS)) scheduleRefill(CollectionChangedEvent.REQUESTS);
+    }
+
+    // Refresh-ahead: rewrite entries before their TTL runs out
+    @Scheduled(initialDelayString = "${resqnet.cache.warm-up.refresh-interval:PT9M}",
+               fixedDelayString = "${resqnet.cache.warm-up.refresh-interval:PT9M}")
+    public void refreshAhead() {
+        if (!cachingEnabled()) return;
+        refresh(CollectionChangedEvent.DISASTERS);
+        refresh(CollectionChangedEvent.REQUESTS);
+    }
+
+    private void scheduleRefill(String collection) {
+        if (pendingRefills.add(collection)) {
+            taskScheduler.schedule(() -> {
+                pendingRefills.remove(collection);
+                refresh(collection);
+            }, Instant.now().plus(refillDelay));
+        }
+    }
+
+    private void refresh(String collection) {
+        try {
+            switch (collection) {
+                case CollectionChangedEvent.DISASTERS -> disasterService.refreshAllDisasters();
+                case CollectionChangedEvent.REQUESTS -> requestService.refreshAllRequests();
+                default -> { }
+            }
+            log.debug("Refreshed cache '{}'", collection);
+        } catch (Exception e) {
+            log.warn("Cache refresh for '{}' failed (non-fatal): {}", collection, e.getMessage());
+        }
+    }
+
+    private boolean cachingEnabled() {
+        return cacheManager.getIfAvailable() != null;
+    }
+}
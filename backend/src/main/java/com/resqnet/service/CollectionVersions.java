@@ -0,0 +1,125 @@
+package com.resqnet.service;
+
+import com.resqnet.event.CollectionChangedEvent;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic per-collection version counters, bumped once a write commits.
+ * List endpoints expose them as weak ETags (the plain and the gzip body share
+ * one tag, so it cannot promise identical bytes) so polling clients can
+ * revalidate with {@code If-None-Match} without touching the cache or the DB.
+ * Writes on other nodes arrive through {@link #onRemoteChange} when the
+ * Postgres event bus is enabled; without it the versions only see this node's
+ * writes, so multi-instance deployments need the bus. Tags carry a per-process
+ * epoch and therefore never match on another node: behind a load balancer
+ * without sticky sessions a client that switches nodes gets a full response
+ * instead of a {@code 304}, never a wrong one.
+ */
+@Component
+public class CollectionVersions {
+
+    // Distinguishes instances/restarts so a tag issued elsewhere never matches here
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private static final String ADMIN_SUMMARY = "adminSummary";
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final TaskScheduler taskScheduler;
+    private final Duration settleDelay;
+
+    // Pending second clear per collection; a newer write pushes it back
+    private final Map<String, ScheduledFuture<?>> settles = new ConcurrentHashMap<>();
+
+    public CollectionVersions(ObjectProvider<CacheManager> cacheManager,
+                              TaskScheduler taskScheduler,
+                              @Value("${resqnet.cache.version-settle-delay:PT30S}") Duration settleDelay) {
+        this.cacheManager = cacheManager;
+        this.taskScheduler = taskScheduler;
+        this.settleDelay = settleDelay;
+    }
+
+    public long current(String collection) {
+        return counter(collection).get();
+    }
+
+    public String etag(String collection) {
+        return etag(collection, current(collection));
+    }
+
+    public String etag(String collection, long version) {
+        return "W/\"" + collection + "-" + epoch + "-" + version + "\"";
+    }
+
+    // The collection's cache is cleared before the bump. A list load that started before
+    // the commit can still finish after the clear and put the pre-write list back, where
+    // the next reader would encode it under the new tag; the settle below clears and
+    // bumps again once such loads are over, so that list is served for settleDelay at most.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCollectionChanged(CollectionChangedEvent event) {
+        CacheManager manager = cacheManager.getIfAvailable();
+        for (String collection : event.getCollections()) {
+            if (manager != null && clear(manager, collection)) scheduleSettle(collection);
+            counter(collection).incrementAndGet();
+        }
+    }
+
+    // A write committed on another node (PgNotifyListener). That node has already evicted a
+    // shared Redis cache; in-process caches (spring.cache.type=caffeine) are cleared here,
+    // together with the admin summary every write evicts.
+    public void onRemoteChange(Collection<String> collections) {
+        CacheManager manager = cacheManager.getIfAvailable();
+        if (manager != null && !(manager instanceof RedisCacheManager)) {
+            collections.forEach(collection -> clear(manager, collection));
+            clear(manager, ADMIN_SUMMARY);
+        }
+        if (manager != null) {
+            // A load here can straddle the remote commit too, also into a shared Redis cache
+            collections.stream().filter(manager.getCacheNames()::contains).forEach(this::scheduleSettle);
+        }
+        collections.forEach(collection -> counter(collection).incrementAndGet());
+    }
+
+    private void scheduleSettle(String collection) {
+        settles.compute(collection, (name, pending) -> {
+            if (pending != null) pending.cancel(false);
+            return taskScheduler.schedule(() -> settle(name), Instant.now().plus(settleDelay));
+        });
+    }
+
+    private void settle(String collection) {
+        CacheManager manager = cacheManager.getIfAvailable();
+        if (manager != null) clear(manager, collection);
+        counter(collection).incrementAndGet();
+    }
+
+    private static boolean clear(CacheManager manager, String name) {
+        if (manager.getCacheNames().contains(name)) {
+            Cache cache = manager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private AtomicLong counter(String collection) {
+        return versions.computeIfAbsent(collection, k -> new AtomicLong());
+    }
+}
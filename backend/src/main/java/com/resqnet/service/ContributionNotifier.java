@@ -0,0 +1,106 @@
+package com.resqnet.service;
+
+import com.resqnet.dto.NotificationDTO;
+import com.resqnet.event.ContributionChangedEvent;
+import com.resqnet.producer.NotificationProducer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Reporter, responder and admin notifications for contributions. Sent once the
+ * contribution write has committed: the fan-out no longer holds the capacity
+ * stripe lock, and a rolled-back contribution never notifies anyone.
+ */
+@Component
+public class ContributionNotifier {
+
+    private final RequestCapacityService capacityService;
+    private final NotificationProducer notificationProducer;
+
+    public ContributionNotifier(RequestCapacityService capacityService, NotificationProducer notificationProducer) {
+        this.capacityService = capacityService;
+        this.notificationProducer = notificationProducer;
+    }
+
+    // The committed transaction's resources are still bound here, so the saves need their own
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onContributionChanged(ContributionChangedEvent event) {
+        int pending = capacityService.remaining(event.getRequestId());
+        notificationProducer.sendNotifications(event.isRemoved()
+                ? deletionNotifications(event, pending)
+                : contributionNotifications(event, pending));
+    }
+
+    private static List<NotificationDTO> contributionNotifications(ContributionChangedEvent event, int pending) {
+        // Reporter
+        NotificationDTO reporterNotif = new NotificationDTO();
+        reporterNotif.setRecipientEmail(event.getReporterEmail());
+        if (pending == 0) {
+            reporterNotif.setMessage("Your request #" + event.getRequestId()
+                    + " has been fully fulfilled! 🎉 (+" + event.getQuantity() + " units of " + event.getCategory() + ")");
+            reporterNotif.setType("CONTRIBUTION_FULFILLED");
+        } else {
+            reporterNotif.setMessage("Your request #" + event.getRequestId()
+                    + " received " + event.getQuantity() + " units of " + event.getCategory() +
+                    ". Pending: " + pending);
+            reporterNotif.setType("CONTRIBUTION_PARTIAL");
+        }
+        reporterNotif.setDeletable(true);
+
+        // Responder
+        NotificationDTO responderNotif = new NotificationDTO();
+        responderNotif.setRecipientEmail(event.getResponderEmail());
+        responderNotif.setMessage("You contributed " + event.getQuantity() + " units of " +
+                event.getCategory() + " to request #" + event.getRequestId());
+        responderNotif.setType("CONTRIBUTION_CONFIRMATION");
+        responderNotif.setDeletable(true);
+
+        // Admin
+        NotificationDTO adminNotif = new NotificationDTO();
+        adminNotif.setMessage("New contribution: " + event.getQuantity() + " units of " +
+                event.getCategory() + " by " + event.getResponderEmail() +
+                " to request #" + event.getRequestId() +
+                " (Lat:" + event.getLatitude() + ", Lng:" + event.getLongitude() + ")");
+        adminNotif.setType("ADMIN_LOG");
+        adminNotif.setDeletable(false);
+        adminNotif.setAdminBroadcast(true);
+
+        return List.of(reporterNotif, responderNotif, adminNotif);
+    }
+
+    private static List<NotificationDTO> deletionNotifications(ContributionChangedEvent event, int pending) {
+        // Reporter
+        NotificationDTO reporterNotif = new NotificationDTO();
+        reporterNotif.setRecipientEmail(event.getReporterEmail());
+        reporterNotif.setMessage("A contribution of " + event.getQuantity() +
+                " units of " + event.getCategory() + " to your request #" +
+                event.getRequestId() + " was removed. Pending: " + pending);
+        reporterNotif.setType("CONTRIBUTION_DELETE");
+        reporterNotif.setDeletable(true);
+
+        // Responder
+        NotificationDTO responderNotif = new NotificationDTO();
+        responderNotif.setRecipientEmail(event.getResponderEmail());
+        responderNotif.setMessage("Your contribution of " + event.getQuantity() +
+                " units of " + event.getCategory() + " to request #" +
+                event.getRequestId() + " was deleted.");
+        responderNotif.setType("CONTRIBUTION_DELETE_CONFIRMATION");
+        responderNotif.setDeletable(true);
+
+        // Admin
+        NotificationDTO adminNotif = new NotificationDTO();
+        adminNotif.setMessage("Contribution of " + event.getQuantity() +
+                " units of " + event.getCategory() + " by " + event.getResponderEmail() +
+                " to request #" + event.getRequestId() + " was deleted.");
+        adminNotif.setType("ADMIN_LOG");
+        adminNotif.setDeletable(false);
+        adminNotif.setAdminBroadcast(true);
+
+        return List.of(reporterNotif, responderNotif, adminNotif);
+    }
+}
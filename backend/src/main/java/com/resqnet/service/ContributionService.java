@@ -1,22 +1,32 @@
 package com.resqnet.service;
 
 import com.resqnet.dto.ContributionDTO;
-import com.resqnet.dto.NotificationDTO;
+import com.resqnet.dto.ContributionFilter;
+import com.resqnet.dto.PageQuery;
+import com.resqnet.dto.PageResponse;
+import com.resqnet.event.CollectionChangedEvent;
+import com.resqnet.event.ContributionChangedEvent;
+import com.resqnet.event.GeoChangedEvent;
+import com.resqnet.geo.ContributionPin;
+import com.resqnet.geo.GeoLayer;
+import com.resqnet.geo.ResponderPin;
 import com.resqnet.model.Contribution;
 import com.resqnet.model.ResourceRequest;
 import com.resqnet.model.User;
-import com.resqnet.producer.NotificationProducer;
 import com.resqnet.repository.ContributionRepository;
 import com.resqnet.repository.ResourceRequestRepository;
 import com.resqnet.repository.UserRepository;
+import com.resqnet.repository.projection.RequestSnapshot;
+import com.resqnet.security.AuthenticatedUser;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class ContributionService {
@@ -24,251 +34,233 @@ public class ContributionService {
     private final ContributionRepository contributionRepository;
     private final ResourceRequestRepository requestRepository;
     private final UserRepository userRepository;
-    private final NotificationProducer notificationProducer;
+    private final RequestCapacityService capacityService;
+    private final DisasterStatsService statsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ContributionService(ContributionRepository contributionRepository,
                                ResourceRequestRepository requestRepository,
                                UserRepository userRepository,
-                               NotificationProducer notificationProducer) {
+                               RequestCapacityService capacityService,
+                               DisasterStatsService statsService,
+                               ApplicationEventPublisher eventPublisher) {
         this.contributionRepository = contributionRepository;
         this.requestRepository = requestRepository;
         this.userRepository = userRepository;
-        this.notificationProducer = notificationProducer;
+        this.capacityService = capacityService;
+        this.statsService = statsService;
+        this.eventPublisher = eventPublisher;
     }
 
-    @CacheEvict(value = {"requests", "disasters", "adminSummary"}, allEntries = true)
+    // Appends to the ledger and takes capacity from one stripe; the request row itself is
+    // left to rollUp, so its fulfilledQuantity and status trail by up to one rollup interval
+    @CacheEvict(value = "adminSummary", allEntries = true)
     @Transactional
-    public ContributionDTO createContribution(ContributionDTO dto, String responderEmail) {
-        ResourceRequest request = requestRepository.findByIdForUpdate(dto.getRequestId())
-                .orElseThrow(() -> new EntityNotFoundException("Resource Request not found"));
-
-        User responder = userRepository.findByEmail(responderEmail)
-                .orElseThrow(() -> new EntityNotFoundException("Responder not found"));
-
-        if (responder.getRole() != User.Role.RESPONDER) {
+    public ContributionDTO createContribution(ContributionDTO dto, AuthenticatedUser responder) {
+        if (!responder.hasRole(User.Role.RESPONDER)) {
             throw new AccessDeniedException("Only RESPONDER users can contribute to requests");
         }
 
-        int pending = request.getRequestedQuantity() - request.getFulfilledQuantity();
-        if (dto.getContributedQuantity() > pending) {
-            throw new IllegalArgumentException("Contribution exceeds pending quantity. Pending: " + pending);
+        int quantity = dto.getContributedQuantity();
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Contribution quantity must be at least 1");
         }
 
-        Contribution contribution = new Contribution();
-        contribution.setContributedQuantity(dto.getContributedQuantity());
-        contribution.setRequest(request);
-        contribution.setResponder(responder);
-        contribution.setCategory(dto.getCategory());
-
         // Save responder’s permanent location if not already set
-        if (responder.getLatitude() == null || responder.getLongitude() == null) {
-            responder.setLatitude(dto.getLatitude());
-            responder.setLongitude(dto.getLongitude());
-            userRepository.save(responder);
+        boolean locationSaved =
+                userRepository.setLocationIfMissing(responder.getId(), dto.getLatitude(), dto.getLongitude()) > 0;
+
+        if (!requestRepository.existsById(dto.getRequestId())) {
+            throw new EntityNotFoundException("Resource Request not found");
         }
 
+        Contribution contribution = new Contribution();
+        contribution.setContributedQuantity(quantity);
+        contribution.setRequest(requestRepository.getReferenceById(dto.getRequestId()));
+        contribution.setResponder(userRepository.getReferenceById(responder.getId()));
+        contribution.setCategory(dto.getCategory());
+
         // Always record location on contribution
         contribution.setLatitude(dto.getLatitude());
         contribution.setLongitude(dto.getLongitude());
+        Contribution saved = contributionRepository.save(contribution);
 
-        // Update request fulfillment
-        request.addFulfilledQuantity(dto.getContributedQuantity());
-        if (request.getFulfilledQuantity() >= request.getRequestedQuantity()) {
-            request.setStatus(ResourceRequest.Status.FULFILLED);
+        // Last write of the transaction, so the stripe stays locked only until the commit
+        if (!capacityService.reserve(dto.getRequestId(), quantity)) {
+            int pending = capacityService.remaining(dto.getRequestId());
+            throw new IllegalArgumentException("Contribution exceeds pending quantity. Pending: " + pending);
         }
 
-        requestRepository.save(request);
-        Contribution saved = contributionRepository.save(contribution);
-
-        sendContributionNotifications(saved);
+        eventPublisher.publishEvent(new CollectionChangedEvent(CollectionChangedEvent.CONTRIBUTIONS));
+        eventPublisher.publishEvent(GeoChangedEvent.upserted(GeoLayer.CONTRIBUTIONS, new ContributionPin(
+                saved.getId(), dto.getLatitude(), dto.getLongitude(), dto.getRequestId(),
+                saved.getRequest().getDisaster().getId(), dto.getCategory(), quantity)));
+        LocalDateTime now = LocalDateTime.now();
+        eventPublisher.publishEvent(locationSaved
+                ? GeoChangedEvent.upserted(GeoLayer.RESPONDERS,
+                        new ResponderPin(responder.getId(), dto.getLatitude(), dto.getLongitude(), now))
+                : GeoChangedEvent.responderActive(responder.getId(), now));
+
+        // Notifications go out after the commit (ContributionNotifier)
+        eventPublisher.publishEvent(ContributionChangedEvent.added(dto.getRequestId(), dto.getCategory(), quantity,
+                dto.getLatitude(), dto.getLongitude(),
+                saved.getRequest().getReporter().getEmail(), responder.getEmail()));
 
         return mapToDTO(saved);
     }
 
-    // ---------------- READ: ROLE-FILTERED ----------------
-    public List<ContributionDTO> getAllContributionsForUser(String userEmail) {
-        User loggedInUser = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new EntityNotFoundException("User not found"));
+    // Folds the request's not yet counted contributions into its fulfilledQuantity and status.
+    // Called by LedgerCompactor; returns the quantity added.
+    @CacheEvict(value = {"requests", "disasters", "adminSummary"}, allEntries = true)
+    @Transactional
+    public int rollUp(Long requestId) {
+        List<Contribution> pending = contributionRepository.lockUnrolledByRequestId(requestId);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        int quantity = pending.stream().mapToInt(Contribution::getContributedQuantity).sum();
+        contributionRepository.markRolledUp(pending.stream().map(Contribution::getId).toList());
+        if (requestRepository.applyContributedQuantity(requestId, quantity) == 1) {
+            RequestSnapshot after = requestRepository.findSnapshotById(requestId).orElseThrow();
+            statsService.changed(after.withFulfilledQuantity(after.getFulfilledQuantity() - quantity), after);
+        }
+        eventPublisher.publishEvent(new CollectionChangedEvent(
+                CollectionChangedEvent.REQUESTS, CollectionChangedEvent.DISASTERS));
+        return quantity;
+    }
 
+    // ---------------- READ: ROLE-FILTERED ----------------
+    @Transactional(readOnly = true)
+    public List<ContributionDTO> getAllContributionsForUser(AuthenticatedUser loggedInUser) {
         switch (loggedInUser.getRole()) {
             case ADMIN:
                 return getAllContributions(); // delegate to raw method
             case RESPONDER:
-                return contributionRepository.findByResponder_Email(userEmail).stream()
-                        .map(this::mapToDTO).toList();
+                return contributionRepository.findDtosByResponderEmail(loggedInUser.getEmail());
+            case REPORTER:
+                return contributionRepository.findDtosByRequestReporterId(loggedInUser.getId());
+            default:
+                throw new AccessDeniedException("Unsupported role");
+        }
+    }
+
+    // Same role scoping as getAllContributionsForUser, applied in the query
+    @Transactional(readOnly = true)
+    public PageResponse<ContributionDTO> getContributionPageForUser(ContributionFilter filter, PageQuery page,
+                                                                    AuthenticatedUser loggedInUser) {
+        switch (loggedInUser.getRole()) {
+            case ADMIN:
+                return getContributionPage(filter, page, null, null);
+            case RESPONDER:
+                return getContributionPage(filter, page, loggedInUser.getEmail(), null);
             case REPORTER:
-                return contributionRepository.findAll().stream()
-                        .filter(c -> c.getRequest().getReporter().getEmail().equalsIgnoreCase(userEmail))
-                        .map(this::mapToDTO).toList();
+                return getContributionPage(filter, page, null, loggedInUser.getId());
             default:
                 throw new AccessDeniedException("Unsupported role");
         }
     }
 
-    public List<ContributionDTO> getByRequestWithSecurity(Long requestId, String userEmail) {
+    @Transactional(readOnly = true)
+    public List<ContributionDTO> getByRequestWithSecurity(Long requestId, AuthenticatedUser loggedInUser) {
         ResourceRequest request = requestRepository.findById(requestId)
                 .orElseThrow(() -> new EntityNotFoundException("Request not found"));
 
-        User loggedInUser = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new EntityNotFoundException("User not found"));
-
-        if (loggedInUser.getRole() == User.Role.REPORTER &&
-            !request.getReporter().getEmail().equalsIgnoreCase(userEmail)) {
+        if (loggedInUser.hasRole(User.Role.REPORTER) &&
+            !request.getReporter().getId().equals(loggedInUser.getId())) {
             throw new AccessDeniedException("Not authorized to view this request’s contributions");
         }
 
-        return contributionRepository.findByRequestId(requestId).stream()
-                .map(this::mapToDTO).toList();
+        return contributionRepository.findDtosByRequestId(requestId);
     }
 
-    public List<ContributionDTO> getByResponderWithSecurity(String responderEmail, String loggedInEmail) {
-        User loggedInUser = userRepository.findByEmail(loggedInEmail)
-                .orElseThrow(() -> new EntityNotFoundException("User not found"));
-
-        if (loggedInUser.getRole() == User.Role.RESPONDER &&
-            !responderEmail.equalsIgnoreCase(loggedInEmail)) {
+    @Transactional(readOnly = true)
+    public List<ContributionDTO> getByResponderWithSecurity(String responderEmail, AuthenticatedUser loggedInUser) {
+        if (loggedInUser.hasRole(User.Role.RESPONDER) &&
+            !responderEmail.equalsIgnoreCase(loggedInUser.getEmail())) {
             throw new AccessDeniedException("Responders can only view their own contributions");
         }
 
-        if (loggedInUser.getRole() == User.Role.REPORTER) {
+        if (loggedInUser.hasRole(User.Role.REPORTER)) {
             throw new AccessDeniedException("Reporters cannot view responder-specific contributions");
         }
 
-        return contributionRepository.findByResponder_Email(responderEmail).stream()
-                .map(this::mapToDTO).toList();
+        return contributionRepository.findDtosByResponderEmail(responderEmail);
     }
 
     // ---------------- READ: RAW ADMIN ----------------
+    @Transactional(readOnly = true)
     public List<ContributionDTO> getAllContributions() {
-        return contributionRepository.findAll().stream()
-                .map(this::mapToDTO).toList();
+        return contributionRepository.findAllDtos();
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<ContributionDTO> getContributionPage(ContributionFilter filter, PageQuery page) {
+        return getContributionPage(filter, page, null, null);
     }
 
+    private PageResponse<ContributionDTO> getContributionPage(ContributionFilter filter, PageQuery page,
+                                                              String responderEmail, Long reporterId) {
+        boolean box = filter.hasBoundingBox();
+        List<ContributionDTO> rows = contributionRepository.findDtoPage(
+                filter.getCategory(), filter.getRequestId(), responderEmail, reporterId, filter.getCreatedAfter(),
+                box ? filter.getMinLat() : null, box ? filter.getMaxLat() : null,
+                box ? filter.getMinLon() : null, box ? filter.getMaxLon() : null,
+                page.afterId(), page.beforeId(), page.toPageable());
+        return PageResponse.of(rows, page, ContributionDTO::getId);
+    }
+
+    @Transactional(readOnly = true)
     public List<ContributionDTO> getByRequest(Long requestId) {
-        return contributionRepository.findByRequestId(requestId).stream()
-                .map(this::mapToDTO).toList();
+        return contributionRepository.findDtosByRequestId(requestId);
     }
 
+    @Transactional(readOnly = true)
     public List<ContributionDTO> getByResponder(String responderEmail) {
-        return contributionRepository.findByResponder_Email(responderEmail).stream()
-                .map(this::mapToDTO).toList();
+        return contributionRepository.findDtosByResponderEmail(responderEmail);
     }
 
     @CacheEvict(value = {"requests", "disasters", "adminSummary"}, allEntries = true)
     @Transactional
     public void deleteContribution(Long id) {
-        Contribution contribution = contributionRepository.findById(id)
+        // Row lock first: a concurrent rollUp either already counted this contribution or
+        // will not see it, and the flag read afterwards says which
+        Contribution contribution = contributionRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new EntityNotFoundException("Contribution not found"));
-
-        ResourceRequest request = contribution.getRequest();
-        request.setFulfilledQuantity(request.getFulfilledQuantity() - contribution.getContributedQuantity());
-        request.updateStatus();
-        requestRepository.save(request);
+        Long requestId = contribution.getRequest().getId();
+        int quantity = contribution.getContributedQuantity();
+        if (contributionRepository.isRolledUp(id)) {
+            if (requestRepository.releaseQuantity(requestId, quantity) == 0) {
+                throw new IllegalStateException("Request #" + requestId + " has less fulfilled quantity than contribution #" + id);
+            }
+            RequestSnapshot after = requestRepository.findSnapshotById(requestId).orElseThrow();
+            statsService.changed(after.withFulfilledQuantity(after.getFulfilledQuantity() + quantity), after);
+        }
+        capacityService.release(requestId, quantity);
 
         contributionRepository.delete(contribution);
+        eventPublisher.publishEvent(new CollectionChangedEvent(
+                CollectionChangedEvent.CONTRIBUTIONS, CollectionChangedEvent.REQUESTS, CollectionChangedEvent.DISASTERS));
+        eventPublisher.publishEvent(GeoChangedEvent.removed(GeoLayer.CONTRIBUTIONS, id));
 
-        sendContributionDeletionNotifications(contribution);
+        eventPublisher.publishEvent(ContributionChangedEvent.removed(requestId, contribution.getCategory(), quantity,
+                contribution.getLatitude(), contribution.getLongitude(),
+                contribution.getRequest().getReporter().getEmail(), contribution.getResponder().getEmail()));
     }
 
     @CacheEvict(value = {"requests", "disasters", "adminSummary"}, allEntries = true)
     @Transactional
-    public void deleteContributionWithSecurity(Long id, String userEmail) {
+    public void deleteContributionWithSecurity(Long id, AuthenticatedUser loggedInUser) {
         Contribution contribution = contributionRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Contribution not found"));
 
-        User loggedInUser = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new EntityNotFoundException("User not found"));
-
-        if (loggedInUser.getRole() == User.Role.RESPONDER &&
-            !contribution.getResponder().getEmail().equalsIgnoreCase(userEmail)) {
+        if (loggedInUser.hasRole(User.Role.RESPONDER) &&
+            !contribution.getResponder().getId().equals(loggedInUser.getId())) {
             throw new AccessDeniedException("Responders can only delete their own contributions");
         }
 
         deleteContribution(id); // reuse logic
     }
 
-    // ---------------- NOTIFICATIONS ----------------
-    private void sendContributionNotifications(Contribution contribution) {
-        String reporterEmail = contribution.getRequest().getReporter().getEmail();
-        String responderEmail = contribution.getResponder().getEmail();
-
-        int contributed = contribution.getContributedQuantity();
-        int fulfilled = contribution.getRequest().getFulfilledQuantity();
-        int requested = contribution.getRequest().getRequestedQuantity();
-
-        // Reporter
-        NotificationDTO reporterNotif = new NotificationDTO();
-        reporterNotif.setRecipientEmail(reporterEmail);
-        if (fulfilled >= requested) {
-            reporterNotif.setMessage("Your request #" + contribution.getRequest().getId()
-                    + " has been fully fulfilled! 🎉 (+" + contributed + " units of " + contribution.getCategory() + ")");
-            reporterNotif.setType("CONTRIBUTION_FULFILLED");
-        } else {
-            reporterNotif.setMessage("Your request #" + contribution.getRequest().getId()
-                    + " received " + contributed + " units of " + contribution.getCategory() +
-                    ". Pending: " + (requested - fulfilled));
-            reporterNotif.setType("CONTRIBUTION_PARTIAL");
-        }
-        reporterNotif.setDeletable(true);
-        notificationProducer.sendNotification(reporterNotif);
-
-        // Responder
-        NotificationDTO responderNotif = new NotificationDTO();
-        responderNotif.setRecipientEmail(responderEmail);
-        responderNotif.setMessage("You contributed " + contributed + " units of " +
-                contribution.getCategory() + " to request #" + contribution.getRequest().getId());
-        responderNotif.setType("CONTRIBUTION_CONFIRMATION");
-        responderNotif.setDeletable(true);
-        notificationProducer.sendNotification(responderNotif);
-
-        // Admin
-        NotificationDTO adminNotif = new NotificationDTO();
-        adminNotif.setMessage("New contribution: " + contributed + " units of " +
-                contribution.getCategory() + " by " + responderEmail +
-                " to request #" + contribution.getRequest().getId() +
-                " (Lat:" + contribution.getLatitude() + ", Lng:" + contribution.getLongitude() + ")");
-        adminNotif.setType("ADMIN_LOG");
-        adminNotif.setDeletable(false);
-        adminNotif.setAdminBroadcast(true);
-        notificationProducer.sendNotification(adminNotif);
-    }
-
-    private void sendContributionDeletionNotifications(Contribution contribution) {
-        String reporterEmail = contribution.getRequest().getReporter().getEmail();
-        String responderEmail = contribution.getResponder().getEmail();
-
-        // Reporter
-        NotificationDTO reporterNotif = new NotificationDTO();
-        reporterNotif.setRecipientEmail(reporterEmail);
-        reporterNotif.setMessage("A contribution of " + contribution.getContributedQuantity() +
-                " units of " + contribution.getCategory() + " to your request #" +
-                contribution.getRequest().getId() + " was removed. Pending: " +
-                (contribution.getRequest().getRequestedQuantity() - contribution.getRequest().getFulfilledQuantity()));
-        reporterNotif.setType("CONTRIBUTION_DELETE");
-        reporterNotif.setDeletable(true);
-        notificationProducer.sendNotification(reporterNotif);
-
-        // Responder
-        NotificationDTO responderNotif = new NotificationDTO();
-        responderNotif.setRecipientEmail(responderEmail);
-        responderNotif.setMessage("Your contribution of " + contribution.getContributedQuantity() +
-                " units of " + contribution.getCategory() + " to request #" +
-                contribution.getRequest().getId() + " was deleted.");
-        responderNotif.setType("CONTRIBUTION_DELETE_CONFIRMATION");
-        responderNotif.setDeletable(true);
-        notificationProducer.sendNotification(responderNotif);
-
-        // Admin
-        NotificationDTO adminNotif = new NotificationDTO();
-        adminNotif.setMessage("Contribution of " + contribution.getContributedQuantity() +
-                " units of " + contribution.getCategory() + " by " + responderEmail +
-                " to request #" + contribution.getRequest().getId() + " was deleted.");
-        adminNotif.setType("ADMIN_LOG");
-        adminNotif.setDeletable(false);
-        adminNotif.setAdminBroadcast(true);
-        notificationProducer.sendNotification(adminNotif);
-    }
-
     // ---------------- MAPPER ----------------
     private ContributionDTO mapToDTO(Contribution c) {
         ContributionDTO dto = new ContributionDTO();
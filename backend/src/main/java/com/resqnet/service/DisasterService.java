@@ -1,52 +1,78 @@
 package com.resqnet.service;
 
+import com.resqnet.config.ReadWriteRoutingDataSource;
 import com.resqnet.dto.DisasterDTO;
+import com.resqnet.dto.DisasterFilter;
 import com.resqnet.dto.NotificationDTO;
+import com.resqnet.dto.PageQuery;
+import com.resqnet.dto.PageResponse;
+import com.resqnet.event.CollectionChangedEvent;
+import com.resqnet.event.GeoChangedEvent;
+import com.resqnet.geo.DisasterPin;
+import com.resqnet.geo.GeoLayer;
 import com.resqnet.model.Disaster;
 import com.resqnet.model.User;
 import com.resqnet.producer.NotificationProducer;
+import com.resqnet.repository.DisasterCategoryStatsRepository;
 import com.resqnet.repository.DisasterRepository;
+import com.resqnet.repository.DisasterStatsRepository;
+import com.resqnet.repository.ResourceRequestRepository;
 import com.resqnet.repository.UserRepository;
+import com.resqnet.repository.projection.DisasterRequestSummary;
+import com.resqnet.security.AuthenticatedUser;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class DisasterService {
 
     private final DisasterRepository disasterRepository;
+    private final ResourceRequestRepository requestRepository;
+    private final DisasterStatsRepository statsRepository;
+    private final DisasterCategoryStatsRepository categoryStatsRepository;
+    private final DisasterStatsService statsService;
     private final UserRepository userRepository;
     private final NotificationProducer notificationProducer;
+    private final ApplicationEventPublisher eventPublisher;
 
     public DisasterService(DisasterRepository disasterRepository,
+                           ResourceRequestRepository requestRepository,
+                           DisasterStatsRepository statsRepository,
+                           DisasterCategoryStatsRepository categoryStatsRepository,
+                           DisasterStatsService statsService,
                            UserRepository userRepository,
-                           NotificationProducer notificationProducer) {
+                           NotificationProducer notificationProducer,
+                           ApplicationEventPublisher eventPublisher) {
         this.disasterRepository = disasterRepository;
+        this.requestRepository = requestRepository;
+        this.statsRepository = statsRepository;
+        this.categoryStatsRepository = categoryStatsRepository;
+        this.statsService = statsService;
         this.userRepository = userRepository;
         this.notificationProducer = notificationProducer;
+        this.eventPublisher = eventPublisher;
     }
 
     @CacheEvict(value = {"disasters", "adminSummary"}, allEntries = true)
     @Transactional
-    public DisasterDTO createDisaster(DisasterDTO dto, String reporterEmail) {
-        User reporter = userRepository.findByEmail(reporterEmail)
-                .orElseThrow(() -> new EntityNotFoundException("Reporter not found"));
-
-        if (reporter.getRole() != User.Role.REPORTER) {
+    public DisasterDTO createDisaster(DisasterDTO dto, AuthenticatedUser reporter) {
+        if (!reporter.hasRole(User.Role.REPORTER)) {
             throw new AccessDeniedException("Only REPORTER users can create disaster reports");
         }
 
-        if (reporter.getLatitude() == null || reporter.getLongitude() == null) {
-            reporter.setLatitude(dto.getLatitude());
-            reporter.setLongitude(dto.getLongitude());
-            userRepository.save(reporter);
-        }
+        userRepository.setLocationIfMissing(reporter.getId(), dto.getLatitude(), dto.getLongitude());
 
         Disaster disaster = new Disaster();
         disaster.setType(dto.getType());
@@ -54,9 +80,12 @@ public class DisasterService {
         disaster.setDescription(dto.getDescription());
         disaster.setLatitude(dto.getLatitude());
         disaster.setLongitude(dto.getLongitude());
-        disaster.setReporter(reporter);
+        disaster.setReporter(userRepository.getReferenceById(reporter.getId()));
 
         Disaster saved = disasterRepository.save(disaster);
+        statsService.opened(List.of(saved.getId()));
+        eventPublisher.publishEvent(new CollectionChangedEvent(CollectionChangedEvent.DISASTERS));
+        eventPublisher.publishEvent(GeoChangedEvent.upserted(GeoLayer.DISASTERS, DisasterPin.of(saved)));
 
         // Reporter confirmation
         NotificationDTO reporterNotif = new NotificationDTO();
@@ -76,29 +105,70 @@ public class DisasterService {
         notificationProducer.sendNotification(adminNotif);
 
         // Notify responders
-        userRepository.findAll().stream()
-                .filter(u -> u.getRole() == User.Role.RESPONDER)
-                .forEach(responder -> {
+        notificationProducer.sendNotifications(userRepository.findByRole(User.Role.RESPONDER).stream()
+                .map(responder -> {
                     NotificationDTO responderNotif = new NotificationDTO();
                     responderNotif.setRecipientEmail(responder.getEmail());
                     responderNotif.setMessage("New disaster reported: " + saved.getType() +
                             " (" + saved.getSeverity() + ")");
                     responderNotif.setType("DISASTER_ALERT");
                     responderNotif.setDeletable(true);
-                    notificationProducer.sendNotification(responderNotif);
-                });
+                    return responderNotif;
+                })
+                .toList());
 
-        return mapToDTO(saved);
+        // A new disaster has no requests yet
+        return mapToDTO(saved, List.of());
     }
 
-    @Cacheable("disasters")
+    @Cacheable(value = "disasters", sync = true)
+    @Transactional(readOnly = true)
     public List<DisasterDTO> getAllDisasters() {
-        return disasterRepository.findAll().stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return loadAllDisasters();
+    }
+
+    // --- Refresh-ahead: rebuild the cached list without evicting it first ---
+    @CachePut("disasters")
+    @Transactional(readOnly = true)
+    public List<DisasterDTO> refreshAllDisasters() {
+        return loadAllDisasters();
+    }
+
+    // Two statements regardless of size: disaster rows (reporter and stats joined), then the category stats.
+    // Read from the primary: the result is cached under the current version for every node.
+    private List<DisasterDTO> loadAllDisasters() {
+        return ReadWriteRoutingDataSource.onPrimary(() -> {
+            Map<Long, List<DisasterRequestSummary>> summaries =
+                    categoryStatsRepository.summarizeAll().stream()
+                            .collect(Collectors.groupingBy(DisasterRequestSummary::getDisasterId));
+
+            List<DisasterDTO> disasters = disasterRepository.findAllDtos();
+            disasters.forEach(dto -> applySummaries(dto, summaries.getOrDefault(dto.getId(), List.of())));
+            return disasters;
+        });
+    }
+
+    // --- READ: filtered keyset page (category stats limited to the page's disasters) ---
+    @Transactional(readOnly = true)
+    public PageResponse<DisasterDTO> getDisasterPage(DisasterFilter filter, PageQuery page) {
+        boolean box = filter.hasBoundingBox();
+        List<DisasterDTO> rows = disasterRepository.findDtoPage(
+                filter.getType(), filter.getSeverity(), filter.getCreatedAfter(),
+                box ? filter.getMinLat() : null, box ? filter.getMaxLat() : null,
+                box ? filter.getMinLon() : null, box ? filter.getMaxLon() : null,
+                page.afterId(), page.beforeId(), page.toPageable());
+        PageResponse<DisasterDTO> response = PageResponse.of(rows, page, DisasterDTO::getId);
+
+        List<Long> ids = response.getItems().stream().map(DisasterDTO::getId).toList();
+        Map<Long, List<DisasterRequestSummary>> summaries = ids.isEmpty() ? Map.of()
+                : categoryStatsRepository.summarizeForDisasters(ids).stream()
+                        .collect(Collectors.groupingBy(DisasterRequestSummary::getDisasterId));
+        response.getItems().forEach(dto -> applySummaries(dto, summaries.getOrDefault(dto.getId(), List.of())));
+        return response;
     }
 
     // --- READ: Get single disaster ---
+    @Transactional(readOnly = true)
     public DisasterDTO getDisasterById(Long id) {
         return disasterRepository.findById(id)
                 .map(this::mapToDTO)
@@ -118,6 +188,8 @@ public class DisasterService {
         disaster.setLongitude(dto.getLongitude());
 
         Disaster updated = disasterRepository.save(disaster);
+        eventPublisher.publishEvent(new CollectionChangedEvent(CollectionChangedEvent.DISASTERS));
+        eventPublisher.publishEvent(GeoChangedEvent.upserted(GeoLayer.DISASTERS, DisasterPin.of(updated)));
 
         // Reporter notification
         if (updated.getReporter() != null) {
@@ -165,11 +237,25 @@ public class DisasterService {
         adminNotif.setAdminBroadcast(true);
         notificationProducer.sendNotification(adminNotif);
 
-        disasterRepository.deleteById(id);
+        // Two set-based deletes instead of cascading through every request and contribution;
+        // contributions, capacity stripes and stats rows follow through ON DELETE CASCADE
+        requestRepository.deleteByDisasterId(id);
+        disasterRepository.deleteRowById(id);
+        eventPublisher.publishEvent(new CollectionChangedEvent(
+                CollectionChangedEvent.DISASTERS, CollectionChangedEvent.REQUESTS, CollectionChangedEvent.CONTRIBUTIONS));
+        eventPublisher.publishEvent(GeoChangedEvent.removed(GeoLayer.DISASTERS, id));
+        eventPublisher.publishEvent(GeoChangedEvent.contributionsOfDisasterRemoved(id));
     }
 
-    // --- Mapping helper ---
+    // --- Mapping helpers ---
     private DisasterDTO mapToDTO(Disaster disaster) {
+        DisasterDTO dto = mapToDTO(disaster, categoryStatsRepository.summarizeForDisaster(disaster.getId()));
+        statsRepository.findById(disaster.getId())
+                .ifPresent(stats -> dto.setLastActivityAt(stats.getLastActivityAt()));
+        return dto;
+    }
+
+    private DisasterDTO mapToDTO(Disaster disaster, List<DisasterRequestSummary> summaries) {
         DisasterDTO dto = new DisasterDTO();
         dto.setId(disaster.getId());
         dto.setType(disaster.getType());
@@ -180,27 +266,31 @@ public class DisasterService {
         dto.setReporterEmail(disaster.getReporter() != null ? disaster.getReporter().getEmail() : null);
         dto.setReporterName(disaster.getReporter() != null ? disaster.getReporter().getName() : null);
         dto.setCreatedAt(disaster.getCreatedAt());
+        applySummaries(dto, summaries);
+        return dto;
+    }
 
-        boolean allFulfilled = disaster.getRequests().stream()
-                .allMatch(r -> r.getStatus() == com.resqnet.model.ResourceRequest.Status.FULFILLED);
-        boolean anyFulfilled = disaster.getRequests().stream()
-                .anyMatch(r -> r.getFulfilledQuantity() > 0);
+    // Status and contribution categories from the per-category stats
+    private void applySummaries(DisasterDTO dto, List<DisasterRequestSummary> summaries) {
+        long requestCount = 0;
+        long fulfilledCount = 0;
+        List<String> contributions = new ArrayList<>();
+        for (DisasterRequestSummary summary : summaries) {
+            requestCount += summary.getRequestCount();
+            fulfilledCount += summary.getFulfilledCount();
+            // one entry per contributed request, as when walking the requests, but grouped by
+            // category: the stats rows keep no per-request order, only each category's first request
+            contributions.addAll(Collections.nCopies((int) summary.getContributedCount(), summary.getCategory()));
+        }
 
-        if (allFulfilled && !disaster.getRequests().isEmpty()) {
+        if (requestCount > 0 && fulfilledCount == requestCount) {
             dto.setStatus("fulfilled");
-        } else if (anyFulfilled) {
+        } else if (!contributions.isEmpty()) {
             dto.setStatus("partial");
         } else {
             dto.setStatus("reported");
         }
 
-        dto.setContributions(
-                disaster.getRequests().stream()
-                        .filter(r -> r.getFulfilledQuantity() > 0)
-                        .map(com.resqnet.model.ResourceRequest::getCategory)
-                        .toList()
-        );
-
-        return dto;
+        dto.setContributions(contributions);
     }
 }
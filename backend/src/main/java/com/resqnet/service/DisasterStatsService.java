@@ -0,0 +1,125 @@
+package com.resqnet.service;
+
+import com.resqnet.repository.DisasterCategoryStatsRepository;
+import com.resqnet.repository.DisasterStatsRepository;
+import com.resqnet.repository.projection.RequestSnapshot;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps {@code disaster_stats} / {@code disaster_category_stats} in step with
+ * resource requests. Callers pass images of the requests they changed, in the
+ * same transaction as the change, and the stats rows are adjusted by the
+ * difference. Each disaster's stats row is updated first and stays locked to
+ * the end of the transaction, so concurrent writers queue per disaster and a
+ * missing category row is only ever built by one of them.
+ */
+@Service
+public class DisasterStatsService {
+
+    private final DisasterStatsRepository statsRepository;
+    private final DisasterCategoryStatsRepository categoryStatsRepository;
+
+    public DisasterStatsService(DisasterStatsRepository statsRepository,
+                                DisasterCategoryStatsRepository categoryStatsRepository) {
+        this.statsRepository = statsRepository;
+        this.categoryStatsRepository = categoryStatsRepository;
+    }
+
+    // New disasters (after they are saved)
+    @Transactional
+    public void opened(Collection<Long> disasterIds) {
+        statsRepository.create(disasterIds, LocalDateTime.now());
+    }
+
+    @Transactional
+    public void added(List<RequestSnapshot> requests) {
+        Map<Key, Tally> tallies = new TreeMap<>();
+        requests.forEach(request -> tally(tallies, request).add(request, 1));
+        apply(tallies);
+    }
+
+    // Images taken before the requests were deleted
+    @Transactional
+    public void removed(List<RequestSnapshot> requests) {
+        Map<Key, Tally> tallies = new TreeMap<>();
+        requests.forEach(request -> tally(tallies, request).add(request, -1));
+        apply(tallies);
+    }
+
+    @Transactional
+    public void changed(RequestSnapshot before, RequestSnapshot after) {
+        Map<Key, Tally> tallies = new TreeMap<>();
+        tally(tallies, before).add(before, -1);
+        tally(tallies, after).add(after, 1);
+        apply(tallies);
+    }
+
+    private static Tally tally(Map<Key, Tally> tallies, RequestSnapshot request) {
+        return tallies.computeIfAbsent(new Key(request.getDisasterId(), request.getCategory()), key -> new Tally());
+    }
+
+    // Keys are sorted by disaster, so two writers touching the same disasters lock them in the same order
+    private void apply(Map<Key, Tally> tallies) {
+        LocalDateTime now = LocalDateTime.now();
+        tallies.keySet().stream().map(Key::disasterId).distinct().forEach(disasterId -> {
+            if (statsRepository.touch(disasterId, now) == 0) {
+                // Disaster written outside the services; create the row, then lock it like any other
+                statsRepository.create(List.of(disasterId), now);
+                statsRepository.touch(disasterId, now);
+            }
+        });
+        tallies.forEach((key, tally) -> {
+            if (tally.isEmpty()) {
+                return;
+            }
+            int updated = categoryStatsRepository.add(key.disasterId(), key.category(),
+                    tally.pending, tally.partial, tally.fulfilled, tally.requestedQuantity, tally.fulfilledQuantity);
+            if (updated == 0) {
+                // First request of this category: the rebuilt row already includes it
+                categoryStatsRepository.rebuild(key.disasterId(), key.category());
+            }
+        });
+    }
+
+    private record Key(Long disasterId, String category) implements Comparable<Key> {
+
+        private static final Comparator<Key> ORDER =
+                Comparator.comparing(Key::disasterId).thenComparing(Key::category);
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private static final class Tally {
+
+        private int pending;
+        private int partial;
+        private int fulfilled;
+        private long requestedQuantity;
+        private long fulfilledQuantity;
+
+        void add(RequestSnapshot request, int sign) {
+            switch (request.getStatus()) {
+                case PENDING -> pending += sign;
+                case PARTIAL -> partial += sign;
+                case FULFILLED -> fulfilled += sign;
+            }
+            requestedQuantity += (long) sign * request.getRequestedQuantity();
+            fulfilledQuantity += (long) sign * request.getFulfilledQuantity();
+        }
+
+        boolean isEmpty() {
+            return pending == 0 && partial == 0 && fulfilled == 0 && requestedQuantity == 0 && fulfilledQuantity == 0;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.resqnet.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Final JSON bytes of the hot list endpoints, kept per collection and rebuilt
+ * only when {@link CollectionVersions} moves on. A hit skips both the cache
+ * round trip and Jackson; the bytes go to the response as-is. Bodies are per
+ * node: another node's write reaches them through the version bump that the
+ * Postgres event bus delivers ({@link CollectionVersions#onRemoteChange}).
+ */
+@Component
+public class EncodedResponseCache {
+
+    private final CollectionVersions collectionVersions;
+    private final ObjectMapper objectMapper;
+    private final boolean gzipEnabled;
+    private final int gzipMinBytes;
+
+    private final Map<String, EncodedBody> bodies = new ConcurrentHashMap<>();
+    // One monitor per collection, so a slow list load never blocks another collection's readers
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    public EncodedResponseCache(CollectionVersions collectionVersions,
+                                ObjectMapper objectMapper,
+                                @Value("${resqnet.cache.encoded-bodies.gzip:true}") boolean gzipEnabled,
+                                @Value("${resqnet.cache.encoded-bodies.gzip-min-bytes:1024}") int gzipMinBytes) {
+        this.collectionVersions = collectionVersions;
+        this.objectMapper = objectMapper;
+        this.gzipEnabled = gzipEnabled;
+        this.gzipMinBytes = gzipMinBytes;
+    }
+
+    /**
+     * Returns the encoded body for the collection's current version, calling
+     * {@code loader} at most once per version (concurrent callers wait for it).
+     */
+    public EncodedBody get(String collection, Supplier<?> loader) {
+        // Read before loading: the list is then at least as new as the version it is stored under
+        long version = collectionVersions.current(collection);
+        EncodedBody cached = bodies.get(collection);
+        if (cached != null && cached.version() >= version) {
+            return cached;
+        }
+        synchronized (locks.computeIfAbsent(collection, k -> new Object())) {
+            EncodedBody existing = bodies.get(collection);
+            if (existing != null && existing.version() >= version) {
+                return existing;
+            }
+            EncodedBody body = encode(collection, version, loader.get());
+            bodies.put(collection, body);
+            return body;
+        }
+    }
+
+    private EncodedBody encode(String collection, long version, Object value) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode " + collection + " list", e);
+        }
+        byte[] gzip = gzipEnabled && json.length >= gzipMinBytes ? gzip(json) : null;
+        return new EncodedBody(version, collectionVersions.etag(collection, version), json, gzip);
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /** Encoded list with its ETag; {@code gzip} is null when compression is off or not worth it. */
+    public record EncodedBody(long version, String etag, byte[] json, byte[] gzip) {
+
+        public boolean hasGzip() {
+            return gzip != null;
+        }
+    }
+}
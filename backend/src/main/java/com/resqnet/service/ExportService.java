@@ -0,0 +1,134 @@
+package com.resqnet.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.resqnet.dto.ContributionDTO;
+import com.resqnet.dto.NotificationDTO;
+import com.resqnet.dto.ResourceRequestDTO;
+import com.resqnet.repository.ContributionRepository;
+import com.resqnet.repository.NotificationRepository;
+import com.resqnet.repository.ResourceRequestRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Admin exports. Rows come from a streamed DTO query and are serialized one at
+ * a time onto the given stream, so memory use does not grow with the table.
+ * The caller owns {@code out}; it is flushed but not closed.
+ */
+@Service
+public class ExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public static Format of(String name) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + name + " (use csv or ndjson)");
+        }
+
+        public String mediaType() { return mediaType; }
+        public String extension() { return extension; }
+    }
+
+    private static final String[] CONTRIBUTION_COLUMNS =
+            {"id", "requestId", "category", "contributedQuantity", "responderEmail", "latitude", "longitude", "updatedAt"};
+    private static final String[] REQUEST_COLUMNS =
+            {"id", "disasterId", "category", "requestedQuantity", "fulfilledQuantity", "status", "reporterEmail", "createdAt"};
+    private static final String[] NOTIFICATION_COLUMNS =
+            {"id", "type", "recipientEmail", "adminBroadcast", "read", "deletable", "message", "createdAt"};
+
+    private final ContributionRepository contributionRepository;
+    private final ResourceRequestRepository requestRepository;
+    private final NotificationRepository notificationRepository;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+
+    public ExportService(ContributionRepository contributionRepository,
+                         ResourceRequestRepository requestRepository,
+                         NotificationRepository notificationRepository,
+                         ObjectMapper objectMapper) {
+        this.contributionRepository = contributionRepository;
+        this.requestRepository = requestRepository;
+        this.notificationRepository = notificationRepository;
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                // DTO properties outside the column list (e.g. items) are left out
+                .enable(JsonGenerator.Feature.IGNORE_UNKNOWN)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public void exportContributions(Format format, OutputStream out) throws IOException {
+        try (Stream<ContributionDTO> rows = contributionRepository.streamAllDtos()) {
+            write(rows, format, CONTRIBUTION_COLUMNS, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportRequests(Format format, OutputStream out) throws IOException {
+        try (Stream<ResourceRequestDTO> rows = requestRepository.streamAllDtos()) {
+            write(rows, format, REQUEST_COLUMNS, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportNotifications(Format format, OutputStream out) throws IOException {
+        try (Stream<NotificationDTO> rows = notificationRepository.streamAllDtos()) {
+            write(rows, format, NOTIFICATION_COLUMNS, out);
+        }
+    }
+
+    private void write(Stream<?> rows, Format format, String[] columns, OutputStream out) throws IOException {
+        ObjectWriter writer = format == Format.CSV
+                ? csvMapper.writer(csvSchema(columns))
+                : objectMapper.writer().withRootValueSeparator("\n");
+        boolean empty = true;
+        try (SequenceWriter sequence = writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValues(out)) {
+            Iterator<?> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                sequence.write(iterator.next());
+                empty = false;
+            }
+        }
+        // the separator only goes between values; NDJSON ends every line
+        if (format == Format.NDJSON && !empty) {
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private static CsvSchema csvSchema(String[] columns) {
+        CsvSchema.Builder schema = CsvSchema.builder().setUseHeader(true);
+        for (String column : columns) {
+            schema.addColumn(column);
+        }
+        return schema.build();
+    }
+}
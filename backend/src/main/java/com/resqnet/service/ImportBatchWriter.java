@@ -0,0 +1,109 @@
+package com.resqnet.service;
+
+import com.resqnet.dto.DisasterDTO;
+import com.resqnet.dto.ResourceRequestDTO;
+import com.resqnet.event.CollectionChangedEvent;
+import com.resqnet.event.GeoChangedEvent;
+import com.resqnet.geo.DisasterPin;
+import com.resqnet.geo.GeoLayer;
+import com.resqnet.model.Disaster;
+import com.resqnet.model.ResourceRequest;
+import com.resqnet.model.User;
+import com.resqnet.repository.DisasterRepository;
+import com.resqnet.repository.ResourceRequestRepository;
+import com.resqnet.repository.UserRepository;
+import com.resqnet.repository.projection.RequestSnapshot;
+import jakarta.persistence.EntityManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Persists one batch of already validated import rows per transaction, so the
+ * inserts of a batch go out as JDBC batches and a failing batch rolls back
+ * on its own. Called by {@link BulkImportService}.
+ */
+@Component
+public class ImportBatchWriter {
+
+    private final DisasterRepository disasterRepository;
+    private final ResourceRequestRepository requestRepository;
+    private final UserRepository userRepository;
+    private final RequestCapacityService capacityService;
+    private final DisasterStatsService statsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+
+    public ImportBatchWriter(DisasterRepository disasterRepository,
+                             ResourceRequestRepository requestRepository,
+                             UserRepository userRepository,
+                             RequestCapacityService capacityService,
+                             DisasterStatsService statsService,
+                             ApplicationEventPublisher eventPublisher,
+                             EntityManager entityManager) {
+        this.disasterRepository = disasterRepository;
+        this.requestRepository = requestRepository;
+        this.userRepository = userRepository;
+        this.capacityService = capacityService;
+        this.statsService = statsService;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+    }
+
+    @CacheEvict(value = {"disasters", "adminSummary"}, allEntries = true)
+    @Transactional
+    public void writeDisasters(Long reporterId, List<DisasterDTO> rows) {
+        User reporter = userRepository.getReferenceById(reporterId);
+        List<Disaster> saved = disasterRepository.saveAll(rows.stream()
+                .map(dto -> {
+                    Disaster disaster = new Disaster();
+                    disaster.setType(dto.getType());
+                    disaster.setSeverity(dto.getSeverity());
+                    disaster.setDescription(dto.getDescription());
+                    disaster.setLatitude(dto.getLatitude());
+                    disaster.setLongitude(dto.getLongitude());
+                    disaster.setReporter(reporter);
+                    return disaster;
+                })
+                .toList());
+        detachBatch();
+        statsService.opened(saved.stream().map(Disaster::getId).toList());
+        eventPublisher.publishEvent(new CollectionChangedEvent(CollectionChangedEvent.DISASTERS));
+        eventPublisher.publishEvent(GeoChangedEvent.upserted(GeoLayer.DISASTERS,
+                saved.stream().map(DisasterPin::of).toList()));
+    }
+
+    // Every row's disaster must exist (checked by the caller)
+    @CacheEvict(value = {"requests", "disasters", "adminSummary"}, allEntries = true)
+    @Transactional
+    public void writeRequests(Long reporterId, List<ResourceRequestDTO> rows) {
+        User reporter = userRepository.getReferenceById(reporterId);
+        List<ResourceRequest> saved = requestRepository.saveAll(rows.stream()
+                .map(dto -> {
+                    ResourceRequest request = new ResourceRequest();
+                    request.setCategory(dto.getCategory());
+                    request.setRequestedQuantity(dto.getRequestedQuantity());
+                    request.setFulfilledQuantity(0);
+                    request.setDisaster(disasterRepository.getReferenceById(dto.getDisasterId()));
+                    request.setReporter(reporter);
+                    return request;
+                })
+                .toList());
+        saved.forEach(request -> capacityService.open(request.getId(), request.getRequestedQuantity()));
+        List<RequestSnapshot> snapshots = saved.stream().map(RequestSnapshot::of).toList();
+        detachBatch();
+        statsService.added(snapshots);
+        eventPublisher.publishEvent(new CollectionChangedEvent(
+                CollectionChangedEvent.REQUESTS, CollectionChangedEvent.DISASTERS));
+    }
+
+    // With open-in-view the persistence context lives as long as the upload,
+    // so without this every imported row would stay managed until the end
+    private void detachBatch() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
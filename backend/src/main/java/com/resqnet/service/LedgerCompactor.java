@@ -0,0 +1,42 @@
+package com.resqnet.service;
+
+import com.resqnet.repository.ContributionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Folds the contribution ledger into {@code ResourceRequest.fulfilledQuantity}
+ * and {@code status}, one short transaction per request. During a surge a
+ * popular request's row is then written once per interval instead of once per
+ * contribution. Safe to run on every instance: rollups of the same request
+ * serialize on the ledger row locks.
+ */
+@Component
+public class LedgerCompactor {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerCompactor.class);
+
+    private final ContributionRepository contributionRepository;
+    private final ContributionService contributionService;
+
+    public LedgerCompactor(ContributionRepository contributionRepository,
+                           ContributionService contributionService) {
+        this.contributionRepository = contributionRepository;
+        this.contributionService = contributionService;
+    }
+
+    @Scheduled(initialDelayString = "${resqnet.ledger.rollup-interval:PT1S}",
+               fixedDelayString = "${resqnet.ledger.rollup-interval:PT1S}")
+    public void compact() {
+        for (Long requestId : contributionRepository.findRequestIdsWithUnrolledContributions()) {
+            try {
+                int quantity = contributionService.rollUp(requestId);
+                log.debug("Rolled up {} units into request #{}", quantity, requestId);
+            } catch (Exception e) {
+                log.warn("Ledger rollup for request #{} failed, retrying next round: {}", requestId, e.getMessage());
+            }
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.resqnet.model.User;
 import com.resqnet.repository.AdminNotificationReadRepository;
 import com.resqnet.repository.NotificationRepository;
 import com.resqnet.repository.UserRepository;
+import com.resqnet.security.AuthenticatedUser;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,10 +16,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -67,73 +71,96 @@ public class NotificationService {
         return mapToDTO(saved, saved.isRead());
     }
 
-    // === Fetch all notifications (user + admin broadcasts if admin) ===
-    public List<NotificationDTO> getNotifications(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new EntityNotFoundException("User not found"));
+    // === Save a fan-out in one transaction; inserts go out as JDBC batches ===
+    @Transactional
+    public List<NotificationDTO> saveNotifications(List<NotificationDTO> dtos) {
+        Set<String> emails = dtos.stream()
+                .filter(dto -> !dto.isAdminBroadcast())
+                .map(NotificationDTO::getRecipientEmail)
+                .collect(Collectors.toSet());
+        Map<String, User> recipients = emails.isEmpty() ? Map.of()
+                : userRepository.findByEmailIn(emails).stream()
+                        .collect(Collectors.toMap(User::getEmail, Function.identity()));
+
+        List<Notification> notifications = new ArrayList<>(dtos.size());
+        for (NotificationDTO dto : dtos) {
+            String type = dto.getType() != null ? dto.getType() : "SYSTEM";
+            if (dto.isAdminBroadcast()) {
+                notifications.add(new Notification(dto.getMessage(), type, dto.isDeletable()));
+                continue;
+            }
+            User user = recipients.get(dto.getRecipientEmail());
+            if (user == null) {
+                // one stale recipient must not drop the rest of the fan-out
+                log.warn("Skipping notification for unknown recipient {}", dto.getRecipientEmail());
+                continue;
+            }
+            notifications.add(new Notification(dto.getMessage(), type, user, dto.isDeletable()));
+        }
 
-        List<Notification> notifications = new ArrayList<>(notificationRepository.findByRecipientOrderByCreatedAtDesc(user));
-        Set<Long> readAdminBroadcastIds = new HashSet<>();
+        return notificationRepository.saveAll(notifications).stream()
+                .map(saved -> mapToDTO(saved, saved.isRead()))
+                .toList();
+    }
+
+    // === Fetch all notifications (user + admin broadcasts if admin) ===
+    @Transactional(readOnly = true)
+    public List<NotificationDTO> getNotifications(AuthenticatedUser user) {
+        List<NotificationDTO> notifications = new ArrayList<>(notificationRepository.findDtosByRecipientId(user.getId()));
 
         if (isAdmin(user)) {
-            notifications.addAll(notificationRepository.findByAdminBroadcastTrueOrderByCreatedAtDesc());
-            readAdminBroadcastIds.addAll(adminNotificationReadRepository.findReadNotificationIdsByAdminId(user.getId()));
+            // Broadcast read state is tracked per admin, not on the notification row
+            Set<Long> readAdminBroadcastIds = new HashSet<>(
+                    adminNotificationReadRepository.findReadNotificationIdsByAdminId(user.getId())
+            );
+            notificationRepository.findAdminBroadcastDtos().forEach(notification -> {
+                notification.setRead(readAdminBroadcastIds.contains(notification.getId()));
+                notifications.add(notification);
+            });
         }
 
-        return notifications.stream()
-                .sorted(Comparator.comparing(Notification::getCreatedAt).reversed())
-                .map(notification -> mapToDTO(
-                        notification,
-                        notification.isAdminBroadcast()
-                                ? readAdminBroadcastIds.contains(notification.getId())
-                                : notification.isRead()
-                ))
-                .collect(Collectors.toList());
+        notifications.sort(Comparator.comparing(NotificationDTO::getCreatedAt).reversed());
+        return notifications;
     }
 
     // === Fetch only unread notifications (user + admin broadcasts if admin) ===
-    public List<NotificationDTO> getUnreadNotifications(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new EntityNotFoundException("User not found"));
-
-        List<Notification> notifications = new ArrayList<>(notificationRepository.findByRecipientAndReadFalseOrderByCreatedAtDesc(user));
+    @Transactional(readOnly = true)
+    public List<NotificationDTO> getUnreadNotifications(AuthenticatedUser user) {
+        List<NotificationDTO> notifications = new ArrayList<>(notificationRepository.findUnreadDtosByRecipientId(user.getId()));
 
         if (isAdmin(user)) {
             Set<Long> readAdminBroadcastIds = new HashSet<>(
                     adminNotificationReadRepository.findReadNotificationIdsByAdminId(user.getId())
             );
-            notifications.addAll(
-                    notificationRepository.findByAdminBroadcastTrueOrderByCreatedAtDesc().stream()
-                            .filter(notification -> !readAdminBroadcastIds.contains(notification.getId()))
-                            .toList()
-            );
+            notificationRepository.findAdminBroadcastDtos().stream()
+                    .filter(notification -> !readAdminBroadcastIds.contains(notification.getId()))
+                    .forEach(notification -> {
+                        notification.setRead(false);
+                        notifications.add(notification);
+                    });
         }
 
-        return notifications.stream()
-                .sorted(Comparator.comparing(Notification::getCreatedAt).reversed())
-                .map(notification -> mapToDTO(notification, false))
-                .collect(Collectors.toList());
+        notifications.sort(Comparator.comparing(NotificationDTO::getCreatedAt).reversed());
+        return notifications;
     }
 
     // === Mark notification as read ===
     @Transactional
-    public void markAsRead(Long id, String userEmail) {
+    public void markAsRead(Long id, AuthenticatedUser user) {
         Notification notification = notificationRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Notification not found"));
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
         if (notification.isAdminBroadcast()) {
             if (!isAdmin(user)) {
                 throw new AccessDeniedException("Only admins can mark admin broadcasts as read");
             }
-            adminNotificationReadRepository.findByNotificationAndAdmin(notification, user)
-                    .orElseGet(() -> adminNotificationReadRepository.save(new AdminNotificationRead(notification, user)));
+            User admin = userRepository.getReferenceById(user.getId());
+            adminNotificationReadRepository.findByNotificationAndAdmin(notification, admin)
+                    .orElseGet(() -> adminNotificationReadRepository.save(new AdminNotificationRead(notification, admin)));
             return;
         }
 
-        if (notification.getRecipient() == null ||
-                !notification.getRecipient().getEmail().equalsIgnoreCase(userEmail)) {
+        if (!isRecipient(notification, user)) {
             throw new AccessDeniedException("Not authorized to update this notification");
         }
 
@@ -143,7 +170,7 @@ public class NotificationService {
 
     // === Delete notification (user or admin override) ===
     @Transactional
-    public void deleteNotification(Long id, String userEmail, boolean isAdmin) {
+    public void deleteNotification(Long id, AuthenticatedUser user, boolean isAdmin) {
         Notification notification = notificationRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Notification not found"));
 
@@ -158,9 +185,7 @@ public class NotificationService {
         }
 
         // User-specific deletion
-        if (!notification.isAdminBroadcast() &&
-                (notification.getRecipient() == null ||
-                        !notification.getRecipient().getEmail().equalsIgnoreCase(userEmail))) {
+        if (!notification.isAdminBroadcast() && !isRecipient(notification, user)) {
             throw new AccessDeniedException("Not authorized to delete this notification");
         }
 
@@ -172,11 +197,17 @@ public class NotificationService {
         notificationRepository.delete(notification);
     }
 
+    // === Event bus: rows announced by id ===
+    // Read-write on purpose, so it runs on the primary that just committed them, not a lagging replica
+    @Transactional
+    public List<NotificationDTO> getNotificationsForDelivery(Collection<Long> ids) {
+        return notificationRepository.findDtosByIdIn(ids);
+    }
+
     // === Admin-only helper ===
+    @Transactional(readOnly = true)
     public List<NotificationDTO> getAdminNotifications() {
-        return notificationRepository.findByAdminBroadcastTrueOrderByCreatedAtDesc().stream()
-                .map(notification -> mapToDTO(notification, notification.isRead()))
-                .collect(Collectors.toList());
+        return notificationRepository.findAdminBroadcastDtos();
     }
 
     // === Mapper ===
@@ -196,8 +227,13 @@ public class NotificationService {
     }
 
     // === Utility: Safe check for admin role ===
-    private boolean isAdmin(User user) {
-        return user != null &&
-                user.getRole() == User.Role.ADMIN;
+    private boolean isAdmin(AuthenticatedUser user) {
+        return user != null && user.hasRole(User.Role.ADMIN);
+    }
+
+    // Compares ids, so the recipient proxy is never loaded
+    private static boolean isRecipient(Notification notification, AuthenticatedUser user) {
+        return user != null && notification.getRecipient() != null
+                && notification.getRecipient().getId().equals(user.getId());
     }
 }
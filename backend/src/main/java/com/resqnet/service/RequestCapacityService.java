@@ -0,0 +1,111 @@
+package com.resqnet.service;
+
+import com.resqnet.model.CapacityStripe;
+import com.resqnet.repository.CapacityStripeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Remaining capacity of each resource request, held in {@code resqnet.ledger.stripes}
+ * rows. A contribution takes its quantity from one randomly chosen stripe with a
+ * conditional UPDATE, so concurrent contributors to the same request mostly lock
+ * different rows. Only when no single stripe can cover a quantity are all stripes
+ * locked and the remainder pooled and spread out again.
+ * <p>
+ * That slow path is taken for any quantity above the largest stripe's share
+ * (about capacity / stripes once contributions have spread out). It locks the
+ * stripe rows of that one request, never another request's, until the caller's
+ * transaction ends; callers therefore reserve last, after their other writes.
+ * Large contributions to the same request serialize with each other there,
+ * while small ones keep taking single stripes.
+ */
+@Service
+public class RequestCapacityService {
+
+    private final CapacityStripeRepository stripeRepository;
+    private final int stripes;
+
+    public RequestCapacityService(CapacityStripeRepository stripeRepository,
+                                  @Value("${resqnet.ledger.stripes:8}") int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("resqnet.ledger.stripes must be at least 1");
+        }
+        this.stripeRepository = stripeRepository;
+        this.stripes = stripes;
+    }
+
+    @Transactional
+    public void open(Long requestId, int capacity) {
+        stripeRepository.saveAll(split(requestId, capacity));
+    }
+
+    // False when the request does not have that much capacity left.
+    // Costs at most `stripes` conditional UPDATEs before the all-stripes fallback.
+    @Transactional
+    public boolean reserve(Long requestId, int quantity) {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            if (stripeRepository.take(requestId, (start + i) % stripes, quantity) == 1) {
+                return true;
+            }
+        }
+        return rebalance(requestId, -quantity);
+    }
+
+    @Transactional
+    public void release(Long requestId, int quantity) {
+        int stripe = ThreadLocalRandom.current().nextInt(stripes);
+        if (stripeRepository.give(requestId, stripe, quantity) == 0) {
+            rebalance(requestId, quantity);
+        }
+    }
+
+    // Grows or shrinks the capacity, e.g. when the requested quantity is edited.
+    // False (and nothing changed) when more than the new capacity is already taken.
+    @Transactional
+    public boolean adjust(Long requestId, int delta) {
+        return rebalance(requestId, delta);
+    }
+
+    @Transactional(readOnly = true)
+    public int remaining(Long requestId) {
+        return stripeRepository.sumRemaining(requestId);
+    }
+
+    private boolean rebalance(Long requestId, int delta) {
+        Map<Integer, CapacityStripe> locked = stripeRepository.lockAll(requestId).stream()
+                .collect(Collectors.toMap(CapacityStripe::getStripe, Function.identity()));
+        int total = locked.values().stream().mapToInt(CapacityStripe::getRemaining).sum() + delta;
+        if (total < 0) {
+            return false;
+        }
+        List<CapacityStripe> added = new ArrayList<>();
+        for (CapacityStripe share : split(requestId, total)) {
+            CapacityStripe existing = locked.get(share.getStripe());
+            if (existing != null) {
+                existing.setRemaining(share.getRemaining());
+            } else {
+                added.add(share);
+            }
+        }
+        stripeRepository.saveAll(added);
+        return true;
+    }
+
+    private List<CapacityStripe> split(Long requestId, int capacity) {
+        List<CapacityStripe> shares = new ArrayList<>(stripes);
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            int share = capacity / stripes + (stripe < capacity % stripes ? 1 : 0);
+            shares.add(new CapacityStripe(requestId, stripe, share));
+        }
+        return shares;
+    }
+}
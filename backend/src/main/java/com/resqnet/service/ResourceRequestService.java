@@ -1,7 +1,13 @@
 package com.resqnet.service;
 
+import com.resqnet.config.ReadWriteRoutingDataSource;
 import com.resqnet.dto.NotificationDTO;
+import com.resqnet.dto.PageQuery;
+import com.resqnet.dto.PageResponse;
+import com.resqnet.dto.RequestFilter;
 import com.resqnet.dto.ResourceRequestDTO;
+import com.resqnet.event.CollectionChangedEvent;
+import com.resqnet.event.GeoChangedEvent;
 import com.resqnet.model.Disaster;
 import com.resqnet.model.ResourceRequest;
 import com.resqnet.model.User;
@@ -9,15 +15,18 @@ import com.resqnet.producer.NotificationProducer;
 import com.resqnet.repository.DisasterRepository;
 import com.resqnet.repository.ResourceRequestRepository;
 import com.resqnet.repository.UserRepository;
+import com.resqnet.repository.projection.RequestSnapshot;
+import com.resqnet.security.AuthenticatedUser;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class ResourceRequestService {
@@ -25,25 +34,31 @@ public class ResourceRequestService {
     private final ResourceRequestRepository resourceRequestRepository;
     private final DisasterRepository disasterRepository;
     private final UserRepository userRepository;
+    private final RequestCapacityService capacityService;
+    private final DisasterStatsService statsService;
     private final NotificationProducer notificationProducer;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ResourceRequestService(ResourceRequestRepository resourceRequestRepository,
                                   DisasterRepository disasterRepository,
                                   UserRepository userRepository,
-                                  NotificationProducer notificationProducer) {
+                                  RequestCapacityService capacityService,
+                                  DisasterStatsService statsService,
+                                  NotificationProducer notificationProducer,
+                                  ApplicationEventPublisher eventPublisher) {
         this.resourceRequestRepository = resourceRequestRepository;
         this.disasterRepository = disasterRepository;
         this.userRepository = userRepository;
+        this.capacityService = capacityService;
+        this.statsService = statsService;
         this.notificationProducer = notificationProducer;
+        this.eventPublisher = eventPublisher;
     }
 
     @CacheEvict(value = {"requests", "disasters", "adminSummary"}, allEntries = true)
     @Transactional
-    public ResourceRequestDTO createRequest(ResourceRequestDTO dto, String reporterEmail) {
-        User reporter = userRepository.findByEmail(reporterEmail)
-                .orElseThrow(() -> new EntityNotFoundException("Reporter not found"));
-
-        if (reporter.getRole() != User.Role.REPORTER) {
+    public ResourceRequestDTO createRequest(ResourceRequestDTO dto, AuthenticatedUser reporter) {
+        if (!reporter.hasRole(User.Role.REPORTER)) {
             throw new AccessDeniedException("Only REPORTER users can create resource requests");
         }
 
@@ -58,24 +73,49 @@ public class ResourceRequestService {
             request.setDisaster(disaster);
         }
 
-        request.setReporter(reporter);
+        request.setReporter(userRepository.getReferenceById(reporter.getId()));
 
         ResourceRequest saved = resourceRequestRepository.save(request);
+        capacityService.open(saved.getId(), saved.getRequestedQuantity());
+        statsService.added(List.of(RequestSnapshot.of(saved)));
         ResourceRequestDTO response = mapToDTO(saved);
+        eventPublisher.publishEvent(new CollectionChangedEvent(
+                CollectionChangedEvent.REQUESTS, CollectionChangedEvent.DISASTERS));
 
         sendCreateRequestNotifications(saved);
 
         return response;
     }
 
-    @Cacheable("requests")
+    @Cacheable(value = "requests", sync = true)
+    @Transactional(readOnly = true)
     public List<ResourceRequestDTO> getAllRequests() {
-        return resourceRequestRepository.findAll().stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return loadAllRequests();
+    }
+
+    // --- Refresh-ahead: rebuild the cached list without evicting it first ---
+    @CachePut("requests")
+    @Transactional(readOnly = true)
+    public List<ResourceRequestDTO> refreshAllRequests() {
+        return loadAllRequests();
+    }
+
+    // Read from the primary: the result is cached under the current version for every node
+    private List<ResourceRequestDTO> loadAllRequests() {
+        return ReadWriteRoutingDataSource.onPrimary(resourceRequestRepository::findAllDtos);
+    }
+
+    // --- READ: filtered keyset page ---
+    @Transactional(readOnly = true)
+    public PageResponse<ResourceRequestDTO> getRequestPage(RequestFilter filter, PageQuery page) {
+        List<ResourceRequestDTO> rows = resourceRequestRepository.findDtoPage(
+                filter.getStatus(), filter.getCategory(), filter.getDisasterId(), filter.getCreatedAfter(),
+                page.afterId(), page.beforeId(), page.toPageable());
+        return PageResponse.of(rows, page, ResourceRequestDTO::getId);
     }
 
     // --- READ one (global) ---
+    @Transactional(readOnly = true)
     public ResourceRequestDTO getRequestById(Long id) {
         return resourceRequestRepository.findById(id)
                 .map(this::mapToDTO)
@@ -83,18 +123,18 @@ public class ResourceRequestService {
     }
 
     // --- Reporter: READ all ---
-    public List<ResourceRequestDTO> getRequestsForReporter(String reporterEmail) {
-        return resourceRequestRepository.findByReporter_Email(reporterEmail).stream()
-                .map(this::mapToDTO)
-                .toList();
+    @Transactional(readOnly = true)
+    public List<ResourceRequestDTO> getRequestsForReporter(AuthenticatedUser reporter) {
+        return resourceRequestRepository.findDtosByReporterEmail(reporter.getEmail());
     }
 
     // --- Reporter: READ one ---
-    public ResourceRequestDTO getRequestByIdForReporter(Long id, String reporterEmail) {
+    @Transactional(readOnly = true)
+    public ResourceRequestDTO getRequestByIdForReporter(Long id, AuthenticatedUser reporter) {
         ResourceRequest req = resourceRequestRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Request not found"));
 
-        if (!req.getReporter().getEmail().equalsIgnoreCase(reporterEmail)) {
+        if (!req.getReporter().getId().equals(reporter.getId())) {
             throw new AccessDeniedException("You are not authorized to view this request");
         }
 
@@ -104,13 +144,15 @@ public class ResourceRequestService {
     @CacheEvict(value = {"requests", "disasters", "adminSummary"}, allEntries = true)
     @Transactional
     public ResourceRequestDTO updateRequest(ResourceRequestDTO dto) {
-        ResourceRequest request = resourceRequestRepository.findById(dto.getId())
+        ResourceRequest request = resourceRequestRepository.findByIdForUpdate(dto.getId())
                 .orElseThrow(() -> new EntityNotFoundException("Request not found"));
+        RequestSnapshot before = RequestSnapshot.of(request);
 
-        int fulfilledQuantity = request.getFulfilledQuantity();
-        if (dto.getRequestedQuantity() < fulfilledQuantity) {
+        // Checked against the capacity stripes, which also count contributions not rolled up yet
+        if (!capacityService.adjust(request.getId(), dto.getRequestedQuantity() - request.getRequestedQuantity())) {
+            int contributed = request.getRequestedQuantity() - capacityService.remaining(request.getId());
             throw new IllegalArgumentException(
-                    "Requested quantity cannot be less than already fulfilled quantity (" + fulfilledQuantity + ")"
+                    "Requested quantity cannot be less than already contributed quantity (" + contributed + ")"
             );
         }
 
@@ -125,6 +167,9 @@ public class ResourceRequestService {
         }
 
         ResourceRequest updated = resourceRequestRepository.save(request);
+        statsService.changed(before, RequestSnapshot.of(updated));
+        eventPublisher.publishEvent(new CollectionChangedEvent(
+                CollectionChangedEvent.REQUESTS, CollectionChangedEvent.DISASTERS));
 
         sendUpdateRequestNotifications(updated);
 
@@ -134,10 +179,14 @@ public class ResourceRequestService {
     @CacheEvict(value = {"requests", "disasters", "adminSummary"}, allEntries = true)
     @Transactional
     public void deleteRequest(Long id) {
-        ResourceRequest req = resourceRequestRepository.findById(id)
+        ResourceRequest req = resourceRequestRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new EntityNotFoundException("Resource Request not found"));
 
+        statsService.removed(List.of(RequestSnapshot.of(req)));
         resourceRequestRepository.deleteById(id);
+        eventPublisher.publishEvent(new CollectionChangedEvent(
+                CollectionChangedEvent.REQUESTS, CollectionChangedEvent.DISASTERS, CollectionChangedEvent.CONTRIBUTIONS));
+        eventPublisher.publishEvent(GeoChangedEvent.contributionsOfRequestRemoved(id));
 
         sendDeleteRequestNotifications(req);
     }
@@ -170,17 +219,17 @@ public class ResourceRequestService {
         notificationProducer.sendNotification(reporterNotif);
 
         // Responders
-        userRepository.findAll().stream()
-                .filter(u -> u.getRole() == User.Role.RESPONDER)
-                .forEach(responder -> {
+        notificationProducer.sendNotifications(userRepository.findByRole(User.Role.RESPONDER).stream()
+                .map(responder -> {
                     NotificationDTO responderNotif = new NotificationDTO();
                     responderNotif.setRecipientEmail(responder.getEmail());
                     responderNotif.setMessage("New request for " + request.getCategory() +
                             " (" + request.getRequestedQuantity() + " units).");
                     responderNotif.setType("REQUEST_ALERT");
                     responderNotif.setDeletable(true);
-                    notificationProducer.sendNotification(responderNotif);
-                });
+                    return responderNotif;
+                })
+                .toList());
 
         // Admin broadcast
         NotificationDTO adminNotif = new NotificationDTO();
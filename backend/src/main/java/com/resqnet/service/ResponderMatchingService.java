@@ -0,0 +1,119 @@
+package com.resqnet.service;
+
+import com.resqnet.dto.ResponderCandidateDTO;
+import com.resqnet.dto.UserDTO;
+import com.resqnet.geo.GeoGrid;
+import com.resqnet.geo.Nearby;
+import com.resqnet.geo.ResponderPin;
+import com.resqnet.model.User;
+import com.resqnet.repository.ResourceRequestRepository;
+import com.resqnet.repository.UserRepository;
+import com.resqnet.repository.projection.RequestLocation;
+import com.resqnet.security.AuthenticatedUser;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Suggests the responders best placed to serve a resource request, from the
+ * responder layer of the {@link SpatialIndexService}. Candidates are ranked by
+ * distance to the request's disaster plus a penalty that grows to
+ * {@code resqnet.matching.inactivity-penalty-km} for responders who have not
+ * contributed within {@code resqnet.matching.activity-window}.
+ */
+@Service
+public class ResponderMatchingService {
+
+    static final int MAX_CANDIDATES = 50;
+
+    private final SpatialIndexService spatialIndex;
+    private final ResourceRequestRepository requestRepository;
+    private final UserRepository userRepository;
+    private final double inactivityPenaltyKm;
+    private final Duration activityWindow;
+
+    public ResponderMatchingService(SpatialIndexService spatialIndex,
+                                    ResourceRequestRepository requestRepository,
+                                    UserRepository userRepository,
+                                    @Value("${resqnet.matching.inactivity-penalty-km:25}") double inactivityPenaltyKm,
+                                    @Value("${resqnet.matching.activity-window:P30D}") Duration activityWindow) {
+        this.spatialIndex = spatialIndex;
+        this.requestRepository = requestRepository;
+        this.userRepository = userRepository;
+        this.inactivityPenaltyKm = inactivityPenaltyKm;
+        this.activityWindow = activityWindow;
+    }
+
+    public record Match(ResponderPin responder, double distanceKm, double rankKm) {
+    }
+
+    @Transactional(readOnly = true)
+    public List<ResponderCandidateDTO> candidatesForRequest(Long requestId, AuthenticatedUser user, int k, double maxKm) {
+        if (k < 1 || k > MAX_CANDIDATES) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_CANDIDATES);
+        }
+        if (!(maxKm > 0 && maxKm <= SpatialIndexService.MAX_RADIUS_KM)) {
+            throw new IllegalArgumentException("maxKm must be greater than 0 and at most " + SpatialIndexService.MAX_RADIUS_KM);
+        }
+        RequestLocation target = requestRepository.findLocationById(requestId)
+                .orElseThrow(() -> new EntityNotFoundException("Resource Request not found"));
+        if (!user.hasRole(User.Role.ADMIN) && !target.getReporterId().equals(user.getId())) {
+            throw new AccessDeniedException("You are not authorized to view candidates for this request");
+        }
+
+        List<Match> matches = match(target.getLatitude(), target.getLongitude(), k, maxKm, LocalDateTime.now());
+        if (matches.isEmpty()) return List.of();
+
+        Map<Long, UserDTO> users = userRepository.findDtosByIdIn(matches.stream().map(m -> m.responder().id()).toList())
+                .stream().collect(Collectors.toMap(UserDTO::getId, Function.identity()));
+        return matches.stream()
+                // Deleted since the index last saw them
+                .filter(m -> users.containsKey(m.responder().id()))
+                .map(m -> {
+                    UserDTO responder = users.get(m.responder().id());
+                    return new ResponderCandidateDTO(responder.getId(), responder.getName(), responder.getEmail(),
+                            m.distanceKm(), m.rankKm(), m.responder().lastActiveAt());
+                })
+                .toList();
+    }
+
+    /**
+     * The {@code k} responders within {@code maxKm} with the lowest rank distance.
+     * <p>
+     * The penalty can put a responder ahead of nearer ones, so the k nearest are
+     * not enough; but it is never negative, so nobody farther away than the worst
+     * rank among the k nearest can beat it. Everyone inside that radius is ranked.
+     */
+    public List<Match> match(double latitude, double longitude, int k, double maxKm, LocalDateTime now) {
+        GeoGrid<ResponderPin> responders = spatialIndex.responders();
+        List<Nearby<ResponderPin>> pool = responders.nearest(latitude, longitude, k, maxKm, pin -> true);
+        if (pool.size() == k) {
+            double bound = pool.stream().mapToDouble(n -> rankKm(n, now)).max().orElseThrow();
+            if (bound > pool.get(k - 1).distanceKm()) {
+                pool = responders.withinRadius(latitude, longitude, Math.min(bound, maxKm));
+            }
+        }
+        return pool.stream()
+                .map(n -> new Match(n.point(), n.distanceKm(), rankKm(n, now)))
+                .sorted(Comparator.comparingDouble(Match::rankKm).thenComparingDouble(Match::distanceKm))
+                .limit(k)
+                .toList();
+    }
+
+    private double rankKm(Nearby<ResponderPin> candidate, LocalDateTime now) {
+        LocalDateTime lastActiveAt = candidate.point().lastActiveAt();
+        double inactivity = lastActiveAt == null ? 1
+                : Math.min(1, Math.max(0, Duration.between(lastActiveAt, now).toMillis() / (double) activityWindow.toMillis()));
+        return candidate.distanceKm() + inactivityPenaltyKm * inactivity;
+    }
+}
@@ -0,0 +1,231 @@
+package com.resqnet.service;
+
+import com.resqnet.config.ReadWriteRoutingDataSource;
+import com.resqnet.event.GeoChangedEvent;
+import com.resqnet.geo.Cluster;
+import com.resqnet.geo.ClusterIndex;
+import com.resqnet.geo.ContributionPin;
+import com.resqnet.geo.DisasterPin;
+import com.resqnet.geo.GeoGrid;
+import com.resqnet.geo.GeoLayer;
+import com.resqnet.geo.GeoMath;
+import com.resqnet.geo.GeoPoint;
+import com.resqnet.geo.Nearby;
+import com.resqnet.geo.ResponderPin;
+import com.resqnet.model.User;
+import com.resqnet.repository.ContributionRepository;
+import com.resqnet.repository.DisasterRepository;
+import com.resqnet.repository.UserRepository;
+import com.resqnet.security.AuthenticatedUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Disasters, responder pins and contributions held in per-layer {@link GeoGrid}s
+ * for the map queries under {@code /api/geo}. Loaded as a lifecycle phase ahead
+ * of the web server's, so the instance takes no traffic before the index is
+ * filled; patched from {@link GeoChangedEvent}s once the writing transaction
+ * commits. With the Postgres event bus enabled, other instances' changes arrive
+ * the same way through {@code PgNotifyListener}. The reload every
+ * {@code resqnet.geo.refresh-interval} is only a safety net, for announcements
+ * that never arrived.
+ */
+@Service
+public class SpatialIndexService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(SpatialIndexService.class);
+
+    static final double MAX_RADIUS_KM = 500;
+    static final int MAX_NEAREST = 100;
+
+    // The embedded web server starts at DEFAULT_PHASE - 2048
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final DisasterRepository disasterRepository;
+    private final UserRepository userRepository;
+    private final ContributionRepository contributionRepository;
+
+    private final GeoGrid<DisasterPin> disasters;
+    private final GeoGrid<ResponderPin> responders;
+    private final GeoGrid<ContributionPin> contributions;
+    private final Map<GeoLayer, GeoGrid<? extends GeoPoint>> layers = new EnumMap<>(GeoLayer.class);
+    private final Map<GeoLayer, ClusterIndex<?>> clusters = new EnumMap<>(GeoLayer.class);
+
+    private volatile boolean running;
+
+    public SpatialIndexService(DisasterRepository disasterRepository,
+                               UserRepository userRepository,
+                               ContributionRepository contributionRepository,
+                               @Value("${resqnet.geo.cell-degrees:0.1}") double cellDegrees) {
+        this.disasterRepository = disasterRepository;
+        this.userRepository = userRepository;
+        this.contributionRepository = contributionRepository;
+        ClusterIndex<DisasterPin> disasterClusters = new ClusterIndex<>(DisasterPin::severity);
+        ClusterIndex<ResponderPin> responderClusters = new ClusterIndex<>(pin -> null);
+        ClusterIndex<ContributionPin> contributionClusters = new ClusterIndex<>(ContributionPin::category);
+        this.disasters = new GeoGrid<>(cellDegrees, disasterClusters);
+        this.responders = new GeoGrid<>(cellDegrees, responderClusters);
+        this.contributions = new GeoGrid<>(cellDegrees, contributionClusters);
+        layers.put(GeoLayer.DISASTERS, disasters);
+        layers.put(GeoLayer.RESPONDERS, responders);
+        layers.put(GeoLayer.CONTRIBUTIONS, contributions);
+        clusters.put(GeoLayer.DISASTERS, disasterClusters);
+        clusters.put(GeoLayer.RESPONDERS, responderClusters);
+        clusters.put(GeoLayer.CONTRIBUTIONS, contributionClusters);
+    }
+
+    @Override
+    public void start() {
+        long start = System.currentTimeMillis();
+        reloadAll();
+        log.info("Spatial index loaded in {} ms ({} disasters, {} responders, {} contributions)",
+                System.currentTimeMillis() - start, disasters.size(), responders.size(), contributions.size());
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    @Scheduled(initialDelayString = "${resqnet.geo.refresh-interval:PT5M}",
+               fixedDelayString = "${resqnet.geo.refresh-interval:PT5M}")
+    public void reloadAll() {
+        for (GeoLayer layer : GeoLayer.values()) {
+            try {
+                reload(layer);
+            } catch (Exception e) {
+                log.warn("Spatial index reload of {} failed, keeping the current entries: {}", layer, e.getMessage());
+            }
+        }
+    }
+
+    public void reload(GeoLayer layer) {
+        switch (layer) {
+            case DISASTERS -> disasters.reload(disasterRepository::findAllPins);
+            case RESPONDERS -> responders.reload(userRepository::findResponderPins);
+            case CONTRIBUTIONS -> contributions.reload(contributionRepository::findAllPins);
+        }
+    }
+
+    // Rows another node announced by id only (PgNotifyListener): their current pins are read
+    // back from the primary, which already has that node's commit, and ids without one are dropped
+    public void refresh(GeoLayer layer, Collection<Long> ids) {
+        List<? extends GeoPoint> pins = ReadWriteRoutingDataSource.onPrimary(() -> switch (layer) {
+            case DISASTERS -> disasterRepository.findPinsByIdIn(ids);
+            case RESPONDERS -> userRepository.findResponderPinsByIdIn(ids);
+            case CONTRIBUTIONS -> contributionRepository.findPinsByIdIn(ids);
+        });
+        Set<Long> found = pins.stream().map(GeoPoint::id).collect(Collectors.toSet());
+        List<Long> gone = ids.stream().filter(id -> !found.contains(id)).toList();
+        onGeoChanged(GeoChangedEvent.of(layer, pins, gone, Set.of(), Set.of(), Map.of(), List.of()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGeoChanged(GeoChangedEvent event) {
+        event.getReloads().forEach(this::reload);
+        if (event.getLayer() == null) return;
+        GeoGrid<GeoPoint> grid = grid(event.getLayer());
+        if (event.getLayer() == GeoLayer.RESPONDERS) {
+            event.getUpserts().forEach(point -> responders.merge((ResponderPin) point,
+                    (previous, pin) -> pin.replacing(previous)));
+        } else {
+            event.getUpserts().forEach(grid::put);
+        }
+        event.getUpdates().forEach(grid::update);
+        event.getRemovals().forEach(grid::remove);
+        if (event.getRemoveIf() != null) {
+            grid.removeIf(event.getRemoveIf());
+        }
+    }
+
+    // --- Queries ---
+
+    public List<? extends GeoPoint> within(GeoLayer layer, AuthenticatedUser user,
+                                           double minLat, double maxLat, double minLon, double maxLon) {
+        requireReadable(layer, user);
+        GeoMath.requireValid(minLat, minLon);
+        GeoMath.requireValid(maxLat, maxLon);
+        return grid(layer).within(minLat, maxLat, minLon, maxLon);
+    }
+
+    public List<? extends Nearby<?>> withinRadius(GeoLayer layer, AuthenticatedUser user,
+                                                  double latitude, double longitude, double radiusKm) {
+        requireReadable(layer, user);
+        if (!(radiusKm > 0 && radiusKm <= MAX_RADIUS_KM)) {
+            throw new IllegalArgumentException("radiusKm must be greater than 0 and at most " + MAX_RADIUS_KM);
+        }
+        return grid(layer).withinRadius(latitude, longitude, radiusKm);
+    }
+
+    public List<? extends Nearby<?>> nearest(GeoLayer layer, AuthenticatedUser user,
+                                             double latitude, double longitude, int k) {
+        requireReadable(layer, user);
+        if (k < 1 || k > MAX_NEAREST) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_NEAREST);
+        }
+        return grid(layer).nearest(latitude, longitude, k);
+    }
+
+    // Viewport rendering: one entry per occupied cell on screen, however many points there are
+    public List<Cluster> clusters(GeoLayer layer, AuthenticatedUser user,
+                                  double minLat, double maxLat, double minLon, double maxLon, int zoom) {
+        requireReadable(layer, user);
+        GeoMath.requireValid(minLat, minLon);
+        GeoMath.requireValid(maxLat, maxLon);
+        return clusters.get(layer).clusters(minLat, maxLat, minLon, maxLon, zoom);
+    }
+
+    // Map tiles (VectorTileService): the clusters of one tile and the version they are valid for
+    public List<Cluster> tile(GeoLayer layer, AuthenticatedUser user, int zoom, int x, int y) {
+        requireReadable(layer, user);
+        return clusters.get(layer).tile(zoom, x, y);
+    }
+
+    public long tileVersion(GeoLayer layer, AuthenticatedUser user, int zoom, int x, int y) {
+        requireReadable(layer, user);
+        return clusters.get(layer).tileVersion(zoom, x, y);
+    }
+
+    // Responder pins are people's saved locations
+    private void requireReadable(GeoLayer layer, AuthenticatedUser user) {
+        if (layer == GeoLayer.RESPONDERS && !user.hasRole(User.Role.ADMIN)) {
+            throw new AccessDeniedException("Only ADMIN users can view responder locations");
+        }
+    }
+
+    public GeoGrid<DisasterPin> disasters() { return disasters; }
+
+    public GeoGrid<ResponderPin> responders() { return responders; }
+
+    public GeoGrid<ContributionPin> contributions() { return contributions; }
+
+    // Each layer's grid only ever receives that layer's pin type from the events
+    @SuppressWarnings("unchecked")
+    private GeoGrid<GeoPoint> grid(GeoLayer layer) {
+        return (GeoGrid<GeoPoint>) layers.get(layer);
+    }
+}
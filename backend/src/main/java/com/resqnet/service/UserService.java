@@ -1,34 +1,79 @@
 package com.resqnet.service;
 
+import com.resqnet.config.ReadWriteRoutingDataSource;
 import com.resqnet.dto.NotificationDTO;
+import com.resqnet.dto.PageQuery;
+import com.resqnet.dto.PageResponse;
 import com.resqnet.dto.UserCreateRequest;
 import com.resqnet.dto.UserDTO;
+import com.resqnet.dto.UserFilter;
+import com.resqnet.event.CollectionChangedEvent;
+import com.resqnet.event.GeoChangedEvent;
+import com.resqnet.geo.GeoLayer;
+import com.resqnet.geo.ResponderPin;
+import com.resqnet.model.ResourceRequest;
 import com.resqnet.model.User;
 import com.resqnet.producer.NotificationProducer;
+import com.resqnet.repository.AdminNotificationReadRepository;
+import com.resqnet.repository.ContributionRepository;
+import com.resqnet.repository.DisasterRepository;
+import com.resqnet.repository.NotificationRepository;
+import com.resqnet.repository.ResourceRequestRepository;
 import com.resqnet.repository.UserRepository;
+import com.resqnet.repository.projection.RequestSnapshot;
+import com.resqnet.security.AuthenticatedUserCache;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
+    private final ResourceRequestRepository requestRepository;
+    private final DisasterRepository disasterRepository;
+    private final ContributionRepository contributionRepository;
+    private final NotificationRepository notificationRepository;
+    private final AdminNotificationReadRepository adminNotificationReadRepository;
+    private final DisasterStatsService statsService;
+    private final ContributionService contributionService;
+    private final AuthenticatedUserCache userCache;
     private final PasswordEncoder passwordEncoder;
     private final NotificationProducer notificationProducer;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserService(UserRepository userRepository,
+                       ResourceRequestRepository requestRepository,
+                       DisasterRepository disasterRepository,
+                       ContributionRepository contributionRepository,
+                       NotificationRepository notificationRepository,
+                       AdminNotificationReadRepository adminNotificationReadRepository,
+                       DisasterStatsService statsService,
+                       ContributionService contributionService,
+                       AuthenticatedUserCache userCache,
                        PasswordEncoder passwordEncoder,
-                       NotificationProducer notificationProducer) {
+                       NotificationProducer notificationProducer,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.requestRepository = requestRepository;
+        this.disasterRepository = disasterRepository;
+        this.contributionRepository = contributionRepository;
+        this.notificationRepository = notificationRepository;
+        this.adminNotificationReadRepository = adminNotificationReadRepository;
+        this.statsService = statsService;
+        this.contributionService = contributionService;
+        this.userCache = userCache;
         this.passwordEncoder = passwordEncoder;
         this.notificationProducer = notificationProducer;
+        this.eventPublisher = eventPublisher;
     }
 
     @CacheEvict(value = {"users", "adminSummary"}, allEntries = true)
@@ -54,6 +99,8 @@ public class UserService {
 
         User saved = userRepository.save(user);
         UserDTO dto = mapToDTO(saved);
+        eventPublisher.publishEvent(new CollectionChangedEvent(CollectionChangedEvent.USERS));
+        publishResponderPin(saved);
 
         // Send Notifications
         sendUserCreationNotifications(saved);
@@ -61,14 +108,27 @@ public class UserService {
         return dto;
     }
 
-    @Cacheable("users")
+    @Cacheable(value = "users", sync = true)
+    @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        // Cached for every node, so never from a lagging replica
+        return ReadWriteRoutingDataSource.onPrimary(userRepository::findAllDtos);
+    }
+
+    // --- Filtered keyset page ---
+    @Transactional(readOnly = true)
+    public PageResponse<UserDTO> getUserPage(UserFilter filter, PageQuery page) {
+        boolean box = filter.hasBoundingBox();
+        List<UserDTO> rows = userRepository.findDtoPage(
+                filter.getRole(), filter.getCreatedAfter(),
+                box ? filter.getMinLat() : null, box ? filter.getMaxLat() : null,
+                box ? filter.getMinLon() : null, box ? filter.getMaxLon() : null,
+                page.afterId(), page.beforeId(), page.toPageable());
+        return PageResponse.of(rows, page, UserDTO::getId);
     }
 
     // --- Get user by id ---
+    @Transactional(readOnly = true)
     public UserDTO getUserById(Long id) {
         return userRepository.findById(id)
                 .map(this::mapToDTO)
@@ -88,7 +148,12 @@ public class UserService {
         user.setLatitude(dto.getLatitude());
         user.setLongitude(dto.getLongitude());
 
-        return mapToDTO(userRepository.save(user));
+        UserDTO updated = mapToDTO(userRepository.save(user));
+        // a role or email change applies to the user's next request, not after the cache expires
+        userCache.invalidate(user.getId());
+        eventPublisher.publishEvent(new CollectionChangedEvent(CollectionChangedEvent.USERS));
+        publishResponderPin(user);
+        return updated;
     }
 
     @CacheEvict(value = {"users", "disasters", "requests", "adminSummary"}, allEntries = true)
@@ -97,17 +162,59 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
-        userRepository.delete(user);
+        // One statement per table, children first, rather than JPA cascades removing the user's
+        // disasters, requests and contributions row by row. Contributions, capacity stripes
+        // and disaster stats follow through ON DELETE CASCADE.
+        rollUpContributions(id);
+        List<ResourceRequest> requestsElsewhere = requestRepository.lockOnOtherDisasters(id);
+        statsService.removed(requestsElsewhere.stream().map(RequestSnapshot::of).toList());
+        // What leaves the map, read before it is gone
+        List<Long> disasterIds = disasterRepository.findIdsByReporterId(id);
+        List<Long> contributionIds = contributionRepository.findIdsByResponderId(id);
+
+        requestRepository.deleteByReporterOrDisasterReporterId(id);
+        disasterRepository.deleteByReporterId(id);
+        adminNotificationReadRepository.deleteByAdminOrRecipientId(id);
+        notificationRepository.deleteByRecipientId(id);
+        userRepository.deleteRowById(id);
+        userCache.invalidate(id);
+        eventPublisher.publishEvent(new CollectionChangedEvent(
+                CollectionChangedEvent.USERS, CollectionChangedEvent.DISASTERS,
+                CollectionChangedEvent.REQUESTS, CollectionChangedEvent.CONTRIBUTIONS));
+        eventPublisher.publishEvent(GeoChangedEvent.removed(GeoLayer.RESPONDERS, id));
+        eventPublisher.publishEvent(GeoChangedEvent.removed(GeoLayer.DISASTERS, disasterIds));
+        eventPublisher.publishEvent(GeoChangedEvent.contributionsRemoved(contributionIds, Set.copyOf(disasterIds),
+                requestsElsewhere.stream().map(ResourceRequest::getId).collect(Collectors.toSet())));
 
         // Send Notifications
         sendUserDeletionNotifications(user);
     }
 
+    // The cascade drops a responder's contributions; like every other delete path they stay
+    // counted in their request's fulfilledQuantity. The ones the LedgerCompactor has not reached
+    // yet are rolled up here first, in this transaction, so the totals do not depend on when it
+    // last ran. Request ids are read without locking: each rollUp then locks that request's
+    // ledger rows itself, in the same order as the compactor, so the two cannot deadlock.
+    private void rollUpContributions(Long responderId) {
+        contributionRepository.findRequestIdsWithUnrolledContributionsByResponderId(responderId)
+                .forEach(contributionService::rollUp);
+    }
+
     // --- find user by email (for AuthController login) ---
     public User findByEmail(String email) {
         return userRepository.findByEmail(email).orElse(null);
     }
 
+    // Only responders with a saved location appear on the responder layer
+    private void publishResponderPin(User user) {
+        if (user.getRole() == User.Role.RESPONDER && user.getLatitude() != null && user.getLongitude() != null) {
+            eventPublisher.publishEvent(GeoChangedEvent.upserted(GeoLayer.RESPONDERS,
+                    new ResponderPin(user.getId(), user.getLatitude(), user.getLongitude(), null)));
+        } else {
+            eventPublisher.publishEvent(GeoChangedEvent.removed(GeoLayer.RESPONDERS, user.getId()));
+        }
+    }
+
     // --- Helper: map entity → DTO ---
     private UserDTO mapToDTO(User user) {
         UserDTO dto = new UserDTO();
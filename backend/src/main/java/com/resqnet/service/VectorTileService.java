@@ -0,0 +1,70 @@
+package com.resqnet.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.resqnet.geo.GeoLayer;
+import com.resqnet.geo.VectorTile;
+import com.resqnet.security.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+
+/**
+ * Binary map tiles ({@link VectorTile}) for {@code /api/tiles}, built from the
+ * spatial index's clusters and cached per tile. A cached tile is reused while
+ * the tile's version in the {@code ClusterIndex} is unchanged, so a write only
+ * invalidates the one tile per zoom level that it touches.
+ */
+@Service
+public class VectorTileService {
+
+    // Distinguishes instances/restarts so a tag issued elsewhere never matches here
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final SpatialIndexService spatialIndex;
+    private final Cache<TileKey, EncodedTile> tiles;
+
+    private record TileKey(GeoLayer layer, int zoom, int x, int y) {
+    }
+
+    public VectorTileService(SpatialIndexService spatialIndex,
+                             @Value("${resqnet.tiles.cache.maximum-size:10000}") long maximumSize) {
+        this.spatialIndex = spatialIndex;
+        this.tiles = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    // Lets the controller answer If-None-Match before any tile is built
+    public String etag(GeoLayer layer, AuthenticatedUser user, int zoom, int x, int y) {
+        return etag(layer, zoom, x, y, spatialIndex.tileVersion(layer, user, zoom, x, y));
+    }
+
+    public EncodedTile get(GeoLayer layer, AuthenticatedUser user, int zoom, int x, int y) {
+        // Read before rendering: the tile is then at least as new as the version it is stored under
+        long version = spatialIndex.tileVersion(layer, user, zoom, x, y);
+        TileKey key = new TileKey(layer, zoom, x, y);
+        EncodedTile cached = tiles.getIfPresent(key);
+        if (cached != null && cached.version() >= version) {
+            return cached;
+        }
+        return tiles.asMap().compute(key, (k, existing) ->
+                existing != null && existing.version() >= version
+                        ? existing
+                        : new EncodedTile(version, etag(layer, zoom, x, y, version),
+                                VectorTile.encode(name(layer), zoom, x, y, spatialIndex.tile(layer, user, zoom, x, y))));
+    }
+
+    private String etag(GeoLayer layer, int zoom, int x, int y, long version) {
+        return "\"" + name(layer) + "-" + zoom + "-" + x + "-" + y + "-" + epoch + "-" + version + "\"";
+    }
+
+    private static String name(GeoLayer layer) {
+        return layer.name().toLowerCase(Locale.ROOT);
+    }
+
+    /** Encoded tile with its ETag; {@code bytes} is empty for a tile with nothing in it. */
+    public record EncodedTile(long version, String etag, byte[] bytes) {
+    }
+}
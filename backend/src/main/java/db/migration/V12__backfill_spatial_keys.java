@@ -0,0 +1,49 @@
+package db.migration;
+
+import com.resqnet.geo.SpatialKey;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Fills geo_key (V11) for rows written before it existed. The key is computed
+ * by {@link SpatialKey} rather than in SQL so it matches the entities exactly.
+ */
+public class V12__backfill_spatial_keys extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        for (String table : new String[] {"disasters", "contributions", "users"}) {
+            backfill(connection, table);
+        }
+    }
+
+    private static void backfill(Connection connection, String table) throws Exception {
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery("SELECT id, latitude, longitude FROM " + table
+                     + " WHERE geo_key IS NULL AND latitude IS NOT NULL AND longitude IS NOT NULL");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE " + table + " SET geo_key = ? WHERE id = ?")) {
+            int pending = 0;
+            while (rows.next()) {
+                Long key = SpatialKey.ofNullable(rows.getDouble(2), rows.getDouble(3));
+                if (key == null) continue;
+                update.setLong(1, key);
+                update.setLong(2, rows.getLong(1));
+                update.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    update.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) update.executeBatch();
+        }
+    }
+}
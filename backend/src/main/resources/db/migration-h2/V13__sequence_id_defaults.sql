@@ -0,0 +1,15 @@
+-- H2 counterpart of the PostgreSQL V13: the pooled sequences from V4 become the
+-- id defaults in place of IDENTITY, so rows inserted without an id never collide
+-- with the ids Hibernate hands out.
+
+ALTER TABLE notifications ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE notifications ALTER COLUMN id SET DEFAULT NEXT VALUE FOR notifications_seq;
+
+ALTER TABLE contributions ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE contributions ALTER COLUMN id SET DEFAULT NEXT VALUE FOR contributions_seq;
+
+ALTER TABLE resource_requests ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE resource_requests ALTER COLUMN id SET DEFAULT NEXT VALUE FOR resource_requests_seq;
+
+ALTER TABLE admin_notification_reads ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE admin_notification_reads ALTER COLUMN id SET DEFAULT NEXT VALUE FOR admin_notification_reads_seq;
@@ -0,0 +1,4 @@
+-- H2 counterpart of the PostgreSQL V14.
+
+ALTER TABLE disasters ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE disasters ALTER COLUMN id SET DEFAULT NEXT VALUE FOR disasters_seq;
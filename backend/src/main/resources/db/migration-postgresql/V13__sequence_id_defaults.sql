@@ -0,0 +1,22 @@
+-- The tables moved to pooled sequences in V4 kept their IDENTITY defaults, so a
+-- row inserted outside the app took an id from the identity counter, which
+-- knows nothing of the blocks Hibernate draws from the sequence; the first such
+-- insert collided on the primary key. The column default is now the sequence
+-- itself. Outside writers must leave id unset (or call nextval on the table's
+-- sequence); the value they get is the top of a block Hibernate never uses.
+
+ALTER TABLE notifications ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE notifications ALTER COLUMN id SET DEFAULT nextval('notifications_seq');
+ALTER SEQUENCE notifications_seq OWNED BY notifications.id;
+
+ALTER TABLE contributions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE contributions ALTER COLUMN id SET DEFAULT nextval('contributions_seq');
+ALTER SEQUENCE contributions_seq OWNED BY contributions.id;
+
+ALTER TABLE resource_requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE resource_requests ALTER COLUMN id SET DEFAULT nextval('resource_requests_seq');
+ALTER SEQUENCE resource_requests_seq OWNED BY resource_requests.id;
+
+ALTER TABLE admin_notification_reads ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE admin_notification_reads ALTER COLUMN id SET DEFAULT nextval('admin_notification_reads_seq');
+ALTER SEQUENCE admin_notification_reads_seq OWNED BY admin_notification_reads.id;
@@ -0,0 +1,6 @@
+-- Same as V13, for the disasters sequence added in V8: the IDENTITY default
+-- gives way to the sequence Hibernate draws its id blocks from.
+
+ALTER TABLE disasters ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE disasters ALTER COLUMN id SET DEFAULT nextval('disasters_seq');
+ALTER SEQUENCE disasters_seq OWNED BY disasters.id;
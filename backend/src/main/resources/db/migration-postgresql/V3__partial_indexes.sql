@@ -0,0 +1,18 @@
+-- PostgreSQL-only partial indexes: they cover just the rows the hot queries
+-- ask for, so they stay small while fulfilled requests and read notifications
+-- pile up.
+
+-- Open work per disaster (status filter on the request pages and dashboards)
+CREATE INDEX IF NOT EXISTS idx_requests_pending
+    ON resource_requests (disaster_id, created_at)
+    WHERE status = 'PENDING';
+
+-- Unread inbox (findUnreadDtosByRecipientId)
+CREATE INDEX IF NOT EXISTS idx_notifications_unread
+    ON notifications (user_id, created_at)
+    WHERE read = false;
+
+-- Unread admin feed
+CREATE INDEX IF NOT EXISTS idx_notifications_admin_unread
+    ON notifications (created_at)
+    WHERE admin_broadcast = true AND read = false;
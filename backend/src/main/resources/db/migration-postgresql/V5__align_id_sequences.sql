@@ -0,0 +1,9 @@
+-- Move the new sequences past the ids already handed out by IDENTITY.
+-- The pooled optimizer treats a fetched value as the top of its block
+-- (ids value-49 .. value), hence MAX(id) + 50 rather than MAX(id) + 1.
+-- is_called = false makes that exact value the next one returned.
+
+SELECT setval('notifications_seq', COALESCE((SELECT MAX(id) FROM notifications), 0) + 50, false);
+SELECT setval('contributions_seq', COALESCE((SELECT MAX(id) FROM contributions), 0) + 50, false);
+SELECT setval('resource_requests_seq', COALESCE((SELECT MAX(id) FROM resource_requests), 0) + 50, false);
+SELECT setval('admin_notification_reads_seq', COALESCE((SELECT MAX(id) FROM admin_notification_reads), 0) + 50, false);
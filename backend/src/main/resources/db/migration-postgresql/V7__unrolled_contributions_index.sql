@@ -0,0 +1,5 @@
+-- Ledger rows the compactor has not folded in yet; stays tiny however large
+-- the contributions table grows.
+CREATE INDEX IF NOT EXISTS idx_contributions_unrolled
+    ON contributions (request_id)
+    WHERE rolled_up = false;
@@ -0,0 +1,3 @@
+-- Same alignment as V5, for the sequence added in V8.
+
+SELECT setval('disasters_seq', COALESCE((SELECT MAX(id) FROM disasters), 0) + 50, false);
@@ -0,0 +1,46 @@
+-- Per-disaster aggregates kept up to date by the request and rollup writes,
+-- so disaster lists and the map never aggregate resource_requests on read.
+
+-- One row per disaster: last request / contribution activity. Stats writers
+-- update it first, which also serializes them per disaster.
+CREATE TABLE IF NOT EXISTS disaster_stats (
+    disaster_id       BIGINT       NOT NULL,
+    last_activity_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_disaster_stats PRIMARY KEY (disaster_id),
+    CONSTRAINT fk_disaster_stats_disaster FOREIGN KEY (disaster_id) REFERENCES disasters (id) ON DELETE CASCADE
+);
+
+-- One row per (disaster, category): request counts by status and quantities.
+-- first_request_id keeps categories in the order they were first requested.
+CREATE TABLE IF NOT EXISTS disaster_category_stats (
+    disaster_id         BIGINT       NOT NULL,
+    category            VARCHAR(255) NOT NULL,
+    pending_count       INTEGER      NOT NULL,
+    partial_count       INTEGER      NOT NULL,
+    fulfilled_count     INTEGER      NOT NULL,
+    requested_quantity  BIGINT       NOT NULL,
+    fulfilled_quantity  BIGINT       NOT NULL,
+    first_request_id    BIGINT       NOT NULL,
+    CONSTRAINT pk_disaster_category_stats PRIMARY KEY (disaster_id, category),
+    CONSTRAINT fk_category_stats_disaster FOREIGN KEY (disaster_id) REFERENCES disasters (id) ON DELETE CASCADE,
+    CONSTRAINT ck_category_stats_counts CHECK (pending_count >= 0 AND partial_count >= 0 AND fulfilled_count >= 0)
+);
+
+INSERT INTO disaster_stats (disaster_id, last_activity_at)
+SELECT d.id, COALESCE(MAX(r.created_at), d.created_at)
+FROM disasters d
+LEFT JOIN resource_requests r ON r.disaster_id = d.id
+WHERE NOT EXISTS (SELECT 1 FROM disaster_stats s WHERE s.disaster_id = d.id)
+GROUP BY d.id, d.created_at;
+
+INSERT INTO disaster_category_stats (disaster_id, category, pending_count, partial_count, fulfilled_count,
+                                     requested_quantity, fulfilled_quantity, first_request_id)
+SELECT r.disaster_id, r.category,
+       SUM(CASE WHEN r.status = 'PENDING' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN r.status = 'PARTIAL' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN r.status = 'FULFILLED' THEN 1 ELSE 0 END),
+       SUM(r.requested_quantity), SUM(r.fulfilled_quantity), MIN(r.id)
+FROM resource_requests r
+WHERE NOT EXISTS (SELECT 1 FROM disaster_category_stats c
+                  WHERE c.disaster_id = r.disaster_id AND c.category = r.category)
+GROUP BY r.disaster_id, r.category;
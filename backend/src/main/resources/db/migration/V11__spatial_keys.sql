@@ -0,0 +1,14 @@
+-- geo_key: latitude/longitude interleaved into one number (com.resqnet.geo.SpatialKey),
+-- written by the entities alongside their coordinates. Bounding-box and radius
+-- queries read a few geo_key ranges instead of a latitude range scan.
+ALTER TABLE disasters ADD COLUMN IF NOT EXISTS geo_key BIGINT;
+ALTER TABLE contributions ADD COLUMN IF NOT EXISTS geo_key BIGINT;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS geo_key BIGINT;
+
+CREATE INDEX IF NOT EXISTS idx_disasters_geo_key ON disasters (geo_key);
+CREATE INDEX IF NOT EXISTS idx_contributions_geo_key ON contributions (geo_key);
+CREATE INDEX IF NOT EXISTS idx_users_geo_key ON users (geo_key);
+
+-- Superseded: a (latitude, longitude) index narrows only by latitude
+DROP INDEX IF EXISTS idx_disasters_location;
+DROP INDEX IF EXISTS idx_contributions_location;
@@ -0,0 +1,81 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update).
+-- Databases created that way are baselined at version 1 and skip this script.
+
+CREATE TABLE IF NOT EXISTS users (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    created_at  TIMESTAMP(6) NOT NULL,
+    email       VARCHAR(255) NOT NULL,
+    latitude    FLOAT(53),
+    longitude   FLOAT(53),
+    name        VARCHAR(255) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    role        VARCHAR(255) NOT NULL CHECK (role IN ('REPORTER', 'RESPONDER', 'ADMIN')),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS disasters (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    created_at   TIMESTAMP(6) NOT NULL,
+    description  VARCHAR(255),
+    latitude     FLOAT(53) NOT NULL,
+    longitude    FLOAT(53) NOT NULL,
+    severity     VARCHAR(255),
+    type         VARCHAR(255),
+    reporter_id  BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_disasters_reporter FOREIGN KEY (reporter_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS resource_requests (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    category            VARCHAR(255) NOT NULL,
+    created_at          TIMESTAMP(6) NOT NULL,
+    fulfilled_quantity  INTEGER NOT NULL,
+    requested_quantity  INTEGER NOT NULL,
+    status              VARCHAR(255) CHECK (status IN ('PENDING', 'PARTIAL', 'FULFILLED')),
+    disaster_id         BIGINT NOT NULL,
+    reporter_id         BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_requests_disaster FOREIGN KEY (disaster_id) REFERENCES disasters (id),
+    CONSTRAINT fk_requests_reporter FOREIGN KEY (reporter_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS contributions (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    category              VARCHAR(100) NOT NULL,
+    contributed_quantity  INTEGER NOT NULL,
+    created_at            TIMESTAMP(6) NOT NULL,
+    latitude              FLOAT(53) NOT NULL,
+    longitude             FLOAT(53) NOT NULL,
+    updated_at            TIMESTAMP(6),
+    request_id            BIGINT NOT NULL,
+    responder_id          BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_contributions_request FOREIGN KEY (request_id) REFERENCES resource_requests (id) ON DELETE CASCADE,
+    CONSTRAINT fk_contributions_responder FOREIGN KEY (responder_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS notifications (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    admin_broadcast  BOOLEAN NOT NULL,
+    created_at       TIMESTAMP(6) NOT NULL,
+    deletable        BOOLEAN NOT NULL,
+    message          VARCHAR(500) NOT NULL,
+    read             BOOLEAN NOT NULL,
+    type             VARCHAR(255) NOT NULL,
+    user_id          BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_notifications_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS admin_notification_reads (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    read_at          TIMESTAMP(6) NOT NULL,
+    admin_id         BIGINT NOT NULL,
+    notification_id  BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_admin_notification_reads UNIQUE (notification_id, admin_id),
+    CONSTRAINT fk_admin_reads_admin FOREIGN KEY (admin_id) REFERENCES users (id),
+    CONSTRAINT fk_admin_reads_notification FOREIGN KEY (notification_id) REFERENCES notifications (id)
+);
@@ -0,0 +1,31 @@
+-- Indexes behind the hot repository lookups. IF NOT EXISTS because databases
+-- that ran ddl-auto=update after these were first declared on the entities
+-- already have some of them under the same names.
+
+-- users: role filter on the admin user page
+CREATE INDEX IF NOT EXISTS idx_users_role ON users (role);
+
+-- disasters: keyset pages filtered by date / area, reporter ownership
+CREATE INDEX IF NOT EXISTS idx_disasters_created_at ON disasters (created_at);
+CREATE INDEX IF NOT EXISTS idx_disasters_location ON disasters (latitude, longitude);
+CREATE INDEX IF NOT EXISTS idx_disasters_reporter ON disasters (reporter_id);
+
+-- resource_requests: per-disaster roll-up, "my requests", status / category filters
+CREATE INDEX IF NOT EXISTS idx_requests_disaster ON resource_requests (disaster_id);
+CREATE INDEX IF NOT EXISTS idx_requests_reporter ON resource_requests (reporter_id);
+CREATE INDEX IF NOT EXISTS idx_requests_status ON resource_requests (status);
+CREATE INDEX IF NOT EXISTS idx_requests_category ON resource_requests (category);
+CREATE INDEX IF NOT EXISTS idx_requests_created_at ON resource_requests (created_at);
+
+-- contributions: per-request lists (in id order), per-responder lists, area filters
+CREATE INDEX IF NOT EXISTS idx_contributions_request ON contributions (request_id, id);
+CREATE INDEX IF NOT EXISTS idx_contributions_responder ON contributions (responder_id);
+CREATE INDEX IF NOT EXISTS idx_contributions_created_at ON contributions (created_at);
+CREATE INDEX IF NOT EXISTS idx_contributions_location ON contributions (latitude, longitude);
+
+-- notifications: inbox and admin feed, both newest first
+CREATE INDEX IF NOT EXISTS idx_notifications_recipient ON notifications (user_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_notifications_admin_feed ON notifications (admin_broadcast, created_at);
+
+-- admin_notification_reads: read ids per admin (the unique key leads with notification_id)
+CREATE INDEX IF NOT EXISTS idx_admin_reads_admin ON admin_notification_reads (admin_id);
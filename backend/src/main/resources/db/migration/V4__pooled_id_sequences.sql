@@ -0,0 +1,8 @@
+-- Id sequences for the insert-heavy tables. Hibernate takes 50 ids per call
+-- (pooled optimizer), so a batch of inserts costs one sequence round trip.
+-- The IDENTITY defaults stay in place for rows written outside the app.
+
+CREATE SEQUENCE IF NOT EXISTS notifications_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS contributions_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS resource_requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS admin_notification_reads_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,25 @@
+-- Contributions become an append-only ledger: a row is written per contribution
+-- and folded into resource_requests.fulfilled_quantity later by the compactor.
+-- Rows that exist already are counted in fulfilled_quantity, so they start
+-- rolled up; new rows default to pending.
+ALTER TABLE contributions ADD COLUMN IF NOT EXISTS rolled_up BOOLEAN NOT NULL DEFAULT TRUE;
+ALTER TABLE contributions ALTER COLUMN rolled_up SET DEFAULT FALSE;
+
+-- Remaining capacity per request, split into stripes that contributors
+-- decrement independently. Their sum is requested minus everything contributed,
+-- rolled up or not.
+CREATE TABLE IF NOT EXISTS request_capacity_stripes (
+    request_id  BIGINT  NOT NULL,
+    stripe      INTEGER NOT NULL,
+    remaining   INTEGER NOT NULL,
+    CONSTRAINT pk_request_capacity_stripes PRIMARY KEY (request_id, stripe),
+    CONSTRAINT fk_capacity_stripes_request FOREIGN KEY (request_id) REFERENCES resource_requests (id) ON DELETE CASCADE,
+    CONSTRAINT ck_capacity_stripes_remaining CHECK (remaining >= 0)
+);
+
+-- Existing requests start with a single stripe; the first contribution it
+-- cannot cover spreads the remainder over the configured stripe count.
+INSERT INTO request_capacity_stripes (request_id, stripe, remaining)
+SELECT r.id, 0, GREATEST(r.requested_quantity - r.fulfilled_quantity, 0)
+FROM resource_requests r
+WHERE NOT EXISTS (SELECT 1 FROM request_capacity_stripes s WHERE s.request_id = r.id);
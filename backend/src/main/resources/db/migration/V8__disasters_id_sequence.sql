@@ -0,0 +1,4 @@
+-- Disasters join the pooled id sequences (see V4) so that bulk imports can
+-- batch their inserts; IDENTITY forces one round trip per row.
+
+CREATE SEQUENCE IF NOT EXISTS disasters_seq START WITH 1 INCREMENT BY 50;
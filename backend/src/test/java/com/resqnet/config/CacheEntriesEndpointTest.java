@@ -0,0 +1,90 @@
+package com.resqnet.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheEntriesEndpointTest {
+
+    @Mock private RedisCacheWriter cacheWriter;
+    @Mock private RedisConnectionFactory connectionFactory;
+    @Mock private RedisConnection connection;
+    @Mock private RedisKeyCommands keyCommands;
+    @Mock private RedisStringCommands stringCommands;
+    @Mock private Cursor<byte[]> keys;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redisCache_stopsScanningAtTheEntryCap() {
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofSeconds(60));
+        InstrumentedRedisCacheManager cacheManager = new InstrumentedRedisCacheManager(
+                cacheWriter, config, Map.of("disasters", config), new SimpleMeterRegistry());
+        cacheManager.initializeCaches();
+        when(cacheWriter.getCacheStatistics("disasters"))
+                .thenReturn(CacheStatisticsCollector.create().getCacheStatistics("disasters"));
+
+        // An endless keyspace: the endpoint must stop on its own
+        AtomicInteger scanned = new AtomicInteger();
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(keyCommands.scan(any(ScanOptions.class))).thenReturn(keys);
+        when(keys.hasNext()).thenReturn(true);
+        when(keys.next()).thenAnswer(invocation ->
+                ("disasters::k" + scanned.incrementAndGet()).getBytes(StandardCharsets.UTF_8));
+        when(stringCommands.strLen(any())).thenReturn(10L);
+        when(keyCommands.ttl(any())).thenReturn(30L);
+
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("cacheManager", cacheManager);
+        beans.addBean("redisConnectionFactory", connectionFactory);
+        CacheEntriesEndpoint endpoint = new CacheEntriesEndpoint(
+                beans.getBeanProvider(CacheManager.class), beans.getBeanProvider(RedisConnectionFactory.class));
+
+        Map<String, Object> info = endpoint.cache("disasters");
+
+        List<Map<String, Object>> entries = (List<Map<String, Object>>) info.get("entries");
+        assertEquals(500, entries.size());
+        assertEquals(501, scanned.get());
+        assertEquals(true, info.get("truncated"));
+        assertEquals(5000L, info.get("totalBytes"));
+        assertEquals("k1", entries.get(0).get("key"));
+        assertEquals(60L, info.get("ttlSeconds"));
+        verify(keys).close();
+        verify(connection).close();
+    }
+
+    @Test
+    void unknownCache_isReportedAsMissing() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        CacheEntriesEndpoint endpoint = new CacheEntriesEndpoint(
+                beans.getBeanProvider(CacheManager.class), beans.getBeanProvider(RedisConnectionFactory.class));
+
+        assertNull(endpoint.cache("disasters"));
+        assertTrue(endpoint.caches().isEmpty());
+    }
+}
@@ -0,0 +1,86 @@
+package com.resqnet.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InstrumentedRedisCacheManagerTest {
+
+    @Mock private RedisCacheWriter cacheWriter;
+
+    private SimpleMeterRegistry meterRegistry;
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofSeconds(60));
+        InstrumentedRedisCacheManager cacheManager =
+                new InstrumentedRedisCacheManager(cacheWriter, config, Map.of("disasters", config), meterRegistry);
+        cacheManager.initializeCaches();
+        cache = cacheManager.getCache("disasters");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void loadPutAndEvict_areMetered() {
+        // A miss: the writer runs the loader and stores what it serialized
+        when(cacheWriter.get(eq("disasters"), any(byte[].class), any(Supplier.class), any(), anyBoolean()))
+                .thenAnswer(invocation -> ((Supplier<byte[]>) invocation.getArgument(2)).get());
+
+        assertEquals("loaded", cache.get("k", () -> "loaded"));
+        cache.put("other", "value");
+        cache.evict("k");
+        cache.clear();
+
+        assertEquals(1, meterRegistry.get("resqnet.cache.load").tag("cache", "disasters")
+                .tag("result", "success").timer().count());
+        assertEquals(0, meterRegistry.get("resqnet.cache.load").tag("cache", "disasters")
+                .tag("result", "failure").timer().count());
+
+        ArgumentCaptor<byte[]> written = ArgumentCaptor.forClass(byte[].class);
+        verify(cacheWriter).put(eq("disasters"), any(byte[].class), written.capture(), eq(Duration.ofSeconds(60)));
+        var payloadSize = meterRegistry.get("resqnet.cache.payload.size").tag("cache", "disasters").summary();
+        assertEquals(2, payloadSize.count());
+        assertTrue(payloadSize.totalAmount() > written.getValue().length);
+
+        assertEquals(1.0, meterRegistry.get("resqnet.cache.invalidations").tag("cache", "disasters")
+                .tag("kind", "evict").counter().count());
+        assertEquals(1.0, meterRegistry.get("resqnet.cache.invalidations").tag("cache", "disasters")
+                .tag("kind", "clear").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedLoad_isTimedSeparately() {
+        when(cacheWriter.get(eq("disasters"), any(byte[].class), any(Supplier.class), any(), anyBoolean()))
+                .thenAnswer(invocation -> ((Supplier<byte[]>) invocation.getArgument(2)).get());
+
+        assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get("k", () -> { throw new IllegalStateException("database down"); }));
+
+        assertEquals(0, meterRegistry.get("resqnet.cache.load").tag("cache", "disasters")
+                .tag("result", "success").timer().count());
+        assertEquals(1, meterRegistry.get("resqnet.cache.load").tag("cache", "disasters")
+                .tag("result", "failure").timer().count());
+    }
+}
@@ -0,0 +1,70 @@
+package com.resqnet.config;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalCacheConfigTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        CacheSettings settings = new CacheSettings();
+        settings.setDefaultTtl(Duration.ofSeconds(30));
+        settings.setDefaultMaximumSize(50);
+        CacheSettings.Spec disasters = new CacheSettings.Spec();
+        disasters.setTtl(Duration.ofSeconds(120));
+        disasters.setMaximumSize(5L);
+        settings.setCaches(Map.of("disasters", disasters));
+
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new LocalCacheConfig().cacheManager(settings, meterRegistry);
+    }
+
+    @Test
+    void declaredCache_usesItsOwnTtlAndSize() {
+        Policy<Object, Object> policy = nativeCache("disasters").policy();
+
+        assertEquals(Duration.ofSeconds(120), policy.expireAfterWrite().orElseThrow().getExpiresAfter());
+        assertEquals(5, policy.eviction().orElseThrow().getMaximum());
+        assertTrue(cacheManager.getCacheNames().contains("disasters"));
+    }
+
+    @Test
+    void undeclaredCache_isCreatedWithDefaults() {
+        Policy<Object, Object> policy = nativeCache("other").policy();
+
+        assertEquals(Duration.ofSeconds(30), policy.expireAfterWrite().orElseThrow().getExpiresAfter());
+        assertEquals(50, policy.eviction().orElseThrow().getMaximum());
+    }
+
+    @Test
+    void loadAndClear_areMetered() {
+        Cache cache = cacheManager.getCache("disasters");
+
+        assertEquals("a", cache.get("k", () -> "a"));
+        assertEquals("a", cache.get("k", () -> "b"));
+        cache.clear();
+
+        assertNull(cache.get("k"));
+        assertEquals(1, meterRegistry.get("resqnet.cache.load").tag("cache", "disasters")
+                .tag("result", "success").timer().count());
+        assertEquals(1.0, meterRegistry.get("resqnet.cache.invalidations").tag("cache", "disasters")
+                .tag("kind", "clear").counter().count());
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache(String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+}
@@ -0,0 +1,139 @@
+package com.resqnet.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two in-memory H2 instances stand in for primary and replica; each has a
+ * one-row table naming itself, so a query shows where it was routed.
+ */
+class ReadReplicaConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            // "5s"-style @Value durations, as in the running application
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(ReadReplicaConfig.class)
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.username=sa",
+                    "spring.datasource.password=",
+                    "resqnet.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+                    "resqnet.datasource.replica.read-your-writes-window=1m");
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactions_goToReplica_everythingElseToPrimary() {
+        contextRunner.withPropertyValues("resqnet.datasource.replica.enabled=true").run(context -> {
+            Routing routing = new Routing(context);
+
+            assertEquals("replica", routing.readOnly());
+            assertEquals("primary", routing.readWrite());
+            assertEquals("primary", routing.withoutTransaction());
+        });
+    }
+
+    @Test
+    void userReadsStayOnPrimaryAfterTheirOwnWrite() {
+        contextRunner.withPropertyValues("resqnet.datasource.replica.enabled=true").run(context -> {
+            Routing routing = new Routing(context);
+
+            signIn("jane@example.com");
+            assertEquals("replica", routing.readOnly());
+            routing.readWrite();
+            assertEquals("primary", routing.readOnly());
+
+            signIn("other@example.com");
+            assertEquals("replica", routing.readOnly());
+        });
+    }
+
+    @Test
+    void cacheFillsPinnedToPrimary_evenInReadOnlyTransactions() {
+        contextRunner.withPropertyValues("resqnet.datasource.replica.enabled=true").run(context -> {
+            Routing routing = new Routing(context);
+
+            assertEquals("primary", routing.readOnlyOnPrimary());
+            assertEquals("replica", routing.readOnly());
+        });
+    }
+
+    @Test
+    void disabled_keepsSingleAutoConfiguredDataSource() {
+        contextRunner.run(context -> {
+            assertFalse(context.containsBean("replicaDataSource"));
+            assertEquals(1, context.getBeansOfType(DataSource.class).size());
+        });
+    }
+
+    private static void signIn(String email) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                email, null, AuthorityUtils.createAuthorityList("ROLE_REPORTER")));
+    }
+
+    private static final class Routing {
+
+        private final JdbcTemplate jdbc;
+        private final TransactionTemplate readOnly;
+        private final TransactionTemplate readWrite;
+
+        Routing(ApplicationContext context) {
+            label(context.getBean("primaryDataSource", DataSource.class), "primary");
+            label(context.getBean("replicaDataSource", DataSource.class), "replica");
+
+            DataSource routed = context.getBean(DataSource.class);
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routed);
+            jdbc = new JdbcTemplate(routed);
+            readWrite = new TransactionTemplate(transactionManager);
+            readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+        }
+
+        String readOnly() {
+            return readOnly.execute(status -> whereAmI());
+        }
+
+        String readOnlyOnPrimary() {
+            return readOnly.execute(status -> ReadWriteRoutingDataSource.onPrimary(this::whereAmI));
+        }
+
+        String readWrite() {
+            return readWrite.execute(status -> whereAmI());
+        }
+
+        String withoutTransaction() {
+            return whereAmI();
+        }
+
+        private String whereAmI() {
+            return jdbc.queryForObject("SELECT name FROM instance", String.class);
+        }
+
+        private static void label(DataSource dataSource, String name) {
+            JdbcTemplate direct = new JdbcTemplate(dataSource);
+            direct.execute("CREATE TABLE IF NOT EXISTS instance (name VARCHAR(20))");
+            direct.update("DELETE FROM instance");
+            direct.update("INSERT INTO instance VALUES (?)", name);
+        }
+    }
+}
@@ -78,6 +78,7 @@ class AuthControllerTest {
     @Test
     void login_withValidCredentials_returnsJwtToken() throws Exception {
         User user = new User();
+        user.setId(7L);
         user.setEmail("john@example.com");
         user.setPassword("hashedpw");
         user.setName("John");
@@ -85,7 +86,7 @@ class AuthControllerTest {
 
         when(userService.findByEmail("john@example.com")).thenReturn(user);
         when(passwordEncoder.matches("password123", "hashedpw")).thenReturn(true);
-        when(jwtUtil.generateToken("john@example.com", "REPORTER")).thenReturn("jwt-token-123");
+        when(jwtUtil.generateToken(7L, "john@example.com", "REPORTER")).thenReturn("jwt-token-123");
 
         mockMvc.perform(post("/api/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -0,0 +1,55 @@
+package com.resqnet.controller;
+
+import com.resqnet.service.EncodedResponseCache.EncodedBody;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncodedListResponsesTest {
+
+    private static final String ETAG = "W/\"disasters-abc-3\"";
+
+    @Test
+    void ok_sendsBothEncodingsUnderOneWeakTag() {
+        EncodedBody body = new EncodedBody(3, ETAG, new byte[] {'[', ']'}, new byte[] {31, -117});
+
+        ResponseEntity<byte[]> gzip = EncodedListResponses.ok(body, request("gzip, deflate"));
+        ResponseEntity<byte[]> plain = EncodedListResponses.ok(body, request(null));
+
+        assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        // Different bytes, so the shared validator must be weak
+        assertEquals(ETAG, gzip.getHeaders().getETag());
+        assertEquals(ETAG, plain.getHeaders().getETag());
+    }
+
+    @Test
+    void weakTag_revalidatesEitherEncoding() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/disasters");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        assertTrue(new ServletWebRequest(servletRequest, servletResponse).checkNotModified(ETAG));
+        assertEquals(304, servletResponse.getStatus());
+    }
+
+    @Test
+    void acceptsGzip_honoursZeroQuality() {
+        assertTrue(EncodedListResponses.acceptsGzip("br, gzip;q=0.8"));
+        assertFalse(EncodedListResponses.acceptsGzip("gzip;q=0"));
+        assertFalse(EncodedListResponses.acceptsGzip("identity"));
+    }
+
+    private static ServletWebRequest request(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/disasters");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return new ServletWebRequest(request);
+    }
+}
@@ -0,0 +1,62 @@
+package com.resqnet.controller;
+
+import com.resqnet.geo.GeoLayer;
+import com.resqnet.geo.VectorTile;
+import com.resqnet.security.JwtFilter;
+import com.resqnet.security.JwtUtil;
+import com.resqnet.service.VectorTileService;
+import com.resqnet.service.VectorTileService.EncodedTile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TileController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class TileControllerTest {
+
+    @Autowired private MockMvc mockMvc;
+    @MockitoBean private VectorTileService vectorTiles;
+    @MockitoBean private JwtUtil jwtUtil;
+    @MockitoBean private JwtFilter jwtFilter;
+
+    @Test
+    void tile_returnsTheEncodedTileWithItsETag() throws Exception {
+        when(vectorTiles.etag(eq(GeoLayer.DISASTERS), any(), eq(3), eq(4), eq(2))).thenReturn("\"t-1\"");
+        when(vectorTiles.get(eq(GeoLayer.DISASTERS), any(), eq(3), eq(4), eq(2)))
+                .thenReturn(new EncodedTile(1, "\"t-1\"", new byte[] {26, 0}));
+
+        mockMvc.perform(get("/api/tiles/disasters/3/4/2").accept(VectorTile.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"t-1\""))
+                .andExpect(content().contentType(VectorTile.MEDIA_TYPE));
+    }
+
+    @Test
+    void tile_answersErrorsWithABareStatusForTileClients() throws Exception {
+        when(vectorTiles.etag(eq(GeoLayer.DISASTERS), any(), eq(17), eq(0), eq(0)))
+                .thenThrow(new IllegalArgumentException("Tile zoom must be between 0 and 16"));
+        when(vectorTiles.etag(eq(GeoLayer.RESPONDERS), any(), eq(3), eq(4), eq(2)))
+                .thenThrow(new AccessDeniedException("Only ADMIN users can view responder locations"));
+
+        mockMvc.perform(get("/api/tiles/disasters/17/0/0").accept(VectorTile.MEDIA_TYPE))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/tiles/disasters/3/x/2").accept(VectorTile.MEDIA_TYPE))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tiles/responders/3/4/2").accept(VectorTile.MEDIA_TYPE))
+                .andExpect(status().isForbidden())
+                .andExpect(content().string(""));
+    }
+}
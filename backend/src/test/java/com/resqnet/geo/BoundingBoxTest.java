@@ -0,0 +1,53 @@
+package com.resqnet.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundingBoxTest {
+
+    @Test
+    void around_holdsTheWholeCircle() {
+        List<BoundingBox> boxes = BoundingBox.around(48.85, 2.35, 50);
+
+        assertEquals(1, boxes.size());
+        BoundingBox box = boxes.get(0);
+        double latSpan = 50 / GeoMath.KM_PER_DEGREE;
+        double lonSpan = 50 / (GeoMath.KM_PER_DEGREE * Math.cos(Math.toRadians(48.85)));
+        assertEquals(48.85 - latSpan, box.minLat(), 1e-9);
+        assertEquals(48.85 + latSpan, box.maxLat(), 1e-9);
+        assertTrue(box.minLon() < 2.35 - lonSpan && box.maxLon() > 2.35 + lonSpan, box.toString());
+    }
+
+    @Test
+    void around_splitsAtTheAntimeridian() {
+        List<BoundingBox> west = BoundingBox.around(0, -179.95, 20);
+        List<BoundingBox> east = BoundingBox.around(0, 179.95, 20);
+
+        assertEquals(2, west.size());
+        assertEquals(180, west.get(0).maxLon());
+        assertEquals(-180, west.get(1).minLon());
+        assertEquals(360 + west.get(1).maxLon() - 2 * 20 / GeoMath.KM_PER_DEGREE, west.get(0).minLon(), 1e-3);
+        assertEquals(2, east.size());
+        assertEquals(180, east.get(0).maxLon());
+        assertEquals(-180, east.get(1).minLon());
+        // Each side gets its own key cover, neither reaching across the map
+        assertTrue(west.get(0).keys().contains(SpatialKey.of(0, 179.99)));
+        assertTrue(west.get(1).keys().contains(SpatialKey.of(0, -179.99)));
+        assertFalse(west.get(0).keys().contains(SpatialKey.of(0, 0)));
+        assertFalse(west.get(1).keys().contains(SpatialKey.of(0, 0)));
+    }
+
+    @Test
+    void around_takesEveryLongitudeNearThePoles() {
+        List<BoundingBox> boxes = BoundingBox.around(89.5, 120, 100);
+
+        assertEquals(1, boxes.size());
+        assertEquals(90, boxes.get(0).maxLat());
+        assertEquals(-180, boxes.get(0).minLon());
+        assertEquals(180, boxes.get(0).maxLon());
+        assertThrows(IllegalArgumentException.class, () -> BoundingBox.around(0, 0, -1));
+    }
+}
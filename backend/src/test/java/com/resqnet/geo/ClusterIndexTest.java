@@ -0,0 +1,225 @@
+package com.resqnet.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClusterIndexTest {
+
+    private static final String[] SEVERITIES = {"LOW", "MEDIUM", "HIGH"};
+
+    private final Random random = new Random(3);
+
+    @Test
+    void clusters_countEveryPointInTheViewportOnce() {
+        List<DisasterPin> pins = randomPins(2000, -60, 60, -180, 180);
+        ClusterIndex<DisasterPin> clusters = index();
+        pins.forEach(pin -> clusters.changed(null, pin));
+
+        for (int zoom = 0; zoom <= 12; zoom += 3) {
+            List<Cluster> world = clusters.clusters(-85, 85, -180, 180, zoom);
+            assertEquals(pins.size(), world.stream().mapToLong(Cluster::count).sum(), "zoom " + zoom);
+            assertEquals(pins.size(), world.stream().flatMap(c -> c.mix().values().stream()).mapToLong(Long::longValue).sum());
+        }
+    }
+
+    @Test
+    void clusters_coverTheViewportPlusAtMostItsEdgeCells() {
+        List<DisasterPin> pins = randomPins(2000, 9, 13, 19, 23);
+        ClusterIndex<DisasterPin> clusters = index();
+        pins.forEach(pin -> clusters.changed(null, pin));
+
+        long inBox = pins.stream().filter(p -> p.latitude() >= 10 && p.latitude() <= 12
+                && p.longitude() >= 20 && p.longitude() <= 22).count();
+        long clustered = clusters.clusters(10, 12, 20, 22, 10).stream().mapToLong(Cluster::count).sum();
+
+        // Zoom 10 cells are about 0.04 degrees wide, so the edge cells add a few percent
+        assertTrue(clustered >= inBox && clustered <= inBox * 1.1, clustered + " vs " + inBox);
+    }
+
+    @Test
+    void incrementalUpdates_matchAnIndexBuiltFromScratch() {
+        List<DisasterPin> pins = randomPins(1000, -60, 60, -180, 180);
+        ClusterIndex<DisasterPin> incremental = index();
+        GeoGrid<DisasterPin> grid = new GeoGrid<>(0.1, incremental);
+        pins.forEach(grid::put);
+
+        List<DisasterPin> current = new ArrayList<>(pins);
+        for (int i = 0; i < 300; i++) {
+            DisasterPin pin = current.get(i);
+            if (i % 3 == 0) {
+                grid.remove(pin.id());
+                current.set(i, null);
+            } else {
+                DisasterPin moved = new DisasterPin(pin.id(), pin.latitude() / 2, pin.longitude() / 2, "Fire",
+                        SEVERITIES[i % SEVERITIES.length]);
+                grid.put(moved);
+                current.set(i, moved);
+            }
+        }
+        ClusterIndex<DisasterPin> rebuilt = index();
+        current.stream().filter(p -> p != null).forEach(p -> rebuilt.changed(null, p));
+
+        for (int zoom : new int[] {0, 4, 8, 16}) {
+            assertEquals(sorted(rebuilt.clusters(-85, 85, -180, 180, zoom)),
+                    sorted(incremental.clusters(-85, 85, -180, 180, zoom)), "zoom " + zoom);
+        }
+    }
+
+    @Test
+    void clusters_reportCentroidMixAndSinglePointId() {
+        ClusterIndex<DisasterPin> clusters = index();
+        clusters.changed(null, new DisasterPin(1L, 10.0, 20.0, "Flood", "HIGH"));
+        clusters.changed(null, new DisasterPin(2L, 10.2, 20.2, "Flood", "LOW"));
+        clusters.changed(null, new DisasterPin(3L, -30, -60, "Fire", "HIGH"));
+
+        List<Cluster> found = sorted(clusters.clusters(-85, 85, -180, 180, 2));
+
+        assertEquals(2, found.size());
+        Cluster pair = found.get(1);
+        assertEquals(2, pair.count());
+        assertEquals(10.1, pair.latitude(), 1e-9);
+        assertEquals(Map.of("HIGH", 1L, "LOW", 1L), pair.mix());
+        assertNull(pair.id());
+        assertEquals(3L, found.get(0).id());
+
+        clusters.changed(new DisasterPin(2L, 10.2, 20.2, "Flood", "LOW"), null);
+        Cluster single = sorted(clusters.clusters(0, 20, 10, 30, 2)).get(0);
+        assertEquals(1L, single.id());
+        assertEquals(Map.of("HIGH", 1L), single.mix());
+    }
+
+    @Test
+    void tile_holdsTheClustersCentredInsideIt() {
+        List<DisasterPin> pins = randomPins(2000, -60, 60, -180, 180);
+        ClusterIndex<DisasterPin> clusters = index();
+        pins.forEach(pin -> clusters.changed(null, pin));
+
+        int zoom = 3;
+        long total = 0;
+        for (int x = 0; x < 1 << zoom; x++) {
+            for (int y = 0; y < 1 << zoom; y++) {
+                for (Cluster cluster : clusters.tile(zoom, x, y)) {
+                    assertEquals(x, WebMercator.tileX(cluster.longitude(), zoom));
+                    assertEquals(y, WebMercator.tileY(cluster.latitude(), zoom));
+                    total += cluster.count();
+                }
+            }
+        }
+        assertEquals(pins.size(), total);
+    }
+
+    @Test
+    void tileVersion_movesOnlyForTheTilesAChangeTouches() {
+        ClusterIndex<DisasterPin> clusters = index();
+        DisasterPin pin = new DisasterPin(1L, 10, 20, "Flood", "HIGH");
+        int x = WebMercator.tileX(20, 8), y = WebMercator.tileY(10, 8);
+        assertEquals(0, clusters.tileVersion(8, x, y));
+
+        clusters.changed(null, pin);
+        long added = clusters.tileVersion(8, x, y);
+        clusters.changed(null, new DisasterPin(2L, -30, -60, "Fire", "LOW"));
+
+        assertTrue(added > 0);
+        assertEquals(added, clusters.tileVersion(8, x, y));
+        assertEquals(0, clusters.tileVersion(8, x + 1, y));
+        clusters.changed(pin, null);
+        assertTrue(clusters.tileVersion(8, x, y) > added);
+        assertTrue(clusters.tile(8, x, y).isEmpty());
+    }
+
+    @Test
+    void tileVersion_forgetsEmptiedTilesWithoutGoingBack() {
+        ClusterIndex<DisasterPin> clusters = index();
+        DisasterPin pin = new DisasterPin(1L, 10, 20, "Flood", "HIGH");
+        int x = WebMercator.tileX(20, 8), y = WebMercator.tileY(10, 8);
+        long previous = 0;
+
+        for (int i = 0; i < 3; i++) {
+            DisasterPin moved = new DisasterPin(1L, 10 + i * 0.01, 20, "Flood", "HIGH");
+            clusters.changed(null, moved);
+            assertTrue(clusters.tileVersion(8, x, y) > previous);
+            previous = clusters.tileVersion(8, x, y);
+            clusters.changed(moved, null);
+            assertTrue(clusters.tileVersion(8, x, y) > previous);
+            previous = clusters.tileVersion(8, x, y);
+        }
+        clusters.changed(null, pin);
+        clusters.changed(pin, null);
+
+        assertEquals(0, clusters.trackedTiles());
+    }
+
+    @Test
+    void tile_rejectsTilesOutsideTheZoomLevel() {
+        ClusterIndex<DisasterPin> clusters = index();
+
+        assertThrows(IllegalArgumentException.class, () -> clusters.tile(ClusterIndex.MAX_ZOOM + 1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> clusters.tile(2, 4, 0));
+        assertThrows(IllegalArgumentException.class, () -> clusters.tileVersion(2, 0, -1));
+    }
+
+    @Test
+    void clusters_readAViewportAcrossTheAntimeridianAsTwoBoxes() {
+        ClusterIndex<DisasterPin> clusters = index();
+        clusters.changed(null, new DisasterPin(1L, 0, 179.5, "Flood", "LOW"));
+        clusters.changed(null, new DisasterPin(2L, 0, -179.5, "Flood", "LOW"));
+        clusters.changed(null, new DisasterPin(3L, 0, 0, "Flood", "LOW"));
+
+        for (int zoom : new int[] {0, 3, 8}) {
+            List<Cluster> found = clusters.clusters(-10, 10, 170, -170, zoom);
+            assertEquals(2, found.stream().mapToLong(Cluster::count).sum(), "zoom " + zoom);
+        }
+        // Ends in the same coarse cell: every column, each cluster once
+        assertEquals(3, clusters.clusters(-10, 10, 1, 0.5, 0).stream().mapToLong(Cluster::count).sum());
+    }
+
+    @Test
+    void clusters_lowerTheZoomOfAViewportWiderThanAScreen() {
+        List<DisasterPin> pins = randomPins(2000, -60, 60, -180, 180);
+        ClusterIndex<DisasterPin> clusters = index();
+        pins.forEach(pin -> clusters.changed(null, pin));
+
+        // The whole world is 16 tiles across at zoom 4
+        assertEquals(sorted(clusters.clusters(-85, 85, -180, 180, 4)),
+                sorted(clusters.clusters(-85, 85, -180, 180, ClusterIndex.MAX_ZOOM)));
+    }
+
+    @Test
+    void clusters_rejectInvertedBoxAndNegativeZoom() {
+        ClusterIndex<DisasterPin> clusters = index();
+
+        assertThrows(IllegalArgumentException.class, () -> clusters.clusters(10, 0, 0, 10, 3));
+        assertDoesNotThrow(() -> clusters.clusters(0, 10, 10, 0, 3));
+        assertThrows(IllegalArgumentException.class, () -> clusters.clusters(0, 10, 0, 10, -1));
+    }
+
+    private static ClusterIndex<DisasterPin> index() {
+        return new ClusterIndex<>(DisasterPin::severity);
+    }
+
+    private List<DisasterPin> randomPins(int count, double minLat, double maxLat, double minLon, double maxLon) {
+        List<DisasterPin> pins = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            pins.add(new DisasterPin(id, minLat + random.nextDouble() * (maxLat - minLat),
+                    minLon + random.nextDouble() * (maxLon - minLon),
+                    "Flood", SEVERITIES[random.nextInt(SEVERITIES.length)]));
+        }
+        return pins;
+    }
+
+    // Rounded so float sums built in a different order compare equal
+    private static List<Cluster> sorted(List<Cluster> clusters) {
+        return clusters.stream()
+                .map(c -> new Cluster(Math.round(c.latitude() * 1e6) / 1e6, Math.round(c.longitude() * 1e6) / 1e6,
+                        c.count(), c.mix(), c.id()))
+                .sorted(Comparator.comparingDouble(Cluster::latitude).thenComparingDouble(Cluster::longitude))
+                .toList();
+    }
+}
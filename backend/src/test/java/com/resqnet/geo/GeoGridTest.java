@@ -0,0 +1,178 @@
+package com.resqnet.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoGridTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    void within_matchesBruteForce() {
+        List<ResponderPin> points = randomPoints(5000, 10, 20, 30, 40);
+        GeoGrid<ResponderPin> grid = gridOf(0.1, points);
+
+        for (int i = 0; i < 50; i++) {
+            double minLat = 10 + random.nextDouble() * 10, maxLat = minLat + random.nextDouble() * 3;
+            double minLon = 30 + random.nextDouble() * 10, maxLon = minLon + random.nextDouble() * 3;
+            Set<Long> expected = points.stream()
+                    .filter(p -> p.latitude() >= minLat && p.latitude() <= maxLat
+                            && p.longitude() >= minLon && p.longitude() <= maxLon)
+                    .map(ResponderPin::id).collect(Collectors.toSet());
+
+            assertEquals(expected, ids(grid.within(minLat, maxLat, minLon, maxLon)));
+        }
+    }
+
+    @Test
+    void withinRadius_matchesBruteForceAndSortsByDistance() {
+        List<ResponderPin> points = randomPoints(5000, 10, 20, 30, 40);
+        GeoGrid<ResponderPin> grid = gridOf(0.1, points);
+
+        for (int i = 0; i < 50; i++) {
+            double lat = 10 + random.nextDouble() * 10, lon = 30 + random.nextDouble() * 10;
+            double radiusKm = random.nextDouble() * 200;
+            Set<Long> expected = points.stream()
+                    .filter(p -> GeoMath.distanceKm(lat, lon, p.latitude(), p.longitude()) <= radiusKm)
+                    .map(ResponderPin::id).collect(Collectors.toSet());
+
+            List<Nearby<ResponderPin>> found = grid.withinRadius(lat, lon, radiusKm);
+
+            assertEquals(expected, found.stream().map(n -> n.point().id()).collect(Collectors.toSet()));
+            assertSortedByDistance(found);
+        }
+    }
+
+    @Test
+    void withinRadius_wrapsAcrossTheAntimeridian() {
+        GeoGrid<ResponderPin> grid = gridOf(0.1, List.of(
+                pin(1L, 0, 179.95), pin(2L, 0, -179.95), pin(3L, 0, 170)));
+
+        assertEquals(Set.of(1L, 2L), grid.withinRadius(0, 179.99, 20).stream()
+                .map(n -> n.point().id()).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void nearest_matchesBruteForce() {
+        List<ResponderPin> points = randomPoints(5000, -60, 60, -180, 180);
+        GeoGrid<ResponderPin> grid = gridOf(0.5, points);
+
+        for (int i = 0; i < 50; i++) {
+            double lat = -60 + random.nextDouble() * 120, lon = -180 + random.nextDouble() * 360;
+            int k = 1 + random.nextInt(20);
+            List<Long> expected = points.stream()
+                    .sorted(Comparator.comparingDouble(p -> GeoMath.distanceKm(lat, lon, p.latitude(), p.longitude())))
+                    .limit(k).map(ResponderPin::id).toList();
+
+            List<Nearby<ResponderPin>> found = grid.nearest(lat, lon, k);
+
+            assertEquals(expected, found.stream().map(n -> n.point().id()).toList());
+        }
+    }
+
+    @Test
+    void nearest_appliesFilterAndDistanceLimit() {
+        GeoGrid<ResponderPin> grid = gridOf(0.1, List.of(
+                pin(1L, 0, 0.01), pin(2L, 0, 0.02),
+                pin(3L, 0, 0.03), pin(4L, 0, 5)));
+
+        List<Nearby<ResponderPin>> found = grid.nearest(0, 0, 10, 100, p -> p.id() != 2L);
+
+        assertEquals(List.of(1L, 3L), found.stream().map(n -> n.point().id()).toList());
+    }
+
+    @Test
+    void put_movesAPointBetweenCells() {
+        GeoGrid<ResponderPin> grid = gridOf(0.1, List.of(pin(1L, 10, 10)));
+
+        grid.put(pin(1L, 20, 20));
+
+        assertEquals(1, grid.size());
+        assertTrue(grid.within(9, 11, 9, 11).isEmpty());
+        assertEquals(Set.of(1L), ids(grid.within(19, 21, 19, 21)));
+    }
+
+    @Test
+    void mergeAndUpdate_combineWithTheStoredPoint() {
+        LocalDateTime active = LocalDateTime.of(2026, 1, 1, 12, 0);
+        GeoGrid<ResponderPin> grid = gridOf(0.1, List.of(pin(1L, 10, 10)));
+
+        grid.update(1L, p -> p.activeAt(active));
+        grid.merge(pin(1L, 20, 20), (previous, p) -> p.replacing(previous));
+        grid.update(2L, p -> p.activeAt(active));
+
+        assertEquals(new ResponderPin(1L, 20, 20, active), grid.get(1L).orElseThrow());
+        assertTrue(grid.get(2L).isEmpty());
+    }
+
+    @Test
+    void reload_keepsWritesMadeWhileLoading() {
+        GeoGrid<ResponderPin> grid = gridOf(0.1, List.of(pin(1L, 10, 10), pin(2L, 10, 10)));
+
+        grid.reload(() -> {
+            // Snapshot taken before these writes: still has 2, lacks 3
+            grid.put(pin(3L, 10, 10));
+            grid.remove(2L);
+            return List.of(pin(1L, 10, 10), pin(2L, 10, 10));
+        });
+
+        assertEquals(Set.of(1L, 3L), ids(grid.within(9, 11, 9, 11)));
+    }
+
+    @Test
+    void reload_dropsPointsNoLongerLoaded() {
+        GeoGrid<ResponderPin> grid = gridOf(0.1, List.of(pin(1L, 10, 10), pin(2L, 10, 10)));
+
+        grid.reload(() -> List.of(pin(2L, 10, 10)));
+
+        assertEquals(Set.of(2L), ids(grid.within(9, 11, 9, 11)));
+        assertTrue(grid.get(1L).isEmpty());
+    }
+
+    @Test
+    void put_rejectsInvalidCoordinates() {
+        GeoGrid<ResponderPin> grid = new GeoGrid<>(0.1);
+
+        assertThrows(IllegalArgumentException.class, () -> grid.put(pin(1L, 91, 0)));
+        assertThrows(IllegalArgumentException.class, () -> grid.put(pin(1L, 0, Double.NaN)));
+    }
+
+    private List<ResponderPin> randomPoints(int count, double minLat, double maxLat, double minLon, double maxLon) {
+        List<ResponderPin> points = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            points.add(pin(id,
+                    minLat + random.nextDouble() * (maxLat - minLat),
+                    minLon + random.nextDouble() * (maxLon - minLon)));
+        }
+        return points;
+    }
+
+    private static ResponderPin pin(long id, double latitude, double longitude) {
+        return new ResponderPin(id, latitude, longitude, null);
+    }
+
+    private static GeoGrid<ResponderPin> gridOf(double cellDegrees, List<ResponderPin> points) {
+        GeoGrid<ResponderPin> grid = new GeoGrid<>(cellDegrees);
+        points.forEach(grid::put);
+        return grid;
+    }
+
+    private static Set<Long> ids(List<ResponderPin> points) {
+        return points.stream().map(ResponderPin::id).collect(Collectors.toSet());
+    }
+
+    private static void assertSortedByDistance(List<? extends Nearby<?>> found) {
+        for (int i = 1; i < found.size(); i++) {
+            assertTrue(found.get(i - 1).distanceKm() <= found.get(i).distanceKm());
+        }
+    }
+}
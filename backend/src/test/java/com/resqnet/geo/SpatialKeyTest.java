@@ -0,0 +1,67 @@
+package com.resqnet.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpatialKeyTest {
+
+    private final Random random = new Random(7);
+
+    @Test
+    void cover_containsTheKeyOfEveryPointInTheBox() {
+        for (int i = 0; i < 500; i++) {
+            double minLat = -90 + random.nextDouble() * 180, maxLat = Math.min(90, minLat + random.nextDouble() * 20);
+            double minLon = -180 + random.nextDouble() * 360, maxLon = Math.min(180, minLon + random.nextDouble() * 20);
+            SpatialKey.Cover cover = SpatialKey.cover(minLat, maxLat, minLon, maxLon);
+
+            for (int j = 0; j < 50; j++) {
+                double lat = minLat + random.nextDouble() * (maxLat - minLat);
+                double lon = minLon + random.nextDouble() * (maxLon - minLon);
+                assertTrue(cover.contains(SpatialKey.of(lat, lon)), lat + "," + lon);
+            }
+            assertTrue(cover.contains(SpatialKey.of(minLat, minLon)));
+            assertTrue(cover.contains(SpatialKey.of(maxLat, maxLon)));
+        }
+    }
+
+    @Test
+    void cover_readsLittleMoreThanTheBox() {
+        SpatialKey.Cover cover = SpatialKey.cover(10, 10.5, 20, 20.5);
+        double worldKeys = Math.pow(2, 2 * SpatialKey.BITS_PER_AXIS);
+        double boxShare = (0.5 / 180) * (0.5 / 360);
+
+        double covered = 0;
+        for (int i = 0; i < SpatialKey.RANGES; i++) {
+            if (!cover.isEmpty(i)) covered += cover.to(i) - cover.from(i) + 1;
+        }
+        // Two cells each way at the finest level spanning the box: at most 16 times its area
+        assertTrue(covered / worldKeys <= 16 * boxShare, covered / worldKeys + " vs " + boxShare);
+        assertFalse(cover.contains(SpatialKey.of(12, 20.25)));
+        assertFalse(cover.contains(SpatialKey.of(10.25, -20)));
+    }
+
+    @Test
+    void cover_clipsToTheValidRangeAndRejectsInvertedBoxes() {
+        SpatialKey.Cover world = SpatialKey.cover(-100, 100, -200, 200);
+
+        assertTrue(world.contains(SpatialKey.of(-90, -180)));
+        assertTrue(world.contains(SpatialKey.of(90, 180)));
+        assertFalse(SpatialKey.cover(91, 95, 0, 1).contains(SpatialKey.of(90, 0)));
+        assertThrows(IllegalArgumentException.class, () -> SpatialKey.cover(10, 0, 0, 10));
+    }
+
+    @Test
+    void keys_nestLikeGeohashCells() {
+        long a = SpatialKey.of(48.8566, 2.3522), b = SpatialKey.of(48.8570, 2.3530), far = SpatialKey.of(-33.86, 151.2);
+
+        // Nearby points share a long key prefix; far ones do not
+        assertTrue(Long.numberOfLeadingZeros(a ^ b) - 4 >= 30);
+        assertTrue(Long.numberOfLeadingZeros(a ^ far) - 4 < 4);
+        assertNull(SpatialKey.ofNullable(null, 2.0));
+        assertNull(SpatialKey.ofNullable(91.0, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> SpatialKey.of(0, 181));
+    }
+}
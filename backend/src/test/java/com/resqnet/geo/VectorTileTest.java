@@ -0,0 +1,147 @@
+package com.resqnet.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorTileTest {
+
+    @Test
+    void encode_writesOnePointFeaturePerClusterWithItsCounts() {
+        // Tile 1/1/0 is the north-east quarter: (0, 0) is its bottom-left corner
+        List<Cluster> clusters = List.of(
+                new Cluster(0, 0, 3, Map.of("HIGH", 2L, "LOW", 1L), null),
+                new Cluster(WebMercator.latitude(0.5, 1), 90, 1, Map.of("HIGH", 1L), 42L));
+
+        Layer layer = decode(VectorTile.encode("disasters", 1, 1, 0, clusters));
+
+        assertEquals("disasters", layer.name);
+        assertEquals(2, layer.version);
+        assertEquals(VectorTile.EXTENT, layer.extent);
+        assertEquals(2, layer.features.size());
+
+        Feature cluster = layer.features.get(0);
+        assertNull(cluster.id);
+        assertEquals(List.of(0L, (long) VectorTile.EXTENT), cluster.point);
+        assertEquals(Map.of("count", 3L, "HIGH", 2L, "LOW", 1L), cluster.properties);
+
+        Feature single = layer.features.get(1);
+        assertEquals(42L, single.id);
+        assertEquals(List.of((long) VectorTile.EXTENT / 2, (long) VectorTile.EXTENT / 2), single.point);
+        assertEquals(Map.of("count", 1L, "HIGH", 1L), single.properties);
+    }
+
+    @Test
+    void encode_emptyTileHasNoLayers() {
+        assertEquals(0, VectorTile.encode("disasters", 3, 1, 1, List.of()).length);
+    }
+
+    // --- Minimal MVT reader for the fields the encoder writes ---
+
+    private record Feature(Long id, List<Long> point, Map<String, Long> properties) {
+    }
+
+    private static final class Layer {
+        String name;
+        long version;
+        long extent = 4096;
+        final List<Feature> features = new ArrayList<>();
+    }
+
+    private static Layer decode(byte[] tile) {
+        Reader reader = new Reader(tile);
+        assertEquals(3, reader.field());
+        Reader in = new Reader(reader.bytes());
+        assertTrue(reader.done());
+
+        Layer layer = new Layer();
+        List<byte[]> features = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<Long> values = new ArrayList<>();
+        while (!in.done()) {
+            switch (in.field()) {
+                case 15 -> layer.version = in.varint();
+                case 1 -> layer.name = new String(in.bytes(), StandardCharsets.UTF_8);
+                case 2 -> features.add(in.bytes());
+                case 3 -> keys.add(new String(in.bytes(), StandardCharsets.UTF_8));
+                case 4 -> {
+                    Reader value = new Reader(in.bytes());
+                    assertEquals(5, value.field());
+                    values.add(value.varint());
+                }
+                case 5 -> layer.extent = in.varint();
+                default -> fail("unexpected layer field");
+            }
+        }
+        for (byte[] bytes : features) {
+            Reader feature = new Reader(bytes);
+            Long id = null;
+            Map<String, Long> properties = new HashMap<>();
+            List<Long> point = new ArrayList<>();
+            while (!feature.done()) {
+                switch (feature.field()) {
+                    case 1 -> id = feature.varint();
+                    case 2 -> {
+                        Reader tags = new Reader(feature.bytes());
+                        while (!tags.done()) {
+                            properties.put(keys.get((int) tags.varint()), values.get((int) tags.varint()));
+                        }
+                    }
+                    case 3 -> assertEquals(1, feature.varint());
+                    case 4 -> {
+                        Reader geometry = new Reader(feature.bytes());
+                        assertEquals(9, geometry.varint());
+                        for (int i = 0; i < 2; i++) {
+                            long n = geometry.varint();
+                            point.add((n >>> 1) ^ -(n & 1));
+                        }
+                        assertTrue(geometry.done());
+                    }
+                    default -> fail("unexpected feature field");
+                }
+            }
+            layer.features.add(new Feature(id, point, properties));
+        }
+        return layer;
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        boolean done() {
+            return position == bytes.length;
+        }
+
+        int field() {
+            return (int) (varint() >>> 3);
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+        }
+
+        byte[] bytes() {
+            int length = (int) varint();
+            byte[] out = Arrays.copyOfRange(bytes, position, position + length);
+            position += length;
+            return out;
+        }
+    }
+}
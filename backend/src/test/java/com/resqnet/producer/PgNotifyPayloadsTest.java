@@ -0,0 +1,144 @@
+package com.resqnet.producer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.resqnet.dto.NotificationDTO;
+import com.resqnet.event.GeoChangedEvent;
+import com.resqnet.geo.ContributionPin;
+import com.resqnet.geo.DisasterPin;
+import com.resqnet.geo.GeoLayer;
+import com.resqnet.geo.ResponderPin;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PgNotifyPayloadsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void encode_packsSmallNotificationsIntoOnePayload() throws Exception {
+        List<NotificationDTO> saved = List.of(dto(1L, "first"), dto(2L, "second"), dto(3L, "third"));
+
+        List<String> payloads = PgNotifyPayloads.encode(objectMapper, saved, PgNotifyPayloads.MAX_BYTES);
+
+        assertEquals(1, payloads.size());
+        PgNotifyPayloads.Batch batch = PgNotifyPayloads.decode(objectMapper, payloads.get(0));
+        assertEquals(List.of("first", "second", "third"),
+                batch.notifications().stream().map(NotificationDTO::getMessage).toList());
+        assertEquals("user@example.com", batch.notifications().get(0).getRecipientEmail());
+        assertEquals(List.of(), batch.ids());
+    }
+
+    @Test
+    void encode_splitsAtTheSizeLimit() throws Exception {
+        List<NotificationDTO> saved = LongStream.rangeClosed(1, 40).mapToObj(id -> dto(id, "x".repeat(100))).toList();
+
+        List<String> payloads = PgNotifyPayloads.encode(objectMapper, saved, 1000);
+
+        assertTrue(payloads.size() > 1);
+        payloads.forEach(payload -> assertTrue(payload.getBytes().length <= 1000, payload));
+        List<Long> ids = payloads.stream()
+                .flatMap(payload -> decode(payload).notifications().stream())
+                .map(NotificationDTO::getId)
+                .toList();
+        assertEquals(LongStream.rangeClosed(1, 40).boxed().toList(), ids);
+    }
+
+    @Test
+    void encode_sendsOversizedNotificationsById() throws Exception {
+        List<NotificationDTO> saved = List.of(dto(1L, "short"), dto(2L, "é".repeat(600)), dto(3L, "short"));
+
+        List<String> payloads = PgNotifyPayloads.encode(objectMapper, saved, 1000);
+
+        assertEquals(2, payloads.size());
+        assertEquals(List.of(1L, 3L),
+                decode(payloads.get(0)).notifications().stream().map(NotificationDTO::getId).toList());
+        assertEquals(List.of(2L), decode(payloads.get(1)).ids());
+    }
+
+    @Test
+    void encode_dropsOversizedNotificationsWithoutId() throws Exception {
+        List<NotificationDTO> saved = List.of(dto(1L, "short"), dto(null, "x".repeat(1200)));
+
+        List<String> payloads = PgNotifyPayloads.encode(objectMapper, saved, 1000);
+
+        assertEquals(1, payloads.size());
+        assertEquals(List.of(1L),
+                decode(payloads.get(0)).notifications().stream().map(NotificationDTO::getId).toList());
+        assertEquals(List.of(), decode(payloads.get(0)).ids());
+    }
+
+    @Test
+    void encodeCollections_roundTripsOriginAndCollections() throws Exception {
+        String payload = PgNotifyPayloads.encodeCollections(objectMapper, "node-a", Set.of("disasters", "requests"));
+
+        PgNotifyPayloads.Batch batch = decode(payload);
+        assertEquals("node-a", batch.origin());
+        assertEquals(Set.of("disasters", "requests"), batch.collections());
+        assertEquals(List.of(), batch.notifications());
+    }
+
+    @Test
+    void encodeGeoChange_roundTripsPinsAndRemovals() throws Exception {
+        LocalDateTime at = LocalDateTime.of(2025, 1, 1, 12, 0);
+        GeoChangedEvent upsert = GeoChangedEvent.upserted(GeoLayer.CONTRIBUTIONS,
+                new ContributionPin(5L, 28.6, 77.2, 3L, 1L, "water", 2));
+
+        PgNotifyPayloads.Batch batch = decode(PgNotifyPayloads.encodeGeoChange(
+                objectMapper, "node-a", upsert, PgNotifyPayloads.MAX_BYTES));
+        GeoChangedEvent received = batch.geo().toEvent(objectMapper);
+
+        assertEquals("node-a", batch.origin());
+        assertEquals(GeoLayer.CONTRIBUTIONS, received.getLayer());
+        assertEquals(upsert.getUpserts(), received.getUpserts());
+
+        GeoChangedEvent removed = decode(PgNotifyPayloads.encodeGeoChange(objectMapper, "node-a",
+                GeoChangedEvent.contributionsRemoved(List.of(9L), Set.of(1L), Set.of(4L)), PgNotifyPayloads.MAX_BYTES))
+                .geo().toEvent(objectMapper);
+        assertEquals(List.of(9L), removed.getRemovals());
+        assertTrue(removed.getRemoveIf().test(new ContributionPin(6L, 0, 0, 4L, 2L, "food", 1)));
+        assertFalse(removed.getRemoveIf().test(new ContributionPin(7L, 0, 0, 8L, 2L, "food", 1)));
+
+        GeoChangedEvent active = decode(PgNotifyPayloads.encodeGeoChange(objectMapper, "node-a",
+                GeoChangedEvent.responderActive(2L, at), PgNotifyPayloads.MAX_BYTES)).geo().toEvent(objectMapper);
+        assertEquals(new ResponderPin(2L, 0, 0, at),
+                active.getUpdates().get(2L).apply(new ResponderPin(2L, 0, 0, null)));
+    }
+
+    @Test
+    void encodeGeoChange_fallsBackToIdsThenToAReload() throws Exception {
+        List<DisasterPin> pins = LongStream.rangeClosed(1, 40)
+                .mapToObj(id -> new DisasterPin(id, 10, 20, "Flood", "HIGH")).toList();
+        GeoChangedEvent event = GeoChangedEvent.upserted(GeoLayer.DISASTERS, pins);
+
+        String byId = PgNotifyPayloads.encodeGeoChange(objectMapper, "node-a", event, 1000);
+        String reload = PgNotifyPayloads.encodeGeoChange(objectMapper, "node-a", event, 200);
+
+        assertTrue(byId.getBytes().length <= 1000, byId);
+        PgNotifyPayloads.GeoChange named = decode(byId).geo();
+        assertEquals(List.of(), named.upserts());
+        assertEquals(LongStream.rangeClosed(1, 40).boxed().toList(), named.refresh());
+        PgNotifyPayloads.GeoChange layer = decode(reload).geo();
+        assertNull(layer.layer());
+        assertEquals(List.of(GeoLayer.DISASTERS), layer.reloads());
+    }
+
+    private PgNotifyPayloads.Batch decode(String payload) {
+        try {
+            return PgNotifyPayloads.decode(objectMapper, payload);
+        } catch (Exception e) {
+            throw new AssertionError("Not a payload: " + payload, e);
+        }
+    }
+
+    private static NotificationDTO dto(Long id, String message) {
+        return new NotificationDTO(id, message, "SYSTEM", false, true, LocalDateTime.of(2025, 1, 1, 12, 0),
+                "user@example.com", false);
+    }
+}
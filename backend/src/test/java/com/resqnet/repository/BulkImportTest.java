@@ -0,0 +1,172 @@
+package com.resqnet.repository;
+
+import com.resqnet.dto.DisasterDTO;
+import com.resqnet.dto.ImportReport;
+import com.resqnet.dto.NotificationDTO;
+import com.resqnet.model.Disaster;
+import com.resqnet.model.ResourceRequest;
+import com.resqnet.model.User;
+import com.resqnet.producer.NotificationProducer;
+import com.resqnet.service.BulkImportService;
+import com.resqnet.service.DisasterStatsService;
+import com.resqnet.service.ImportBatchWriter;
+import com.resqnet.service.RequestCapacityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Bulk import end to end against the migrated schema, with batches of two rows
+ * so that a handful of lines spans several batches.
+ */
+@DataJpaTest(properties = {"resqnet.import.batch-size=2", "resqnet.ledger.stripes=2"})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({BulkImportService.class, ImportBatchWriter.class, RequestCapacityService.class, DisasterStatsService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // each batch commits on its own
+class BulkImportTest {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired private BulkImportService importService;
+    @Autowired private RequestCapacityService capacityService;
+    @Autowired private DisasterRepository disasterRepository;
+    @Autowired private ResourceRequestRepository requestRepository;
+    @Autowired private CapacityStripeRepository stripeRepository;
+    @Autowired private UserRepository userRepository;
+
+    @MockitoBean private NotificationProducer notificationProducer;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(user("agency@example.com", User.Role.REPORTER));
+        userRepository.save(user("responder@example.com", User.Role.RESPONDER));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stripeRepository.deleteAllInBatch();
+        requestRepository.deleteAllInBatch();
+        disasterRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void importDisasters_ndjson_keepsValidLinesAndReportsTheRest() throws Exception {
+        ImportReport report = importService.importDisasters(body(
+                "{\"type\":\"Flood\",\"severity\":\"HIGH\",\"description\":\"river\",\"latitude\":28.6,\"longitude\":77.2}",
+                "{\"type\":\"Fire\",\"severity\":\"LOW\",\"description\":\"forest\",\"latitude\":30.1,\"longitude\":78.0}",
+                "",
+                "{\"type\":\"Flood\",\"severity\":",
+                "{\"severity\":\"LOW\",\"description\":\"no type\",\"latitude\":91,\"longitude\":0}",
+                "{\"type\":\"Flood\",\"severity\":\"MEDIUM\",\"description\":\"delta\",\"latitude\":22.5,\"longitude\":88.3}"),
+                NDJSON, "agency@example.com");
+
+        assertEquals(3, report.getAccepted());
+        assertEquals(2, report.getRejected());
+        assertEquals(List.of(4L, 5L), report.getErrors().stream().map(ImportReport.LineError::getLine).toList());
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("Malformed row"));
+        assertEquals("latitude: Latitude must be <= 90; type: Disaster type is required",
+                report.getErrors().get(1).getMessage());
+
+        List<DisasterDTO> saved = disasterRepository.findAllDtos();
+        assertEquals(3, saved.size());
+        assertTrue(saved.stream().allMatch(d -> d.getReporterEmail().equals("agency@example.com")));
+
+        // two batches (lines 1-2 and 6): reporter + admin summary and one responder fan-out each
+        verify(notificationProducer, times(4)).sendNotification(any(NotificationDTO.class));
+        verify(notificationProducer, times(2)).sendNotifications(anyList());
+        verify(notificationProducer).sendNotifications(argThat(sent ->
+                sent.size() == 1 && sent.get(0).getMessage().equals("2 new disasters reported (Fire: 1, Flood: 1)")));
+    }
+
+    @Test
+    void importRequests_csv_opensCapacityAndRejectsUnknownDisasters() throws Exception {
+        Disaster disaster = disaster();
+        ImportReport report = importService.importRequests(body(
+                "category,requestedQuantity,disasterId",
+                "water,120," + disaster.getId(),
+                "\"food, dry\",30," + disaster.getId(),
+                "blankets,0," + disaster.getId(),
+                "medicine,5,999999",
+                "tents,4," + disaster.getId() + ",extra"),
+                "text/csv; charset=utf-8", "agency@example.com");
+
+        assertEquals(2, report.getAccepted());
+        assertEquals(3, report.getRejected());
+        assertEquals(List.of(4L, 5L, 6L), report.getErrors().stream()
+                .map(ImportReport.LineError::getLine).sorted().toList());
+
+        List<ResourceRequest> saved = requestRepository.findAll().stream()
+                .sorted(Comparator.comparing(ResourceRequest::getCategory))
+                .toList();
+        assertEquals(List.of("food, dry", "water"), saved.stream().map(ResourceRequest::getCategory).toList());
+        assertEquals(30, capacityService.remaining(saved.get(0).getId()));
+        assertEquals(120, capacityService.remaining(saved.get(1).getId()));
+    }
+
+    @Test
+    void importDisasters_csv_keepsLineBreaksInQuotedCells() throws Exception {
+        ImportReport report = importService.importDisasters(body(
+                "type,severity,description,latitude,longitude",
+                "Flood,HIGH,\"river banks\nbreached\",28.6,77.2",
+                "Fire,LOW,forest,30.1,78.0",
+                "Storm,LOW,\"never closed,10,10"),
+                "text/csv", "agency@example.com");
+
+        assertEquals(2, report.getAccepted());
+        assertEquals(List.of(5L), report.getErrors().stream().map(ImportReport.LineError::getLine).toList());
+        assertTrue(disasterRepository.findAllDtos().stream()
+                .anyMatch(d -> "river banks\nbreached".equals(d.getDescription())));
+    }
+
+    @Test
+    void import_refusesNonReporterAccounts() {
+        assertThrows(AccessDeniedException.class, () ->
+                importService.importDisasters(body("{}"), NDJSON, "responder@example.com"));
+        assertThrows(IllegalArgumentException.class, () ->
+                importService.importDisasters(body("{}"), "application/json", "agency@example.com"));
+    }
+
+    private Disaster disaster() {
+        Disaster disaster = new Disaster();
+        disaster.setType("Flood");
+        disaster.setSeverity("HIGH");
+        disaster.setDescription("test");
+        disaster.setReporter(userRepository.findByEmail("agency@example.com").orElseThrow());
+        return disasterRepository.save(disaster);
+    }
+
+    private static InputStream body(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static User user(String email, User.Role role) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setPassword("hashed");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,201 @@
+package com.resqnet.repository;
+
+import com.resqnet.model.AdminNotificationRead;
+import com.resqnet.model.Contribution;
+import com.resqnet.model.Disaster;
+import com.resqnet.model.Notification;
+import com.resqnet.model.ResourceRequest;
+import com.resqnet.model.User;
+import com.resqnet.producer.NotificationProducer;
+import com.resqnet.repository.projection.RequestSnapshot;
+import com.resqnet.security.AuthenticatedUserCache;
+import com.resqnet.service.ContributionService;
+import com.resqnet.service.DisasterService;
+import com.resqnet.service.DisasterStatsService;
+import com.resqnet.service.RequestCapacityService;
+import com.resqnet.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * User and disaster deletes run as a fixed set of bulk statements: nothing is
+ * removed through the persistence context, however many children there are.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.resqnet.repository.RecordedStatements"})
+@Import({UserService.class, DisasterService.class, DisasterStatsService.class, RequestCapacityService.class,
+        ContributionService.class, AuthenticatedUserCache.class})
+class CascadingDeleteTest {
+
+    @Autowired private UserService userService;
+    @Autowired private DisasterService disasterService;
+    @Autowired private DisasterStatsService statsService;
+    @Autowired private RequestCapacityService capacityService;
+    @Autowired private DisasterCategoryStatsRepository categoryStatsRepository;
+    @Autowired private TestEntityManager em;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @MockitoBean private PasswordEncoder passwordEncoder;
+    @MockitoBean private NotificationProducer notificationProducer;
+
+    private Statistics statistics;
+    private User heavy;
+    private User other;
+    private User responder;
+    private User admin;
+    private Disaster heavyDisaster;
+    private Disaster otherDisaster;
+    private ResourceRequest kept;
+    private ResourceRequest counted;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        heavy = em.persist(user("heavy@example.com", User.Role.REPORTER));
+        other = em.persist(user("other@example.com", User.Role.REPORTER));
+        responder = em.persist(user("responder@example.com", User.Role.RESPONDER));
+        admin = em.persist(user("admin@example.com", User.Role.ADMIN));
+
+        heavyDisaster = disaster(heavy);
+        otherDisaster = disaster(other);
+        for (int i = 0; i < 5; i++) {
+            contribute(request(heavyDisaster, heavy, "water"), 2);
+        }
+        contribute(request(heavyDisaster, other, "food"), 1);
+        contribute(request(otherDisaster, heavy, "water"), 3);
+        kept = request(otherDisaster, other, "water");
+        contribute(kept, 4);
+        counted = request(otherDisaster, other, "food");
+        contribute(counted, 6).setRolledUp(true);
+        counted.setFulfilledQuantity(6);
+
+        Notification inbox = em.persist(new Notification("hello", "WELCOME", heavy, true));
+        em.persist(new AdminNotificationRead(inbox, admin));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void deleteUser_removesEverythingTheUserOwnsWithBulkStatements() {
+        statistics.clear();
+        RecordedStatements.clear();
+
+        userService.deleteUser(heavy.getId());
+
+        // The requests whose stats are taken out stay locked until the delete commits
+        assertTrue(RecordedStatements.lastSelectFrom("resource_requests").endsWith(" for update"));
+        assertEquals(0, statistics.getEntityDeleteCount());
+        assertNull(em.find(User.class, heavy.getId()));
+        assertNull(em.find(Disaster.class, heavyDisaster.getId()));
+        assertEquals(List.of("other@example.com"), jpql(
+                "SELECT DISTINCT r.reporter.email FROM ResourceRequest r", String.class));
+        assertEquals(List.of(4, 6), jpql(
+                "SELECT c.contributedQuantity FROM Contribution c ORDER BY c.contributedQuantity", Integer.class));
+        assertEquals(0L, count("Notification"));
+        assertEquals(0L, count("AdminNotificationRead"));
+
+        // The heavy reporter's request on the other disaster is gone from its stats too
+        assertEquals(1, categoryStatsRepository.summarizeForDisaster(otherDisaster.getId()).stream()
+                .filter(s -> s.getCategory().equals("water")).findFirst().orElseThrow().getRequestCount());
+    }
+
+    @Test
+    void deleteUser_responderTakesTheirContributionsOnly() {
+        userService.deleteUser(responder.getId());
+
+        assertEquals(0L, count("Contribution"));
+        assertEquals(9L, count("ResourceRequest"));
+    }
+
+    @Test
+    void deleteUser_responderContributionsStayCountedWhetherRolledUpOrNot() {
+        userService.deleteUser(responder.getId());
+
+        // Both requests end where they would had the compactor run just before the delete
+        ResourceRequest notYetRolledUp = em.find(ResourceRequest.class, kept.getId());
+        ResourceRequest rolledUp = em.find(ResourceRequest.class, counted.getId());
+        assertEquals(4, notYetRolledUp.getFulfilledQuantity());
+        assertEquals(6, capacityService.remaining(kept.getId()));
+        assertEquals(6, rolledUp.getFulfilledQuantity());
+        assertEquals(4, capacityService.remaining(counted.getId()));
+        assertEquals(2, categoryStatsRepository.summarizeForDisaster(otherDisaster.getId()).stream()
+                .filter(s -> s.getCategory().equals("water")).findFirst().orElseThrow().getContributedCount());
+    }
+
+    @Test
+    void deleteDisaster_removesRequestsContributionsAndStats() {
+        statistics.clear();
+
+        disasterService.deleteDisaster(heavyDisaster.getId());
+
+        assertEquals(0, statistics.getEntityDeleteCount());
+        assertNull(em.find(Disaster.class, heavyDisaster.getId()));
+        assertEquals(3L, count("ResourceRequest"));
+        assertEquals(3L, count("Contribution"));
+        assertEquals(List.of(), categoryStatsRepository.summarizeForDisaster(heavyDisaster.getId()));
+        assertNotNull(em.find(User.class, heavy.getId()));
+    }
+
+    private long count(String entity) {
+        return jpql("SELECT COUNT(e) FROM " + entity + " e", Long.class).get(0);
+    }
+
+    private <T> List<T> jpql(String query, Class<T> type) {
+        return em.getEntityManager().createQuery(query, type).getResultList();
+    }
+
+    private Disaster disaster(User reporter) {
+        Disaster disaster = new Disaster();
+        disaster.setType("Flood");
+        disaster.setSeverity("HIGH");
+        disaster.setDescription("test");
+        disaster.setReporter(reporter);
+        return em.persist(disaster);
+    }
+
+    private ResourceRequest request(Disaster disaster, User reporter, String category) {
+        ResourceRequest request = new ResourceRequest();
+        request.setDisaster(disaster);
+        request.setReporter(reporter);
+        request.setCategory(category);
+        request.setRequestedQuantity(10);
+        statsService.added(List.of(RequestSnapshot.of(em.persist(request))));
+        capacityService.open(request.getId(), request.getRequestedQuantity());
+        return request;
+    }
+
+    private Contribution contribute(ResourceRequest request, int quantity) {
+        Contribution contribution = new Contribution();
+        contribution.setRequest(request);
+        contribution.setResponder(responder);
+        contribution.setCategory(request.getCategory());
+        contribution.setContributedQuantity(quantity);
+        contribution.setLatitude(28.0);
+        contribution.setLongitude(77.0);
+        capacityService.reserve(request.getId(), quantity);
+        return em.persist(contribution);
+    }
+
+    private static User user(String email, User.Role role) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setPassword("hashed");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,214 @@
+package com.resqnet.repository;
+
+import com.resqnet.dto.ContributionDTO;
+import com.resqnet.model.Disaster;
+import com.resqnet.model.ResourceRequest;
+import com.resqnet.model.User;
+import com.resqnet.producer.NotificationProducer;
+import com.resqnet.security.AuthenticatedUser;
+import com.resqnet.service.ContributionService;
+import com.resqnet.service.DisasterStatsService;
+import com.resqnet.service.RequestCapacityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ledger, capacity stripes and rollup against the migrated schema, and the
+ * guarantee they exist for: concurrent contributors never over-fill a request.
+ */
+@DataJpaTest(properties = "resqnet.ledger.stripes=4")
+@Import({ContributionService.class, RequestCapacityService.class, DisasterStatsService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // contributors commit independently
+class ContributionAccountingTest {
+
+    private static final int CONTRIBUTORS = 8;
+
+    @Autowired private ResourceRequestRepository requestRepository;
+    @Autowired private ContributionRepository contributionRepository;
+    @Autowired private CapacityStripeRepository stripeRepository;
+    @Autowired private DisasterRepository disasterRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ContributionService contributionService;
+    @Autowired private RequestCapacityService capacityService;
+
+    @MockitoBean private NotificationProducer notificationProducer;
+
+    private final List<User> responders = new ArrayList<>();
+    private ResourceRequest request;
+
+    @BeforeEach
+    void setUp() {
+        User reporter = userRepository.save(user("reporter@example.com", User.Role.REPORTER));
+        for (int i = 0; i < CONTRIBUTORS; i++) {
+            responders.add(userRepository.save(user("responder" + i + "@example.com", User.Role.RESPONDER)));
+        }
+
+        Disaster disaster = new Disaster();
+        disaster.setType("Flood");
+        disaster.setSeverity("HIGH");
+        disaster.setDescription("test");
+        disaster.setReporter(reporter);
+        disasterRepository.save(disaster);
+
+        request = new ResourceRequest();
+        request.setDisaster(disaster);
+        request.setReporter(reporter);
+        request.setCategory("water");
+        request.setRequestedQuantity(10);
+        request = requestRepository.save(request);
+        capacityService.open(request.getId(), 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        contributionRepository.deleteAllInBatch();
+        stripeRepository.deleteAllInBatch();
+        requestRepository.deleteAllInBatch();
+        disasterRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void capacity_isSpreadOverStripesAndPooledWhenNoStripeSuffices() {
+        // 10 over 4 stripes: 3, 3, 2, 2
+        assertEquals(List.of(3, 3, 2, 2), stripeRemainders());
+
+        assertTrue(capacityService.reserve(request.getId(), 3));
+        assertTrue(capacityService.reserve(request.getId(), 5)); // no stripe holds 5 on its own
+        assertEquals(2, capacityService.remaining(request.getId()));
+        assertFalse(capacityService.reserve(request.getId(), 3));
+        assertEquals(2, capacityService.remaining(request.getId()));
+
+        capacityService.release(request.getId(), 4);
+        assertEquals(6, capacityService.remaining(request.getId()));
+    }
+
+    @Test
+    void adjust_refusesToShrinkBelowWhatIsTaken() {
+        capacityService.reserve(request.getId(), 7);
+
+        assertFalse(capacityService.adjust(request.getId(), -4));
+        assertTrue(capacityService.adjust(request.getId(), -3));
+        assertEquals(0, capacityService.remaining(request.getId()));
+        assertTrue(capacityService.adjust(request.getId(), 5));
+        assertEquals(5, capacityService.remaining(request.getId()));
+    }
+
+    @Test
+    void rollUp_foldsLedgerIntoRequestOnce() {
+        contributionService.createContribution(contribution(4), AuthenticatedUser.of(responders.get(0)));
+        contributionService.createContribution(contribution(6), AuthenticatedUser.of(responders.get(1)));
+        assertRequest(0, ResourceRequest.Status.PENDING); // ledger only, until the rollup
+
+        assertEquals(List.of(request.getId()), contributionRepository.findRequestIdsWithUnrolledContributions());
+        assertEquals(10, contributionService.rollUp(request.getId()));
+        assertRequest(10, ResourceRequest.Status.FULFILLED);
+
+        assertEquals(0, contributionService.rollUp(request.getId()));
+        assertTrue(contributionRepository.findRequestIdsWithUnrolledContributions().isEmpty());
+    }
+
+    @Test
+    void deleteContribution_undoesWhateverWasCounted() {
+        ContributionDTO rolled = contributionService.createContribution(contribution(4), AuthenticatedUser.of(responders.get(0)));
+        contributionService.rollUp(request.getId());
+        ContributionDTO pending = contributionService.createContribution(contribution(3), AuthenticatedUser.of(responders.get(1)));
+
+        contributionService.deleteContribution(pending.getId());
+        assertRequest(4, ResourceRequest.Status.PARTIAL);
+        assertEquals(6, capacityService.remaining(request.getId()));
+
+        contributionService.deleteContribution(rolled.getId());
+        assertRequest(0, ResourceRequest.Status.PENDING);
+        assertEquals(10, capacityService.remaining(request.getId()));
+    }
+
+    @Test
+    void concurrentContributors_neverExceedRequestedQuantity() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CONTRIBUTORS);
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        // 3 units per attempt against 10 requested: at most 3 attempts can fit
+        for (User responder : responders) {
+            attempts.add(() -> {
+                while (true) {
+                    try {
+                        contributionService.createContribution(contribution(3), AuthenticatedUser.of(responder));
+                        return true;
+                    } catch (IllegalArgumentException exceeded) {
+                        return false;
+                    } catch (PessimisticLockingFailureException deadlockVictim) {
+                        // H2 keeps the lock of a stripe its conditional UPDATE rejected, so crossing
+                        // contributors can deadlock; PostgreSQL does not lock rejected rows. Retry
+                        // as a client would: the rolled back attempt left nothing behind.
+                    }
+                }
+            });
+        }
+
+        int accepted = 0;
+        try {
+            for (Future<Boolean> attempt : pool.invokeAll(attempts)) {
+                accepted += attempt.get() ? 1 : 0;
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(3, accepted);
+        assertEquals(3, contributionRepository.count());
+        assertEquals(1, capacityService.remaining(request.getId()));
+
+        contributionService.rollUp(request.getId());
+        assertRequest(9, ResourceRequest.Status.PARTIAL);
+    }
+
+    private List<Integer> stripeRemainders() {
+        return stripeRepository.findAll().stream()
+                .filter(stripe -> stripe.getRequestId().equals(request.getId()))
+                .sorted((a, b) -> Integer.compare(a.getStripe(), b.getStripe()))
+                .map(stripe -> stripe.getRemaining())
+                .toList();
+    }
+
+    private void assertRequest(int fulfilled, ResourceRequest.Status status) {
+        ResourceRequest current = requestRepository.findById(request.getId()).orElseThrow();
+        assertEquals(fulfilled, current.getFulfilledQuantity());
+        assertEquals(status, current.getStatus());
+    }
+
+    private ContributionDTO contribution(int quantity) {
+        ContributionDTO dto = new ContributionDTO();
+        dto.setRequestId(request.getId());
+        dto.setContributedQuantity(quantity);
+        dto.setCategory("water");
+        dto.setLatitude(28.0);
+        dto.setLongitude(77.0);
+        return dto;
+    }
+
+    private static User user(String email, User.Role role) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setPassword("hashed");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,184 @@
+package com.resqnet.repository;
+
+import com.resqnet.dto.ContributionDTO;
+import com.resqnet.dto.DisasterDTO;
+import com.resqnet.dto.ResourceRequestDTO;
+import com.resqnet.model.DisasterCategoryStats;
+import com.resqnet.model.User;
+import com.resqnet.producer.NotificationProducer;
+import com.resqnet.security.AuthenticatedUser;
+import com.resqnet.service.ContributionService;
+import com.resqnet.service.DisasterService;
+import com.resqnet.service.DisasterStatsService;
+import com.resqnet.service.RequestCapacityService;
+import com.resqnet.service.ResourceRequestService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The per-disaster stats rows after a run of request and contribution writes
+ * through the services, checked against an aggregate over resource_requests.
+ */
+@DataJpaTest
+@Import({DisasterService.class, ResourceRequestService.class, ContributionService.class,
+        RequestCapacityService.class, DisasterStatsService.class})
+class DisasterStatsTest {
+
+    @Autowired private DisasterService disasterService;
+    @Autowired private ResourceRequestService requestService;
+    @Autowired private ContributionService contributionService;
+    @Autowired private DisasterCategoryStatsRepository categoryStatsRepository;
+    @Autowired private DisasterStatsRepository statsRepository;
+    @Autowired private TestEntityManager em;
+    @MockitoBean private NotificationProducer notificationProducer;
+
+    private AuthenticatedUser reporter;
+    private AuthenticatedUser responder;
+    private Long disasterId;
+
+    @BeforeEach
+    void setUp() {
+        reporter = AuthenticatedUser.of(em.persist(user("reporter@example.com", User.Role.REPORTER)));
+        responder = AuthenticatedUser.of(em.persist(user("responder@example.com", User.Role.RESPONDER)));
+
+        DisasterDTO disaster = new DisasterDTO();
+        disaster.setType("Flood");
+        disaster.setSeverity("HIGH");
+        disaster.setDescription("river");
+        disaster.setLatitude(28.6);
+        disaster.setLongitude(77.2);
+        disasterId = disasterService.createDisaster(disaster, reporter).getId();
+    }
+
+    @Test
+    void createDisaster_opensStatsRowWithoutCategories() {
+        assertTrue(statsRepository.findById(disasterId).isPresent());
+        assertEquals(List.of(), categoryStatsRepository.findAll());
+
+        DisasterDTO dto = disasterService.getDisasterById(disasterId);
+        assertEquals("reported", dto.getStatus());
+        assertNotNull(dto.getLastActivityAt());
+    }
+
+    @Test
+    void requestAndContributionWrites_keepStatsEqualToTheRequests() {
+        Long water = createRequest("water", 10);
+        Long food = createRequest("food", 4);
+        Long moreWater = createRequest("water", 5);
+
+        contribute(water, 4);
+        contribute(food, 4);
+        Long undone = contribute(moreWater, 5);
+        contributionService.rollUp(water);
+        contributionService.rollUp(food);
+        contributionService.rollUp(moreWater);
+        contributionService.deleteContribution(undone);
+        // the admin edits below come in on their own requests, not after the rollups' bulk updates
+        em.flush();
+        em.clear();
+
+        ResourceRequestDTO edit = new ResourceRequestDTO();
+        edit.setId(water);
+        edit.setCategory("medical");
+        edit.setRequestedQuantity(8);
+        requestService.updateRequest(edit);
+        requestService.deleteRequest(moreWater);
+
+        assertStatsMatchRequests();
+        DisasterCategoryStats medical = categoryStatsRepository
+                .findById(new DisasterCategoryStats.Key(disasterId, "medical")).orElseThrow();
+        assertEquals(1, medical.getPartialCount());
+        assertEquals(8, medical.getRequestedQuantity());
+        assertEquals(4, medical.getFulfilledQuantity());
+
+        DisasterDTO dto = disasterService.getDisasterById(disasterId);
+        assertEquals("partial", dto.getStatus());
+        assertEquals(List.of("medical", "food"), dto.getContributions());
+    }
+
+    @Test
+    void missingStatsRows_areRebuiltFromTheRequests() {
+        Long water = createRequest("water", 10);
+        contribute(water, 10);
+        em.flush();
+        em.getEntityManager().createQuery("DELETE FROM DisasterCategoryStats").executeUpdate();
+        em.getEntityManager().createQuery("DELETE FROM DisasterStats").executeUpdate();
+
+        contributionService.rollUp(water);
+
+        assertTrue(statsRepository.findById(disasterId).isPresent());
+        assertStatsMatchRequests();
+        assertEquals("fulfilled", disasterService.getDisasterById(disasterId).getStatus());
+    }
+
+    private void assertStatsMatchRequests() {
+        em.flush();
+        em.clear();
+        List<String> expected = em.getEntityManager().createQuery(
+                "SELECT r.category, r.status, r.requestedQuantity, r.fulfilledQuantity " +
+                "FROM ResourceRequest r WHERE r.disaster.id = :disasterId", Object[].class)
+                .setParameter("disasterId", disasterId)
+                .getResultList().stream()
+                .collect(Collectors.groupingBy(row -> (String) row[0]))
+                .entrySet().stream()
+                .map(category -> {
+                    List<Object[]> rows = category.getValue();
+                    return category.getKey()
+                            + " " + rows.stream().filter(r -> r[1].toString().equals("PENDING")).count()
+                            + "/" + rows.stream().filter(r -> r[1].toString().equals("PARTIAL")).count()
+                            + "/" + rows.stream().filter(r -> r[1].toString().equals("FULFILLED")).count()
+                            + " " + rows.stream().mapToLong(r -> (Integer) r[2]).sum()
+                            + "/" + rows.stream().mapToLong(r -> (Integer) r[3]).sum();
+                })
+                .sorted()
+                .toList();
+
+        List<String> actual = categoryStatsRepository.findAll().stream()
+                .filter(stats -> stats.getPendingCount() + stats.getPartialCount() + stats.getFulfilledCount() > 0)
+                .sorted(Comparator.comparing(DisasterCategoryStats::getCategory))
+                .map(stats -> stats.getCategory()
+                        + " " + stats.getPendingCount() + "/" + stats.getPartialCount() + "/" + stats.getFulfilledCount()
+                        + " " + stats.getRequestedQuantity() + "/" + stats.getFulfilledQuantity())
+                .toList();
+
+        assertEquals(expected, actual);
+    }
+
+    private Long createRequest(String category, int quantity) {
+        ResourceRequestDTO dto = new ResourceRequestDTO();
+        dto.setDisasterId(disasterId);
+        dto.setCategory(category);
+        dto.setRequestedQuantity(quantity);
+        return requestService.createRequest(dto, reporter).getId();
+    }
+
+    private Long contribute(Long requestId, int quantity) {
+        ContributionDTO dto = new ContributionDTO();
+        dto.setRequestId(requestId);
+        dto.setCategory("any");
+        dto.setContributedQuantity(quantity);
+        dto.setLatitude(28.0);
+        dto.setLongitude(77.0);
+        return contributionService.createContribution(dto, responder).getId();
+    }
+
+    private static User user(String email, User.Role role) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setPassword("hashed");
+        user.setRole(role);
+        return user;
+    }
+}
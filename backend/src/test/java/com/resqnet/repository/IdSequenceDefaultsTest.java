@@ -0,0 +1,58 @@
+package com.resqnet.repository;
+
+import com.resqnet.model.Notification;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tables on pooled sequences take their id default from the same sequence as
+ * Hibernate, so rows inserted without an id, as a writer outside the app would,
+ * never collide with the blocks Hibernate hands out.
+ */
+@DataJpaTest
+class IdSequenceDefaultsTest {
+
+    @Autowired private EntityManager em;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"notifications", "contributions", "resource_requests", "admin_notification_reads", "disasters"})
+    void idDefault_isTheTablesSequence(String table) {
+        Object[] column = (Object[]) em.createNativeQuery(
+                "SELECT IS_IDENTITY, COLUMN_DEFAULT FROM INFORMATION_SCHEMA.COLUMNS " +
+                "WHERE TABLE_NAME = :table AND COLUMN_NAME = 'ID'")
+                .setParameter("table", table.toUpperCase())
+                .getSingleResult();
+
+        assertEquals("NO", column[0]);
+        assertTrue(String.valueOf(column[1]).toLowerCase().contains(table + "_seq"), String.valueOf(column[1]));
+    }
+
+    @Test
+    void outsideInsert_takesAnIdOutsideHibernatesBlock() {
+        Notification first = new Notification("from the app", "SYSTEM", false);
+        em.persist(first);
+        em.flush();
+
+        em.createNativeQuery(
+                "INSERT INTO notifications (admin_broadcast, created_at, deletable, message, read, type) " +
+                "VALUES (TRUE, CURRENT_TIMESTAMP, FALSE, 'from outside', FALSE, 'ADMIN_LOG')")
+                .executeUpdate();
+        // Still inside the block Hibernate fetched before the outside insert
+        Notification second = new Notification("from the app again", "SYSTEM", false);
+        em.persist(second);
+        em.flush();
+
+        @SuppressWarnings("unchecked")
+        List<Number> ids = em.createNativeQuery("SELECT id FROM notifications").getResultList();
+        assertEquals(3, ids.stream().map(Number::longValue).distinct().count());
+        assertTrue(ids.stream().map(Number::longValue).toList().containsAll(List.of(first.getId(), second.getId())));
+    }
+}
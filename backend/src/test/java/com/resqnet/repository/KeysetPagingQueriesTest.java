@@ -0,0 +1,155 @@
+package com.resqnet.repository;
+
+import com.resqnet.dto.DisasterDTO;
+import com.resqnet.dto.DisasterFilter;
+import com.resqnet.dto.PageQuery;
+import com.resqnet.dto.PageResponse;
+import com.resqnet.dto.RequestFilter;
+import com.resqnet.dto.ResourceRequestDTO;
+import com.resqnet.model.Disaster;
+import com.resqnet.model.ResourceRequest;
+import com.resqnet.model.User;
+import com.resqnet.producer.NotificationProducer;
+import com.resqnet.repository.projection.RequestSnapshot;
+import com.resqnet.service.DisasterService;
+import com.resqnet.service.DisasterStatsService;
+import com.resqnet.service.RequestCapacityService;
+import com.resqnet.service.ResourceRequestService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.resqnet.repository.RecordedStatements")
+@Import({DisasterService.class, ResourceRequestService.class, RequestCapacityService.class, DisasterStatsService.class})
+class KeysetPagingQueriesTest {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private DisasterService disasterService;
+    @Autowired private ResourceRequestService requestService;
+    @Autowired private DisasterStatsService statsService;
+    @MockitoBean private NotificationProducer notificationProducer;
+
+    private final List<Disaster> disasters = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User reporter = new User();
+        reporter.setName("Jane");
+        reporter.setEmail("jane@example.com");
+        reporter.setPassword("hashed");
+        reporter.setRole(User.Role.REPORTER);
+        em.persist(reporter);
+
+        for (int i = 0; i < 5; i++) {
+            Disaster disaster = new Disaster();
+            disaster.setType(i % 2 == 0 ? "Flood" : "Fire");
+            disaster.setSeverity("HIGH");
+            disaster.setDescription("test " + i);
+            disaster.setLatitude(10 + i);
+            disaster.setLongitude(20 + i);
+            disaster.setReporter(reporter);
+            disasters.add(em.persist(disaster));
+
+            ResourceRequest request = new ResourceRequest();
+            request.setDisaster(disaster);
+            request.setReporter(reporter);
+            request.setCategory(i < 3 ? "water" : "food");
+            request.setRequestedQuantity(10);
+            request.setFulfilledQuantity(i == 0 ? 10 : 0);
+            statsService.added(List.of(RequestSnapshot.of(em.persist(request))));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void disasterPages_walkNewestFirstUntilExhausted() {
+        PageQuery page = new PageQuery();
+        page.setSize(2);
+
+        List<Long> seen = new ArrayList<>();
+        PageResponse<DisasterDTO> response;
+        do {
+            response = disasterService.getDisasterPage(new DisasterFilter(), page);
+            response.getItems().forEach(dto -> seen.add(dto.getId()));
+            page.setCursor(response.getNextCursor());
+        } while (response.isHasMore());
+
+        List<Long> expected = disasters.stream().map(Disaster::getId).sorted((a, b) -> Long.compare(b, a)).toList();
+        assertEquals(expected, seen);
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void disasterPage_appliesFiltersAndRollUp() {
+        DisasterFilter filter = new DisasterFilter();
+        filter.setType("Flood");
+        filter.setMinLat(9.0);
+        filter.setMaxLat(12.5);
+        filter.setMinLon(19.0);
+        filter.setMaxLon(22.5);
+        PageQuery page = new PageQuery();
+        page.setOrder("asc");
+
+        List<DisasterDTO> items = disasterService.getDisasterPage(filter, page).getItems();
+
+        assertEquals(List.of(disasters.get(0).getId(), disasters.get(2).getId()),
+                items.stream().map(DisasterDTO::getId).toList());
+        assertEquals("fulfilled", items.get(0).getStatus());
+        assertEquals(List.of("water"), items.get(0).getContributions());
+        assertEquals("reported", items.get(1).getStatus());
+    }
+
+    @Test
+    void requestPage_filtersByCategoryAndStatus() {
+        RequestFilter filter = new RequestFilter();
+        filter.setCategory("water");
+        filter.setStatus(ResourceRequest.Status.PENDING);
+
+        PageResponse<ResourceRequestDTO> response = requestService.getRequestPage(filter, new PageQuery());
+
+        assertEquals(2, response.getItems().size());
+        assertFalse(response.isHasMore());
+        assertTrue(response.getItems().stream().allMatch(r -> "water".equals(r.getCategory())));
+    }
+
+    @Test
+    void pageQueries_carryOnlyTheFiltersThatAreSet() {
+        RequestFilter filter = new RequestFilter();
+        filter.setStatus(ResourceRequest.Status.PENDING);
+        RecordedStatements.clear();
+
+        requestService.getRequestPage(filter, new PageQuery());
+
+        String sql = RecordedStatements.lastSelectFrom("resource_requests");
+        assertFalse(sql.contains(" is null"), sql);
+        assertTrue(sql.contains(".status=?"), sql);
+        assertFalse(sql.contains(".category=?"), sql);
+        assertFalse(sql.contains(".created_at>"), sql);
+    }
+
+    @Test
+    void invalidPageArguments_areRejected() {
+        PageQuery page = new PageQuery();
+        page.setSize(PageQuery.MAX_SIZE + 1);
+        assertThrows(IllegalArgumentException.class, page::limit);
+
+        PageQuery order = new PageQuery();
+        order.setOrder("sideways");
+        assertThrows(IllegalArgumentException.class, order::ascending);
+
+        DisasterFilter filter = new DisasterFilter();
+        filter.setMinLat(1.0);
+        assertThrows(IllegalArgumentException.class, filter::hasBoundingBox);
+    }
+}
@@ -0,0 +1,211 @@
+package com.resqnet.repository;
+
+import com.resqnet.geo.BoundingBox;
+import com.resqnet.geo.SpatialKey;
+import com.resqnet.model.Contribution;
+import com.resqnet.model.Disaster;
+import com.resqnet.model.ResourceRequest;
+import com.resqnet.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs EXPLAIN for the SQL shape behind the hot repository lookups on the
+ * migrated schema and checks the planner avoids a table scan. H2 also builds
+ * its own index for every foreign key, which PostgreSQL does not, so each
+ * lookup additionally asserts that the migrations define the named index.
+ * Bounding-box reads are checked on the SQL Hibernate actually generates,
+ * with the values inlined so that EXPLAIN sees them, for a box that takes all
+ * four {@code geo_key} ranges: each range is its own UNION ALL branch, which
+ * any planner reads through the index, where ranges joined by OR leave H2 a
+ * table scan. The PostgreSQL-only partial indexes are not covered here.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.resqnet.repository.RecordedStatements",
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline"})
+class QueryPlanIndexTest {
+
+    private static final Pageable PAGE = PageRequest.of(0, 20, Sort.by("id"));
+    // Straddles the equator and the prime meridian, so four geo_key ranges
+    private static final BoundingBox BOX = new BoundingBox(-0.2, 0.2, -0.2, 0.2);
+
+    @Autowired private EntityManager em;
+    @Autowired private DisasterRepository disasterRepository;
+    @Autowired private ContributionRepository contributionRepository;
+    @Autowired private UserRepository userRepository;
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            // NotificationRepository.findDtosByRecipientId / findUnreadDtosByRecipientId
+            "notification inbox | SELECT n.id FROM notifications n WHERE n.user_id = 1 ORDER BY n.created_at DESC | IDX_NOTIFICATIONS_RECIPIENT",
+            // NotificationRepository.findAdminBroadcastDtos
+            "admin feed | SELECT n.id FROM notifications n WHERE n.admin_broadcast = TRUE ORDER BY n.created_at DESC | IDX_NOTIFICATIONS_ADMIN_FEED",
+            // ResourceRequestRepository.findDtosByReporterEmail (after the users lookup)
+            "requests by reporter | SELECT r.id FROM resource_requests r WHERE r.reporter_id = 1 | IDX_REQUESTS_REPORTER",
+            // DisasterCategoryStatsRepository.rebuild
+            "requests by disaster | SELECT r.id FROM resource_requests r WHERE r.disaster_id = 1 | IDX_REQUESTS_DISASTER",
+            // ResourceRequestRepository.findDtoPage with a status filter
+            "requests by status | SELECT r.id FROM resource_requests r WHERE r.status = 'PENDING' | IDX_REQUESTS_STATUS",
+            // ContributionRepository.findDtosByRequestId
+            "contributions by request | SELECT c.id FROM contributions c WHERE c.request_id = 1 ORDER BY c.id | IDX_CONTRIBUTIONS_REQUEST",
+            // ContributionRepository.findDtosByResponderEmail (after the users lookup)
+            "contributions by responder | SELECT c.id FROM contributions c WHERE c.responder_id = 1 | IDX_CONTRIBUTIONS_RESPONDER",
+            // AdminNotificationReadRepository.findReadNotificationIdsByAdminId
+            "admin reads | SELECT a.notification_id FROM admin_notification_reads a WHERE a.admin_id = 1 | IDX_ADMIN_READS_ADMIN"
+    })
+    void lookupIsServedByMigratedIndex(String lookup, String sql, String expectedIndex) {
+        assertServedBy(lookup, sql, expectedIndex);
+    }
+
+    // The statements the list endpoints send for a bounding-box page, as Hibernate generates them,
+    // on tables with enough spread-out rows that the planner has a choice to make
+    @ParameterizedTest(name = "{0} in a bounding box")
+    @CsvSource({
+            "disasters, IDX_DISASTERS_GEO_KEY",
+            "contributions, IDX_CONTRIBUTIONS_GEO_KEY",
+            "users, IDX_USERS_GEO_KEY"
+    })
+    void boundingBoxPageIsServedByTheGeoKeyIndex(String table, String expectedIndex) {
+        seedLocatedRows(2000);
+        RecordedStatements.clear();
+        switch (table) {
+            case "disasters" -> disasterRepository.findDtoPage(null, null, null,
+                    BOX.minLat(), BOX.maxLat(), BOX.minLon(), BOX.maxLon(), null, null, PAGE);
+            case "contributions" -> contributionRepository.findDtoPage(null, null, null, null, null,
+                    BOX.minLat(), BOX.maxLat(), BOX.minLon(), BOX.maxLon(), null, null, PAGE);
+            default -> userRepository.findDtoPage(null, null,
+                    BOX.minLat(), BOX.maxLat(), BOX.minLon(), BOX.maxLon(), null, null, PAGE);
+        }
+        String sql = RecordedStatements.lastSelectFrom(table);
+
+        // Filter values are inlined; only the page limit is still bound
+        assertEachRangeReadThrough(table + " page", sql.replace("?", String.valueOf(PAGE.getPageSize())), expectedIndex);
+    }
+
+    // The repositories' area and radius pin queries
+    @ParameterizedTest(name = "{0} pins in a bounding box")
+    @CsvSource({
+            "disasters, IDX_DISASTERS_GEO_KEY",
+            "contributions, IDX_CONTRIBUTIONS_GEO_KEY",
+            "users, IDX_USERS_GEO_KEY"
+    })
+    void boundingBoxPinsAreServedByTheGeoKeyIndex(String table, String expectedIndex) {
+        seedLocatedRows(2000);
+        RecordedStatements.clear();
+        switch (table) {
+            case "disasters" -> disasterRepository.findPinsIn(BOX);
+            case "contributions" -> contributionRepository.findPinsIn(BOX);
+            default -> userRepository.findResponderPinsIn(BOX);
+        }
+        String sql = RecordedStatements.lastSelectFrom(table);
+
+        // Each branch binds the box, then its range
+        SpatialKey.Cover keys = BOX.keys();
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < SpatialKey.RANGES; i++) {
+            values.addAll(List.of(BOX.minLat(), BOX.maxLat(), BOX.minLon(), BOX.maxLon(), keys.from(i), keys.to(i)));
+        }
+        assertEachRangeReadThrough(table + " pins", inline(sql, values), expectedIndex);
+    }
+
+    private void assertEachRangeReadThrough(String query, String sql, String expectedIndex) {
+        SpatialKey.Cover keys = BOX.keys();
+        String plan = String.valueOf(em.createNativeQuery("EXPLAIN " + sql).getSingleResult());
+
+        assertFalse(plan.toLowerCase().contains("tablescan"), () -> query + " falls back to a table scan:\n" + plan);
+        for (int i = 0; i < SpatialKey.RANGES; i++) {
+            assertFalse(keys.isEmpty(i), "the box should take every range");
+            String range = expectedIndex + ": GEO_KEY >= " + keys.from(i);
+            assertTrue(plan.toUpperCase().contains(range), () -> query + " does not read " + range + ":\n" + plan);
+        }
+    }
+
+    private static String inline(String sql, List<Object> values) {
+        StringBuilder inlined = new StringBuilder();
+        int value = 0;
+        for (char ch : sql.toCharArray()) {
+            if (ch == '?') inlined.append(values.get(value++));
+            else inlined.append(ch);
+        }
+        assertEquals(values.size(), value, "bound parameters");
+        return inlined.toString();
+    }
+
+    private void seedLocatedRows(int count) {
+        Random random = new Random(7);
+        User owner = persistUser("owner", 0, 0);
+        Disaster first = null;
+        for (int i = 0; i < count; i++) {
+            persistUser("user" + i, latitude(random), longitude(random));
+            Disaster disaster = new Disaster();
+            disaster.setType("Flood");
+            disaster.setSeverity("LOW");
+            disaster.setLatitude(latitude(random));
+            disaster.setLongitude(longitude(random));
+            disaster.setReporter(owner);
+            em.persist(disaster);
+            if (first == null) first = disaster;
+        }
+        ResourceRequest request = new ResourceRequest();
+        request.setCategory("water");
+        request.setRequestedQuantity(count);
+        request.setDisaster(first);
+        request.setReporter(owner);
+        em.persist(request);
+        for (int i = 0; i < count; i++) {
+            Contribution contribution = new Contribution();
+            contribution.setRequest(request);
+            contribution.setResponder(owner);
+            contribution.setCategory("water");
+            contribution.setContributedQuantity(1);
+            contribution.setLatitude(latitude(random));
+            contribution.setLongitude(longitude(random));
+            em.persist(contribution);
+        }
+        em.flush();
+    }
+
+    private User persistUser(String name, double latitude, double longitude) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("hashed");
+        user.setRole(User.Role.RESPONDER);
+        user.setLatitude(latitude);
+        user.setLongitude(longitude);
+        em.persist(user);
+        return user;
+    }
+
+    private static double latitude(Random random) {
+        return random.nextDouble() * 160 - 80;
+    }
+
+    private static double longitude(Random random) {
+        return random.nextDouble() * 360 - 180;
+    }
+
+    private void assertServedBy(String lookup, String sql, String expectedIndex) {
+        String plan = String.valueOf(em.createNativeQuery("EXPLAIN " + sql).getSingleResult());
+
+        assertFalse(plan.toLowerCase().contains("tablescan"),
+                () -> lookup + " falls back to a table scan:\n" + plan);
+        assertEquals(1, ((Number) em.createNativeQuery(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = :name")
+                .setParameter("name", expectedIndex)
+                .getSingleResult()).intValue(),
+                () -> expectedIndex + " is not defined by the migrations");
+    }
+}
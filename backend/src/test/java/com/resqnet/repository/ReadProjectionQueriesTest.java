@@ -0,0 +1,204 @@
+package com.resqnet.repository;
+
+import com.resqnet.dto.ContributionDTO;
+import com.resqnet.dto.NotificationDTO;
+import com.resqnet.dto.ResourceRequestDTO;
+import com.resqnet.dto.UserDTO;
+import com.resqnet.geo.BoundingBox;
+import com.resqnet.geo.ContributionPin;
+import com.resqnet.geo.DisasterPin;
+import com.resqnet.geo.GeoMath;
+import com.resqnet.geo.Nearby;
+import com.resqnet.geo.ResponderPin;
+import com.resqnet.geo.SpatialKey;
+import com.resqnet.model.Contribution;
+import com.resqnet.model.Disaster;
+import com.resqnet.model.Notification;
+import com.resqnet.model.ResourceRequest;
+import com.resqnet.model.User;
+import com.resqnet.repository.projection.RequestLocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ReadProjectionQueriesTest {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private ResourceRequestRepository requestRepository;
+    @Autowired private ContributionRepository contributionRepository;
+    @Autowired private NotificationRepository notificationRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private DisasterRepository disasterRepository;
+
+    private User reporter;
+    private User responder;
+    private ResourceRequest request;
+
+    @BeforeEach
+    void setUp() {
+        reporter = persistUser("reporter@example.com", User.Role.REPORTER);
+        responder = persistUser("responder@example.com", User.Role.RESPONDER);
+
+        Disaster disaster = new Disaster();
+        disaster.setType("Flood");
+        disaster.setSeverity("HIGH");
+        disaster.setDescription("test");
+        disaster.setReporter(reporter);
+        em.persist(disaster);
+
+        request = new ResourceRequest();
+        request.setDisaster(disaster);
+        request.setReporter(reporter);
+        request.setCategory("water");
+        request.setRequestedQuantity(10);
+        request.setFulfilledQuantity(4);
+        em.persist(request);
+
+        Contribution contribution = new Contribution();
+        contribution.setRequest(request);
+        contribution.setResponder(responder);
+        contribution.setCategory("water");
+        contribution.setContributedQuantity(4);
+        contribution.setLatitude(1.0);
+        contribution.setLongitude(2.0);
+        em.persist(contribution);
+
+        em.persist(new Notification("For reporter", "SYSTEM", reporter, true));
+        em.persist(new Notification("For admins", "ADMIN_LOG", false));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void requestDtos_carryForeignKeysAndReporterEmail() {
+        List<ResourceRequestDTO> dtos = requestRepository.findDtosByReporterEmail("reporter@example.com");
+
+        assertEquals(1, dtos.size());
+        assertEquals(request.getDisaster().getId(), dtos.get(0).getDisasterId());
+        assertEquals(ResourceRequest.Status.PARTIAL, dtos.get(0).getStatus());
+        assertEquals(1, requestRepository.findAllDtos().size());
+    }
+
+    @Test
+    void contributionDtos_filterByRequestOwner() {
+        List<ContributionDTO> dtos = contributionRepository.findDtosByRequestReporterId(reporter.getId());
+
+        assertEquals(1, dtos.size());
+        assertEquals("responder@example.com", dtos.get(0).getResponderEmail());
+        assertEquals(request.getId(), dtos.get(0).getRequestId());
+        assertTrue(contributionRepository.findDtosByRequestReporterId(responder.getId()).isEmpty());
+    }
+
+    @Test
+    void notificationDtos_labelBroadcastsAndFilterByRecipient() {
+        List<NotificationDTO> own = notificationRepository.findUnreadDtosByRecipientId(reporter.getId());
+        List<NotificationDTO> broadcasts = notificationRepository.findAdminBroadcastDtos();
+
+        assertEquals("reporter@example.com", own.get(0).getRecipientEmail());
+        assertEquals("ADMIN-BROADCAST", broadcasts.get(0).getRecipientEmail());
+        assertTrue(broadcasts.get(0).isAdminBroadcast());
+        assertEquals(2, userRepository.findAllDtos().size());
+    }
+
+    @Test
+    void pins_carryCoordinatesAndSkipUnlocatedResponders() {
+        persistUser("unlocated@example.com", User.Role.RESPONDER);
+        User located = em.find(User.class, responder.getId());
+        located.setLatitude(3.0);
+        located.setLongitude(4.0);
+        em.flush();
+
+        List<DisasterPin> disasters = disasterRepository.findAllPins();
+        List<ResponderPin> responders = userRepository.findResponderPins();
+        List<ContributionPin> contributions = contributionRepository.findAllPins();
+
+        assertEquals(1, disasters.size());
+        assertEquals("HIGH", disasters.get(0).severity());
+        assertEquals(1, responders.size());
+        assertEquals(responder.getId(), responders.get(0).id());
+        assertEquals(3.0, responders.get(0).latitude());
+        assertNotNull(responders.get(0).lastActiveAt());
+        assertEquals(1, contributions.size());
+        assertEquals(request.getId(), contributions.get(0).requestId());
+        assertEquals(2.0, contributions.get(0).longitude());
+    }
+
+    @Test
+    void areaQueries_readRowsThroughTheSpatialKey() {
+        User located = em.find(User.class, responder.getId());
+        located.setLatitude(1.05);
+        located.setLongitude(2.05);
+        assertEquals(1, userRepository.setLocationIfMissing(reporter.getId(), 40.0, 40.0));
+        em.flush();
+        em.clear();
+        Pageable first = PageRequest.of(0, 10, Sort.by("id"));
+
+        assertEquals(SpatialKey.of(40.0, 40.0), em.find(User.class, reporter.getId()).getGeoKey());
+        assertEquals(SpatialKey.of(0, 0), disasterRepository.findAll().get(0).getGeoKey());
+        assertEquals(1, contributionRepository.findContributionsNear(0.5, 1.5, 1.5, 2.5).size());
+        assertTrue(contributionRepository.findContributionsNear(1.5, 2.5, 1.5, 2.5).isEmpty());
+        assertEquals(1, contributionRepository.findPinsIn(new BoundingBox(0.5, 1.5, 1.5, 2.5)).size());
+        assertTrue(contributionRepository.findPinsIn(new BoundingBox(1.5, 2.5, 1.5, 2.5)).isEmpty());
+        assertEquals(1, disasterRepository.findPinsWithinRadius(0.1, 0.1, 20).size());
+        assertTrue(disasterRepository.findPinsWithinRadius(0.1, 0.1, 10).isEmpty());
+        assertEquals(1, disasterRepository.findDtoPage(null, null, null, -0.1, 0.1, -0.1, 0.1,
+                null, null, first).size());
+        assertTrue(disasterRepository.findDtoPage(null, null, null, 0.1, 0.2, 0.1, 0.2,
+                null, null, first).isEmpty());
+
+        List<UserDTO> responders = userRepository.findDtoPage(User.Role.RESPONDER, null, 1.0, 1.1, 2.0, 2.1,
+                null, null, first);
+        assertEquals(List.of(responder.getId()), responders.stream().map(UserDTO::getId).toList());
+
+        List<Nearby<ResponderPin>> nearby = userRepository.findResponderPinsWithinRadius(1.0, 2.0, 10);
+        assertEquals(1, nearby.size());
+        assertEquals(responder.getId(), nearby.get(0).point().id());
+        assertEquals(GeoMath.distanceKm(1.0, 2.0, 1.05, 2.05), nearby.get(0).distanceKm(), 1e-9);
+    }
+
+    @Test
+    void radiusQueries_reachAcrossTheAntimeridian() {
+        Disaster disaster = disasterRepository.findAll().get(0);
+        disaster.setLongitude(179.95);
+        User located = em.find(User.class, responder.getId());
+        located.setLatitude(0.0);
+        located.setLongitude(-179.98);
+        em.flush();
+        em.clear();
+
+        // About 11 km apart across the 180th meridian
+        List<Nearby<DisasterPin>> disasters = disasterRepository.findPinsWithinRadius(0.0, -179.95, 20);
+        assertEquals(1, disasters.size());
+        assertEquals(GeoMath.distanceKm(0, -179.95, 0, 179.95), disasters.get(0).distanceKm(), 1e-9);
+        assertEquals(1, userRepository.findResponderPinsWithinRadius(0.0, 179.98, 10).size());
+        assertTrue(disasterRepository.findPinsWithinRadius(0.0, -179.95, 5).isEmpty());
+    }
+
+    @Test
+    void requestLocation_carriesReporterAndDisasterPosition() {
+        RequestLocation location = requestRepository.findLocationById(request.getId()).orElseThrow();
+
+        assertEquals(reporter.getId(), location.getReporterId());
+        assertEquals(0.0, location.getLatitude());
+        assertTrue(requestRepository.findLocationById(-1L).isEmpty());
+    }
+
+    private User persistUser(String email, User.Role role) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setPassword("hashed");
+        user.setRole(role);
+        return em.persist(user);
+    }
+}
@@ -0,0 +1,34 @@
+package com.resqnet.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps the SQL Hibernate sends, for tests that check the shape of a generated query.
+ * Enabled per test class through {@code hibernate.session_factory.statement_inspector}.
+ */
+public class RecordedStatements implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    static void clear() {
+        STATEMENTS.clear();
+    }
+
+    // The last recorded SELECT reading the given table
+    static String lastSelectFrom(String table) {
+        for (int i = STATEMENTS.size() - 1; i >= 0; i--) {
+            String sql = STATEMENTS.get(i);
+            if (sql.startsWith("select") && sql.contains(" from " + table + " ")) return sql;
+        }
+        throw new AssertionError("No select from " + table + " in " + STATEMENTS);
+    }
+}
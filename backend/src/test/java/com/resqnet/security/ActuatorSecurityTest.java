@@ -0,0 +1,54 @@
+package com.resqnet.security;
+
+import com.resqnet.config.CacheEntriesEndpoint;
+import com.resqnet.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.endpoint.EndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.endpoint.web.WebEndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementContextAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.web.servlet.ServletManagementContextAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CacheEntriesEndpoint.class)
+@Import({SecurityConfig.class, JwtUtil.class})
+@ImportAutoConfiguration({EndpointAutoConfiguration.class, WebEndpointAutoConfiguration.class,
+        ManagementContextAutoConfiguration.class, ServletManagementContextAutoConfiguration.class})
+@TestPropertySource(properties = "management.endpoints.web.exposure.include=cacheentries")
+class ActuatorSecurityTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private JwtUtil jwtUtil;
+    @MockitoBean private AuthenticatedUserCache userCache;
+
+    @Test
+    void cacheEntries_isForbiddenToNonAdmins() throws Exception {
+        when(userCache.get(7L)).thenReturn(Optional.of(new AuthenticatedUser(7L, "r@example.com", User.Role.RESPONDER)));
+
+        mockMvc.perform(get("/actuator/cacheentries"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/cacheentries")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(7L, "r@example.com", "RESPONDER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void cacheEntries_isServedToAdmins() throws Exception {
+        when(userCache.get(1L)).thenReturn(Optional.of(new AuthenticatedUser(1L, "a@example.com", User.Role.ADMIN)));
+
+        mockMvc.perform(get("/actuator/cacheentries")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(1L, "a@example.com", "ADMIN")))
+                .andExpect(status().isOk());
+    }
+}
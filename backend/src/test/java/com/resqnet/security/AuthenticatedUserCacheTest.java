@@ -0,0 +1,75 @@
+package com.resqnet.security;
+
+import com.resqnet.model.User;
+import com.resqnet.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticatedUserCacheTest {
+
+    @Mock private UserRepository userRepository;
+
+    private AuthenticatedUserCache cache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AuthenticatedUserCache(userRepository, 100, Duration.ofMinutes(5));
+
+        user = new User();
+        user.setId(1L);
+        user.setEmail("user@example.com");
+        user.setRole(User.Role.REPORTER);
+    }
+
+    @Test
+    void get_loadsOnceThenServesFromCache() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertEquals("user@example.com", cache.get(1L).orElseThrow().getEmail());
+        assertTrue(cache.get(1L).orElseThrow().hasRole(User.Role.REPORTER));
+
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void get_deletedUser_isEmptyAndNotCached() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(cache.get(1L).isEmpty());
+        assertTrue(cache.get(1L).isEmpty());
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void invalidate_picksUpRoleChangeOnNextRequest() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        cache.get(1L);
+
+        user.setRole(User.Role.RESPONDER);
+        cache.invalidate(1L);
+
+        assertTrue(cache.get(1L).orElseThrow().hasRole(User.Role.RESPONDER));
+    }
+
+    @Test
+    void getByEmail_legacyToken_populatesIdEntry() {
+        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
+
+        assertEquals(1L, cache.getByEmail("user@example.com").orElseThrow().getId());
+        assertEquals("user@example.com", cache.get(1L).orElseThrow().getEmail());
+
+        verify(userRepository, never()).findById(any());
+    }
+}
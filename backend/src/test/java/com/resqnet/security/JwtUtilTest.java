@@ -18,7 +18,7 @@ class JwtUtilTest {
 
     @Test
     void generateToken_andExtractEmail_returnsCorrectSubject() {
-        String token = jwtUtil.generateToken("user@example.com", "REPORTER");
+        String token = jwtUtil.generateToken(42L, "user@example.com", "REPORTER");
 
         assertNotNull(token);
         assertEquals("user@example.com", jwtUtil.extractEmail(token));
@@ -26,21 +26,29 @@ class JwtUtilTest {
 
     @Test
     void generateToken_andExtractRole_returnsCorrectRole() {
-        String token = jwtUtil.generateToken("user@example.com", "ADMIN");
+        String token = jwtUtil.generateToken(42L, "user@example.com", "ADMIN");
 
         assertEquals("ADMIN", jwtUtil.extractRole(token));
     }
 
+    @Test
+    void generateToken_carriesUserIdClaim() {
+        String token = jwtUtil.generateToken(42L, "user@example.com", "RESPONDER");
+
+        // Read by JwtFilter straight from the parsed claims
+        assertEquals(42L, jwtUtil.extractClaims(token).get(JwtUtil.USER_ID_CLAIM, Long.class));
+    }
+
     @Test
     void validateToken_withMatchingEmail_returnsTrue() {
-        String token = jwtUtil.generateToken("user@example.com", "REPORTER");
+        String token = jwtUtil.generateToken(42L, "user@example.com", "REPORTER");
 
         assertTrue(jwtUtil.validateToken(token, "user@example.com"));
     }
 
     @Test
     void validateToken_withMismatchedEmail_returnsFalse() {
-        String token = jwtUtil.generateToken("user@example.com", "REPORTER");
+        String token = jwtUtil.generateToken(42L, "user@example.com", "REPORTER");
 
         assertFalse(jwtUtil.validateToken(token, "other@example.com"));
     }
@@ -48,7 +56,7 @@ class JwtUtilTest {
     @Test
     void expiredToken_throwsExceptionOnParse() throws InterruptedException {
         JwtUtil shortLivedUtil = new JwtUtil(SECRET, 1L);
-        String token = shortLivedUtil.generateToken("user@example.com", "REPORTER");
+        String token = shortLivedUtil.generateToken(42L, "user@example.com", "REPORTER");
 
         Thread.sleep(50);
 
@@ -0,0 +1,84 @@
+package com.resqnet.service;
+
+import com.resqnet.event.CollectionChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmerTest {
+
+    @Mock private DisasterService disasterService;
+    @Mock private ResourceRequestService requestService;
+    @Mock private ObjectProvider<CacheManager> cacheManagerProvider;
+    @Mock private CacheManager cacheManager;
+    @Mock private TaskScheduler taskScheduler;
+
+    private CacheWarmer warmer;
+
+    @BeforeEach
+    void setUp() {
+        warmer = new CacheWarmer(disasterService, requestService, cacheManagerProvider,
+                taskScheduler, Duration.ofSeconds(1));
+    }
+
+    @Test
+    void warmOnStartup_fillsBothHotCaches() {
+        when(cacheManagerProvider.getIfAvailable()).thenReturn(cacheManager);
+
+        warmer.warmOnStartup();
+
+        verify(disasterService).refreshAllDisasters();
+        verify(requestService).refreshAllRequests();
+    }
+
+    @Test
+    void warmOnStartup_withoutCacheManager_doesNothing() {
+        when(cacheManagerProvider.getIfAvailable()).thenReturn(null);
+
+        warmer.warmOnStartup();
+
+        verifyNoInteractions(disasterService, requestService);
+    }
+
+    @Test
+    void onCollectionChanged_collapsesBurstIntoSingleRefill() {
+        when(cacheManagerProvider.getIfAvailable()).thenReturn(cacheManager);
+
+        warmer.onCollectionChanged(new CollectionChangedEvent(CollectionChangedEvent.DISASTERS));
+        warmer.onCollectionChanged(new CollectionChangedEvent(CollectionChangedEvent.DISASTERS));
+
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(1)).schedule(task.capture(), any(Instant.class));
+
+        task.getValue().run();
+        verify(disasterService).refreshAllDisasters();
+        verifyNoInteractions(requestService);
+
+        // once the refill ran, the next write schedules a new one
+        warmer.onCollectionChanged(new CollectionChangedEvent(CollectionChangedEvent.DISASTERS));
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void refresh_failureIsNonFatal() {
+        when(cacheManagerProvider.getIfAvailable()).thenReturn(cacheManager);
+        when(disasterService.refreshAllDisasters()).thenThrow(new RuntimeException("db down"));
+
+        warmer.refreshAhead();
+
+        verify(requestService).refreshAllRequests();
+    }
+}
@@ -0,0 +1,120 @@
+package com.resqnet.service;
+
+import com.resqnet.event.CollectionChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CollectionVersionsTest {
+
+    @Mock private ObjectProvider<CacheManager> cacheManagerProvider;
+    @Mock private CacheManager cacheManager;
+    @Mock private Cache disastersCache;
+    @Mock private TaskScheduler taskScheduler;
+
+    private CollectionVersions versions;
+
+    @BeforeEach
+    void setUp() {
+        versions = new CollectionVersions(cacheManagerProvider, taskScheduler, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void etag_isStableUntilCollectionChanges() {
+        when(cacheManagerProvider.getIfAvailable()).thenReturn(null);
+        String before = versions.etag(CollectionChangedEvent.DISASTERS);
+
+        assertEquals(before, versions.etag(CollectionChangedEvent.DISASTERS));
+        assertTrue(before.startsWith("W/\""));
+
+        versions.onCollectionChanged(new CollectionChangedEvent(CollectionChangedEvent.DISASTERS));
+
+        assertNotEquals(before, versions.etag(CollectionChangedEvent.DISASTERS));
+        assertEquals(1, versions.current(CollectionChangedEvent.DISASTERS));
+        assertEquals(0, versions.current(CollectionChangedEvent.REQUESTS));
+    }
+
+    @Test
+    void onCollectionChanged_clearsKnownCachesOnly() {
+        when(cacheManagerProvider.getIfAvailable()).thenReturn(cacheManager);
+        when(cacheManager.getCacheNames()).thenReturn(Set.of(CollectionChangedEvent.DISASTERS));
+        when(cacheManager.getCache(CollectionChangedEvent.DISASTERS)).thenReturn(disastersCache);
+
+        versions.onCollectionChanged(new CollectionChangedEvent(
+                CollectionChangedEvent.DISASTERS, CollectionChangedEvent.CONTRIBUTIONS));
+
+        InOrder order = inOrder(disastersCache);
+        order.verify(disastersCache).clear();
+        verify(cacheManager, never()).getCache(CollectionChangedEvent.CONTRIBUTIONS);
+        assertEquals(1, versions.current(CollectionChangedEvent.CONTRIBUTIONS));
+        verify(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void onCollectionChanged_clearsAndBumpsAgainAfterStraddlingLoads() {
+        when(cacheManagerProvider.getIfAvailable()).thenReturn(cacheManager);
+        when(cacheManager.getCacheNames()).thenReturn(Set.of(CollectionChangedEvent.DISASTERS));
+        when(cacheManager.getCache(CollectionChangedEvent.DISASTERS)).thenReturn(disastersCache);
+        ScheduledFuture<?> first = mock(ScheduledFuture.class);
+        doReturn(first, mock(ScheduledFuture.class)).when(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+
+        versions.onCollectionChanged(new CollectionChangedEvent(CollectionChangedEvent.DISASTERS));
+        versions.onCollectionChanged(new CollectionChangedEvent(CollectionChangedEvent.DISASTERS));
+        String afterWrites = versions.etag(CollectionChangedEvent.DISASTERS);
+
+        // A newer write pushes the pending settle back
+        verify(first).cancel(false);
+        ArgumentCaptor<Runnable> settle = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(2)).schedule(settle.capture(), any(Instant.class));
+
+        // A load that straddled the commit put the pre-write list back in the meantime
+        settle.getValue().run();
+
+        verify(disastersCache, times(3)).clear();
+        assertEquals(3, versions.current(CollectionChangedEvent.DISASTERS));
+        assertNotEquals(afterWrites, versions.etag(CollectionChangedEvent.DISASTERS));
+    }
+
+    @Test
+    void onRemoteChange_clearsInProcessCaches() {
+        Cache adminSummaryCache = mock(Cache.class);
+        when(cacheManagerProvider.getIfAvailable()).thenReturn(cacheManager);
+        when(cacheManager.getCacheNames()).thenReturn(Set.of(CollectionChangedEvent.DISASTERS, "adminSummary"));
+        when(cacheManager.getCache(CollectionChangedEvent.DISASTERS)).thenReturn(disastersCache);
+        when(cacheManager.getCache("adminSummary")).thenReturn(adminSummaryCache);
+
+        versions.onRemoteChange(Set.of(CollectionChangedEvent.DISASTERS));
+
+        verify(disastersCache).clear();
+        verify(adminSummaryCache).clear();
+        assertEquals(1, versions.current(CollectionChangedEvent.DISASTERS));
+        verify(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void onRemoteChange_movesVersionsWithoutCacheManager() {
+        when(cacheManagerProvider.getIfAvailable()).thenReturn(null);
+        String before = versions.etag(CollectionChangedEvent.REQUESTS);
+
+        versions.onRemoteChange(Set.of(CollectionChangedEvent.REQUESTS));
+
+        assertNotEquals(before, versions.etag(CollectionChangedEvent.REQUESTS));
+    }
+}
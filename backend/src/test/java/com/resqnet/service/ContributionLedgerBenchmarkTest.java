@@ -0,0 +1,341 @@
+package com.resqnet.service;
+
+import com.resqnet.dto.ContributionDTO;
+import com.resqnet.dto.NotificationDTO;
+import com.resqnet.model.Contribution;
+import com.resqnet.model.Disaster;
+import com.resqnet.model.ResourceRequest;
+import com.resqnet.model.User;
+import com.resqnet.producer.NotificationProducer;
+import com.resqnet.repository.CapacityStripeRepository;
+import com.resqnet.repository.ContributionRepository;
+import com.resqnet.repository.DisasterRepository;
+import com.resqnet.repository.ResourceRequestRepository;
+import com.resqnet.repository.UserRepository;
+import com.resqnet.security.AuthenticatedUser;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent contributors to one request, three ways of accounting for them:
+ * SELECT ... FOR UPDATE with check and increment in Java; a conditional UPDATE
+ * of the request row; and the ledger with striped capacity behind
+ * {@link ContributionService#createContribution}, rolled up after each round.
+ * Opt-in: {@code mvn test -Pbenchmark}. All flows do the same inserts and
+ * notification calls; only the way the quantity is reserved differs.
+ * <p>
+ * Statements are delayed by {@link #ROUND_TRIP} and commits by {@link #COMMIT}
+ * to stand in for the network hop to PostgreSQL and its WAL flush: a row lock
+ * held across those is what serializes contributors, and in-memory H2 alone has
+ * neither. On a many-core database the ledger's extra statements run in parallel;
+ * on a single-core sandbox they compete for CPU, which these delays also mask.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        // Pooled connections, as in the application; the embedded test database opens one per transaction
+        "spring.datasource.url=jdbc:h2:mem:contribution-benchmark;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ContributionService.class, RequestCapacityService.class, DisasterStatsService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // every contribution commits on its own
+class ContributionLedgerBenchmarkTest {
+
+    private static final int CONTRIBUTORS = 8;
+    private static final int CONTRIBUTIONS_EACH = 50;
+    private static final int ROUNDS = 3;
+    private static final Duration ROUND_TRIP = Duration.ofMillis(1);
+    private static final Duration COMMIT = Duration.ofMillis(5);
+
+    @TestConfiguration
+    static class RoundTripLatency {
+
+        @Bean
+        static BeanPostProcessor delayStatements() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? withRoundTrips(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired private ContributionService contributionService;
+    @Autowired private RequestCapacityService capacityService;
+    @Autowired private CapacityStripeRepository stripeRepository;
+    @Autowired private ResourceRequestRepository requestRepository;
+    @Autowired private ContributionRepository contributionRepository;
+    @Autowired private DisasterRepository disasterRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManager entityManager;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @MockitoBean private NotificationProducer notificationProducer;
+
+    private final List<User> responders = new ArrayList<>();
+    private ResourceRequest request;
+
+    @BeforeEach
+    void setUp() {
+        User reporter = userRepository.save(user("reporter@example.com", User.Role.REPORTER));
+        for (int i = 0; i < CONTRIBUTORS; i++) {
+            User responder = user("responder" + i + "@example.com", User.Role.RESPONDER);
+            responder.setLatitude(28.0);
+            responder.setLongitude(77.0);
+            responders.add(userRepository.save(responder));
+        }
+
+        Disaster disaster = new Disaster();
+        disaster.setType("Flood");
+        disaster.setSeverity("HIGH");
+        disaster.setDescription("benchmark");
+        disaster.setReporter(reporter);
+        disasterRepository.save(disaster);
+
+        request = new ResourceRequest();
+        request.setDisaster(disaster);
+        request.setReporter(reporter);
+        request.setCategory("water");
+        request.setRequestedQuantity(CONTRIBUTORS * CONTRIBUTIONS_EACH);
+        request = requestRepository.save(request);
+    }
+
+    @AfterEach
+    void tearDown() {
+        contributionRepository.deleteAllInBatch();
+        stripeRepository.deleteAllInBatch();
+        requestRepository.deleteAllInBatch();
+        disasterRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void ledger_versusRowLevelAccounting() throws Exception {
+        Result locked = measure("SELECT FOR UPDATE", this::contributeWithRowLock);
+        Result conditional = measure("conditional UPDATE", this::contributeWithConditionalUpdate);
+        Result ledger = measure("ledger + stripes",
+                (dto, email) -> contributionService.createContribution(dto,
+                        userRepository.findByEmail(email).map(AuthenticatedUser::of).orElseThrow()));
+
+        System.out.printf("%nConcurrent contributions, %d contributors x %d (best of %d)%n",
+                CONTRIBUTORS, CONTRIBUTIONS_EACH, ROUNDS);
+        System.out.println(locked);
+        System.out.println(conditional);
+        System.out.println(ledger);
+        System.out.printf("ledger speed-up: %.2fx over row lock, %.2fx over conditional UPDATE%n%n",
+                locked.nanos / (double) ledger.nanos, conditional.nanos / (double) ledger.nanos);
+
+        assertTrue(ledger.nanos < conditional.nanos, "striped capacity should beat a single hot row");
+    }
+
+    private Result measure(String label, BiConsumer<ContributionDTO, String> contribute) throws Exception {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            reset();
+            ExecutorService pool = Executors.newFixedThreadPool(CONTRIBUTORS);
+            List<Callable<Void>> contributors = new ArrayList<>();
+            for (User responder : responders) {
+                contributors.add(() -> {
+                    for (int i = 0; i < CONTRIBUTIONS_EACH; i++) {
+                        try {
+                            contribute.accept(contribution(), responder.getEmail());
+                        } catch (PessimisticLockingFailureException deadlockVictim) {
+                            i--; // H2 only, see ContributionAccountingTest; retry the same contribution
+                        }
+                    }
+                    return null;
+                });
+            }
+            long start = System.nanoTime();
+            try {
+                for (Future<Void> contributor : pool.invokeAll(contributors)) {
+                    contributor.get();
+                }
+            } finally {
+                pool.shutdown();
+            }
+            best = Math.min(best, System.nanoTime() - start);
+            contributionService.rollUp(request.getId());
+
+            // Every unit accounted for exactly once, whichever flow ran
+            ResourceRequest current = requestRepository.findById(request.getId()).orElseThrow();
+            assertEquals(request.getRequestedQuantity(), current.getFulfilledQuantity());
+            assertEquals(ResourceRequest.Status.FULFILLED, current.getStatus());
+            assertEquals(CONTRIBUTORS * CONTRIBUTIONS_EACH, contributionRepository.count());
+        }
+        return new Result(label, best);
+    }
+
+    // The flow createContribution used before: lock first, then read-check-write in Java
+    private void contributeWithRowLock(ContributionDTO dto, String responderEmail) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ResourceRequest locked = entityManager.find(ResourceRequest.class, dto.getRequestId(),
+                    LockModeType.PESSIMISTIC_WRITE);
+            User responder = userRepository.findByEmail(responderEmail).orElseThrow();
+
+            int pending = locked.getRequestedQuantity() - locked.getFulfilledQuantity();
+            if (dto.getContributedQuantity() > pending) {
+                throw new IllegalArgumentException("Contribution exceeds pending quantity. Pending: " + pending);
+            }
+
+            Contribution contribution = new Contribution();
+            contribution.setContributedQuantity(dto.getContributedQuantity());
+            contribution.setRequest(locked);
+            contribution.setResponder(responder);
+            contribution.setCategory(dto.getCategory());
+            contribution.setLatitude(dto.getLatitude());
+            contribution.setLongitude(dto.getLongitude());
+            contribution.setRolledUp(true);
+
+            locked.addFulfilledQuantity(dto.getContributedQuantity());
+            requestRepository.save(locked);
+            contributionRepository.save(contribution);
+
+            notifyThreeRecipients();
+        });
+    }
+
+    // Check and increment in one statement on the request row, as a single hot row
+    private void contributeWithConditionalUpdate(ContributionDTO dto, String responderEmail) {
+        transactionTemplate.executeWithoutResult(status -> {
+            User responder = userRepository.findByEmail(responderEmail).orElseThrow();
+
+            Contribution contribution = new Contribution();
+            contribution.setContributedQuantity(dto.getContributedQuantity());
+            contribution.setRequest(requestRepository.getReferenceById(dto.getRequestId()));
+            contribution.setResponder(responder);
+            contribution.setCategory(dto.getCategory());
+            contribution.setLatitude(dto.getLatitude());
+            contribution.setLongitude(dto.getLongitude());
+            contribution.setRolledUp(true);
+            contributionRepository.save(contribution);
+            entityManager.flush();
+
+            int updated = entityManager.createQuery(
+                            "UPDATE ResourceRequest r SET r.fulfilledQuantity = r.fulfilledQuantity + :quantity, " +
+                            "r.status = CASE WHEN r.fulfilledQuantity + :quantity >= r.requestedQuantity " +
+                            "THEN com.resqnet.model.ResourceRequest.Status.FULFILLED " +
+                            "ELSE com.resqnet.model.ResourceRequest.Status.PARTIAL END " +
+                            "WHERE r.id = :id AND r.fulfilledQuantity + :quantity <= r.requestedQuantity")
+                    .setParameter("id", dto.getRequestId())
+                    .setParameter("quantity", dto.getContributedQuantity())
+                    .executeUpdate();
+            if (updated == 0) {
+                throw new IllegalArgumentException("Contribution exceeds pending quantity");
+            }
+
+            notifyThreeRecipients();
+        });
+    }
+
+    private void notifyThreeRecipients() {
+        for (int i = 0; i < 3; i++) {
+            notificationProducer.sendNotification(new NotificationDTO());
+        }
+    }
+
+    private void reset() {
+        contributionRepository.deleteAllInBatch();
+        stripeRepository.deleteAllInBatch();
+        capacityService.open(request.getId(), request.getRequestedQuantity());
+        ResourceRequest current = requestRepository.findById(request.getId()).orElseThrow();
+        current.setFulfilledQuantity(0);
+        current.updateStatus();
+        requestRepository.save(current);
+    }
+
+    private ContributionDTO contribution() {
+        ContributionDTO dto = new ContributionDTO();
+        dto.setRequestId(request.getId());
+        dto.setContributedQuantity(1);
+        dto.setCategory("water");
+        dto.setLatitude(28.0);
+        dto.setLongitude(77.0);
+        return dto;
+    }
+
+    private static DataSource withRoundTrips(DataSource target) {
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return delayed(Connection.class, super.getConnection());
+            }
+        };
+    }
+
+    // Delays statement execution and commit; statements created by the connection are wrapped too
+    private static <T> T delayed(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                LockSupport.parkNanos(ROUND_TRIP.toNanos());
+            } else if (name.equals("commit")) {
+                LockSupport.parkNanos(COMMIT.toNanos());
+            }
+            try {
+                Object result = method.invoke(target, args);
+                if (result instanceof PreparedStatement statement && name.equals("prepareStatement")) {
+                    return delayed(PreparedStatement.class, statement);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }));
+    }
+
+    private static User user(String email, User.Role role) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setPassword("hashed");
+        user.setRole(role);
+        return user;
+    }
+
+    private record Result(String label, long nanos) {
+
+        @Override
+        public String toString() {
+            int total = CONTRIBUTORS * CONTRIBUTIONS_EACH;
+            return String.format("%-19s %8.1f ms  %7.0f contributions/s",
+                    label, nanos / 1e6, total / (nanos / 1e9));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.resqnet.service;
+
+import com.resqnet.dto.NotificationDTO;
+import com.resqnet.event.ContributionChangedEvent;
+import com.resqnet.producer.NotificationProducer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContributionNotifierTest {
+
+    @Mock private RequestCapacityService capacityService;
+    @Mock private NotificationProducer notificationProducer;
+    @Captor private ArgumentCaptor<List<NotificationDTO>> sent;
+
+    @InjectMocks private ContributionNotifier notifier;
+
+    @Test
+    void added_notifiesReporterResponderAndAdminsWithCommittedPending() {
+        when(capacityService.remaining(1L)).thenReturn(0);
+
+        notifier.onContributionChanged(ContributionChangedEvent.added(1L, "water", 30, 28.0, 77.0,
+                "reporter@example.com", "responder@example.com"));
+
+        verify(notificationProducer).sendNotifications(sent.capture());
+        List<NotificationDTO> notifications = sent.getValue();
+        assertEquals(List.of("CONTRIBUTION_FULFILLED", "CONTRIBUTION_CONFIRMATION", "ADMIN_LOG"),
+                notifications.stream().map(NotificationDTO::getType).toList());
+        assertEquals("reporter@example.com", notifications.get(0).getRecipientEmail());
+        assertEquals("responder@example.com", notifications.get(1).getRecipientEmail());
+        assertTrue(notifications.get(2).isAdminBroadcast());
+    }
+
+    @Test
+    void removed_reportsPendingAfterRelease() {
+        when(capacityService.remaining(1L)).thenReturn(40);
+
+        notifier.onContributionChanged(ContributionChangedEvent.removed(1L, "water", 30, 28.0, 77.0,
+                "reporter@example.com", "responder@example.com"));
+
+        verify(notificationProducer).sendNotifications(sent.capture());
+        assertTrue(sent.getValue().get(0).getMessage().endsWith("Pending: 40"));
+        assertEquals("CONTRIBUTION_DELETE_CONFIRMATION", sent.getValue().get(1).getType());
+    }
+}
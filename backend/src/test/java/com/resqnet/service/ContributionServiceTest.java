@@ -1,24 +1,34 @@
 package com.resqnet.service;
 
 import com.resqnet.dto.ContributionDTO;
+import com.resqnet.event.ContributionChangedEvent;
 import com.resqnet.model.Contribution;
+import com.resqnet.model.Disaster;
 import com.resqnet.model.ResourceRequest;
 import com.resqnet.model.User;
-import com.resqnet.producer.NotificationProducer;
 import com.resqnet.repository.ContributionRepository;
 import com.resqnet.repository.ResourceRequestRepository;
 import com.resqnet.repository.UserRepository;
+import com.resqnet.repository.projection.RequestSnapshot;
+import com.resqnet.security.AuthenticatedUser;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,7 +37,9 @@ class ContributionServiceTest {
     @Mock private ContributionRepository contributionRepository;
     @Mock private ResourceRequestRepository requestRepository;
     @Mock private UserRepository userRepository;
-    @Mock private NotificationProducer notificationProducer;
+    @Mock private RequestCapacityService capacityService;
+    @Mock private DisasterStatsService statsService;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks private ContributionService service;
 
@@ -55,6 +67,9 @@ class ContributionServiceTest {
         request.setRequestedQuantity(100);
         request.setFulfilledQuantity(0);
         request.setReporter(reporter);
+        Disaster disaster = new Disaster();
+        disaster.setId(3L);
+        request.setDisaster(disaster);
     }
 
     private Contribution buildSavedContribution(int quantity) {
@@ -79,79 +94,120 @@ class ContributionServiceTest {
         return dto;
     }
 
+    private static RequestSnapshot snapshot(int requested, int fulfilled) {
+        return new RequestSnapshot(1L, 1L, "water", ResourceRequest.statusFor(fulfilled, requested), requested, fulfilled);
+    }
+
     @Test
-    void createContribution_updatesFulfilledQuantityCorrectly() {
-        when(requestRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(request));
-        when(userRepository.findByEmail("responder@example.com")).thenReturn(Optional.of(responder));
-        when(requestRepository.save(any(ResourceRequest.class))).thenReturn(request);
+    void createContribution_appendsToLedgerWithoutTouchingRequestRow() {
+        when(requestRepository.existsById(1L)).thenReturn(true);
+        when(capacityService.reserve(1L, 30)).thenReturn(true);
+        when(requestRepository.getReferenceById(1L)).thenReturn(request);
+        when(userRepository.getReferenceById(2L)).thenReturn(responder);
         when(contributionRepository.save(any(Contribution.class))).thenReturn(buildSavedContribution(30));
 
-        ContributionDTO result = service.createContribution(buildDTO(30), "responder@example.com");
+        ContributionDTO result = service.createContribution(buildDTO(30), AuthenticatedUser.of(responder));
 
         assertEquals(30, result.getContributedQuantity());
-        assertEquals(30, request.getFulfilledQuantity());
-        verify(requestRepository).save(request);
+        verify(contributionRepository).save(argThat(c -> !c.isRolledUp() && c.getContributedQuantity() == 30));
+        verify(requestRepository, never()).save(any(ResourceRequest.class));
+        verify(requestRepository, never()).applyContributedQuantity(anyLong(), anyInt());
+        verify(eventPublisher).publishEvent(argThat((Object e) -> e instanceof ContributionChangedEvent event
+                && !event.isRemoved() && "reporter@example.com".equals(event.getReporterEmail())));
     }
 
     @Test
-    void createContribution_transitionsStatusFromPendingToPartial() {
-        when(requestRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(request));
-        when(userRepository.findByEmail("responder@example.com")).thenReturn(Optional.of(responder));
-        when(requestRepository.save(any(ResourceRequest.class))).thenReturn(request);
-        when(contributionRepository.save(any(Contribution.class))).thenReturn(buildSavedContribution(30));
+    void createContribution_nonResponder_isRejectedBeforeReserving() {
+        assertThrows(AccessDeniedException.class,
+                () -> service.createContribution(buildDTO(30), AuthenticatedUser.of(reporter)));
+        verify(capacityService, never()).reserve(anyLong(), anyInt());
+    }
+
+    @Test
+    void createContribution_exceedingPendingQuantity_throwsIllegalArgument() {
+        when(requestRepository.existsById(1L)).thenReturn(true);
+        when(capacityService.reserve(1L, 150)).thenReturn(false);
+        when(capacityService.remaining(1L)).thenReturn(30);
 
-        assertEquals(ResourceRequest.Status.PENDING, request.getStatus());
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> service.createContribution(buildDTO(150), AuthenticatedUser.of(responder)));
+        assertTrue(ex.getMessage().contains("Contribution exceeds pending quantity. Pending: 30"));
+        verify(eventPublisher, never()).publishEvent(any(ContributionChangedEvent.class));
+    }
 
-        service.createContribution(buildDTO(30), "responder@example.com");
+    @Test
+    void createContribution_unknownRequest_throwsNotFound() {
+        when(requestRepository.existsById(1L)).thenReturn(false);
 
-        assertEquals(ResourceRequest.Status.PARTIAL, request.getStatus());
+        assertThrows(EntityNotFoundException.class,
+                () -> service.createContribution(buildDTO(30), AuthenticatedUser.of(responder)));
+        verify(capacityService, never()).reserve(anyLong(), anyInt());
     }
 
     @Test
-    void createContribution_transitionsStatusFromPartialToFulfilledWhenFullyMet() {
-        request.setFulfilledQuantity(70);
-        assertEquals(ResourceRequest.Status.PARTIAL, request.getStatus());
+    void rollUp_foldsPendingLedgerRowsIntoRequest() {
+        Contribution first = buildSavedContribution(30);
+        Contribution second = buildSavedContribution(20);
+        second.setId(2L);
+        when(contributionRepository.lockUnrolledByRequestId(1L)).thenReturn(List.of(first, second));
+        when(requestRepository.applyContributedQuantity(1L, 50)).thenReturn(1);
+        when(requestRepository.findSnapshotById(1L)).thenReturn(Optional.of(snapshot(100, 70)));
+
+        assertEquals(50, service.rollUp(1L));
+
+        verify(contributionRepository).markRolledUp(List.of(1L, 2L));
+        verify(requestRepository).applyContributedQuantity(1L, 50);
+        verify(statsService).changed(
+                argThat(before -> before.getFulfilledQuantity() == 20 && before.getStatus() == ResourceRequest.Status.PARTIAL),
+                argThat(after -> after.getFulfilledQuantity() == 70));
+    }
 
-        when(requestRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(request));
-        when(userRepository.findByEmail("responder@example.com")).thenReturn(Optional.of(responder));
-        when(requestRepository.save(any(ResourceRequest.class))).thenReturn(request);
-        when(contributionRepository.save(any(Contribution.class))).thenReturn(buildSavedContribution(30));
+    @Test
+    void rollUp_withNothingPending_leavesRequestAlone() {
+        when(contributionRepository.lockUnrolledByRequestId(1L)).thenReturn(List.of());
 
-        service.createContribution(buildDTO(30), "responder@example.com");
+        assertEquals(0, service.rollUp(1L));
 
-        assertEquals(ResourceRequest.Status.FULFILLED, request.getStatus());
-        assertEquals(100, request.getFulfilledQuantity());
+        verify(requestRepository, never()).applyContributedQuantity(anyLong(), anyInt());
     }
 
     @Test
-    void deleteContribution_decreasesFulfilledQuantityAndTransitionsStatusBack() {
-        request.setFulfilledQuantity(30);
-        assertEquals(ResourceRequest.Status.PARTIAL, request.getStatus());
+    void deleteContribution_rolledUp_releasesRequestAndCapacity() {
+        Contribution contribution = buildSavedContribution(30);
+        when(contributionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(contribution));
+        when(contributionRepository.isRolledUp(1L)).thenReturn(true);
+        when(requestRepository.releaseQuantity(1L, 30)).thenReturn(1);
+        when(requestRepository.findSnapshotById(1L)).thenReturn(Optional.of(snapshot(100, 0)));
+
+        service.deleteContribution(1L);
 
-        Contribution contribution = new Contribution();
-        contribution.setId(1L);
-        contribution.setContributedQuantity(30);
-        contribution.setRequest(request);
-        contribution.setResponder(responder);
-        contribution.setCategory("water");
+        verify(requestRepository).releaseQuantity(1L, 30);
+        verify(statsService).changed(
+                argThat(before -> before.getFulfilledQuantity() == 30),
+                argThat(after -> after.getStatus() == ResourceRequest.Status.PENDING));
+        verify(capacityService).release(1L, 30);
+        verify(contributionRepository).delete(contribution);
+    }
 
-        when(contributionRepository.findById(1L)).thenReturn(Optional.of(contribution));
+    @Test
+    void deleteContribution_notRolledUp_onlyReturnsCapacity() {
+        Contribution contribution = buildSavedContribution(30);
+        when(contributionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(contribution));
+        when(contributionRepository.isRolledUp(1L)).thenReturn(false);
 
         service.deleteContribution(1L);
 
-        assertEquals(0, request.getFulfilledQuantity());
-        assertEquals(ResourceRequest.Status.PENDING, request.getStatus());
-        verify(requestRepository).save(request);
+        verify(requestRepository, never()).releaseQuantity(anyLong(), anyInt());
+        verify(capacityService).release(1L, 30);
         verify(contributionRepository).delete(contribution);
     }
 
     @Test
-    void createContribution_exceedingPendingQuantity_throwsIllegalArgument() {
-        when(requestRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(request));
-        when(userRepository.findByEmail("responder@example.com")).thenReturn(Optional.of(responder));
+    void getAllContributionsForUser_reporterIsScopedInTheQuery() {
+        ContributionDTO row = buildDTO(30);
+        when(contributionRepository.findDtosByRequestReporterId(1L)).thenReturn(List.of(row));
 
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
-                () -> service.createContribution(buildDTO(150), "responder@example.com"));
-        assertTrue(ex.getMessage().contains("Contribution exceeds pending quantity"));
+        assertEquals(List.of(row), service.getAllContributionsForUser(AuthenticatedUser.of(reporter)));
+        verify(contributionRepository, never()).findAll();
     }
 }
@@ -0,0 +1,111 @@
+package com.resqnet.service;
+
+import com.resqnet.dto.DisasterDTO;
+import com.resqnet.model.Disaster;
+import com.resqnet.model.ResourceRequest;
+import com.resqnet.model.User;
+import com.resqnet.producer.NotificationProducer;
+import com.resqnet.repository.projection.RequestSnapshot;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({DisasterService.class, DisasterStatsService.class})
+class DisasterServiceQueryCountTest {
+
+    @Autowired private DisasterService disasterService;
+    @Autowired private DisasterStatsService statsService;
+    @Autowired private TestEntityManager em;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @MockitoBean private NotificationProducer notificationProducer;
+
+    private Statistics statistics;
+    private User reporter;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        reporter = new User();
+        reporter.setName("Jane");
+        reporter.setEmail("jane@example.com");
+        reporter.setPassword("hashed");
+        reporter.setRole(User.Role.REPORTER);
+        em.persist(reporter);
+    }
+
+    @Test
+    void getAllDisasters_runsConstantNumberOfStatements() {
+        persistDisasters(2);
+        long small = countStatements();
+
+        persistDisasters(20);
+        long large = countStatements();
+
+        assertEquals(2, small);
+        assertEquals(small, large);
+    }
+
+    @Test
+    void getAllDisasters_computesStatusFromAggregate() {
+        Disaster disaster = persistDisaster("Flood");
+        persistRequest(disaster, "food", 10, 10);
+        persistRequest(disaster, "water", 5, 2);
+        persistRequest(disaster, "shelter", 3, 0);
+        em.flush();
+        em.clear();
+
+        DisasterDTO dto = disasterService.getAllDisasters().get(0);
+
+        assertEquals("partial", dto.getStatus());
+        assertEquals(List.of("food", "water"), dto.getContributions());
+        assertEquals("Jane", dto.getReporterName());
+    }
+
+    private long countStatements() {
+        em.flush();
+        em.clear();
+        statistics.clear();
+        disasterService.getAllDisasters();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void persistDisasters(int count) {
+        for (int i = 0; i < count; i++) {
+            Disaster disaster = persistDisaster("Flood " + i);
+            persistRequest(disaster, "food", 10, 10);
+            persistRequest(disaster, "water", 10, 3);
+        }
+    }
+
+    private Disaster persistDisaster(String type) {
+        Disaster disaster = new Disaster();
+        disaster.setType(type);
+        disaster.setSeverity("HIGH");
+        disaster.setDescription("test");
+        disaster.setReporter(reporter);
+        return em.persist(disaster);
+    }
+
+    private void persistRequest(Disaster disaster, String category, int requested, int fulfilled) {
+        ResourceRequest request = new ResourceRequest();
+        request.setDisaster(disaster);
+        request.setReporter(reporter);
+        request.setCategory(category);
+        request.setRequestedQuantity(requested);
+        request.setFulfilledQuantity(fulfilled);
+        statsService.added(List.of(RequestSnapshot.of(em.persist(request))));
+    }
+}
@@ -4,8 +4,13 @@ import com.resqnet.dto.DisasterDTO;
 import com.resqnet.model.Disaster;
 import com.resqnet.model.User;
 import com.resqnet.producer.NotificationProducer;
+import com.resqnet.repository.DisasterCategoryStatsRepository;
 import com.resqnet.repository.DisasterRepository;
+import com.resqnet.repository.DisasterStatsRepository;
+import com.resqnet.repository.ResourceRequestRepository;
 import com.resqnet.repository.UserRepository;
+import com.resqnet.repository.projection.DisasterRequestSummary;
+import com.resqnet.security.AuthenticatedUser;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Collections;
 import java.util.List;
@@ -26,8 +32,13 @@ import static org.mockito.Mockito.*;
 class DisasterServiceTest {
 
     @Mock private DisasterRepository disasterRepository;
+    @Mock private ResourceRequestRepository requestRepository;
+    @Mock private DisasterStatsRepository statsRepository;
+    @Mock private DisasterCategoryStatsRepository categoryStatsRepository;
+    @Mock private DisasterStatsService statsService;
     @Mock private UserRepository userRepository;
     @Mock private NotificationProducer notificationProducer;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks private DisasterService disasterService;
 
@@ -63,17 +74,19 @@ class DisasterServiceTest {
         dto.setLatitude(28.6139);
         dto.setLongitude(77.2090);
 
-        when(userRepository.findByEmail("jane@example.com")).thenReturn(Optional.of(reporter));
         when(disasterRepository.save(any(Disaster.class))).thenReturn(sampleDisaster);
-        when(userRepository.findAll()).thenReturn(List.of(reporter));
+        when(userRepository.findByRole(User.Role.RESPONDER)).thenReturn(List.of());
 
-        DisasterDTO result = disasterService.createDisaster(dto, "jane@example.com");
+        DisasterDTO result = disasterService.createDisaster(dto, AuthenticatedUser.of(reporter));
 
         assertNotNull(result);
         assertEquals("Flood", result.getType());
         assertEquals("HIGH", result.getSeverity());
         assertEquals("jane@example.com", result.getReporterEmail());
         verify(disasterRepository).save(any(Disaster.class));
+        verify(statsService).opened(List.of(1L));
+        verify(userRepository).setLocationIfMissing(reporter.getId(), 28.6139, 77.2090);
+        verify(userRepository, never()).findByEmail(any());
         verify(notificationProducer, atLeast(2)).sendNotification(any());
     }
 
@@ -91,19 +104,21 @@ class DisasterServiceTest {
         dto.setLatitude(19.0760);
         dto.setLongitude(72.8777);
 
-        when(userRepository.findByEmail("jane@example.com")).thenReturn(Optional.of(reporter));
         when(disasterRepository.save(any(Disaster.class))).thenReturn(sampleDisaster);
-        when(userRepository.findAll()).thenReturn(List.of(reporter, responder));
+        when(userRepository.findByRole(User.Role.RESPONDER)).thenReturn(List.of(responder));
 
-        disasterService.createDisaster(dto, "jane@example.com");
+        disasterService.createDisaster(dto, AuthenticatedUser.of(reporter));
 
-        // reporter confirmation + admin broadcast + 1 responder alert = 3
-        verify(notificationProducer, times(3)).sendNotification(any());
+        // reporter confirmation + admin broadcast, then the responder alerts as one batch
+        verify(notificationProducer, times(2)).sendNotification(any());
+        verify(notificationProducer).sendNotifications(argThat(batch ->
+                batch.size() == 1 && "responder@example.com".equals(batch.get(0).getRecipientEmail())));
+        verify(userRepository, never()).findAll();
     }
 
     @Test
     void getAllDisasters_returnsMappedList() {
-        when(disasterRepository.findAll()).thenReturn(List.of(sampleDisaster));
+        when(disasterRepository.findAllDtos()).thenReturn(List.of(listRow(sampleDisaster)));
 
         List<DisasterDTO> result = disasterService.getAllDisasters();
 
@@ -112,6 +127,26 @@ class DisasterServiceTest {
         assertEquals("reported", result.get(0).getStatus());
     }
 
+    @Test
+    void getAllDisasters_derivesStatusAndCategoriesFromSummaries() {
+        Disaster other = new Disaster();
+        other.setId(2L);
+        other.setType("Fire");
+        when(disasterRepository.findAllDtos()).thenReturn(List.of(listRow(sampleDisaster), listRow(other)));
+        when(categoryStatsRepository.summarizeAll()).thenReturn(List.of(
+                summary(1L, "food", 2, 1, 2),
+                summary(1L, "water", 1, 0, 0),
+                summary(2L, "medical", 1, 1, 1)));
+
+        List<DisasterDTO> result = disasterService.getAllDisasters();
+
+        assertEquals("partial", result.get(0).getStatus());
+        assertEquals(List.of("food", "food"), result.get(0).getContributions());
+        assertEquals("fulfilled", result.get(1).getStatus());
+        assertEquals(List.of("medical"), result.get(1).getContributions());
+        verify(disasterRepository, never()).findAll();
+    }
+
     @Test
     void getDisasterById_whenNotFound_throwsEntityNotFound() {
         when(disasterRepository.findById(99L)).thenReturn(Optional.empty());
@@ -126,7 +161,25 @@ class DisasterServiceTest {
 
         disasterService.deleteDisaster(1L);
 
-        verify(disasterRepository).deleteById(1L);
+        verify(requestRepository).deleteByDisasterId(1L);
+        verify(disasterRepository).deleteRowById(1L);
+        verify(disasterRepository, never()).deleteById(anyLong());
         verify(notificationProducer, atLeast(2)).sendNotification(any());
     }
+
+    private static DisasterDTO listRow(Disaster d) {
+        return new DisasterDTO(d.getId(), d.getType(), d.getSeverity(), d.getDescription(),
+                d.getLatitude(), d.getLongitude(), null, null, null, null);
+    }
+
+    private static DisasterRequestSummary summary(Long disasterId, String category,
+                                                  long requests, long fulfilled, long contributed) {
+        return new DisasterRequestSummary() {
+            @Override public Long getDisasterId() { return disasterId; }
+            @Override public String getCategory() { return category; }
+            @Override public long getRequestCount() { return requests; }
+            @Override public long getFulfilledCount() { return fulfilled; }
+            @Override public long getContributedCount() { return contributed; }
+        };
+    }
 }
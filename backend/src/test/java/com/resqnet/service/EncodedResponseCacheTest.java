@@ -0,0 +1,84 @@
+package com.resqnet.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.resqnet.event.CollectionChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class EncodedResponseCacheTest {
+
+    private static final String DISASTERS = CollectionChangedEvent.DISASTERS;
+
+    @Mock private ObjectProvider<CacheManager> cacheManagerProvider;
+    @Mock private TaskScheduler taskScheduler;
+
+    private CollectionVersions versions;
+    private EncodedResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        versions = new CollectionVersions(cacheManagerProvider, taskScheduler, Duration.ofSeconds(30));
+        cache = new EncodedResponseCache(versions, new ObjectMapper(), true, 64);
+    }
+
+    @Test
+    void get_reusesBodyUntilVersionChanges() {
+        AtomicInteger loads = new AtomicInteger();
+
+        EncodedResponseCache.EncodedBody first = cache.get(DISASTERS, () -> List.of("v" + loads.incrementAndGet()));
+        EncodedResponseCache.EncodedBody second = cache.get(DISASTERS, () -> List.of("v" + loads.incrementAndGet()));
+
+        assertSame(first, second);
+        assertEquals("[\"v1\"]", new String(first.json(), StandardCharsets.UTF_8));
+        assertEquals(versions.etag(DISASTERS), first.etag());
+
+        versions.onCollectionChanged(new CollectionChangedEvent(DISASTERS));
+        EncodedResponseCache.EncodedBody third = cache.get(DISASTERS, () -> List.of("v" + loads.incrementAndGet()));
+
+        assertEquals("[\"v2\"]", new String(third.json(), StandardCharsets.UTF_8));
+        assertEquals(versions.etag(DISASTERS), third.etag());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_rebuildsAfterAnotherNodesWrite() {
+        EncodedResponseCache.EncodedBody before = cache.get(DISASTERS, () -> List.of("old"));
+
+        versions.onRemoteChange(List.of(DISASTERS));
+        EncodedResponseCache.EncodedBody after = cache.get(DISASTERS, () -> List.of("new"));
+
+        assertEquals("[\"new\"]", new String(after.json(), StandardCharsets.UTF_8));
+        assertNotEquals(before.etag(), after.etag());
+    }
+
+    @Test
+    void get_gzipsOnlyBodiesAboveThreshold() throws IOException {
+        assertFalse(cache.get(DISASTERS, List::of).hasGzip());
+
+        List<String> large = Collections.nCopies(50, "flood");
+        EncodedResponseCache.EncodedBody body = cache.get(CollectionChangedEvent.REQUESTS, () -> large);
+
+        assertTrue(body.hasGzip());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.gzip()))) {
+            assertArrayEquals(body.json(), in.readAllBytes());
+        }
+    }
+}
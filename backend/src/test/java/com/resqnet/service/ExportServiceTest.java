@@ -0,0 +1,129 @@
+package com.resqnet.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.resqnet.model.Contribution;
+import com.resqnet.model.Disaster;
+import com.resqnet.model.Notification;
+import com.resqnet.model.ResourceRequest;
+import com.resqnet.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(ExportService.class)
+class ExportServiceTest {
+
+    @Autowired private ExportService exportService;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private TestEntityManager em;
+
+    private ResourceRequest request;
+
+    @BeforeEach
+    void setUp() {
+        User reporter = persistUser("reporter@example.com", User.Role.REPORTER);
+        User responder = persistUser("responder@example.com", User.Role.RESPONDER);
+
+        Disaster disaster = new Disaster();
+        disaster.setType("Flood");
+        disaster.setSeverity("HIGH");
+        disaster.setDescription("test");
+        disaster.setReporter(reporter);
+        em.persist(disaster);
+
+        request = new ResourceRequest();
+        request.setDisaster(disaster);
+        request.setReporter(reporter);
+        request.setCategory("water, bottled");
+        request.setRequestedQuantity(10);
+        em.persist(request);
+
+        for (int quantity = 1; quantity <= 3; quantity++) {
+            Contribution contribution = new Contribution();
+            contribution.setRequest(request);
+            contribution.setResponder(responder);
+            contribution.setCategory("water");
+            contribution.setContributedQuantity(quantity);
+            contribution.setLatitude(28.0);
+            contribution.setLongitude(77.0);
+            em.persist(contribution);
+        }
+
+        em.persist(new Notification("Line one\nline two", "SYSTEM", reporter, true));
+        em.persist(new Notification("For admins", "ADMIN_LOG", false));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void exportRequests_csv_writesHeaderAndQuotesValues() throws Exception {
+        List<String> lines = export(out -> exportService.exportRequests(ExportService.Format.CSV, out)).lines().toList();
+
+        assertEquals("id,disasterId,category,requestedQuantity,fulfilledQuantity,status,reporterEmail,createdAt",
+                lines.get(0));
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).startsWith(request.getId() + "," + request.getDisaster().getId()
+                + ",\"water, bottled\",10,0,PENDING,reporter@example.com,"));
+    }
+
+    @Test
+    void exportContributions_ndjson_writesOneObjectPerLineInIdOrder() throws Exception {
+        String body = export(out -> exportService.exportContributions(ExportService.Format.NDJSON, out));
+
+        assertTrue(body.endsWith("\n"));
+        List<JsonNode> rows = body.lines().map(this::parse).toList();
+        assertEquals(List.of(1, 2, 3), rows.stream().map(row -> row.get("contributedQuantity").asInt()).toList());
+        assertEquals("responder@example.com", rows.get(0).get("responderEmail").asText());
+        assertTrue(rows.get(0).get("id").asLong() < rows.get(2).get("id").asLong());
+    }
+
+    @Test
+    void exportNotifications_csv_keepsMultiLineMessagesInOneRecord() throws Exception {
+        String body = export(out -> exportService.exportNotifications(ExportService.Format.CSV, out));
+
+        assertTrue(body.contains("\"Line one\nline two\""));
+        assertTrue(body.contains(",ADMIN_LOG,ADMIN-BROADCAST,true,false,false,\"For admins\","));
+    }
+
+    private String export(Export export) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.write(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private JsonNode parse(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new AssertionError("Not a JSON line: " + line, e);
+        }
+    }
+
+    private User persistUser(String email, User.Role role) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setPassword("hashed");
+        user.setRole(role);
+        return em.persist(user);
+    }
+
+    @FunctionalInterface
+    private interface Export {
+        void write(ByteArrayOutputStream out) throws Exception;
+    }
+}
@@ -0,0 +1,122 @@
+package com.resqnet.service;
+
+import com.resqnet.dto.NotificationDTO;
+import com.resqnet.model.User;
+import com.resqnet.repository.NotificationRepository;
+import com.resqnet.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Responder fan-out insert throughput, one transaction and insert per
+ * notification (the old path) against one batched transaction.
+ * Opt-in: {@code mvn test -Pbenchmark}. Absolute numbers are H2 in-memory;
+ * the gap widens on PostgreSQL where every statement is a network round trip.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import(NotificationService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // every service call commits on its own
+class NotificationInsertBenchmarkTest {
+
+    private static final int RECIPIENTS = 2_000;
+    private static final int ROUNDS = 3;
+
+    @Autowired private NotificationService notificationService;
+    @Autowired private NotificationRepository notificationRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private List<NotificationDTO> fanOut;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<User> responders = new ArrayList<>();
+        for (int i = 0; i < RECIPIENTS; i++) {
+            User responder = new User();
+            responder.setName("Responder " + i);
+            responder.setEmail("responder" + i + "@example.com");
+            responder.setPassword("hashed");
+            responder.setRole(User.Role.RESPONDER);
+            responders.add(responder);
+        }
+        userRepository.saveAll(responders);
+
+        fanOut = responders.stream().map(responder -> {
+            NotificationDTO dto = new NotificationDTO();
+            dto.setRecipientEmail(responder.getEmail());
+            dto.setMessage("New request for water (100 units).");
+            dto.setType("REQUEST_ALERT");
+            dto.setDeletable(true);
+            return dto;
+        }).toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void batchedFanOut_beatsPerNotificationInserts() {
+        Result perRow = measure("per notification", dtos -> dtos.forEach(notificationService::saveNotification));
+        Result batched = measure("batched", notificationService::saveNotifications);
+
+        System.out.printf("%nNotification fan-out, %d recipients (best of %d)%n", RECIPIENTS, ROUNDS);
+        System.out.println(perRow);
+        System.out.println(batched);
+        System.out.printf("speed-up: %.1fx%n%n", perRow.nanos / (double) batched.nanos);
+
+        assertEquals((long) RECIPIENTS * ROUNDS * 2, notificationRepository.count());
+        assertTrue(batched.statements * 10 < perRow.statements,
+                "batched path should issue an order of magnitude fewer statements");
+        assertTrue(batched.nanos < perRow.nanos, "batched path should be faster");
+    }
+
+    private Result measure(String label, Consumer<List<NotificationDTO>> insert) {
+        long best = Long.MAX_VALUE;
+        long statements = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            statistics.clear();
+            long start = System.nanoTime();
+            insert.accept(fanOut);
+            best = Math.min(best, System.nanoTime() - start);
+            statements = statistics.getPrepareStatementCount();
+        }
+        return new Result(label, best, statements);
+    }
+
+    private record Result(String label, long nanos, long statements) {
+
+        @Override
+        public String toString() {
+            return String.format("%-17s %8.1f ms  %9.0f rows/s  %6d statements",
+                    label, nanos / 1e6, RECIPIENTS / (nanos / 1e9), statements);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.resqnet.model.User;
 import com.resqnet.repository.AdminNotificationReadRepository;
 import com.resqnet.repository.NotificationRepository;
 import com.resqnet.repository.UserRepository;
+import com.resqnet.security.AuthenticatedUser;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -75,6 +76,28 @@ class NotificationServiceTest {
         verify(notificationRepository).save(any(Notification.class));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveNotifications_resolvesRecipientsOnceAndSkipsUnknown() {
+        NotificationDTO known = new NotificationDTO();
+        known.setRecipientEmail("user@example.com");
+        known.setMessage("Alert");
+        NotificationDTO unknown = new NotificationDTO();
+        unknown.setRecipientEmail("gone@example.com");
+        unknown.setMessage("Alert");
+
+        when(userRepository.findByEmailIn(any())).thenReturn(List.of(user));
+        when(notificationRepository.saveAll(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<NotificationDTO> saved = service.saveNotifications(List.of(known, unknown));
+
+        assertEquals(1, saved.size());
+        assertEquals("user@example.com", saved.get(0).getRecipientEmail());
+        assertEquals("SYSTEM", saved.get(0).getType());
+        verify(userRepository, never()).findByEmail(any());
+        verify(notificationRepository).saveAll(argThat(batch -> ((List<Notification>) batch).size() == 1));
+    }
+
     @Test
     void saveNotification_adminBroadcast_persistsWithoutRecipient() {
         Notification broadcastNotif = new Notification("Admin alert", "ADMIN_LOG", false);
@@ -99,23 +122,40 @@ class NotificationServiceTest {
 
     @Test
     void getNotifications_returnsUserNotifications() {
-        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
-        when(notificationRepository.findByRecipientOrderByCreatedAtDesc(user))
-                .thenReturn(List.of(sampleNotification));
+        when(notificationRepository.findDtosByRecipientId(1L))
+                .thenReturn(List.of(dto(1L, "Test message", false, LocalDateTime.now())));
 
-        List<NotificationDTO> result = service.getNotifications("user@example.com");
+        List<NotificationDTO> result = service.getNotifications(AuthenticatedUser.of(user));
 
         assertFalse(result.isEmpty());
         assertEquals("Test message", result.get(0).getMessage());
+        verify(notificationRepository, never()).findAdminBroadcastDtos();
+    }
+
+    @Test
+    void getNotifications_forAdmin_mergesBroadcastsWithPerAdminReadState() {
+        LocalDateTime now = LocalDateTime.now();
+        NotificationDTO own = dto(1L, "Own", false, now.minusMinutes(5));
+        NotificationDTO readBroadcast = dto(2L, "Read broadcast", true, now.minusMinutes(1));
+        NotificationDTO unreadBroadcast = dto(3L, "Unread broadcast", true, now);
+
+        when(notificationRepository.findDtosByRecipientId(2L)).thenReturn(List.of(own));
+        when(notificationRepository.findAdminBroadcastDtos()).thenReturn(List.of(unreadBroadcast, readBroadcast));
+        when(adminNotificationReadRepository.findReadNotificationIdsByAdminId(2L)).thenReturn(List.of(2L));
+
+        List<NotificationDTO> result = service.getNotifications(AuthenticatedUser.of(adminUser));
+
+        assertEquals(List.of(3L, 2L, 1L), result.stream().map(NotificationDTO::getId).toList());
+        assertFalse(result.get(0).isRead());
+        assertTrue(result.get(1).isRead());
     }
 
     @Test
     void getUnreadNotifications_returnsOnlyUnread() {
-        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
-        when(notificationRepository.findByRecipientAndReadFalseOrderByCreatedAtDesc(user))
-                .thenReturn(List.of(sampleNotification));
+        when(notificationRepository.findUnreadDtosByRecipientId(1L))
+                .thenReturn(List.of(dto(1L, "Test message", false, LocalDateTime.now())));
 
-        List<NotificationDTO> result = service.getUnreadNotifications("user@example.com");
+        List<NotificationDTO> result = service.getUnreadNotifications(AuthenticatedUser.of(user));
 
         assertEquals(1, result.size());
         assertFalse(result.get(0).isRead());
@@ -124,9 +164,8 @@ class NotificationServiceTest {
     @Test
     void markAsRead_setsReadFlagAndSaves() {
         when(notificationRepository.findById(1L)).thenReturn(Optional.of(sampleNotification));
-        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
 
-        service.markAsRead(1L, "user@example.com");
+        service.markAsRead(1L, AuthenticatedUser.of(user));
 
         assertTrue(sampleNotification.isRead());
         verify(notificationRepository).save(sampleNotification);
@@ -139,11 +178,11 @@ class NotificationServiceTest {
         adminBroadcast.setCreatedAt(LocalDateTime.now());
 
         when(notificationRepository.findById(2L)).thenReturn(Optional.of(adminBroadcast));
-        when(userRepository.findByEmail("admin@example.com")).thenReturn(Optional.of(adminUser));
+        when(userRepository.getReferenceById(2L)).thenReturn(adminUser);
         when(adminNotificationReadRepository.findByNotificationAndAdmin(adminBroadcast, adminUser))
                 .thenReturn(Optional.empty());
 
-        service.markAsRead(2L, "admin@example.com");
+        service.markAsRead(2L, AuthenticatedUser.of(adminUser));
 
         verify(adminNotificationReadRepository).save(any());
         verify(notificationRepository, never()).save(any());
@@ -153,7 +192,7 @@ class NotificationServiceTest {
     void deleteNotification_whenDeletable_removes() {
         when(notificationRepository.findById(1L)).thenReturn(Optional.of(sampleNotification));
 
-        service.deleteNotification(1L, "user@example.com", false);
+        service.deleteNotification(1L, AuthenticatedUser.of(user), false);
 
         verify(adminNotificationReadRepository).deleteByNotification(sampleNotification);
         verify(notificationRepository).delete(sampleNotification);
@@ -164,6 +203,11 @@ class NotificationServiceTest {
         when(notificationRepository.findById(1L)).thenReturn(Optional.of(sampleNotification));
 
         assertThrows(AccessDeniedException.class,
-                () -> service.deleteNotification(1L, "other@example.com", false));
+                () -> service.deleteNotification(1L, new AuthenticatedUser(3L, "other@example.com", User.Role.REPORTER), false));
+    }
+
+    private static NotificationDTO dto(Long id, String message, boolean adminBroadcast, LocalDateTime createdAt) {
+        return new NotificationDTO(id, message, "SYSTEM", false, true, createdAt,
+                adminBroadcast ? "ADMIN-BROADCAST" : "user@example.com", adminBroadcast);
     }
 }
@@ -8,13 +8,15 @@ import com.resqnet.producer.NotificationProducer;
 import com.resqnet.repository.DisasterRepository;
 import com.resqnet.repository.ResourceRequestRepository;
 import com.resqnet.repository.UserRepository;
-import jakarta.persistence.EntityNotFoundException;
+import com.resqnet.security.AuthenticatedUser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
 
 import java.util.List;
 import java.util.Optional;
@@ -29,7 +31,10 @@ class ResourceRequestServiceTest {
     @Mock private ResourceRequestRepository resourceRequestRepository;
     @Mock private DisasterRepository disasterRepository;
     @Mock private UserRepository userRepository;
+    @Mock private RequestCapacityService capacityService;
+    @Mock private DisasterStatsService statsService;
     @Mock private NotificationProducer notificationProducer;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks private ResourceRequestService service;
 
@@ -65,38 +70,37 @@ class ResourceRequestServiceTest {
         dto.setRequestedQuantity(100);
         dto.setDisasterId(1L);
 
-        when(userRepository.findByEmail("reporter@example.com")).thenReturn(Optional.of(reporter));
         when(disasterRepository.findById(1L)).thenReturn(Optional.of(disaster));
         when(resourceRequestRepository.save(any(ResourceRequest.class))).thenReturn(sampleRequest);
-        when(userRepository.findAll()).thenReturn(List.of(reporter));
+        when(userRepository.findByRole(User.Role.RESPONDER)).thenReturn(List.of());
 
-        ResourceRequestDTO result = service.createRequest(dto, "reporter@example.com");
+        ResourceRequestDTO result = service.createRequest(dto, AuthenticatedUser.of(reporter));
 
         assertNotNull(result);
         assertEquals("water", result.getCategory());
         assertEquals(100, result.getRequestedQuantity());
         assertEquals(0, result.getFulfilledQuantity());
         verify(resourceRequestRepository).save(any(ResourceRequest.class));
+        verify(capacityService).open(1L, 100);
     }
 
     @Test
-    void createRequest_whenReporterNotFound_throwsEntityNotFound() {
+    void createRequest_byNonReporter_throwsAccessDenied() {
         ResourceRequestDTO dto = new ResourceRequestDTO();
         dto.setCategory("food");
         dto.setRequestedQuantity(50);
 
-        when(userRepository.findByEmail("unknown@example.com")).thenReturn(Optional.empty());
-
-        assertThrows(EntityNotFoundException.class,
-                () -> service.createRequest(dto, "unknown@example.com"));
+        assertThrows(AccessDeniedException.class,
+                () -> service.createRequest(dto, new AuthenticatedUser(5L, "responder@example.com", User.Role.RESPONDER)));
+        verify(resourceRequestRepository, never()).save(any(ResourceRequest.class));
     }
 
     @Test
     void getRequestsForReporter_returnsFilteredList() {
-        when(resourceRequestRepository.findByReporter_Email("reporter@example.com"))
-                .thenReturn(List.of(sampleRequest));
+        when(resourceRequestRepository.findDtosByReporterEmail("reporter@example.com"))
+                .thenReturn(List.of(sampleDto()));
 
-        List<ResourceRequestDTO> result = service.getRequestsForReporter("reporter@example.com");
+        List<ResourceRequestDTO> result = service.getRequestsForReporter(AuthenticatedUser.of(reporter));
 
         assertEquals(1, result.size());
         assertEquals("reporter@example.com", result.get(0).getReporterEmail());
@@ -104,7 +108,7 @@ class ResourceRequestServiceTest {
 
     @Test
     void getAllRequests_returnsMappedList() {
-        when(resourceRequestRepository.findAll()).thenReturn(List.of(sampleRequest));
+        when(resourceRequestRepository.findAllDtos()).thenReturn(List.of(sampleDto()));
 
         List<ResourceRequestDTO> result = service.getAllRequests();
 
@@ -114,25 +118,29 @@ class ResourceRequestServiceTest {
 
     @Test
     void deleteRequest_withExistingId_deletesAndNotifies() {
-        when(resourceRequestRepository.findById(1L)).thenReturn(Optional.of(sampleRequest));
+        when(resourceRequestRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(sampleRequest));
 
         service.deleteRequest(1L);
 
+        verify(statsService).removed(argThat(removed -> removed.size() == 1
+                && removed.get(0).getDisasterId().equals(1L) && removed.get(0).getRequestedQuantity() == 100));
         verify(resourceRequestRepository).deleteById(1L);
         verify(notificationProducer, atLeast(2)).sendNotification(any());
     }
 
     @Test
-    void updateRequest_withRequestedQuantityLessThanFulfilled_throwsIllegalArgument() {
-        sampleRequest.setFulfilledQuantity(40);
-        when(resourceRequestRepository.findById(1L)).thenReturn(Optional.of(sampleRequest));
+    void updateRequest_withRequestedQuantityLessThanContributed_throwsIllegalArgument() {
+        when(resourceRequestRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(sampleRequest));
+        when(capacityService.adjust(1L, -70)).thenReturn(false);
+        when(capacityService.remaining(1L)).thenReturn(60);
 
         ResourceRequestDTO dto = new ResourceRequestDTO();
         dto.setId(1L);
         dto.setCategory("water");
         dto.setRequestedQuantity(30);
 
-        assertThrows(IllegalArgumentException.class, () -> service.updateRequest(dto));
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.updateRequest(dto));
+        assertTrue(ex.getMessage().contains("(40)"));
         verify(resourceRequestRepository, never()).save(any(ResourceRequest.class));
     }
 
@@ -140,7 +148,8 @@ class ResourceRequestServiceTest {
     void updateRequest_preservesFulfilledQuantityAndRecalculatesStatus() {
         sampleRequest.setRequestedQuantity(100);
         sampleRequest.setFulfilledQuantity(40); // PARTIAL
-        when(resourceRequestRepository.findById(1L)).thenReturn(Optional.of(sampleRequest));
+        when(resourceRequestRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(sampleRequest));
+        when(capacityService.adjust(1L, 20)).thenReturn(true);
         when(resourceRequestRepository.save(any(ResourceRequest.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -158,4 +167,10 @@ class ResourceRequestServiceTest {
         verify(resourceRequestRepository).save(any(ResourceRequest.class));
         verify(notificationProducer, atLeastOnce()).sendNotification(any());
     }
+
+    private ResourceRequestDTO sampleDto() {
+        return new ResourceRequestDTO(sampleRequest.getId(), sampleRequest.getCategory(),
+                sampleRequest.getRequestedQuantity(), sampleRequest.getFulfilledQuantity(),
+                sampleRequest.getStatus(), 1L, "reporter@example.com", null);
+    }
 }
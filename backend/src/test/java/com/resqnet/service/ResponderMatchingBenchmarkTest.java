@@ -0,0 +1,55 @@
+package com.resqnet.service;
+
+import com.resqnet.geo.ResponderPin;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Candidate lookup latency against 100k responders packed into one region
+ * (roughly 500 x 500 km), so every query lands where responders are densest.
+ * Opt-in: {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ResponderMatchingBenchmarkTest {
+
+    private static final int RESPONDERS = 100_000;
+    private static final int QUERIES = 2_000;
+
+    @Test
+    void match_staysWellUnderTenMillisecondsAtOneHundredThousandResponders() {
+        SpatialIndexService spatialIndex = new SpatialIndexService(mock(), mock(), mock(), 0.1);
+        ResponderMatchingService service = new ResponderMatchingService(
+                spatialIndex, mock(), mock(), 25, Duration.ofDays(30));
+        LocalDateTime now = LocalDateTime.now();
+        Random random = new Random(1);
+        for (long id = 1; id <= RESPONDERS; id++) {
+            LocalDateTime active = random.nextInt(4) == 0 ? null : now.minusHours(random.nextInt(24 * 90));
+            spatialIndex.responders().put(new ResponderPin(id,
+                    40 + random.nextDouble() * 4.5, -100 + random.nextDouble() * 6, active));
+        }
+
+        long[] nanos = new long[QUERIES];
+        for (int warmup = 0; warmup < 2; warmup++) {
+            for (int i = 0; i < QUERIES; i++) {
+                double lat = 40 + random.nextDouble() * 4.5, lon = -100 + random.nextDouble() * 6;
+                long start = System.nanoTime();
+                assertEquals(10, service.match(lat, lon, 10, 50, now).size());
+                nanos[i] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(nanos);
+
+        double median = nanos[QUERIES / 2] / 1e6, p99 = nanos[QUERIES * 99 / 100] / 1e6;
+        System.out.printf("%nResponder matching, %d responders, k=10: median %.3f ms, p99 %.3f ms%n%n",
+                RESPONDERS, median, p99);
+        assertTrue(p99 < 10, "p99 should stay under 10 ms, was " + p99);
+    }
+}
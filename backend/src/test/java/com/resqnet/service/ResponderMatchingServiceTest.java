@@ -0,0 +1,132 @@
+package com.resqnet.service;
+
+import com.resqnet.dto.ResponderCandidateDTO;
+import com.resqnet.dto.UserDTO;
+import com.resqnet.geo.GeoMath;
+import com.resqnet.geo.ResponderPin;
+import com.resqnet.model.User;
+import com.resqnet.repository.ContributionRepository;
+import com.resqnet.repository.DisasterRepository;
+import com.resqnet.repository.ResourceRequestRepository;
+import com.resqnet.repository.UserRepository;
+import com.resqnet.repository.projection.RequestLocation;
+import com.resqnet.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResponderMatchingServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 6, 1, 12, 0);
+
+    @Mock private ResourceRequestRepository requestRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private DisasterRepository disasterRepository;
+    @Mock private ContributionRepository contributionRepository;
+
+    private SpatialIndexService spatialIndex;
+    private ResponderMatchingService service;
+
+    @BeforeEach
+    void setUp() {
+        spatialIndex = new SpatialIndexService(disasterRepository, userRepository, contributionRepository, 0.1);
+        service = new ResponderMatchingService(spatialIndex, requestRepository, userRepository, 25, Duration.ofDays(30));
+    }
+
+    @Test
+    void match_ranksRecentlyActiveResponderAheadOfNearerInactiveOne() {
+        spatialIndex.responders().put(new ResponderPin(1L, 0, 0.05, null));            // ~5.6 km, never active
+        spatialIndex.responders().put(new ResponderPin(2L, 0, 0.10, NOW.minusDays(1))); // ~11 km, active yesterday
+        spatialIndex.responders().put(new ResponderPin(3L, 0, 2.00, NOW));             // ~222 km
+
+        List<ResponderMatchingService.Match> matches = service.match(0, 0, 2, 100, NOW);
+
+        assertEquals(List.of(2L, 1L), matches.stream().map(m -> m.responder().id()).toList());
+        assertEquals(GeoMath.distanceKm(0, 0, 0, 0.05) + 25, matches.get(1).rankKm(), 1e-9);
+    }
+
+    @Test
+    void match_agreesWithBruteForceRanking() {
+        Random random = new Random(7);
+        List<ResponderPin> pins = new ArrayList<>();
+        for (long id = 1; id <= 3000; id++) {
+            LocalDateTime active = random.nextBoolean() ? null : NOW.minusHours(random.nextInt(24 * 60));
+            pins.add(new ResponderPin(id, 10 + random.nextDouble(), 20 + random.nextDouble(), active));
+        }
+        pins.forEach(spatialIndex.responders()::put);
+
+        for (int i = 0; i < 30; i++) {
+            double lat = 10 + random.nextDouble(), lon = 20 + random.nextDouble();
+            List<Long> expected = pins.stream()
+                    .filter(p -> GeoMath.distanceKm(lat, lon, p.latitude(), p.longitude()) <= 80)
+                    .sorted(Comparator.comparingDouble(p -> rankKm(p, lat, lon)))
+                    .limit(10).map(ResponderPin::id).toList();
+
+            assertEquals(expected, service.match(lat, lon, 10, 80, NOW).stream().map(m -> m.responder().id()).toList());
+        }
+    }
+
+    @Test
+    void candidatesForRequest_returnsNamedCandidatesToTheRequestReporter() {
+        spatialIndex.responders().put(new ResponderPin(5L, 0, 0.01, null));
+        when(requestRepository.findLocationById(9L)).thenReturn(Optional.of(location(1L)));
+        when(userRepository.findDtosByIdIn(any())).thenReturn(List.of(
+                new UserDTO(5L, "Responder", "responder@example.com", User.Role.RESPONDER, null, 0.0, 0.01)));
+
+        List<ResponderCandidateDTO> candidates = service.candidatesForRequest(9L,
+                new AuthenticatedUser(1L, "reporter@example.com", User.Role.REPORTER), 5, 50);
+
+        assertEquals(1, candidates.size());
+        assertEquals("responder@example.com", candidates.get(0).getEmail());
+        assertNull(candidates.get(0).getLastActiveAt());
+    }
+
+    @Test
+    void candidatesForRequest_byOtherReporter_throwsAccessDenied() {
+        when(requestRepository.findLocationById(9L)).thenReturn(Optional.of(location(1L)));
+
+        assertThrows(AccessDeniedException.class, () -> service.candidatesForRequest(9L,
+                new AuthenticatedUser(2L, "other@example.com", User.Role.REPORTER), 5, 50));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void candidatesForRequest_rejectsOutOfRangeLimits() {
+        AuthenticatedUser admin = new AuthenticatedUser(1L, "admin@example.com", User.Role.ADMIN);
+
+        assertThrows(IllegalArgumentException.class, () -> service.candidatesForRequest(9L, admin, 0, 50));
+        assertThrows(IllegalArgumentException.class, () -> service.candidatesForRequest(9L, admin, 5, 0));
+        verifyNoInteractions(requestRepository);
+    }
+
+    private static double rankKm(ResponderPin pin, double lat, double lon) {
+        double inactivity = pin.lastActiveAt() == null ? 1
+                : Math.min(1, Duration.between(pin.lastActiveAt(), NOW).toMillis() / (double) Duration.ofDays(30).toMillis());
+        return GeoMath.distanceKm(lat, lon, pin.latitude(), pin.longitude()) + 25 * inactivity;
+    }
+
+    private static RequestLocation location(Long reporterId) {
+        return new RequestLocation() {
+            @Override public Long getRequestId() { return 9L; }
+            @Override public Long getReporterId() { return reporterId; }
+            @Override public double getLatitude() { return 0; }
+            @Override public double getLongitude() { return 0; }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.resqnet.service;
+
+import com.resqnet.event.GeoChangedEvent;
+import com.resqnet.geo.ContributionPin;
+import com.resqnet.geo.DisasterPin;
+import com.resqnet.geo.GeoLayer;
+import com.resqnet.repository.ContributionRepository;
+import com.resqnet.repository.DisasterRepository;
+import com.resqnet.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SpatialIndexServiceTest {
+
+    @Mock private DisasterRepository disasterRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private ContributionRepository contributionRepository;
+
+    private SpatialIndexService spatialIndex;
+
+    @BeforeEach
+    void setUp() {
+        spatialIndex = new SpatialIndexService(disasterRepository, userRepository, contributionRepository, 0.1);
+    }
+
+    @Test
+    void start_loadsEveryLayerBeforeTheWebServerStarts() {
+        when(disasterRepository.findAllPins()).thenReturn(List.of(new DisasterPin(1L, 10, 20, "Flood", "HIGH")));
+        when(contributionRepository.findAllPins()).thenReturn(List.of(contribution(5L, 1L, 1L)));
+
+        spatialIndex.start();
+
+        assertTrue(spatialIndex.isRunning());
+        assertEquals(1, spatialIndex.disasters().size());
+        assertEquals(1, spatialIndex.contributions().size());
+        verify(userRepository).findResponderPins();
+        // Below the phase of Spring Boot's WebServerStartStopLifecycle
+        assertTrue(spatialIndex.getPhase() < SmartLifecycle.DEFAULT_PHASE - 2048);
+    }
+
+    @Test
+    void onGeoChanged_removesContributionsOfDeletedRowsWithoutReloading() {
+        spatialIndex.contributions().put(contribution(1L, 10L, 100L));
+        spatialIndex.contributions().put(contribution(2L, 11L, 100L));
+        spatialIndex.contributions().put(contribution(3L, 12L, 101L));
+        spatialIndex.contributions().put(contribution(4L, 13L, 102L));
+
+        spatialIndex.onGeoChanged(GeoChangedEvent.contributionsRemoved(List.of(4L), Set.of(100L), Set.of(12L)));
+
+        assertEquals(0, spatialIndex.contributions().size());
+        spatialIndex.contributions().put(contribution(5L, 14L, 103L));
+        spatialIndex.onGeoChanged(GeoChangedEvent.contributionsOfDisasterRemoved(100L));
+        assertEquals(1, spatialIndex.contributions().size());
+        verifyNoInteractions(contributionRepository);
+    }
+
+    @Test
+    void refresh_readsAnnouncedRowsBackAndDropsTheGoneOnes() {
+        spatialIndex.disasters().put(new DisasterPin(1L, 10, 20, "Flood", "LOW"));
+        spatialIndex.disasters().put(new DisasterPin(2L, 11, 21, "Fire", "LOW"));
+        when(disasterRepository.findPinsByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(new DisasterPin(1L, 12, 22, "Flood", "HIGH")));
+
+        spatialIndex.refresh(GeoLayer.DISASTERS, List.of(1L, 2L));
+
+        assertEquals(1, spatialIndex.disasters().size());
+        assertEquals("HIGH", spatialIndex.disasters().get(1L).orElseThrow().severity());
+    }
+
+    private static ContributionPin contribution(Long id, Long requestId, Long disasterId) {
+        return new ContributionPin(id, 10, 20, requestId, disasterId, "water", 1);
+    }
+}
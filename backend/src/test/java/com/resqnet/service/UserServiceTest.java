@@ -4,14 +4,22 @@ import com.resqnet.dto.UserCreateRequest;
 import com.resqnet.dto.UserDTO;
 import com.resqnet.model.User;
 import com.resqnet.producer.NotificationProducer;
+import com.resqnet.repository.AdminNotificationReadRepository;
+import com.resqnet.repository.ContributionRepository;
+import com.resqnet.repository.DisasterRepository;
+import com.resqnet.repository.NotificationRepository;
+import com.resqnet.repository.ResourceRequestRepository;
 import com.resqnet.repository.UserRepository;
+import com.resqnet.security.AuthenticatedUserCache;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
@@ -26,8 +34,17 @@ import static org.mockito.Mockito.*;
 class UserServiceTest {
 
     @Mock private UserRepository userRepository;
+    @Mock private ResourceRequestRepository requestRepository;
+    @Mock private DisasterRepository disasterRepository;
+    @Mock private ContributionRepository contributionRepository;
+    @Mock private NotificationRepository notificationRepository;
+    @Mock private AdminNotificationReadRepository adminNotificationReadRepository;
+    @Mock private DisasterStatsService statsService;
+    @Mock private ContributionService contributionService;
+    @Mock private AuthenticatedUserCache userCache;
     @Mock private PasswordEncoder passwordEncoder;
     @Mock private NotificationProducer notificationProducer;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks private UserService userService;
 
@@ -95,7 +112,9 @@ class UserServiceTest {
 
     @Test
     void getAllUsers_returnsMappedDTOList() {
-        when(userRepository.findAll()).thenReturn(List.of(sampleUser));
+        when(userRepository.findAllDtos()).thenReturn(List.of(new UserDTO(
+                sampleUser.getId(), sampleUser.getName(), sampleUser.getEmail(), sampleUser.getRole(),
+                null, null, null)));
 
         List<UserDTO> result = userService.getAllUsers();
 
@@ -115,10 +134,25 @@ class UserServiceTest {
     @Test
     void deleteUser_withExistingId_deletesAndNotifies() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(sampleUser));
+        when(contributionRepository.findRequestIdsWithUnrolledContributionsByResponderId(1L))
+                .thenReturn(List.of(3L, 7L));
+        when(requestRepository.lockOnOtherDisasters(1L)).thenReturn(List.of());
 
         userService.deleteUser(1L);
 
-        verify(userRepository).delete(sampleUser);
+        InOrder order = inOrder(contributionService, statsService, requestRepository, disasterRepository,
+                adminNotificationReadRepository, notificationRepository, userRepository);
+        // Uncounted contributions are counted before the cascade removes them
+        order.verify(contributionService).rollUp(3L);
+        order.verify(contributionService).rollUp(7L);
+        order.verify(statsService).removed(List.of());
+        order.verify(requestRepository).deleteByReporterOrDisasterReporterId(1L);
+        order.verify(disasterRepository).deleteByReporterId(1L);
+        order.verify(adminNotificationReadRepository).deleteByAdminOrRecipientId(1L);
+        order.verify(notificationRepository).deleteByRecipientId(1L);
+        order.verify(userRepository).deleteRowById(1L);
+        verify(userCache).invalidate(1L);
+        verify(userRepository, never()).delete(any(User.class));
         verify(notificationProducer).sendNotification(any());
     }
 }
@@ -0,0 +1,68 @@
+package com.resqnet.service;
+
+import com.resqnet.event.GeoChangedEvent;
+import com.resqnet.geo.DisasterPin;
+import com.resqnet.geo.GeoLayer;
+import com.resqnet.geo.WebMercator;
+import com.resqnet.model.User;
+import com.resqnet.repository.ContributionRepository;
+import com.resqnet.repository.DisasterRepository;
+import com.resqnet.repository.UserRepository;
+import com.resqnet.security.AuthenticatedUser;
+import com.resqnet.service.VectorTileService.EncodedTile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class VectorTileServiceTest {
+
+    private static final AuthenticatedUser REPORTER = new AuthenticatedUser(1L, "reporter@example.com", User.Role.REPORTER);
+    private static final int ZOOM = 10;
+
+    @Mock private DisasterRepository disasterRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private ContributionRepository contributionRepository;
+
+    private SpatialIndexService spatialIndex;
+    private VectorTileService tiles;
+
+    private final int x = WebMercator.tileX(20, ZOOM);
+    private final int y = WebMercator.tileY(10, ZOOM);
+
+    @BeforeEach
+    void setUp() {
+        spatialIndex = new SpatialIndexService(disasterRepository, userRepository, contributionRepository, 0.1);
+        tiles = new VectorTileService(spatialIndex, 100);
+        spatialIndex.disasters().put(new DisasterPin(1L, 10, 20, "Flood", "HIGH"));
+    }
+
+    @Test
+    void get_reusesTheTileUntilAPointInsideItChanges() {
+        EncodedTile first = tiles.get(GeoLayer.DISASTERS, REPORTER, ZOOM, x, y);
+        EncodedTile elsewhere = tiles.get(GeoLayer.DISASTERS, REPORTER, ZOOM, x + 1, y);
+
+        assertTrue(first.bytes().length > 0);
+        assertSame(first, tiles.get(GeoLayer.DISASTERS, REPORTER, ZOOM, x, y));
+        assertEquals(first.etag(), tiles.etag(GeoLayer.DISASTERS, REPORTER, ZOOM, x, y));
+
+        spatialIndex.onGeoChanged(GeoChangedEvent.upserted(GeoLayer.DISASTERS,
+                new DisasterPin(2L, 10.001, 20.001, "Flood", "LOW")));
+
+        EncodedTile updated = tiles.get(GeoLayer.DISASTERS, REPORTER, ZOOM, x, y);
+        assertNotEquals(first.etag(), updated.etag());
+        assertNotEquals(first.bytes().length, updated.bytes().length);
+        assertSame(elsewhere, tiles.get(GeoLayer.DISASTERS, REPORTER, ZOOM, x + 1, y));
+    }
+
+    @Test
+    void get_keepsResponderTilesForAdmins() {
+        assertThrows(AccessDeniedException.class, () -> tiles.get(GeoLayer.RESPONDERS, REPORTER, ZOOM, x, y));
+        assertThrows(AccessDeniedException.class, () -> tiles.etag(GeoLayer.RESPONDERS, REPORTER, ZOOM, x, y));
+    }
+}